@@ -24,9 +24,9 @@ import com.alibaba.graphscope.ds.VertexRange;
 import com.alibaba.graphscope.fragment.IFragment;
 import com.alibaba.graphscope.parallel.MessageInBuffer;
 import com.alibaba.graphscope.parallel.ParallelMessageManager;
-import com.alibaba.graphscope.utils.DoubleArrayWrapper;
 import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
 import com.alibaba.graphscope.utils.IntArrayWrapper;
+import com.alibaba.graphscope.utils.OffHeapDoubleArrayWrapper;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,8 +48,9 @@ public class PageRankContext extends VertexDataContext<IFragment<Long, Long, Lon
     public int superStep;
     public double danglingSum;
 
-    public DoubleArrayWrapper pagerank;
-    public DoubleArrayWrapper nextResult;
+    // per-vertex data is kept off heap, and released in Output
+    public OffHeapDoubleArrayWrapper pagerank;
+    public OffHeapDoubleArrayWrapper nextResult;
     public IntArrayWrapper degree;
     public int thread_num;
     public ExecutorService executor;
@@ -92,8 +93,8 @@ public class PageRankContext extends VertexDataContext<IFragment<Long, Long, Lon
                         + maxIteration
                         + "], thread num "
                         + thread_num);
-        pagerank = new DoubleArrayWrapper((frag.getVerticesNum().intValue()), 0.0);
-        nextResult = new DoubleArrayWrapper((int) frag.getInnerVerticesNum(), 0.0);
+        pagerank = new OffHeapDoubleArrayWrapper(frag.getVerticesNum(), 0.0);
+        nextResult = new OffHeapDoubleArrayWrapper(frag.getInnerVerticesNum(), 0.0);
         degree = new IntArrayWrapper((int) frag.getInnerVerticesNum(), 0);
         executor = Executors.newFixedThreadPool(thread_num());
         chunkSize = 1024;
@@ -120,6 +121,9 @@ public class PageRankContext extends VertexDataContext<IFragment<Long, Long, Lon
             bufferedWriter.close();
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            pagerank.close();
+            nextResult.close();
         }
     }
 
@@ -26,6 +26,8 @@ import org.apache.hadoop.io.WritableComparable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Function;
+
 /**
  * Message cache is a special case of SendDataCache, in which the stored data is a pair (I,D),I is
  * the vertex OID, D is the message for Vertex.
@@ -39,11 +41,12 @@ public interface SendMessageCache<I extends WritableComparable, M extends Writab
                     int fragNum,
                     int fragId,
                     NettyClient client,
-                    ImmutableClassesGiraphConfiguration<I_, ?, M_> conf) {
+                    ImmutableClassesGiraphConfiguration<I_, ?, M_> conf,
+                    Function<GS_VID_T_, I_> gid2Oid) {
         String outMsgCacheType = conf.getOutMessageCacheType();
         logger.info("Creating Out Message cache of type [{}]", outMsgCacheType);
         if (outMsgCacheType.equals("BatchWritable")) {
-            return new BatchWritableMessageCache<>(fragNum, fragId, client, conf);
+            return new BatchWritableMessageCache<>(fragNum, fragId, client, conf, gid2Oid);
         } else if (outMsgCacheType.equals("ByteBuf")) {
             return new ByteBufMessageCache<>(fragNum, fragId, client, conf);
         } else {
@@ -61,4 +64,9 @@ public interface SendMessageCache<I extends WritableComparable, M extends Writab
     void flushMessage();
 
     void clear();
+
+    /**
+     * Release the resources held by the cache, after which the cache should not be used.
+     */
+    void close();
 }
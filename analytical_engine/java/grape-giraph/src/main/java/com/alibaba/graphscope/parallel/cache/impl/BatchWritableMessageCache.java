@@ -16,108 +16,192 @@
 package com.alibaba.graphscope.parallel.cache.impl;
 
 import static org.apache.giraph.conf.GiraphConstants.MESSAGE_AGGREGATE_SIZE;
+import static org.apache.giraph.utils.ByteUtils.SIZE_OF_BYTE;
+import static org.apache.giraph.utils.ByteUtils.SIZE_OF_INT;
 
 import com.alibaba.graphscope.parallel.cache.SendMessageCache;
 import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.netty.NettyClient;
-import com.alibaba.graphscope.parallel.netty.request.impl.BatchWritableRequest;
-import com.alibaba.graphscope.utils.Gid2Data;
-import com.alibaba.graphscope.utils.Gid2DataFixed;
-import com.alibaba.graphscope.utils.Gid2DataResizable;
+import com.alibaba.graphscope.parallel.netty.request.impl.ByteBufRequest;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+
+import org.apache.giraph.combiner.MessageCombiner;
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Objects;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
+/**
+ * Batch messages per destination fragment, and send each batch as a {@link ByteBufRequest}.
+ *
+ * <p>Messages are serialized straight into pooled byteBufs, whose first 5 bytes are reserved for
+ * the request header, so a full buffer is handed over to netty without copy, and a new one is
+ * taken from the allocator. Messages to self are digested from the buffer by the message store,
+ * without boxing gids or keeping message objects.
+ *
+ * <p>If a message combiner is set, messages to the same vertex are combined before being
+ * serialized, and at most {@code giraph.messageAggregateSize} distinct vertices are kept for a
+ * destination. The original id of a vertex is resolved from its gid when messages to the vertex
+ * are combined for the first time.
+ */
 public class BatchWritableMessageCache<I extends WritableComparable, M extends Writable, GS_VID_T>
         implements SendMessageCache<I, M, GS_VID_T> {
 
     private static Logger logger = LoggerFactory.getLogger(BatchWritableMessageCache.class);
+    private static final int HEADER_SIZE = SIZE_OF_INT + SIZE_OF_BYTE;
 
     private final int fragNum;
     private final int fragId;
     private final NettyClient client;
     private final ImmutableClassesGiraphConfiguration<I, ?, ?> conf;
     /**
-     * cacheSize.
+     * Max number of messages, or combined messages, cached for a destination before sending.
      */
-    private int cacheSize;
+    private final int cacheSize;
+
+    private final MessageCombiner<? super I, M> combiner;
+    private final ByteBuf[] buffers;
+    private final ByteBufOutputStream[] streams;
+    private final int[] bufferedCnt;
+    private final CombinedMessages<I, M>[] combined;
 
-    private Gid2Data[] cache;
+    // metrics of current superstep
+    private long messagesSent;
+    private long messagesSerialized;
+    private long bytesSent;
 
+    /**
+     * @param gid2Oid resolve the original id of a vertex from its gid, which is passed to the
+     *     message combiner
+     */
     public BatchWritableMessageCache(
             int fragNum,
             int fragId,
             NettyClient client,
-            ImmutableClassesGiraphConfiguration<I, ?, ?> conf) {
+            ImmutableClassesGiraphConfiguration<I, ?, ?> conf,
+            Function<GS_VID_T, I> gid2Oid) {
         this.fragNum = fragNum;
         this.fragId = fragId;
         this.client = client;
         this.conf = conf;
 
         cacheSize = MESSAGE_AGGREGATE_SIZE.get(conf);
-        logger.info("Using message aggregate size: " + cacheSize);
+        combiner = conf.useOutgoingMessageCombiner() ? conf.createOutgoingMessageCombiner() : null;
+        logger.info(
+                "Using message aggregate size: {}, combiner: {}",
+                cacheSize,
+                combiner == null ? "none" : combiner.getClass().getName());
 
-        cache = new Gid2Data[fragNum];
+        buffers = new ByteBuf[fragNum];
+        streams = new ByteBufOutputStream[fragNum];
+        bufferedCnt = new int[fragNum];
+        combined = new CombinedMessages[fragNum];
         for (int i = 0; i < fragNum; ++i) {
-            if (i == fragId) {
-                // Message to self can be resizable.
-                cache[i] = Gid2Data.newResizable(cacheSize);
-            } else {
-                cache[i] = Gid2Data.newFixed(cacheSize);
+            resetBuffer(i);
+            if (combiner != null) {
+                combined[i] =
+                        new CombinedMessages<>(
+                                cacheSize,
+                                combiner,
+                                this::newMessage,
+                                gid -> gid2Oid.apply((GS_VID_T) Long.valueOf(gid)));
             }
         }
     }
 
+    private void resetBuffer(int dstFragId) {
+        if (buffers[dstFragId] == null) {
+            buffers[dstFragId] = conf.getNettyAllocator().buffer();
+            streams[dstFragId] = new ByteBufOutputStream(buffers[dstFragId]);
+        }
+        buffers[dstFragId].clear();
+        buffers[dstFragId].writeInt(0);
+        buffers[dstFragId].writeByte(0);
+        bufferedCnt[dstFragId] = 0;
+    }
+
     @Override
     public void sendMessage(int dstFragId, GS_VID_T gid, M message) {
-        if (!cache[dstFragId].add((Long) gid, message)) {
-            if (dstFragId == fragId) {
-                throw new IllegalStateException("message to self can not be failed");
+        messagesSent += 1;
+        try {
+            if (combiner != null) {
+                if (combined[dstFragId].add((Long) gid, message)
+                        && dstFragId != fragId
+                        && combined[dstFragId].size() >= cacheSize) {
+                    serializeCombined(dstFragId);
+                    sendBuffer(dstFragId);
+                }
+            } else {
+                streams[dstFragId].writeLong((Long) gid);
+                message.write(streams[dstFragId]);
+                bufferedCnt[dstFragId] += 1;
+                if (dstFragId != fragId && bufferedCnt[dstFragId] >= cacheSize) {
+                    sendBuffer(dstFragId);
+                }
             }
-            // If add cache fail, then cache is already full.
-            BatchWritableRequest request =
-                    new BatchWritableRequest((Gid2DataFixed) cache[dstFragId]);
-            logger.info(
-                    "frag ["
-                            + fragId
-                            + "] msg to ["
-                            + dstFragId
-                            + "] "
-                            + cache[dstFragId].size()
-                            + " full, flush and sending");
-            client.sendMessage(dstFragId, request);
-            //            cache[dstFragId].clear();
-            // If we clear the original gid2dataFixed, it seems to affect the message sent.
-            cache[dstFragId] = Gid2Data.newFixed(cacheSize);
-            // resend
-            cache[dstFragId].add((Long) gid, message);
+        } catch (IOException e) {
+            throw new IllegalStateException("Exception in sending msg", e);
         }
     }
 
+    private M newMessage() {
+        return (M) conf.createOutgoingMessageValue();
+    }
+
+    private void serializeCombined(int dstFragId) throws IOException {
+        CombinedMessages<I, M> messages = combined[dstFragId];
+        for (int i = 0; i < messages.size(); ++i) {
+            streams[dstFragId].writeLong(messages.gidAt(i));
+            messages.messageAt(i).write(streams[dstFragId]);
+        }
+        bufferedCnt[dstFragId] += messages.size();
+        messages.clear();
+    }
+
+    /**
+     * Hand the buffer over to netty, which releases it after writing, and take a new one.
+     */
+    private void sendBuffer(int dstFragId) {
+        ByteBuf buf = buffers[dstFragId];
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "frag [{}] msg to [{}], {} msgs of {} bytes, flush and sending",
+                    fragId,
+                    dstFragId,
+                    bufferedCnt[dstFragId],
+                    buf.readableBytes());
+        }
+        messagesSerialized += bufferedCnt[dstFragId];
+        bytesSent += buf.readableBytes();
+        client.sendMessage(dstFragId, new ByteBufRequest(buf));
+        buffers[dstFragId] = null;
+        resetBuffer(dstFragId);
+    }
+
     @Override
     public void removeMessageToSelf(MessageStore<I, M, GS_VID_T> nextIncomingMessages) {
-        if (Objects.nonNull(cache[fragId])) {
-            Gid2DataResizable messageToSelf = (Gid2DataResizable) cache[fragId];
-            ArrayList<Long> gids = messageToSelf.getGids();
-            ArrayList<Writable> msgs = messageToSelf.getData();
-            logger.info(
-                    "worker: ["
-                            + fragId
-                            + "] messages to self should be "
-                            + gids.size()
-                            + "=="
-                            + msgs.size());
-            //            for (int i = 0; i < messageToSelf.size(); ++i){
-            nextIncomingMessages.addGidMessages(
-                    (Iterator<GS_VID_T>) gids.iterator(), (Iterator<M>) msgs.iterator());
-            //            }
+        try {
+            if (combiner != null) {
+                serializeCombined(fragId);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Exception in serializing msg to self", e);
+        }
+        logger.info("worker: [{}] messages to self: {}", fragId, bufferedCnt[fragId]);
+        messagesSerialized += bufferedCnt[fragId];
+        if (bufferedCnt[fragId] > 0) {
+            nextIncomingMessages.digestByteBuffer(buffers[fragId], true);
         }
     }
 
@@ -132,30 +216,191 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
 
     @Override
     public void clear() {
-        for (int i = 0; i < cache.length; ++i) {
-            cache[i].clear();
+        logger.info(
+                "frag [{}] superstep sent {} msgs, {} after combining, combine ratio {}, {} bytes"
+                        + " to others",
+                fragId,
+                messagesSent,
+                messagesSerialized,
+                String.format("%.3f", getCombineRatio()),
+                bytesSent);
+        for (int i = 0; i < fragNum; ++i) {
+            resetBuffer(i);
+            if (combiner != null) {
+                combined[i].clear();
+            }
         }
+        messagesSent = 0;
+        messagesSerialized = 0;
+        bytesSent = 0;
+    }
+
+    /**
+     * Release the buffers held by the cache, buffers already sent are released by netty.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < fragNum; ++i) {
+            if (buffers[i] != null) {
+                buffers[i].release();
+                buffers[i] = null;
+                streams[i] = null;
+            }
+        }
+    }
+
+    /**
+     * @return bytes sent to other fragments in current superstep.
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return messages after combining divided by messages sent in current superstep, 1.0 if no
+     *     combiner is set.
+     */
+    public double getCombineRatio() {
+        return messagesSent == 0 ? 1.0 : (double) messagesSerialized / messagesSent;
     }
 
     /**
      * After the execution, we need to flush all message still in cache.
      */
     private void sendCurrentMessageInCache() {
-        for (int dstFragId = 0; dstFragId < cache.length; ++dstFragId) {
-            if (dstFragId != fragId && cache[dstFragId].size() > 0) {
-                BatchWritableRequest request =
-                        new BatchWritableRequest((Gid2DataFixed) cache[dstFragId]);
-                logger.info(
-                        "frag ["
-                                + fragId
-                                + "] msg to ["
-                                + dstFragId
-                                + "], size: "
-                                + cache[dstFragId].size()
-                                + " flush and sending");
-                client.sendMessage(dstFragId, request);
+        try {
+            for (int dstFragId = 0; dstFragId < fragNum; ++dstFragId) {
+                if (dstFragId == fragId) {
+                    continue;
+                }
+                if (combiner != null) {
+                    serializeCombined(dstFragId);
+                }
+                if (bufferedCnt[dstFragId] > 0) {
+                    sendBuffer(dstFragId);
+                }
             }
+        } catch (IOException e) {
+            throw new IllegalStateException("Exception in flushing msg", e);
         }
         logger.info("frag [" + fragId + "] finish flushing cache");
     }
+
+    /**
+     * Messages combined by gid, in an open addressing table of primitive gids. Message objects are
+     * recycled after clear.
+     */
+    static class CombinedMessages<I extends WritableComparable, M extends Writable> {
+        private static final int EMPTY = -1;
+
+        private final MessageCombiner<? super I, M> combiner;
+        private final Supplier<M> factory;
+        private final LongFunction<I> gid2Oid;
+        private final ByteBuf scratch;
+        private final ByteBufOutputStream scratchOut;
+        private int[] table;
+        private long[] gids;
+        // resolved on the first combining of a gid
+        private I[] ids;
+        private M[] messages;
+        private int size;
+
+        CombinedMessages(
+                int expectedSize,
+                MessageCombiner<? super I, M> combiner,
+                Supplier<M> factory,
+                LongFunction<I> gid2Oid) {
+            this.combiner = combiner;
+            this.factory = factory;
+            this.gid2Oid = gid2Oid;
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+            this.table = new int[capacity];
+            Arrays.fill(table, EMPTY);
+            this.gids = new long[capacity / 2];
+            this.ids = (I[]) new WritableComparable[capacity / 2];
+            this.messages = (M[]) new Writable[capacity / 2];
+            this.scratch = Unpooled.buffer();
+            this.scratchOut = new ByteBufOutputStream(scratch);
+        }
+
+        /**
+         * Combine the message into the one of gid, the message itself is never kept.
+         *
+         * @return true if it is the first message of gid.
+         */
+        boolean add(long gid, M message) throws IOException {
+            int mask = table.length - 1;
+            int pos = mix(gid) & mask;
+            while (table[pos] != EMPTY) {
+                int index = table[pos];
+                if (gids[index] == gid) {
+                    if (ids[index] == null) {
+                        ids[index] = gid2Oid.apply(gid);
+                    }
+                    combiner.combine(ids[index], messages[index], message);
+                    return false;
+                }
+                pos = (pos + 1) & mask;
+            }
+            if (size == gids.length) {
+                grow();
+                return add(gid, message);
+            }
+            // copy the message, as the caller may reuse it
+            M copy = messages[size] == null ? factory.get() : messages[size];
+            scratch.clear();
+            message.write(scratchOut);
+            copy.readFields(new ByteBufInputStream(scratch));
+            gids[size] = gid;
+            messages[size] = copy;
+            table[pos] = size;
+            size += 1;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return gids.length;
+        }
+
+        long gidAt(int index) {
+            return gids[index];
+        }
+
+        M messageAt(int index) {
+            return messages[index];
+        }
+
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(table, EMPTY);
+                Arrays.fill(ids, 0, size, null);
+                size = 0;
+            }
+        }
+
+        private void grow() {
+            gids = Arrays.copyOf(gids, gids.length * 2);
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            messages = Arrays.copyOf(messages, messages.length * 2);
+            table = new int[table.length * 2];
+            Arrays.fill(table, EMPTY);
+            int mask = table.length - 1;
+            for (int i = 0; i < size; ++i) {
+                int pos = mix(gids[i]) & mask;
+                while (table[pos] != EMPTY) {
+                    pos = (pos + 1) & mask;
+                }
+                table[pos] = i;
+            }
+        }
+
+        private static int mix(long gid) {
+            long h = gid * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
 }
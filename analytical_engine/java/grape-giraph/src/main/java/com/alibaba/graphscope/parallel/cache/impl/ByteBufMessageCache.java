@@ -20,7 +20,6 @@ import static org.apache.giraph.utils.ByteUtils.SIZE_OF_BYTE;
 import static org.apache.giraph.utils.ByteUtils.SIZE_OF_INT;
 
 import com.alibaba.graphscope.parallel.cache.SendMessageCache;
-import com.alibaba.graphscope.parallel.message.DefaultMessageStore;
 import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.netty.NettyClient;
 import com.alibaba.graphscope.parallel.netty.request.impl.ByteBufRequest;
@@ -116,13 +115,8 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
     public void removeMessageToSelf(MessageStore<I, M, GS_VID_T> nextIncomingMessages) {
         // move toSelf msg to messageStore
         if (cache[fragId].readableBytes() > 0) {
-            if (nextIncomingMessages instanceof DefaultMessageStore) {
-                DefaultMessageStore messageStore = (DefaultMessageStore) nextIncomingMessages;
-                // DoubleMessageStore should copy this memory.
-                messageStore.digestByteBuffer(cache[fragId], true);
-            } else {
-                throw new IllegalStateException("Not supported now");
-            }
+            // the message store should copy this memory.
+            nextIncomingMessages.digestByteBuffer(cache[fragId], true);
         }
     }
 
@@ -145,6 +139,13 @@ public class ByteBufMessageCache<I extends WritableComparable, M extends Writabl
         }
     }
 
+    @Override
+    public void close() {
+        for (int i = 0; i < fragNum; ++i) {
+            cache[i].release();
+        }
+    }
+
     private void sendCurrentMessageInCache() {
         for (int dstFragId = 0; dstFragId < cache.length; ++dstFragId) {
             if (logger.isDebugEnabled()) {
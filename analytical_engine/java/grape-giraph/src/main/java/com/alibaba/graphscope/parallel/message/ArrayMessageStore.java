@@ -0,0 +1,449 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.parallel.message;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
+import com.alibaba.graphscope.stdcxx.FFIByteVector;
+import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.giraph.utils.ReflectionUtils;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Message store indexed by the lid of inner vertices, which replaces the hash map of message lists
+ * in {@link DefaultMessageStore}.
+ *
+ * <p>When a combiner is provided, messages are combined on arrival, and each vertex keeps exactly
+ * one message. The message objects are recycled across supersteps, so there is no allocation per
+ * message in steady state. The combiner is called with the original id of the vertex, resolved by
+ * the function set with {@link #setLid2Oid(Function)}.
+ *
+ * <p>Otherwise, messages are serialized into large off-heap chunks, and messages of a vertex are
+ * linked in arrival order. {@link #getMessages(Object)} deserializes them into one reused object,
+ * i.e. the returned message is only valid until the iterator moves on, which is the same as
+ * giraph's byte array message stores. The chunks are released by {@link #close()}.
+ *
+ * <p>Adding messages is thread-safe, as requests from different channels may be digested
+ * concurrently.
+ */
+public class ArrayMessageStore<
+                OID_T extends WritableComparable, MSG_T extends Writable, GS_VID_T>
+        implements MessageStore<OID_T, MSG_T, GS_VID_T> {
+
+    private static Logger logger = LoggerFactory.getLogger(ArrayMessageStore.class);
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+    // next address(8) + message length(4)
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final long NONE = -1L;
+
+    private final IFragment<?, GS_VID_T, ?, ?> fragment;
+    private final ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf;
+    private final MessageCombiner<? super OID_T, MSG_T> combiner;
+    private final Vertex<GS_VID_T> vertex;
+    private final int innerVerticesNum;
+    private final int vid_t;
+    private Function<GS_VID_T, ? extends OID_T> lid2Oid;
+
+    // scratch message and buffer used to deserialize/serialize a incoming message
+    private MSG_T scratch;
+    private final ByteBuf scratchBuf;
+    private final ByteBufOutputStream scratchOut;
+
+    /** combining mode: one combined message per vertex, objects are recycled. */
+    private MSG_T[] combined;
+
+    private BitSet received;
+
+    /** non-combining mode: address of the first and the last message of each vertex. */
+    private long[] heads;
+
+    private long[] tails;
+
+    private List<ByteBuf> chunks;
+    private int receivedCnt;
+
+    public ArrayMessageStore(
+            IFragment<?, GS_VID_T, ?, ?> fragment,
+            ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf,
+            MessageCombiner<? super OID_T, MSG_T> combiner) {
+        this.fragment = fragment;
+        this.conf = conf;
+        this.combiner = combiner;
+        this.vertex = (Vertex<GS_VID_T>) FFITypeFactoryhelper.newVertex(conf.getGrapeVidClass());
+        this.innerVerticesNum = (int) fragment.getInnerVerticesNum();
+        if (conf.getGrapeVidClass().equals(Long.class)) {
+            vid_t = 0;
+        } else if (conf.getGrapeVidClass().equals(Integer.class)) {
+            vid_t = 1;
+        } else {
+            throw new IllegalStateException("Grape vid should be long or integer");
+        }
+        this.scratch = newMessage();
+        this.scratchBuf = PooledByteBufAllocator.DEFAULT.heapBuffer();
+        this.scratchOut = new ByteBufOutputStream(scratchBuf);
+        this.received = new BitSet(innerVerticesNum);
+        if (combiner != null) {
+            this.combined = (MSG_T[]) new Writable[innerVerticesNum];
+        } else {
+            this.heads = new long[innerVerticesNum];
+            Arrays.fill(heads, NONE);
+            this.tails = new long[innerVerticesNum];
+            this.chunks = new ArrayList<>();
+        }
+        logger.info(
+                "Array message store for {} vertices, combiner {}",
+                innerVerticesNum,
+                combiner == null ? "none" : combiner.getClass().getName());
+    }
+
+    /**
+     * Set the function to resolve the original id of a vertex from its lid, which is passed to the
+     * message combiner. Without it, the combiner is called with a null vertex id.
+     */
+    public void setLid2Oid(Function<GS_VID_T, ? extends OID_T> lid2Oid) {
+        this.lid2Oid = lid2Oid;
+    }
+
+    private OID_T lid2Oid(int lid) {
+        if (lid2Oid == null) {
+            return null;
+        }
+        return lid2Oid.apply(vid_t == 0 ? (GS_VID_T) (Long) (long) lid : (GS_VID_T) (Integer) lid);
+    }
+
+    private MSG_T newMessage() {
+        return (MSG_T) ReflectionUtils.newInstance(conf.getIncomingMessageValueClass());
+    }
+
+    @Override
+    public synchronized void addLidMessage(GS_VID_T lid, MSG_T writable) {
+        addMessage(((Number) lid).intValue(), writable);
+    }
+
+    @Override
+    public synchronized void addGidMessages(Iterator<GS_VID_T> gids, Iterator<MSG_T> writables) {
+        while (gids.hasNext() && writables.hasNext()) {
+            addMessage(gid2Lid(gids.next()), writables.next());
+        }
+    }
+
+    @Override
+    public synchronized void addGidMessage(GS_VID_T gid, MSG_T writable) {
+        addMessage(gid2Lid(gid), writable);
+    }
+
+    private int gid2Lid(GS_VID_T gid) {
+        if (!fragment.innerVertexGid2Vertex(gid, vertex)) {
+            throw new IllegalStateException("gid to vertex conversion failed: " + gid);
+        }
+        return ((Number) vertex.getValue()).intValue();
+    }
+
+    /** Add a message owned by the caller, which may be reused after return. */
+    private void addMessage(int lid, MSG_T msg) {
+        try {
+            if (combiner != null && received.get(lid)) {
+                combiner.combine(lid2Oid(lid), combined[lid], msg);
+                return;
+            }
+            scratchBuf.clear();
+            msg.write(scratchOut);
+            if (combiner != null) {
+                MSG_T copy = combined[lid] == null ? newMessage() : combined[lid];
+                copy.readFields(new ByteBufInputStream(scratchBuf));
+                putCombined(lid, copy);
+            } else {
+                appendRecord(lid, scratchBuf);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("fail to add message to " + lid, e);
+        }
+    }
+
+    /** Add a message read from the input, which is owned by the store. */
+    private void readMessage(int lid, DataInput input) throws IOException {
+        if (combiner != null) {
+            if (received.get(lid)) {
+                scratch.readFields(input);
+                combiner.combine(lid2Oid(lid), combined[lid], scratch);
+            } else {
+                MSG_T msg = combined[lid] == null ? newMessage() : combined[lid];
+                msg.readFields(input);
+                putCombined(lid, msg);
+            }
+        } else {
+            scratch.readFields(input);
+            scratchBuf.clear();
+            scratch.write(scratchOut);
+            appendRecord(lid, scratchBuf);
+        }
+    }
+
+    private void putCombined(int lid, MSG_T msg) {
+        combined[lid] = msg;
+        received.set(lid);
+        receivedCnt += 1;
+    }
+
+    private void appendRecord(int lid, ByteBuf payload) {
+        int len = payload.readableBytes();
+        ByteBuf chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.writableBytes() < RECORD_HEADER_SIZE + len) {
+            chunk =
+                    PooledByteBufAllocator.DEFAULT.directBuffer(
+                            Math.max(CHUNK_SIZE, RECORD_HEADER_SIZE + len));
+            chunks.add(chunk);
+        }
+        long address = ((long) (chunks.size() - 1) << 32) | chunk.writerIndex();
+        chunk.writeLong(NONE);
+        chunk.writeInt(len);
+        chunk.writeBytes(payload, payload.readerIndex(), len);
+        if (heads[lid] == NONE) {
+            heads[lid] = address;
+            received.set(lid);
+            receivedCnt += 1;
+        } else {
+            // link the previous last message to this one
+            long tail = tails[lid];
+            chunks.get((int) (tail >>> 32)).setLong((int) tail, address);
+        }
+        tails[lid] = address;
+    }
+
+    @Override
+    public void swap(MessageStore<OID_T, MSG_T, GS_VID_T> other) {
+        if (!(other instanceof ArrayMessageStore)) {
+            logger.error("Can not swap with a non-ArrayMessageStore obj");
+            return;
+        }
+        ArrayMessageStore<OID_T, MSG_T, GS_VID_T> otherStore =
+                (ArrayMessageStore<OID_T, MSG_T, GS_VID_T>) other;
+        if (!this.fragment.equals(otherStore.fragment)
+                || (this.combiner == null) != (otherStore.combiner == null)) {
+            logger.error("fragment or combiner not the same");
+            return;
+        }
+        MSG_T[] tmpCombined = this.combined;
+        this.combined = otherStore.combined;
+        otherStore.combined = tmpCombined;
+        BitSet tmpReceived = this.received;
+        this.received = otherStore.received;
+        otherStore.received = tmpReceived;
+        long[] tmpHeads = this.heads;
+        this.heads = otherStore.heads;
+        otherStore.heads = tmpHeads;
+        long[] tmpTails = this.tails;
+        this.tails = otherStore.tails;
+        otherStore.tails = tmpTails;
+        List<ByteBuf> tmpChunks = this.chunks;
+        this.chunks = otherStore.chunks;
+        otherStore.chunks = tmpChunks;
+        int tmpCnt = this.receivedCnt;
+        this.receivedCnt = otherStore.receivedCnt;
+        otherStore.receivedCnt = tmpCnt;
+    }
+
+    /**
+     * Clear all messages, combined message objects and the first chunk are kept for the next
+     * superstep.
+     */
+    @Override
+    public synchronized void clearAll() {
+        if (heads != null) {
+            for (int lid = received.nextSetBit(0); lid >= 0; lid = received.nextSetBit(lid + 1)) {
+                heads[lid] = NONE;
+            }
+            for (int i = chunks.size() - 1; i > 0; --i) {
+                chunks.remove(i).release();
+            }
+            if (!chunks.isEmpty()) {
+                chunks.get(0).clear();
+            }
+        }
+        received.clear();
+        receivedCnt = 0;
+    }
+
+    /** Release the off-heap chunks and the scratch buffer, the store is not usable afterwards. */
+    @Override
+    public synchronized void close() {
+        if (chunks != null) {
+            for (ByteBuf chunk : chunks) {
+                chunk.release();
+            }
+            chunks.clear();
+        }
+        if (scratchBuf.refCnt() > 0) {
+            scratchBuf.release();
+        }
+        received.clear();
+        receivedCnt = 0;
+    }
+
+    @Override
+    public boolean anyMessageReceived() {
+        return receivedCnt > 0;
+    }
+
+    @Override
+    public boolean messageAvailable(GS_VID_T lid) {
+        return received.get(((Number) lid).intValue());
+    }
+
+    @Override
+    public boolean messageAvailable(Long lid) {
+        return received.get(lid.intValue());
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(GS_VID_T lid) {
+        return getMessages(((Number) lid).intValue());
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(Long lid) {
+        return getMessages(lid.intValue());
+    }
+
+    private Iterable<MSG_T> getMessages(int lid) {
+        if (!received.get(lid)) {
+            return () -> Collections.emptyIterator();
+        }
+        if (combiner != null) {
+            return Collections.singletonList(combined[lid]);
+        }
+        long head = heads[lid];
+        return () -> new RecordIterator(head);
+    }
+
+    @Override
+    public void digest(FFIByteVector vector) {
+        FFIByteVectorInputStream inputStream = new FFIByteVectorInputStream(vector);
+        if (vector.size() <= 0) {
+            return;
+        }
+        try {
+            long expectSize = inputStream.readLong();
+            if (expectSize != inputStream.longAvailable()) {
+                throw new IllegalStateException(
+                        "Expect bytes "
+                                + expectSize
+                                + " available: "
+                                + inputStream.longAvailable());
+            }
+            synchronized (this) {
+                while (inputStream.longAvailable() > 0) {
+                    GS_VID_T gid = readGid(inputStream);
+                    readMessage(gid2Lid(gid), inputStream);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("fail to digest message vector", e);
+        }
+    }
+
+    @Override
+    public void digestByteBuffer(ByteBuf buf, boolean fromSelf) {
+        ByteBufInputStream inputStream = new ByteBufInputStream(buf);
+        if (fromSelf) {
+            buf.skipBytes(5);
+        }
+        // a record is a gid followed by the message, which may be serialized in zero bytes
+        int gidBytes = vid_t == 0 ? Long.BYTES : Integer.BYTES;
+        try {
+            synchronized (this) {
+                while (buf.readableBytes() >= gidBytes) {
+                    GS_VID_T gid = readGid(inputStream);
+                    readMessage(gid2Lid(gid), inputStream);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("fail to digest message buffer", e);
+        }
+        if (buf.readableBytes() != 0) {
+            throw new IllegalStateException("readable bytes no subtracted by 16");
+        }
+    }
+
+    private GS_VID_T readGid(DataInput input) throws IOException {
+        switch (vid_t) {
+            case 0:
+                return (GS_VID_T) (Long) input.readLong();
+            case 1:
+                return (GS_VID_T) (Integer) input.readInt();
+            default:
+                throw new IllegalStateException("Unknown flag " + vid_t);
+        }
+    }
+
+    /** Iterate over the linked records of a vertex, deserializing into one reused message. */
+    private class RecordIterator implements Iterator<MSG_T> {
+        private final MSG_T msg;
+        private long next;
+
+        RecordIterator(long head) {
+            this.msg = newMessage();
+            this.next = head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != NONE;
+        }
+
+        @Override
+        public MSG_T next() {
+            if (next == NONE) {
+                throw new NoSuchElementException();
+            }
+            ByteBuf chunk = chunks.get((int) (next >>> 32));
+            int offset = (int) next;
+            int len = chunk.getInt(offset + 8);
+            try {
+                ByteBuf record = chunk.slice(offset + RECORD_HEADER_SIZE, len);
+                msg.readFields(new ByteBufInputStream(record));
+            } catch (IOException e) {
+                throw new IllegalStateException("fail to read message", e);
+            }
+            next = chunk.getLong(offset);
+            return msg;
+        }
+    }
+}
@@ -232,7 +232,7 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
                 addGidMessage(gid, msg);
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new IllegalStateException("fail to digest message buffer", e);
         }
         if (inputStream.longAvailable() != 0) {
             throw new IllegalStateException(
@@ -250,8 +250,10 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
                 "DefaultMessageStore digest bytebuf size {} direct {}",
                 buf.readableBytes(),
                 buf.isDirect());
+        // a record is a gid followed by the message, which may be serialized in zero bytes
+        int gidBytes = vid_t == 0 ? Long.BYTES : Integer.BYTES;
         try {
-            while (buf.readableBytes() > 8) {
+            while (buf.readableBytes() >= gidBytes) {
                 GS_VID_T gid;
                 switch (vid_t) {
                     case 0:
@@ -268,7 +270,7 @@ public class DefaultMessageStore<OID_T extends WritableComparable, MSG_T extends
                 addGidMessage(gid, msg);
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new IllegalStateException("fail to digest message buffer", e);
         }
         if (buf.readableBytes() != 0) {
             throw new IllegalStateException("readable bytes no subtracted by 16");
@@ -15,8 +15,11 @@
  */
 package com.alibaba.graphscope.parallel.message;
 
+import static org.apache.giraph.conf.GiraphConstants.USE_PRIMITIVE_MESSAGE_STORE;
+
 import com.alibaba.graphscope.fragment.IFragment;
 
+import org.apache.giraph.combiner.MessageCombiner;
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.giraph.conf.MessageClasses;
 import org.apache.hadoop.io.Writable;
@@ -40,6 +43,14 @@ public class DefaultMessageStoreFactory<I extends WritableComparable, M extends
      */
     @Override
     public MessageStore<I, M, GS_VID_T> newStore(MessageClasses<I, M> messageClasses) {
+        if (USE_PRIMITIVE_MESSAGE_STORE.get(conf)) {
+            MessageCombiner<? super I, M> combiner =
+                    messageClasses.useMessageCombiner()
+                            ? messageClasses.createMessageCombiner(conf)
+                            : null;
+            logger.info("Using array message store");
+            return new ArrayMessageStore<I, M, GS_VID_T>(fragment, conf, combiner);
+        }
         logger.info("Using default Message store");
         return new DefaultMessageStore<I, M, GS_VID_T>(fragment, conf);
     }
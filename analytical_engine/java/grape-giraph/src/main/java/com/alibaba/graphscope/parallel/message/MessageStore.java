@@ -76,4 +76,9 @@ public interface MessageStore<I extends WritableComparable, M extends Writable,
     void digest(FFIByteVector vector);
 
     void digestByteBuffer(ByteBuf buf, boolean fromSelf);
+
+    /**
+     * Release the resources held by this store, which is not usable afterwards.
+     */
+    default void close() {}
 }
@@ -62,7 +62,8 @@ public class GiraphMessageManagerFactory {
                     conf.getIncomingMessageValueClass(),
                     conf.getOutgoingMessageValueClass(),
                     conf.getGrapeVidClass(),
-                    conf.getGrapeOidClass());
+                    conf.getGrapeOidClass(),
+                    idManager);
         } else if (mmType.equals("mpi")) {
             return createGiraphDefaultMM(
                     fragment,
@@ -105,10 +106,11 @@ public class GiraphMessageManagerFactory {
                             Class<? extends IN_MSG_T> inMsgClass,
                             Class<? extends OUT_MSG_T> outMsgClass,
                             Class<? extends GS_VID_T> gsVidClass,
-                            Class<? extends GS_OID_T> gsOidClass) {
+                            Class<? extends GS_OID_T> gsOidClass,
+                            GiraphVertexIdManager<GS_VID_T, OID_T> vertexIdManager) {
         return new GiraphNettyMessageManager<
                 OID_T, VDATA_T, EDATA_T, IN_MSG_T, OUT_MSG_T, GS_VID_T, GS_OID_T>(
-                fragment, networkMap, mm, conf, communicator);
+                fragment, networkMap, mm, conf, communicator, vertexIdManager);
     }
 
     private static <
@@ -19,7 +19,9 @@ import static org.apache.giraph.conf.GiraphConstants.MESSAGE_STORE_FACTORY_CLASS
 
 import com.alibaba.graphscope.communication.FFICommunicator;
 import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graph.GiraphVertexIdManager;
 import com.alibaba.graphscope.parallel.DefaultMessageManager;
+import com.alibaba.graphscope.parallel.message.ArrayMessageStore;
 import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.message.MessageStoreFactory;
 import com.alibaba.graphscope.parallel.mm.GiraphMessageManager;
@@ -30,6 +32,8 @@ import org.apache.giraph.utils.ReflectionUtils;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
 
+import java.util.Arrays;
+
 /**
  * skeletal implementation for giraph message manager. providing common utils for message
  * store(cache).
@@ -156,6 +160,29 @@ public abstract class AbstractMessageManager<
         grapeMessager.forceContinue();
     }
 
+    /**
+     * Let the message stores pass the original vertex ids to the message combiner.
+     *
+     * @param idManager id manager of this fragment.
+     */
+    protected void setVertexIdManager(GiraphVertexIdManager<GS_VID_T, OID_T> idManager) {
+        for (MessageStore<OID_T, IN_MSG_T, GS_VID_T> store :
+                Arrays.asList(currentIncomingMessageStore, nextIncomingMessageStore)) {
+            if (store instanceof ArrayMessageStore) {
+                ((ArrayMessageStore<OID_T, IN_MSG_T, GS_VID_T>) store)
+                        .setLid2Oid(idManager::lid2Oid);
+            }
+        }
+    }
+
+    /**
+     * Release the message stores, called when the application finishes.
+     */
+    protected void closeMessageStores() {
+        currentIncomingMessageStore.close();
+        nextIncomingMessageStore.close();
+    }
+
     protected void checkLid(long lid) {
         if (lid >= maxInnerVertexLid) {
             throw new IndexOutOfBoundsException("lid: " + lid + " max lid " + maxInnerVertexLid);
@@ -73,6 +73,7 @@ public class GiraphMpiMessageManager<
             GiraphVertexIdManager<GS_VID_T, OID_T> idManager) {
         super(fragment, defaultMessageManager, configuration, communicator);
         this.idManager = idManager;
+        setVertexIdManager(idManager);
         THRESHOLD = MAX_OUT_MSG_CACHE_SIZE.get(configuration);
         this.projectedFragment =
                 ((AbstractArrowProjectedAdaptor<GS_OID_T, GS_VID_T, ?, ?>) fragment)
@@ -260,5 +261,6 @@ public class GiraphMpiMessageManager<
         for (int i = 0; i < fragNum; ++i) {
             cacheOut[i].close();
         }
+        closeMessageStores();
     }
 }
@@ -21,6 +21,7 @@ import static org.apache.giraph.conf.GiraphConstants.MAX_IPC_PORT_BIND_ATTEMPTS;
 import com.alibaba.graphscope.communication.FFICommunicator;
 import com.alibaba.graphscope.ds.adaptor.Nbr;
 import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.graph.GiraphVertexIdManager;
 import com.alibaba.graphscope.graph.impl.VertexImpl;
 import com.alibaba.graphscope.parallel.DefaultMessageManager;
 import com.alibaba.graphscope.parallel.cache.SendMessageCache;
@@ -28,6 +29,7 @@ import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.netty.NettyClient;
 import com.alibaba.graphscope.parallel.netty.NettyServer;
 import com.alibaba.graphscope.parallel.utils.NetworkMap;
+import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
 
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.giraph.graph.Vertex;
@@ -37,6 +39,8 @@ import org.apache.hadoop.io.WritableComparable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Function;
+
 /**
  * Giraph message manager relies on netty for ipc communication.
  *
@@ -82,16 +86,28 @@ public class GiraphNettyMessageManager<
             NetworkMap networkMap,
             DefaultMessageManager mm,
             ImmutableClassesGiraphConfiguration<OID_T, VDATA_T, EDATA_T> conf,
-            FFICommunicator communicator) {
+            FFICommunicator communicator,
+            GiraphVertexIdManager<GS_VID_T, OID_T> idManager) {
         super(fragment, mm, conf, communicator);
+        setVertexIdManager(idManager);
         this.networkMap = networkMap;
         // Netty server depends on message store.
         initNetty();
 
         // Create different type of message cache as needed.
+        com.alibaba.graphscope.ds.Vertex<GS_VID_T> dstVertex =
+                (com.alibaba.graphscope.ds.Vertex<GS_VID_T>)
+                        FFITypeFactoryhelper.newVertex(conf.getGrapeVidClass());
+        Function<GS_VID_T, OID_T> gid2Oid =
+                gid -> {
+                    if (!fragment.gid2Vertex(gid, dstVertex)) {
+                        throw new IllegalStateException("get lid failed for gid: " + gid);
+                    }
+                    return idManager.lid2Oid(dstVertex.getValue());
+                };
         outMessageCache =
                 (SendMessageCache<OID_T, OUT_MSG_T, GS_VID_T>)
-                        SendMessageCache.newMessageCache(fragNum, fragId, client, conf);
+                        SendMessageCache.newMessageCache(fragNum, fragId, client, conf, gid2Oid);
     }
 
     public void initNetty() {
@@ -214,9 +230,11 @@ public class GiraphNettyMessageManager<
 
     @Override
     public void postApplication() {
+        outMessageCache.close();
         logger.info("Closing Client...");
         client.close();
         logger.info("Closing Server...");
         server.close();
+        closeMessageStores();
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.graphscope.parallel.netty.request.impl;
 
+import com.alibaba.graphscope.parallel.message.ArrayMessageStore;
 import com.alibaba.graphscope.parallel.message.DefaultMessageStore;
 import com.alibaba.graphscope.parallel.message.MessageStore;
 import com.alibaba.graphscope.parallel.netty.request.RequestType;
@@ -99,9 +100,9 @@ public class ByteBufRequest extends WritableRequest {
         if (Objects.isNull(buf)) {
             throw new IllegalStateException("try to do request on an empty byteBuf request");
         }
-        if (messageStore instanceof DefaultMessageStore) {
-            DefaultMessageStore messageStore1 = (DefaultMessageStore) messageStore;
-            messageStore1.digestByteBuffer(buf, false);
+        if (messageStore instanceof DefaultMessageStore
+                || messageStore instanceof ArrayMessageStore) {
+            messageStore.digestByteBuffer(buf, false);
 
             if (buf.readableBytes() != 0) {
                 logger.error(
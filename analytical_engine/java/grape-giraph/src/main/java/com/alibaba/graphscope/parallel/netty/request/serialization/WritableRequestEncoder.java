@@ -61,7 +61,8 @@ public class WritableRequestEncoder extends ChannelOutboundHandlerAdapter {
             if (msg instanceof ByteBufRequest) {
                 ByteBufRequest bufRequest = (ByteBufRequest) request;
                 buf = bufRequest.getBuffer();
-                if ((buf.readableBytes() - SIZE_OF_BYTE - SIZE_OF_INT) % 16 != 0) {
+                // records are not always of 16 bytes, i.e. messages other than long/double
+                if (buf.readableBytes() < SIZE_OF_BYTE + SIZE_OF_INT) {
                     logger.error("Wrong number of bytes: {}", buf.readableBytes());
                     throw new IllegalStateException(
                             "Wrong number of bytes: " + buf.readableBytes());
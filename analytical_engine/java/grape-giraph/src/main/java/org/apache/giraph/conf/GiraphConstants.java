@@ -521,11 +521,15 @@ public interface GiraphConstants {
                     MessageStoreFactory.class,
                     "Message Store Factory Class that is to be used");
 
+    /**
+     * Use the lid-indexed array message store, which combines messages on arrival if a combiner
+     * is set, or keeps them serialized off heap otherwise.
+     */
     BooleanConfOption USE_PRIMITIVE_MESSAGE_STORE =
             new BooleanConfOption(
                     "giraph.userPrimitiveMessageStore",
                     false,
-                    "user specialized primitive store or not");
+                    "user lid-indexed array message store or not");
 
     /**
      * Default use byteBuf message cache.
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.cache.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.alibaba.graphscope.parallel.message.MessageStore;
+import com.alibaba.graphscope.parallel.netty.NettyClient;
+import com.alibaba.graphscope.parallel.netty.request.WritableRequest;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.hadoop.io.LongWritable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class BatchWritableMessageCacheTest {
+    private static final int FRAG_NUM = 2;
+    private static final int SELF = 0;
+    private static final int OTHER = 1;
+    private static final int CACHE_SIZE = 4;
+
+    private ImmutableClassesGiraphConfiguration<LongWritable, LongWritable, LongWritable> conf;
+    private NettyClient client;
+    private List<ByteBuf> allocated;
+    private List<WritableRequest> sent;
+    // vertex ids passed to the combiner
+    private List<Long> combinedIds;
+
+    private class SumCombiner implements MessageCombiner<LongWritable, LongWritable> {
+        @Override
+        public void combine(
+                LongWritable vertexIndex,
+                LongWritable originalMessage,
+                LongWritable messageToCombine) {
+            combinedIds.add(vertexIndex.get());
+            originalMessage.set(originalMessage.get() + messageToCombine.get());
+        }
+
+        @Override
+        public LongWritable createInitialMessage() {
+            return new LongWritable(0);
+        }
+    }
+
+    @Before
+    public void prepare() {
+        allocated = new ArrayList<>();
+        sent = new ArrayList<>();
+        combinedIds = new ArrayList<>();
+        ByteBufAllocator allocator = mock(ByteBufAllocator.class);
+        doAnswer(
+                        invocation -> {
+                            ByteBuf buf = Unpooled.buffer();
+                            allocated.add(buf);
+                            return buf;
+                        })
+                .when(allocator)
+                .buffer();
+        conf = mock(ImmutableClassesGiraphConfiguration.class);
+        doReturn(allocator).when(conf).getNettyAllocator();
+        doReturn(CACHE_SIZE).when(conf).getInt(eq("giraph.messageAggregateSize"), anyInt());
+        doReturn(new SumCombiner()).when(conf).createOutgoingMessageCombiner();
+        doAnswer(invocation -> new LongWritable()).when(conf).createOutgoingMessageValue();
+        client = mock(NettyClient.class);
+        doAnswer(
+                        invocation -> {
+                            sent.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(client)
+                .sendMessage(anyInt(), any());
+    }
+
+    private BatchWritableMessageCache<LongWritable, LongWritable, Long> newCache(boolean combine) {
+        doReturn(combine).when(conf).useOutgoingMessageCombiner();
+        return new BatchWritableMessageCache<>(
+                FRAG_NUM, SELF, client, conf, gid -> new LongWritable(gid * 10));
+    }
+
+    /** Read the (gid, message) pairs after the header, sorted by gid. */
+    private static List<long[]> parse(ByteBuf buf) {
+        ByteBuf view = buf.duplicate();
+        view.skipBytes(5);
+        List<long[]> records = new ArrayList<>();
+        while (view.isReadable()) {
+            records.add(new long[] {view.readLong(), view.readLong()});
+        }
+        records.sort(Comparator.comparingLong(record -> record[0]));
+        return records;
+    }
+
+    /** Parse the sent buffers, which are released as netty does after writing. */
+    private List<List<long[]>> takeSent() {
+        List<List<long[]>> batches = new ArrayList<>();
+        for (WritableRequest request : sent) {
+            batches.add(parse(request.getBuffer()));
+            request.getBuffer().release();
+        }
+        sent.clear();
+        return batches;
+    }
+
+    private void closeAndCheckReleased(BatchWritableMessageCache<?, ?, ?> cache) {
+        cache.close();
+        for (ByteBuf buf : allocated) {
+            Assert.assertEquals(0, buf.refCnt());
+        }
+    }
+
+    @Test
+    public void testCombineAndFlush() {
+        BatchWritableMessageCache<LongWritable, LongWritable, Long> cache = newCache(true);
+        LongWritable msg = new LongWritable();
+        // the message object is reused by the caller
+        for (long i = 1; i <= 3; ++i) {
+            msg.set(i);
+            cache.sendMessage(OTHER, 1L, msg);
+        }
+        msg.set(5);
+        cache.sendMessage(OTHER, 2L, msg);
+        Assert.assertTrue(sent.isEmpty());
+
+        cache.flushMessage();
+        List<List<long[]>> batches = takeSent();
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(2, batches.get(0).size());
+        Assert.assertArrayEquals(new long[] {1L, 6L}, batches.get(0).get(0));
+        Assert.assertArrayEquals(new long[] {2L, 5L}, batches.get(0).get(1));
+        // the combiner gets the original id resolved from the gid
+        Assert.assertEquals(Arrays.asList(10L, 10L), combinedIds);
+        Assert.assertEquals(0.5, cache.getCombineRatio(), 1e-9);
+
+        cache.clear();
+        cache.flushMessage();
+        Assert.assertTrue(sent.isEmpty());
+        closeAndCheckReleased(cache);
+    }
+
+    @Test
+    public void testSizeTriggeredFlush() {
+        for (boolean combine : new boolean[] {true, false}) {
+            BatchWritableMessageCache<LongWritable, LongWritable, Long> cache = newCache(combine);
+            // distinct vertices, which are not combined
+            for (long gid = 0; gid < CACHE_SIZE - 1; ++gid) {
+                cache.sendMessage(OTHER, gid, new LongWritable(gid));
+            }
+            Assert.assertTrue(sent.isEmpty());
+            cache.sendMessage(OTHER, CACHE_SIZE - 1L, new LongWritable(CACHE_SIZE - 1L));
+            List<List<long[]>> batches = takeSent();
+            Assert.assertEquals(1, batches.size());
+            Assert.assertEquals(CACHE_SIZE, batches.get(0).size());
+            for (int i = 0; i < CACHE_SIZE; ++i) {
+                Assert.assertArrayEquals(new long[] {i, i}, batches.get(0).get(i));
+            }
+            // nothing left after sending
+            cache.flushMessage();
+            Assert.assertTrue(sent.isEmpty());
+            closeAndCheckReleased(cache);
+        }
+    }
+
+    @Test
+    public void testMessagesToSelf() {
+        BatchWritableMessageCache<LongWritable, LongWritable, Long> cache = newCache(true);
+        int vertexNum = CACHE_SIZE * 25;
+        for (int round = 0; round < 2; ++round) {
+            for (long gid = 0; gid < vertexNum; ++gid) {
+                cache.sendMessage(SELF, gid, new LongWritable(1));
+            }
+        }
+        cache.flushMessage();
+        // messages to self are never sent, however many vertices there are
+        Assert.assertTrue(sent.isEmpty());
+
+        List<long[]> records = new ArrayList<>();
+        MessageStore<LongWritable, LongWritable, Long> store = mock(MessageStore.class);
+        doAnswer(
+                        invocation -> {
+                            records.addAll(parse(invocation.getArgument(0)));
+                            return null;
+                        })
+                .when(store)
+                .digestByteBuffer(any(), eq(true));
+        cache.removeMessageToSelf(store);
+        Assert.assertEquals(vertexNum, records.size());
+        for (int i = 0; i < vertexNum; ++i) {
+            Assert.assertArrayEquals(new long[] {i, 2L}, records.get(i));
+        }
+        Assert.assertEquals(vertexNum, combinedIds.size());
+        closeAndCheckReleased(cache);
+    }
+
+    @Test
+    public void testCombinedMessagesResize() throws IOException {
+        BatchWritableMessageCache.CombinedMessages<LongWritable, LongWritable> messages =
+                new BatchWritableMessageCache.CombinedMessages<>(
+                        CACHE_SIZE, new SumCombiner(), LongWritable::new, LongWritable::new);
+        int initialCapacity = messages.capacity();
+        int vertexNum = initialCapacity * 4;
+        for (long gid = 0; gid < vertexNum; ++gid) {
+            Assert.assertTrue(messages.add(gid, new LongWritable(gid)));
+        }
+        Assert.assertTrue(messages.capacity() >= vertexNum);
+        // the gids are still found after growing
+        for (long gid = 0; gid < vertexNum; ++gid) {
+            Assert.assertFalse(messages.add(gid, new LongWritable(1)));
+        }
+        Assert.assertEquals(vertexNum, messages.size());
+        for (int i = 0; i < vertexNum; ++i) {
+            Assert.assertEquals(i, messages.gidAt(i));
+            Assert.assertEquals(i + 1, messages.messageAt(i).get());
+        }
+
+        // message objects are recycled after clear
+        LongWritable recycled = messages.messageAt(0);
+        messages.clear();
+        Assert.assertEquals(0, messages.size());
+        Assert.assertTrue(messages.add(7L, new LongWritable(3)));
+        Assert.assertSame(recycled, messages.messageAt(0));
+        Assert.assertEquals(3, messages.messageAt(0).get());
+    }
+}
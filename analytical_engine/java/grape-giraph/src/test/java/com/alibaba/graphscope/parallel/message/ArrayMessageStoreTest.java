@@ -0,0 +1,287 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ArrayMessageStoreTest {
+
+    static {
+        System.loadLibrary("grape-jni");
+    }
+
+    private static final int VERTEX_NUM = 4;
+
+    private IFragment<Long, Long, Long, Long> fragment;
+    private ImmutableClassesGiraphConfiguration<LongWritable, LongWritable, LongWritable> conf;
+
+    private static class SumCombiner implements MessageCombiner<LongWritable, LongWritable> {
+        @Override
+        public void combine(
+                LongWritable vertexIndex,
+                LongWritable originalMessage,
+                LongWritable messageToCombine) {
+            originalMessage.set(originalMessage.get() + messageToCombine.get());
+        }
+
+        @Override
+        public LongWritable createInitialMessage() {
+            return new LongWritable(0);
+        }
+    }
+
+    @Before
+    public void prepare() {
+        fragment = mock(IFragment.class);
+        doReturn((long) VERTEX_NUM).when(fragment).getInnerVerticesNum();
+        // gid equals to lid
+        doAnswer(
+                        invocation -> {
+                            Long gid = invocation.getArgument(0);
+                            Vertex<Long> vertex = invocation.getArgument(1);
+                            vertex.setValue(gid);
+                            return gid < VERTEX_NUM;
+                        })
+                .when(fragment)
+                .innerVertexGid2Vertex(any(), any());
+        conf = mock(ImmutableClassesGiraphConfiguration.class);
+        doReturn(Long.class).when(conf).getGrapeVidClass();
+        doReturn(LongWritable.class).when(conf).getIncomingMessageValueClass();
+    }
+
+    // typed without the grape vid, as the overloads of Long and GS_VID_T are ambiguous for Long
+    private static boolean available(MessageStore<LongWritable, ?, ?> store, long lid) {
+        return store.messageAvailable(lid);
+    }
+
+    private static int count(MessageStore<LongWritable, ?, ?> store, long lid) {
+        int count = 0;
+        for (Object ignored : store.getMessages(lid)) {
+            ++count;
+        }
+        return count;
+    }
+
+    private static List<Long> values(MessageStore<LongWritable, LongWritable, ?> store, long lid) {
+        List<Long> values = new ArrayList<>();
+        // messages are deserialized into one reused object
+        for (LongWritable msg : store.getMessages(lid)) {
+            values.add(msg.get());
+        }
+        return values;
+    }
+
+    @Test
+    public void testAddAndIterate() {
+        ArrayMessageStore<LongWritable, LongWritable, Long> store =
+                new ArrayMessageStore<>(fragment, conf, null);
+        Assert.assertFalse(store.anyMessageReceived());
+        LongWritable msg = new LongWritable();
+        msg.set(1);
+        store.addLidMessage(0L, msg);
+        // the message object is owned by the caller and may be reused
+        msg.set(2);
+        store.addLidMessage(0L, msg);
+        store.addGidMessage(2L, new LongWritable(3));
+        store.addGidMessages(
+                Arrays.asList(2L, 3L).iterator(),
+                Arrays.asList(new LongWritable(4), new LongWritable(5)).iterator());
+
+        Assert.assertTrue(store.anyMessageReceived());
+        Assert.assertEquals(Arrays.asList(1L, 2L), values(store, 0L));
+        Assert.assertFalse(available(store, 1L));
+        Assert.assertEquals(Collections.emptyList(), values(store, 1L));
+        Assert.assertEquals(Arrays.asList(3L, 4L), values(store, 2L));
+        Assert.assertEquals(Collections.singletonList(5L), values(store, 3L));
+
+        store.clearAll();
+        Assert.assertFalse(store.anyMessageReceived());
+        Assert.assertFalse(available(store, 0L));
+        store.addLidMessage(0L, new LongWritable(6));
+        Assert.assertEquals(Collections.singletonList(6L), values(store, 0L));
+    }
+
+    @Test
+    public void testCombine() {
+        ArrayMessageStore<LongWritable, LongWritable, Long> store =
+                new ArrayMessageStore<>(fragment, conf, new SumCombiner());
+        LongWritable msg = new LongWritable();
+        for (long i = 1; i <= 3; ++i) {
+            msg.set(i);
+            store.addLidMessage(1L, msg);
+        }
+        store.addGidMessage(3L, new LongWritable(10));
+        Assert.assertEquals(Collections.singletonList(6L), values(store, 1L));
+        Assert.assertEquals(Collections.singletonList(10L), values(store, 3L));
+        Assert.assertFalse(available(store, 0L));
+
+        // combined message objects are recycled after clear
+        store.clearAll();
+        store.addLidMessage(1L, new LongWritable(7));
+        Assert.assertEquals(Collections.singletonList(7L), values(store, 1L));
+    }
+
+    // messages to self are digested from the outgoing buffer of ByteBufMessageCache
+    @Test
+    public void testSwapWithSelfMessage() throws IOException {
+        for (MessageCombiner<LongWritable, LongWritable> combiner :
+                Arrays.asList(null, new SumCombiner())) {
+            ArrayMessageStore<LongWritable, LongWritable, Long> current =
+                    new ArrayMessageStore<>(fragment, conf, combiner);
+            ArrayMessageStore<LongWritable, LongWritable, Long> next =
+                    new ArrayMessageStore<>(fragment, conf, combiner);
+            current.addLidMessage(0L, new LongWritable(1));
+
+            ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+            ByteBufOutputStream output = new ByteBufOutputStream(buf);
+            // the header of the buffer, which is skipped for self messages
+            output.writeInt(0);
+            output.writeByte(0);
+            output.writeLong(3L);
+            new LongWritable(7).write(output);
+            output.writeLong(3L);
+            new LongWritable(8).write(output);
+            next.digestByteBuffer(buf, true);
+            Assert.assertEquals(0, buf.readableBytes());
+            buf.release();
+
+            current.clearAll();
+            current.swap(next);
+            Assert.assertTrue(current.anyMessageReceived());
+            Assert.assertFalse(available(current, 0L));
+            List<Long> expected =
+                    combiner == null ? Arrays.asList(7L, 8L) : Collections.singletonList(15L);
+            Assert.assertEquals(expected, values(current, 3L));
+            Assert.assertFalse(next.anyMessageReceived());
+        }
+    }
+
+    @Test
+    public void testArrivalOrder() throws IOException {
+        ArrayMessageStore<LongWritable, LongWritable, Long> store =
+                new ArrayMessageStore<>(fragment, conf, null);
+        store.addLidMessage(1L, new LongWritable(3));
+        store.addGidMessage(2L, new LongWritable(9));
+        store.addLidMessage(1L, new LongWritable(1));
+        ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+        ByteBufOutputStream output = new ByteBufOutputStream(buf);
+        output.writeLong(1L);
+        new LongWritable(2).write(output);
+        store.digestByteBuffer(buf, false);
+        buf.release();
+
+        // messages are iterated in the order they arrive, as in DefaultMessageStore
+        Assert.assertEquals(Arrays.asList(3L, 1L, 2L), values(store, 1L));
+
+        store.close();
+        Assert.assertFalse(store.anyMessageReceived());
+    }
+
+    @Test
+    public void testCombinerVertexId() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        MessageCombiner<LongWritable, LongWritable> combiner =
+                new SumCombiner() {
+                    @Override
+                    public void combine(
+                            LongWritable vertexIndex,
+                            LongWritable originalMessage,
+                            LongWritable messageToCombine) {
+                        ids.add(vertexIndex.get());
+                        super.combine(vertexIndex, originalMessage, messageToCombine);
+                    }
+                };
+        ArrayMessageStore<LongWritable, LongWritable, Long> store =
+                new ArrayMessageStore<>(fragment, conf, combiner);
+        // the original id of a vertex is 100 plus its lid
+        store.setLid2Oid(lid -> new LongWritable(100 + lid));
+        store.addLidMessage(1L, new LongWritable(1));
+        store.addLidMessage(1L, new LongWritable(2));
+        ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+        ByteBufOutputStream output = new ByteBufOutputStream(buf);
+        for (long i = 3; i <= 4; ++i) {
+            output.writeLong(2L);
+            new LongWritable(i).write(output);
+        }
+        store.digestByteBuffer(buf, false);
+        buf.release();
+
+        Assert.assertEquals(Arrays.asList(101L, 102L), ids);
+        Assert.assertEquals(Collections.singletonList(3L), values(store, 1L));
+        Assert.assertEquals(Collections.singletonList(7L), values(store, 2L));
+        store.close();
+    }
+
+    /** A message serialized in zero bytes, like NullWritable. */
+    public static class EmptyWritable implements Writable {
+        @Override
+        public void write(DataOutput out) {}
+
+        @Override
+        public void readFields(DataInput in) {}
+    }
+
+    @Test
+    public void testDigestEmptyMessage() throws IOException {
+        doReturn(EmptyWritable.class).when(conf).getIncomingMessageValueClass();
+        List<MessageStore<LongWritable, EmptyWritable, Long>> stores =
+                Arrays.asList(
+                        new ArrayMessageStore<>(fragment, conf, null),
+                        new DefaultMessageStore<>(fragment, conf));
+        for (MessageStore<LongWritable, EmptyWritable, Long> store : stores) {
+            ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+            ByteBufOutputStream output = new ByteBufOutputStream(buf);
+            output.writeLong(1L);
+            output.writeLong(3L);
+            // the last record is a gid only
+            output.writeLong(3L);
+            store.digestByteBuffer(buf, false);
+            Assert.assertEquals(0, buf.readableBytes());
+            buf.release();
+
+            Assert.assertTrue(store.anyMessageReceived());
+            Assert.assertEquals(1, count(store, 1L));
+            Assert.assertFalse(available(store, 2L));
+            Assert.assertEquals(2, count(store, 3L));
+        }
+    }
+}
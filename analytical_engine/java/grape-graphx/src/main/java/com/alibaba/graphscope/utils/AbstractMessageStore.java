@@ -32,6 +32,7 @@ import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import scala.Function2;
 import scala.Tuple2;
 import scala.collection.Iterator;
 
@@ -50,8 +51,21 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
     protected GraphXConf<?, ?, ?> conf;
     protected int ivnum;
 
+    // guard the first message to a vertex, see initIfAbsent
+    private static final int INIT_LOCK_STRIPES = 1024;
+    private static final Object[] INIT_LOCKS = new Object[INIT_LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < INIT_LOCK_STRIPES; ++i) {
+            INIT_LOCKS[i] = new Object();
+        }
+    }
+
     abstract void threadSafeSet(int ind, T value);
 
+    /**
+     * Merge value into the one at ind atomically, which may be called concurrently.
+     */
     abstract void mergeAndSet(int ind, T value);
 
     abstract void writeMessageToStream(IFragment<Long, Long, ?, ?> fragment) throws IOException;
@@ -72,6 +86,118 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
         this.conf = conf;
     }
 
+    private static Object initLock(int lid) {
+        return INIT_LOCKS[lid & (INIT_LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Set value to lid if lid is not in set yet. The value is written before the bit, so that
+     * threads seeing the bit can merge into the value without locking, and only threads racing for
+     * the first message of a vertex are serialized.
+     *
+     * @return true if the value is set, otherwise the caller should merge the value.
+     */
+    protected boolean initIfAbsent(ThreadSafeBitSet set, int lid, T value) {
+        if (set.get(lid)) {
+            return false;
+        }
+        synchronized (initLock(lid)) {
+            if (set.get(lid)) {
+                return false;
+            }
+            threadSafeSet(lid, value);
+            set.set(lid);
+            return true;
+        }
+    }
+
+    /*
+     * Primitive versions of initIfAbsent and mergeAndSet for the stores of primitive messages,
+     * which avoid boxing the messages. The merge is a CAS loop, and the specialized apply avoids
+     * boxing as well if the merge function is a specialized scala function.
+     */
+
+    static boolean initIfAbsent(
+            ThreadSafeBitSet set, int lid, double value, AtomicDoubleArrayWrapper values) {
+        if (set.get(lid)) {
+            return false;
+        }
+        synchronized (initLock(lid)) {
+            if (set.get(lid)) {
+                return false;
+            }
+            values.set(lid, value);
+            set.set(lid);
+            return true;
+        }
+    }
+
+    static boolean initIfAbsent(
+            ThreadSafeBitSet set, int lid, long value, AtomicLongArrayWrapper values) {
+        if (set.get(lid)) {
+            return false;
+        }
+        synchronized (initLock(lid)) {
+            if (set.get(lid)) {
+                return false;
+            }
+            values.set(lid, value);
+            set.set(lid);
+            return true;
+        }
+    }
+
+    static boolean initIfAbsent(
+            ThreadSafeBitSet set, int lid, int value, AtomicIntegerArrayWrapper values) {
+        if (set.get(lid)) {
+            return false;
+        }
+        synchronized (initLock(lid)) {
+            if (set.get(lid)) {
+                return false;
+            }
+            values.set(lid, value);
+            set.set(lid);
+            return true;
+        }
+    }
+
+    static void merge(
+            AtomicDoubleArrayWrapper values,
+            int ind,
+            double value,
+            Function2<Double, Double, Double> mergeMessage) {
+        double original;
+        do {
+            original = values.get(ind);
+        } while (!values.compareAndSet(
+                ind, original, mergeMessage.apply$mcDDD$sp(original, value)));
+    }
+
+    static void merge(
+            AtomicLongArrayWrapper values,
+            int ind,
+            long value,
+            Function2<Long, Long, Long> mergeMessage) {
+        long original;
+        do {
+            original = values.get(ind);
+        } while (!values.compareAndSet(
+                ind, original, mergeMessage.apply$mcJJJ$sp(original, value)));
+    }
+
+    static void merge(
+            AtomicIntegerArrayWrapper values,
+            int ind,
+            int value,
+            Function2<Integer, Integer, Integer> mergeMessage) {
+        int original;
+        do {
+            original = values.get(ind);
+        } while (!values.compareAndSet(
+                ind, original, mergeMessage.apply$mcIII$sp(original, value)));
+    }
+
     /**
      * we assume this function is thread safe
      */
@@ -144,11 +270,8 @@ public abstract class AbstractMessageStore<T> implements MessageStore<T> {
                 }
                 lid = Math.toIntExact(vertex.getValue());
             }
-            if (nextSet.get(lid)) {
+            if (!initIfAbsent(nextSet, lid, msg._2())) {
                 mergeAndSet(lid, msg._2());
-            } else {
-                threadSafeSet(lid, msg._2());
-                nextSet.set(lid);
             }
             if (lid > ivnum) {
                 logger.info(
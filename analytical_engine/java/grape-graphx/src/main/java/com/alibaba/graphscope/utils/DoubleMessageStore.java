@@ -73,14 +73,12 @@ public class DoubleMessageStore extends AbstractMessageStore<Double> {
 
     @Override
     void threadSafeSet(int ind, Double value) {
-        values.compareAndSet(ind, value);
+        values.set(ind, value);
     }
 
     @Override
     void mergeAndSet(int ind, Double value) {
-        double original = get(ind);
-        double newValue = mergeMessage.apply(original, value);
-        values.compareAndSet(ind, newValue);
+        merge(values, ind, value, mergeMessage);
     }
 
     @Override
@@ -133,11 +131,8 @@ public class DoubleMessageStore extends AbstractMessageStore<Double> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 double msg = inputStream.readDouble();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                if (!initIfAbsent(curSet, lid, msg, values)) {
+                    merge(values, lid, msg, mergeMessage);
                 }
             }
         } catch (Exception e) {
@@ -73,14 +73,12 @@ public class IntMessageStore extends AbstractMessageStore<Integer> {
 
     @Override
     void threadSafeSet(int ind, Integer value) {
-        values.compareAndSet(ind, value);
+        values.set(ind, value);
     }
 
     @Override
     void mergeAndSet(int ind, Integer value) {
-        int original = get(ind);
-        int newValue = mergeMessage.apply(original, value);
-        values.compareAndSet(ind, newValue);
+        merge(values, ind, value, mergeMessage);
     }
 
     void writeMessageToStream(IFragment<Long, Long, ?, ?> fragment) throws IOException {
@@ -122,11 +120,8 @@ public class IntMessageStore extends AbstractMessageStore<Integer> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 int msg = inputStream.readInt();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                if (!initIfAbsent(curSet, lid, msg, values)) {
+                    merge(values, lid, msg, mergeMessage);
                 }
             }
         } catch (Exception e) {
@@ -73,14 +73,12 @@ public class LongMessageStore extends AbstractMessageStore<Long> {
 
     @Override
     void threadSafeSet(int ind, Long value) {
-        values.compareAndSet(ind, value);
+        values.set(ind, value);
     }
 
     @Override
     void mergeAndSet(int ind, Long value) {
-        long original = get(ind);
-        long newValue = mergeMessage.apply(original, value);
-        values.compareAndSet(ind, newValue);
+        merge(values, ind, value, mergeMessage);
     }
 
     @Override
@@ -122,11 +120,8 @@ public class LongMessageStore extends AbstractMessageStore<Long> {
                 }
                 int lid = Math.toIntExact(vertex.getValue());
                 long msg = inputStream.readLong();
-                if (curSet.get(lid)) {
-                    values.set(lid, mergeMessage.apply(values.get(lid), msg));
-                } else {
-                    values.set(lid, msg);
-                    curSet.set(lid);
+                if (!initIfAbsent(curSet, lid, msg, values)) {
+                    merge(values, lid, msg, mergeMessage);
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class MessageStoreMergeTest {
+    private static final int VERTEX_NUM = 1000;
+    private static final int THREAD_NUM = 8;
+    private static final int ROUND_NUM = 100;
+
+    private interface Sender {
+        void send(ThreadSafeBitSet set, int lid);
+    }
+
+    /** All threads send messages to every vertex at the same time, starting from an empty set. */
+    private static void sendConcurrently(Sender sender) throws InterruptedException {
+        ThreadSafeBitSet set =
+                new ThreadSafeBitSet(
+                        ThreadSafeBitSet.DEFAULT_LOG2_SEGMENT_SIZE_IN_BITS, VERTEX_NUM);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREAD_NUM; ++i) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    start.await();
+                                } catch (InterruptedException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                                for (int round = 0; round < ROUND_NUM; ++round) {
+                                    for (int lid = 0; lid < VERTEX_NUM; ++lid) {
+                                        sender.send(set, lid);
+                                    }
+                                }
+                            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int lid = 0; lid < VERTEX_NUM; ++lid) {
+            Assert.assertTrue(set.get(lid));
+        }
+    }
+
+    @Test
+    public void testConcurrentMergeDouble() throws InterruptedException {
+        AtomicDoubleArrayWrapper values = new AtomicDoubleArrayWrapper(VERTEX_NUM);
+        sendConcurrently(
+                (set, lid) -> {
+                    if (!AbstractMessageStore.initIfAbsent(set, lid, 1.0d, values)) {
+                        AbstractMessageStore.merge(values, lid, 1.0d, (a, b) -> a + b);
+                    }
+                });
+        for (int lid = 0; lid < VERTEX_NUM; ++lid) {
+            Assert.assertEquals(THREAD_NUM * ROUND_NUM, values.get(lid), 0.0d);
+        }
+    }
+
+    @Test
+    public void testConcurrentMergeLong() throws InterruptedException {
+        AtomicLongArrayWrapper values = new AtomicLongArrayWrapper(VERTEX_NUM);
+        sendConcurrently(
+                (set, lid) -> {
+                    if (!AbstractMessageStore.initIfAbsent(set, lid, 1L, values)) {
+                        AbstractMessageStore.merge(values, lid, 1L, (a, b) -> a + b);
+                    }
+                });
+        for (int lid = 0; lid < VERTEX_NUM; ++lid) {
+            Assert.assertEquals(THREAD_NUM * ROUND_NUM, values.get(lid));
+        }
+    }
+
+    @Test
+    public void testConcurrentMergeInt() throws InterruptedException {
+        AtomicIntegerArrayWrapper values = new AtomicIntegerArrayWrapper(VERTEX_NUM);
+        sendConcurrently(
+                (set, lid) -> {
+                    // the merged value would be overwritten if a vertex is initialized twice
+                    if (!AbstractMessageStore.initIfAbsent(set, lid, lid, values)) {
+                        AbstractMessageStore.merge(values, lid, lid - 1, (a, b) -> Math.min(a, b));
+                    }
+                });
+        for (int lid = 0; lid < VERTEX_NUM; ++lid) {
+            Assert.assertEquals(lid - 1, values.get(lid));
+        }
+    }
+}
@@ -26,15 +26,18 @@ import com.alibaba.graphscope.utils.TriConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 public interface ParallelEngine {
     Logger logger = LoggerFactory.getLogger(ParallelEngine.class);
 
+    /**
+     * @deprecated vertices are no longer processed in chunks of a fixed size, see {@link
+     *     VertexScheduler}.
+     */
+    @Deprecated
     int chunkSize = 1024;
 
     /**
@@ -53,53 +56,21 @@ public interface ParallelEngine {
             int threadNum,
             ExecutorService executor,
             BiConsumer<Vertex<Long>, Integer> consumer) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                try {
-                                    for (int i = curBegin; i < curEnd; ++i) {
-                                        vertex.setValue((long) i);
-                                        consumer.accept(vertex, finalTid);
-                                    }
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    logger.error(
-                                            "origin end "
-                                                    + originEnd
-                                                    + " vertices "
-                                                    + curBegin
-                                                    + " "
-                                                    + curEnd
-                                                    + " vertex "
-                                                    + vertex.getValue().intValue()
-                                                    + " thread "
-                                                    + finalTid);
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
+                                    vertex.setValue((long) i);
+                                    consumer.accept(vertex, tid);
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -121,41 +92,24 @@ public interface ParallelEngine {
             VertexSet vertexSet,
             TriConsumer<Vertex<Long>, Integer, PrimitiveMessage> consumer,
             Supplier<MSG_T> msgSupplier) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
                             PrimitiveMessage msg = msgSupplier.get();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                for (int i = curBegin; i < curEnd; ++i) {
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
                                     if (vertexSet.get(i)) {
                                         vertex.setValue((long) i);
-                                        consumer.accept(vertex, finalTid, msg);
+                                        consumer.accept(vertex, tid, msg);
                                     }
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -175,40 +129,23 @@ public interface ParallelEngine {
             ExecutorService executor,
             VertexSet vertexSet,
             BiConsumer<Vertex<Long>, Integer> consumer) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                for (int i = curBegin; i < curEnd; ++i) {
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
                                     if (vertexSet.get(i)) {
                                         vertex.setValue((long) i);
-                                        consumer.accept(vertex, finalTid);
+                                        consumer.accept(vertex, tid);
                                     }
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -232,57 +169,24 @@ public interface ParallelEngine {
             VertexSet vertexSet,
             TriConsumer<Vertex<Long>, Integer, DoubleMsg> consumer,
             Supplier<DoubleMsg> msgSupplier) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-        // int chunkSize = 1024;
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
                             DoubleMsg msg = msgSupplier.get();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                try {
-                                    for (int i = curBegin; i < curEnd; ++i) {
-                                        if (vertexSet.get(i)) {
-                                            vertex.setValue((long) i);
-                                            consumer.accept(vertex, finalTid, msg);
-                                        }
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
+                                    if (vertexSet.get(i)) {
+                                        vertex.setValue((long) i);
+                                        consumer.accept(vertex, tid, msg);
                                     }
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    logger.error(
-                                            "origin end "
-                                                    + originEnd
-                                                    + " vertices "
-                                                    + curBegin
-                                                    + " "
-                                                    + curEnd
-                                                    + " vertex "
-                                                    + vertex.getValue().intValue()
-                                                    + " thread "
-                                                    + finalTid);
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -304,54 +208,22 @@ public interface ParallelEngine {
             ExecutorService executor,
             TriConsumer<Vertex<Long>, Integer, DoubleMsg> consumer,
             Supplier<DoubleMsg> msgSupplier) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
                             DoubleMsg msg = msgSupplier.get();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                try {
-                                    for (int i = curBegin; i < curEnd; ++i) {
-                                        vertex.setValue((long) i);
-                                        consumer.accept(vertex, finalTid, msg);
-                                    }
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    logger.error(
-                                            "origin end "
-                                                    + originEnd
-                                                    + " vertices "
-                                                    + curBegin
-                                                    + " "
-                                                    + curEnd
-                                                    + " vertex "
-                                                    + vertex.getValue().intValue()
-                                                    + " thread "
-                                                    + finalTid);
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
+                                    vertex.setValue((long) i);
+                                    consumer.accept(vertex, tid, msg);
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -374,41 +246,23 @@ public interface ParallelEngine {
             ExecutorService executor,
             VertexSet vertexSet,
             TriConsumer<Vertex<Long>, Integer, Integer> consumer) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                for (int i = curBegin; i < curEnd; ++i) {
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
                                     if (vertexSet.get(i)) {
                                         vertex.setValue((long) i);
-                                        consumer.accept(vertex, finalTid, vertexLabelId);
+                                        consumer.accept(vertex, tid, vertexLabelId);
                                     }
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 
     /**
@@ -429,39 +283,20 @@ public interface ParallelEngine {
             int threadNum,
             ExecutorService executor,
             TriConsumer<Vertex<Long>, Integer, Integer> consumer) {
-        CountDownLatch countDownLatch = new CountDownLatch(threadNum);
-        AtomicInteger atomicInteger = new AtomicInteger(vertices.beginValue().intValue());
-
-        // int chunkSize = 1024;
-        int originEnd = vertices.endValue().intValue();
-        for (int tid = 0; tid < threadNum; ++tid) {
-            final int finalTid = tid;
-            executor.execute(
-                    new Runnable() {
-                        @Override
-                        public void run() {
+        VertexScheduler.get()
+                .run(
+                        vertices.beginValue().intValue(),
+                        vertices.endValue().intValue(),
+                        threadNum,
+                        executor,
+                        tid -> {
                             Vertex<Long> vertex = FFITypeFactoryhelper.newVertexLong();
-                            while (true) {
-                                int curBegin =
-                                        Math.min(atomicInteger.getAndAdd(chunkSize), originEnd);
-                                int curEnd = Math.min(curBegin + chunkSize, originEnd);
-                                if (curBegin >= originEnd) {
-                                    break;
-                                }
-                                for (int i = curBegin; i < curEnd; ++i) {
+                            return (begin, end) -> {
+                                for (int i = begin; i < end; ++i) {
                                     vertex.setValue((long) i);
-                                    consumer.accept(vertex, finalTid, vertexLabelId);
+                                    consumer.accept(vertex, tid, vertexLabelId);
                                 }
-                            }
-                            countDownLatch.countDown();
-                        }
-                    });
-        }
-        try {
-            countDownLatch.await();
-        } catch (Exception e) {
-            e.printStackTrace();
-            executor.shutdown();
-        }
+                            };
+                        });
     }
 }
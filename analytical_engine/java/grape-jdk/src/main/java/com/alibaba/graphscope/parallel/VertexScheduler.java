@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Schedules a range of vertices over a fixed number of threads of an executor.
+ *
+ * <p>The range is split into one contiguous sub-range per thread. Each thread claims chunks from
+ * its own sub-range first, and then steals chunks from the sub-ranges of the others, so a thread
+ * which meets a bunch of high-degree vertices doesn't hold back the whole superstep. The chunk size
+ * is proportional to the vertices left in the sub-range, large chunks keep the claiming cheap at
+ * the beginning, and small chunks keep the tail short at the end.
+ *
+ * <p>The thread id passed to {@link RangeConsumer} is in [0, threadNum), and is used by exactly one
+ * thread during a round, so that it can still index per-thread resources, i.e. message buffers.
+ *
+ * <p>A scheduler and its workers are reused across supersteps, one scheduler per calling thread.
+ */
+public class VertexScheduler {
+    private static final ThreadLocal<VertexScheduler> SCHEDULERS =
+            ThreadLocal.withInitial(VertexScheduler::new);
+
+    // cursors of different threads are put in different cache lines
+    private static final int CURSOR_STRIDE = 16;
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final int MAX_CHUNK_SIZE = 4096;
+    // each chunk claims 1/GUIDED_FACTOR of the vertices left in a sub-range
+    private static final int GUIDED_FACTOR = 8;
+
+    /** Process vertices in [begin, end) of a chunk. */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        void accept(int begin, int end);
+    }
+
+    private final AtomicInteger running;
+    private final AtomicReference<Throwable> error;
+    private Worker[] workers;
+    private AtomicIntegerArray cursors;
+    private int[] ends;
+    private int threadNum;
+    private IntFunction<RangeConsumer> consumerFactory;
+    private volatile Thread waiter;
+
+    private VertexScheduler() {
+        this.running = new AtomicInteger(0);
+        this.error = new AtomicReference<>();
+        this.workers = new Worker[0];
+        this.cursors = new AtomicIntegerArray(0);
+        this.ends = new int[0];
+    }
+
+    public static VertexScheduler get() {
+        return SCHEDULERS.get();
+    }
+
+    /**
+     * Process vertices in [begin, end) with threadNum threads, and wait until all of them are done.
+     *
+     * @param begin first vertex.
+     * @param end end of vertices, exclusive.
+     * @param threadNum number of threads to use.
+     * @param executor executor to run the threads.
+     * @param consumerFactory create the consumer of a thread by the thread id, the consumer is
+     *     called on chunks claimed by the thread.
+     */
+    public void run(
+            int begin,
+            int end,
+            int threadNum,
+            ExecutorService executor,
+            IntFunction<RangeConsumer> consumerFactory) {
+        if (begin >= end) {
+            return;
+        }
+        prepare(begin, end, threadNum, consumerFactory);
+        int submitted = 0;
+        try {
+            for (; submitted < threadNum; ++submitted) {
+                executor.execute(workers[submitted]);
+            }
+        } catch (RejectedExecutionException e) {
+            error.compareAndSet(null, e);
+            running.addAndGet(submitted - threadNum);
+        }
+        // the scheduler can not be reused until all workers have finished, so don't return on
+        // interruption
+        boolean interrupted = false;
+        while (running.get() > 0) {
+            LockSupport.park(this);
+            interrupted |= Thread.interrupted();
+        }
+        this.consumerFactory = null;
+        this.waiter = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable t = error.getAndSet(null);
+        if (t != null) {
+            throw new IllegalStateException("fail to process vertices in parallel", t);
+        }
+    }
+
+    private void prepare(
+            int begin, int end, int threadNum, IntFunction<RangeConsumer> consumerFactory) {
+        if (workers.length < threadNum) {
+            this.workers = new Worker[threadNum];
+            for (int tid = 0; tid < threadNum; ++tid) {
+                workers[tid] = new Worker(tid);
+            }
+            this.cursors = new AtomicIntegerArray(threadNum * CURSOR_STRIDE);
+            this.ends = new int[threadNum];
+        }
+        long total = end - begin;
+        for (int tid = 0; tid < threadNum; ++tid) {
+            cursors.set(tid * CURSOR_STRIDE, (int) (begin + total * tid / threadNum));
+            ends[tid] = (int) (begin + total * (tid + 1) / threadNum);
+        }
+        this.threadNum = threadNum;
+        this.consumerFactory = consumerFactory;
+        this.waiter = Thread.currentThread();
+        this.error.set(null);
+        this.running.set(threadNum);
+    }
+
+    private class Worker implements Runnable {
+        private final int tid;
+
+        public Worker(int tid) {
+            this.tid = tid;
+        }
+
+        @Override
+        public void run() {
+            try {
+                RangeConsumer consumer = consumerFactory.apply(tid);
+                // drain its own sub-range first, then steal from the neighbors
+                for (int i = 0; i < threadNum && error.get() == null; ++i) {
+                    drain((tid + i) % threadNum, consumer);
+                }
+            } catch (Throwable t) {
+                error.compareAndSet(null, t);
+            } finally {
+                Thread w = waiter;
+                if (running.decrementAndGet() == 0) {
+                    LockSupport.unpark(w);
+                }
+            }
+        }
+
+        private void drain(int owner, RangeConsumer consumer) {
+            int index = owner * CURSOR_STRIDE;
+            int end = ends[owner];
+            while (true) {
+                int cur = cursors.get(index);
+                if (cur >= end) {
+                    return;
+                }
+                int guided = (end - cur) / GUIDED_FACTOR;
+                int chunk = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, guided));
+                int chunkBegin = cursors.getAndAdd(index, chunk);
+                if (chunkBegin >= end) {
+                    return;
+                }
+                consumer.accept(chunkBegin, Math.min(chunkBegin + chunk, end));
+            }
+        }
+    }
+}
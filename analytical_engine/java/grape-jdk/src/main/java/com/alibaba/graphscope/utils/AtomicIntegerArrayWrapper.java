@@ -94,6 +94,15 @@ public class AtomicIntegerArrayWrapper {
         } while (preValue > newValue && !data.compareAndSet(lid, preValue, newValue));
     }
 
+    /**
+     * Atomically set the value at ind to update if it equals to expect.
+     *
+     * @return true if successful.
+     */
+    public boolean compareAndSet(int ind, int expect, int update) {
+        return data.compareAndSet(ind, expect, update);
+    }
+
     public void compareAndSet(int ind, int newValue) {
         int preValue;
         do {
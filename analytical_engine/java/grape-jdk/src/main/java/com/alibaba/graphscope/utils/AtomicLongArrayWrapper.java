@@ -93,6 +93,15 @@ public class AtomicLongArrayWrapper {
         } while (preValue > newValue && !data.compareAndSet(lid, preValue, newValue));
     }
 
+    /**
+     * Atomically set the value at ind to update if it equals to expect.
+     *
+     * @return true if successful.
+     */
+    public boolean compareAndSet(int ind, long expect, long update) {
+        return data.compareAndSet(ind, expect, update);
+    }
+
     public void compareAndSet(int ind, long newValue) {
         long preValue;
         do {
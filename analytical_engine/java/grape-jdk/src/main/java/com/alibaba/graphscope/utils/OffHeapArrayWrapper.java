@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.fastffi.llvm4jni.runtime.JavaRuntime;
+
+import sun.misc.Unsafe;
+
+/**
+ * Base of vertex-indexed primitive arrays allocated out of the java heap. A large fragment no
+ * longer puts its per-vertex data onto the heap, and the array can be passed to the C++ side by
+ * {@link #getAddress()}.
+ *
+ * <p>The memory is not managed by GC, call {@link #close()} to release it once the array is no
+ * longer used.
+ */
+public abstract class OffHeapArrayWrapper implements AutoCloseable {
+    protected static final Unsafe UNSAFE = JavaRuntime.UNSAFE;
+
+    protected final long size;
+    private final int shift;
+    private long address;
+
+    protected OffHeapArrayWrapper(long size, int shift) {
+        if (size < 0) {
+            throw new IllegalArgumentException("invalid array size " + size);
+        }
+        this.size = size;
+        this.shift = shift;
+        this.address = UNSAFE.allocateMemory(Math.max(size << shift, 1L));
+    }
+
+    /** @return the address of the first element, throw if the array has been closed. */
+    protected final long base() {
+        if (address == 0) {
+            throw new IllegalStateException("array has been closed");
+        }
+        return address;
+    }
+
+    protected final long offset(long ind) {
+        if (ind < 0 || ind >= size) {
+            throw new IndexOutOfBoundsException("index " + ind + " out of [0, " + size + ")");
+        }
+        return base() + (ind << shift);
+    }
+
+    /** @return the address of the first element, which is valid until the array is closed. */
+    public long getAddress() {
+        return base();
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            UNSAFE.freeMemory(address);
+            address = 0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+
+/**
+ * Off-heap counterpart of {@link AtomicDoubleArrayWrapper}, indexed by long. Values are stored as
+ * raw long bits and compared bitwise, the same as guava's AtomicDoubleArray.
+ */
+public class OffHeapAtomicDoubleArrayWrapper extends OffHeapArrayWrapper {
+
+    public OffHeapAtomicDoubleArrayWrapper(long s) {
+        super(s, 3);
+        UNSAFE.setMemory(base(), size << 3, (byte) 0);
+    }
+
+    public OffHeapAtomicDoubleArrayWrapper(long s, double defaultValue) {
+        super(s, 3);
+        set(defaultValue);
+    }
+
+    public double get(long ind) {
+        return Double.longBitsToDouble(UNSAFE.getLongVolatile(null, offset(ind)));
+    }
+
+    public double get(Vertex<Long> vertex) {
+        return get(vertex.getValue().longValue());
+    }
+
+    public void set(long ind, double newValue) {
+        UNSAFE.putLongVolatile(null, offset(ind), Double.doubleToRawLongBits(newValue));
+    }
+
+    public void set(Vertex<Long> vertex, double newValue) {
+        set(vertex.getValue().longValue(), newValue);
+    }
+
+    public void set(double newValue) {
+        long bits = Double.doubleToRawLongBits(newValue);
+        long base = base();
+        for (long i = 0; i < size; ++i) {
+            UNSAFE.putLong(base + (i << 3), bits);
+        }
+        UNSAFE.fullFence();
+    }
+
+    /*
+     * we want to set the smaller one to ind.
+     */
+    public void compareAndSetMin(long ind, double newValue) {
+        long addr = offset(ind);
+        long newBits = Double.doubleToRawLongBits(newValue);
+        long preBits;
+        do {
+            preBits = UNSAFE.getLongVolatile(null, addr);
+        } while (Double.longBitsToDouble(preBits) > newValue
+                && !UNSAFE.compareAndSwapLong(null, addr, preBits, newBits));
+    }
+
+    public void compareAndSetMin(Vertex<Long> vertex, double newValue) {
+        compareAndSetMin(vertex.getValue().longValue(), newValue);
+    }
+
+    public void compareAndSet(long ind, double newValue) {
+        long addr = offset(ind);
+        long newBits = Double.doubleToRawLongBits(newValue);
+        long preBits;
+        do {
+            preBits = UNSAFE.getLongVolatile(null, addr);
+        } while (preBits != newBits && !UNSAFE.compareAndSwapLong(null, addr, preBits, newBits));
+    }
+
+    /** Atomically add delta to the value at ind, return the updated value. */
+    public double addAndGet(long ind, double delta) {
+        long addr = offset(ind);
+        long preBits;
+        double next;
+        do {
+            preBits = UNSAFE.getLongVolatile(null, addr);
+            next = Double.longBitsToDouble(preBits) + delta;
+        } while (!UNSAFE.compareAndSwapLong(
+                null, addr, preBits, Double.doubleToRawLongBits(next)));
+        return next;
+    }
+
+    public void clear() {
+        set(0.0);
+    }
+}
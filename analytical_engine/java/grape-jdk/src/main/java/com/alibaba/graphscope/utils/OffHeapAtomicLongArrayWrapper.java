@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+
+/** Off-heap counterpart of {@link AtomicLongArrayWrapper}, indexed by long. */
+public class OffHeapAtomicLongArrayWrapper extends OffHeapArrayWrapper {
+
+    public OffHeapAtomicLongArrayWrapper(long s) {
+        super(s, 3);
+        UNSAFE.setMemory(base(), size << 3, (byte) 0);
+    }
+
+    public OffHeapAtomicLongArrayWrapper(long s, long defaultValue) {
+        super(s, 3);
+        set(defaultValue);
+    }
+
+    public long get(long ind) {
+        return UNSAFE.getLongVolatile(null, offset(ind));
+    }
+
+    public long get(Vertex<Long> vertex) {
+        return get(vertex.getValue().longValue());
+    }
+
+    public void set(long ind, long newValue) {
+        UNSAFE.putLongVolatile(null, offset(ind), newValue);
+    }
+
+    public void set(Vertex<Long> vertex, long newValue) {
+        set(vertex.getValue().longValue(), newValue);
+    }
+
+    public void set(long newValue) {
+        long base = base();
+        for (long i = 0; i < size; ++i) {
+            UNSAFE.putLong(base + (i << 3), newValue);
+        }
+        UNSAFE.fullFence();
+    }
+
+    /*
+     * we want to set the smaller one to ind.
+     */
+    public void compareAndSetMin(long ind, long newValue) {
+        long addr = offset(ind);
+        long preValue;
+        do {
+            preValue = UNSAFE.getLongVolatile(null, addr);
+        } while (preValue > newValue && !UNSAFE.compareAndSwapLong(null, addr, preValue, newValue));
+    }
+
+    public void compareAndSetMin(Vertex<Long> vertex, long newValue) {
+        compareAndSetMin(vertex.getValue().longValue(), newValue);
+    }
+
+    public void compareAndSet(long ind, long newValue) {
+        long addr = offset(ind);
+        long preValue;
+        do {
+            preValue = UNSAFE.getLongVolatile(null, addr);
+        } while (preValue != newValue
+                && !UNSAFE.compareAndSwapLong(null, addr, preValue, newValue));
+    }
+
+    /** Atomically add delta to the value at ind, return the updated value. */
+    public long addAndGet(long ind, long delta) {
+        return UNSAFE.getAndAddLong(null, offset(ind), delta) + delta;
+    }
+
+    public void clear() {
+        set(0L);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+
+/** Off-heap counterpart of {@link DoubleArrayWrapper}, indexed by long. */
+public class OffHeapDoubleArrayWrapper extends OffHeapArrayWrapper {
+
+    public OffHeapDoubleArrayWrapper(long s) {
+        super(s, 3);
+    }
+
+    public OffHeapDoubleArrayWrapper(long s, double defaultValue) {
+        super(s, 3);
+        set(defaultValue);
+    }
+
+    public double get(long ind) {
+        return UNSAFE.getDouble(offset(ind));
+    }
+
+    public double get(Vertex<Long> vertex) {
+        return get(vertex.getValue().longValue());
+    }
+
+    public void set(long ind, double newValue) {
+        UNSAFE.putDouble(offset(ind), newValue);
+    }
+
+    public void set(Vertex<Long> vertex, double newValue) {
+        set(vertex.getValue().longValue(), newValue);
+    }
+
+    public void set(double newValue) {
+        if (Double.doubleToRawLongBits(newValue) == 0L) {
+            UNSAFE.setMemory(base(), size << 3, (byte) 0);
+            return;
+        }
+        long base = base();
+        for (long i = 0; i < size; ++i) {
+            UNSAFE.putDouble(base + (i << 3), newValue);
+        }
+    }
+
+    public void clear() {
+        set(Double.MAX_VALUE);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.utils;
+
+import com.alibaba.graphscope.ds.Vertex;
+
+/** Off-heap counterpart of {@link LongArrayWrapper}, indexed by long. */
+public class OffHeapLongArrayWrapper extends OffHeapArrayWrapper {
+
+    public OffHeapLongArrayWrapper(long s) {
+        super(s, 3);
+    }
+
+    public OffHeapLongArrayWrapper(long s, long defaultValue) {
+        super(s, 3);
+        set(defaultValue);
+    }
+
+    public long get(long ind) {
+        return UNSAFE.getLong(offset(ind));
+    }
+
+    public long get(Vertex<Long> vertex) {
+        return get(vertex.getValue().longValue());
+    }
+
+    public void set(long ind, long newValue) {
+        UNSAFE.putLong(offset(ind), newValue);
+    }
+
+    public void set(Vertex<Long> vertex, long newValue) {
+        set(vertex.getValue().longValue(), newValue);
+    }
+
+    public void set(long newValue) {
+        if (newValue == 0L) {
+            UNSAFE.setMemory(base(), size << 3, (byte) 0);
+            return;
+        }
+        long base = base();
+        for (long i = 0; i < size; ++i) {
+            UNSAFE.putLong(base + (i << 3), newValue);
+        }
+    }
+
+    public void clear() {
+        set(0L);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class VertexSchedulerTest {
+    private static final int THREAD_NUM = 4;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREAD_NUM);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoverage() {
+        int begin = 10;
+        int end = 100_010;
+        AtomicIntegerArray visits = new AtomicIntegerArray(end);
+        AtomicIntegerArray threads = new AtomicIntegerArray(THREAD_NUM);
+        VertexScheduler.get()
+                .run(
+                        begin,
+                        end,
+                        THREAD_NUM,
+                        executor,
+                        tid -> {
+                            threads.incrementAndGet(tid);
+                            return (chunkBegin, chunkEnd) -> {
+                                for (int i = chunkBegin; i < chunkEnd; ++i) {
+                                    visits.incrementAndGet(i);
+                                }
+                            };
+                        });
+        // every vertex is visited exactly once, and every thread id is used once
+        for (int i = 0; i < end; ++i) {
+            Assert.assertEquals("vertex " + i, i < begin ? 0 : 1, visits.get(i));
+        }
+        for (int tid = 0; tid < THREAD_NUM; ++tid) {
+            Assert.assertEquals(1, threads.get(tid));
+        }
+    }
+
+    @Test
+    public void testStealing() {
+        int end = 10_000;
+        AtomicIntegerArray visits = new AtomicIntegerArray(end);
+        CountDownLatch stolen = new CountDownLatch(1);
+        // thread 0 is stuck on its first chunk, until another thread claims a chunk of its range
+        VertexScheduler.get()
+                .run(
+                        0,
+                        end,
+                        2,
+                        executor,
+                        tid ->
+                                (chunkBegin, chunkEnd) -> {
+                                    if (tid == 0 && chunkBegin == 0) {
+                                        awaitQuietly(stolen);
+                                    } else if (tid != 0 && chunkBegin < end / 2) {
+                                        stolen.countDown();
+                                    }
+                                    for (int i = chunkBegin; i < chunkEnd; ++i) {
+                                        visits.incrementAndGet(i);
+                                    }
+                                });
+        Assert.assertEquals(0, stolen.getCount());
+        for (int i = 0; i < end; ++i) {
+            Assert.assertEquals("vertex " + i, 1, visits.get(i));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testWorkerException() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad vertex");
+        IllegalStateException e =
+                Assert.assertThrows(
+                        IllegalStateException.class,
+                        () ->
+                                VertexScheduler.get()
+                                        .run(
+                                                0,
+                                                10_000,
+                                                THREAD_NUM,
+                                                executor,
+                                                tid ->
+                                                        (chunkBegin, chunkEnd) -> {
+                                                            if (chunkBegin <= 5000
+                                                                    && 5000 < chunkEnd) {
+                                                                throw failure;
+                                                            }
+                                                        }));
+        Assert.assertSame(failure, e.getCause());
+
+        // the scheduler is reusable after a failed round
+        AtomicIntegerArray visits = new AtomicIntegerArray(100);
+        VertexScheduler.get()
+                .run(
+                        0,
+                        100,
+                        THREAD_NUM,
+                        executor,
+                        tid ->
+                                (chunkBegin, chunkEnd) -> {
+                                    for (int i = chunkBegin; i < chunkEnd; ++i) {
+                                        visits.incrementAndGet(i);
+                                    }
+                                });
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertEquals(1, visits.get(i));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapArrayWrapperTest {
+
+    @Test
+    public void testDoubleArray() {
+        try (OffHeapDoubleArrayWrapper array = new OffHeapDoubleArrayWrapper(10, 1.5)) {
+            Assert.assertEquals(10, array.getSize());
+            Assert.assertEquals(1.5, array.get(9), 0.0);
+            array.set(3, 2.5);
+            Assert.assertEquals(2.5, array.get(3), 0.0);
+            array.set(0.0);
+            Assert.assertEquals(0.0, array.get(3), 0.0);
+            array.clear();
+            Assert.assertEquals(Double.MAX_VALUE, array.get(0), 0.0);
+        }
+    }
+
+    @Test
+    public void testLongArray() {
+        try (OffHeapLongArrayWrapper array = new OffHeapLongArrayWrapper(10, 7L)) {
+            Assert.assertEquals(7L, array.get(0));
+            array.set(9, 11L);
+            Assert.assertEquals(11L, array.get(9));
+            array.set(0L);
+            Assert.assertEquals(0L, array.get(9));
+        }
+    }
+
+    @Test
+    public void testAtomicArrays() {
+        try (OffHeapAtomicDoubleArrayWrapper doubles = new OffHeapAtomicDoubleArrayWrapper(4);
+                OffHeapAtomicLongArrayWrapper longs = new OffHeapAtomicLongArrayWrapper(4, 5L)) {
+            Assert.assertEquals(0.0, doubles.get(3), 0.0);
+            Assert.assertEquals(1.5, doubles.addAndGet(3, 1.5), 0.0);
+            doubles.compareAndSetMin(3, 2.0);
+            Assert.assertEquals(1.5, doubles.get(3), 0.0);
+            doubles.compareAndSetMin(3, 0.5);
+            Assert.assertEquals(0.5, doubles.get(3), 0.0);
+
+            Assert.assertEquals(5L, longs.get(0));
+            Assert.assertEquals(8L, longs.addAndGet(0, 3L));
+            longs.compareAndSetMin(0, 2L);
+            Assert.assertEquals(2L, longs.get(0));
+            longs.compareAndSet(1, 9L);
+            Assert.assertEquals(9L, longs.get(1));
+        }
+    }
+
+    @Test
+    public void testBounds() {
+        try (OffHeapDoubleArrayWrapper doubles = new OffHeapDoubleArrayWrapper(4);
+                OffHeapAtomicLongArrayWrapper longs = new OffHeapAtomicLongArrayWrapper(4)) {
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> doubles.get(4));
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> doubles.set(-1, 1.0));
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> longs.addAndGet(4, 1L));
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> new OffHeapLongArrayWrapper(-1));
+        // an empty array is valid but has no element
+        try (OffHeapLongArrayWrapper empty = new OffHeapLongArrayWrapper(0)) {
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+        }
+    }
+
+    @Test
+    public void testUseAfterClose() {
+        OffHeapDoubleArrayWrapper doubles = new OffHeapDoubleArrayWrapper(4);
+        OffHeapAtomicLongArrayWrapper longs = new OffHeapAtomicLongArrayWrapper(4);
+        doubles.close();
+        longs.close();
+        // closing twice is a no-op
+        doubles.close();
+        Assert.assertThrows(IllegalStateException.class, () -> doubles.get(0));
+        Assert.assertThrows(IllegalStateException.class, () -> doubles.set(0, 1.0));
+        Assert.assertThrows(IllegalStateException.class, () -> doubles.set(1.0));
+        Assert.assertThrows(IllegalStateException.class, doubles::getAddress);
+        Assert.assertThrows(IllegalStateException.class, () -> longs.addAndGet(0, 1L));
+        Assert.assertThrows(IllegalStateException.class, () -> longs.set(1L));
+    }
+}
@@ -0,0 +1,2 @@
+MATCH (p:PERSON)-[:KNOWS]-(friend:PERSON)
+RETURN p.id, friend.id, friend.firstName, friend.lastName
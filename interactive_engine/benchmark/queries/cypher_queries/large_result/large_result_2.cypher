@@ -0,0 +1,2 @@
+MATCH (message:COMMENT)
+RETURN message.id, message.length, message.content
@@ -0,0 +1,2 @@
+MATCH (message:COMMENT)-[:HASCREATOR]->(p:PERSON)
+RETURN message.id, p.id, p.firstName
@@ -19,6 +19,33 @@ public class CoordinatorConfig {
     public static final Config<Long> SNAPSHOT_INCREASE_INTERVAL_MS =
             Config.longConfig("snapshot.increase.interval.ms", 2000L);
 
+    /**
+     * Advance the write snapshot on demand: a snapshot waited by a flush is sealed as soon as the
+     * stores have caught up, and the periodical interval backs off while the stores fall behind.
+     */
+    public static final Config<Boolean> SNAPSHOT_INCREASE_ADAPTIVE_ENABLED =
+            Config.boolConfig("snapshot.increase.adaptive.enabled", false);
+
+    public static final Config<Long> SNAPSHOT_INCREASE_MIN_INTERVAL_MS =
+            Config.longConfig("snapshot.increase.min.interval.ms", 10L);
+
+    public static final Config<Long> SNAPSHOT_INCREASE_MAX_INTERVAL_MS =
+            Config.longConfig("snapshot.increase.max.interval.ms", 8000L);
+
+    /**
+     * Number of write snapshot ids reserved by one write to the meta store, ids in the lease are
+     * allocated from memory, and recovery continues from the end of the lease.
+     */
+    public static final Config<Long> SNAPSHOT_ID_LEASE_SIZE =
+            Config.longConfig("snapshot.id.lease.size", 1L);
+
+    /**
+     * Min interval to persist the query snapshot info, 0 means it is persisted on each advance. The
+     * query snapshot recovered may fall behind by this interval, until stores commit again.
+     */
+    public static final Config<Long> QUERY_SNAPSHOT_PERSIST_INTERVAL_MS =
+            Config.longConfig("query.snapshot.persist.interval.ms", 0L);
+
     public static final Config<Long> OFFSETS_PERSIST_INTERVAL_MS =
             Config.longConfig("offsets.persist.interval.ms", 1000L);
 
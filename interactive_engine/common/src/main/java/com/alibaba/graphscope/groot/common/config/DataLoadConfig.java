@@ -35,6 +35,12 @@ public class DataLoadConfig {
     public static final String LDBC_CUSTOMIZE = "ldbc.customize";
     /* end */
 
+    /** job on local machine configurations **/
+    public static final String BUILD_THREADS = "build.threads"; // default to available processors
+    public static final String BUILD_SORT_BUFFER_MB = "build.sort.buffer.mb"; // of all threads
+    public static final String BUILD_TMP_DIR = "build.tmp.dir";
+    /* end */
+
     /** job on ODPS configurations **/
     public static final String DATA_SINK_TYPE = "data.sink.type"; // hdfs, oss, volume
     // The table format is `project.table` or `table`;
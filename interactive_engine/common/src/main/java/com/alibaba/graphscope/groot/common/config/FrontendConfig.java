@@ -31,4 +31,14 @@ public class FrontendConfig {
 
     public static final Config<Integer> WRITE_QUEUE_BUFFER_MAX_COUNT =
             Config.intConfig("write.queue.buffer.max.count", 1024000);
+
+    // Merge pending write requests into one WAL entry per store
+    public static final Config<Boolean> WRITE_GROUP_COMMIT_ENABLED =
+            Config.boolConfig("write.group.commit.enabled", false);
+
+    public static final Config<Integer> WRITE_GROUP_COMMIT_MAX_OPERATIONS =
+            Config.intConfig("write.group.commit.max.operations", 10000);
+
+    public static final Config<Long> WRITE_GROUP_COMMIT_LINGER_US =
+            Config.longConfig("write.group.commit.linger.us", 1000L);
 }
@@ -23,12 +23,29 @@ public class StoreConfig {
     public static final Config<Integer> STORE_WRITE_THREAD_COUNT =
             Config.intConfig("store.write.thread.count", 1);
 
+    // Let each partition drain its own ordered queue instead of waiting for the slowest partition
+    public static final Config<Boolean> STORE_WRITE_PIPELINE_ENABLED =
+            Config.boolConfig("store.write.pipeline.enabled", false);
+
+    public static final Config<Integer> STORE_WRITE_PIPELINE_MAX_INFLIGHT =
+            Config.intConfig("store.write.pipeline.max.inflight", 1024);
+
+    public static final Config<Integer> STORE_WRITE_MAX_DRAIN_SIZE =
+            Config.intConfig("store.write.max.drain.size", 256);
+
     public static final Config<Integer> STORE_QUEUE_BUFFER_SIZE =
             Config.intConfig("store.queue.buffer.size", 102400);
 
     public static final Config<Long> STORE_QUEUE_WAIT_MS =
             Config.longConfig("store.queue.wait.ms", 3000L);
 
+    // Decode threads of WAL replay on recovery, 1 means replaying record by record
+    public static final Config<Integer> STORE_WAL_REPLAY_PARALLELISM =
+            Config.intConfig("store.wal.replay.parallelism", 1);
+
+    public static final Config<Integer> STORE_WAL_REPLAY_FETCH_RECORDS =
+            Config.intConfig("store.wal.replay.fetch.records", 10000);
+
     public static final Config<Boolean> STORE_GC_ENABLE =
             Config.boolConfig("store.gc.enable", true);
 
@@ -49,4 +66,12 @@ public class StoreConfig {
 
     public static final Config<Integer> STORE_COMPACT_THREAD_NUM =
             Config.intConfig("store.compact.thread.num", 1);
+
+    // Keep the statistics of each partition on the write path instead of scanning the store on
+    // every collection, partitions are scanned again after the refresh interval
+    public static final Config<Boolean> STORE_STATISTICS_INCREMENTAL_ENABLED =
+            Config.boolConfig("store.statistics.incremental.enabled", false);
+
+    public static final Config<Integer> STORE_STATISTICS_REFRESH_INTERVAL_MIN =
+            Config.intConfig("store.statistics.refresh.interval.min", 60);
 }
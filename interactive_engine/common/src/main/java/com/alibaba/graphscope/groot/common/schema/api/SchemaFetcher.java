@@ -27,4 +27,19 @@ public interface SchemaFetcher {
     int getVersion();
 
     boolean statisticsEnabled();
+
+    /**
+     * Register a listener to be notified once the schema or the statistics are changed.
+     *
+     * @return false if the changes can not be notified, then they should be fetched periodically
+     */
+    default boolean addListener(Listener listener) {
+        return false;
+    }
+
+    interface Listener {
+        void onSchemaChanged(GraphSchema schema);
+
+        void onStatisticsChanged(GraphStatistics statistics);
+    }
 }
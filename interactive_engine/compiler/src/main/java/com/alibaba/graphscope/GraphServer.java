@@ -37,6 +37,7 @@ import com.alibaba.graphscope.common.ir.tools.QueryIdGenerator;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
 import com.alibaba.graphscope.common.metric.MemoryMetric;
 import com.alibaba.graphscope.common.metric.MetricsTool;
+import com.alibaba.graphscope.common.metric.QueryCacheMetric;
 import com.alibaba.graphscope.cypher.service.CypherBootstrapper;
 import com.alibaba.graphscope.gremlin.integration.result.GraphProperties;
 import com.alibaba.graphscope.gremlin.integration.result.TestGraphFactory;
@@ -87,6 +88,7 @@ public class GraphServer {
         this.metricsTool = new MetricsTool(configs);
         this.metricsTool.registerMetric(new MemoryMetric());
         this.queryCache = queryCache;
+        this.metricsTool.registerMetric(new QueryCacheMetric(queryCache));
     }
 
     public void start() throws Exception {
@@ -16,11 +16,43 @@
 
 package com.alibaba.graphscope.common.antlr4;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BufferedTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
 
+import java.util.function.Function;
+
 /**
  * parse DSL statement to antlr tree
  */
 public interface Antlr4Parser {
     ParseTree parse(String statement);
+
+    /**
+     * parse in SLL mode first, which is much faster and succeeds for most of the statements, and
+     * parse again in LL mode only if SLL fails, the syntax errors are always reported by LL.
+     * @param parser the parser whose tokens are buffered by a {@link BufferedTokenStream}
+     * @param rule the rule to start parsing
+     */
+    static <P extends Parser> ParseTree parseTwoStage(P parser, Function<P, ParseTree> rule) {
+        // lex the whole statement first, to report the lexer errors before parsing
+        ((BufferedTokenStream) parser.getTokenStream()).fill();
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            parser.getTokenStream().seek(0);
+            parser.reset();
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.addErrorListener(new SyntaxErrorListener());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+    }
 }
@@ -31,11 +31,14 @@ import com.alibaba.pegasus.RpcClient;
 import com.alibaba.pegasus.intf.ResultProcessor;
 import com.alibaba.pegasus.service.protocol.PegasusClient;
 import com.google.common.collect.ImmutableMap;
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 
+import io.grpc.Channel;
 import io.grpc.ClientInterceptors;
 import io.grpc.Status;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -43,7 +46,12 @@ import java.util.stream.Collectors;
  * rpc client to send request to pegasus engine service
  */
 public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
+    private static final RpcInterceptor INTERCEPTOR = new RpcInterceptor();
     private final Configs graphConfig;
+    // job config shared by all queries, only the query specific fields are set per query
+    private final PegasusClient.JobConfig jobConfigTemplate;
+    // the client is shared by queries, and rebuilt only if the channels have been changed
+    private volatile @Nullable CachedClient cachedClient;
 
     public RpcExecutionClient(
             Configs graphConfig,
@@ -51,6 +59,17 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
             MetricsTool metricsTool) {
         super(channelFetcher);
         this.graphConfig = graphConfig;
+        this.jobConfigTemplate =
+                PegasusClient.JobConfig.newBuilder()
+                        .setWorkers(PegasusConfig.PEGASUS_WORKER_NUM.get(graphConfig))
+                        .setBatchSize(PegasusConfig.PEGASUS_BATCH_SIZE.get(graphConfig))
+                        .setMemoryLimit(PegasusConfig.PEGASUS_MEMORY_LIMIT.get(graphConfig))
+                        .setBatchCapacity(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.get(graphConfig))
+                        .setAll(
+                                com.alibaba.pegasus.service.protocol.PegasusClient.Empty
+                                        .newBuilder()
+                                        .build())
+                        .build();
         metricsTool.registerMetric(new RpcExecutorMetric(channelFetcher));
     }
 
@@ -61,39 +80,21 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
             QueryTimeoutConfig timeoutConfig,
             QueryLogger queryLogger)
             throws Exception {
-        List<RpcChannel> interceptChannels =
-                channelFetcher.fetch().stream()
-                        .map(
-                                k ->
-                                        new RpcChannel(
-                                                ClientInterceptors.intercept(
-                                                        k.getChannel(), new RpcInterceptor())))
-                        .collect(Collectors.toList());
-        RpcClient rpcClient =
-                new RpcClient(
-                        interceptChannels,
-                        ImmutableMap.of(RpcInterceptor.QUERY_LOGGER_OPTION, queryLogger));
-        PegasusClient.JobRequest jobRequest =
-                PegasusClient.JobRequest.newBuilder()
-                        .setPlan(
-                                ByteString.copyFrom(
-                                        (byte[]) request.getRequestPhysical().getContent()))
-                        .build();
+        RpcClient rpcClient = getRpcClient();
         PegasusClient.JobConfig jobConfig =
-                PegasusClient.JobConfig.newBuilder()
+                jobConfigTemplate.toBuilder()
                         .setJobId(request.getRequestId().longValue())
                         .setJobName(request.getRequestName())
-                        .setWorkers(PegasusConfig.PEGASUS_WORKER_NUM.get(graphConfig))
-                        .setBatchSize(PegasusConfig.PEGASUS_BATCH_SIZE.get(graphConfig))
-                        .setMemoryLimit(PegasusConfig.PEGASUS_MEMORY_LIMIT.get(graphConfig))
-                        .setBatchCapacity(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.get(graphConfig))
                         .setTimeLimit(timeoutConfig.getEngineTimeoutMS())
-                        .setAll(
-                                com.alibaba.pegasus.service.protocol.PegasusClient.Empty
-                                        .newBuilder()
-                                        .build())
                         .build();
-        jobRequest = jobRequest.toBuilder().setConf(jobConfig).build();
+        // the plan bytes are never modified after built, wrap them without copy
+        PegasusClient.JobRequest jobRequest =
+                PegasusClient.JobRequest.newBuilder()
+                        .setPlan(
+                                UnsafeByteOperations.unsafeWrap(
+                                        (byte[]) request.getRequestPhysical().getContent()))
+                        .setConf(jobConfig)
+                        .build();
         rpcClient.submit(
                 jobRequest,
                 new ResultProcessor() {
@@ -120,7 +121,18 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
                         queryLogger.error("[compile]: fail to receive results from engine");
                     }
                 },
-                timeoutConfig.getChannelTimeoutMS());
+                timeoutConfig.getChannelTimeoutMS(),
+                ImmutableMap.of(RpcInterceptor.QUERY_LOGGER_OPTION, queryLogger));
+    }
+
+    private RpcClient getRpcClient() {
+        List<RpcChannel> channels = channelFetcher.fetch();
+        CachedClient cached = this.cachedClient;
+        if (cached == null || !cached.isCreatedFrom(channels)) {
+            cached = new CachedClient(channels);
+            this.cachedClient = cached;
+        }
+        return cached.client;
     }
 
     @Override
@@ -138,4 +150,36 @@ public class RpcExecutionClient extends ExecutionClient<RpcChannel> {
                             }
                         });
     }
+
+    private static class CachedClient {
+        private final List<Channel> channels;
+        private final RpcClient client;
+
+        public CachedClient(List<RpcChannel> rpcChannels) {
+            this.channels =
+                    rpcChannels.stream().map(RpcChannel::getChannel).collect(Collectors.toList());
+            this.client =
+                    new RpcClient(
+                            this.channels.stream()
+                                    .map(
+                                            k ->
+                                                    new RpcChannel(
+                                                            ClientInterceptors.intercept(
+                                                                    k, INTERCEPTOR)))
+                                    .collect(Collectors.toList()));
+        }
+
+        // the fetcher may wrap the same channels in new objects, compare the underlying channels
+        public boolean isCreatedFrom(List<RpcChannel> rpcChannels) {
+            if (rpcChannels.size() != channels.size()) {
+                return false;
+            }
+            for (int i = 0; i < channels.size(); ++i) {
+                if (rpcChannels.get(i).getChannel() != channels.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -46,9 +46,47 @@ public class FrontendConfig {
     public static final Config<Integer> QUERY_CACHE_SIZE =
             Config.intConfig("query.cache.size", 100);
 
+    // reuse the compiled plan for queries which only differ in literals
+    public static final Config<Boolean> QUERY_CACHE_PARAMETERIZED_ENABLED =
+            Config.boolConfig("query.cache.parameterized.enabled", false);
+
+    // reuse the compiled plan for the same query text under the same schema, without parsing it
+    public static final Config<Boolean> QUERY_CACHE_PREPARED_ENABLED =
+            Config.boolConfig("query.cache.prepared.enabled", false);
+
     public static final Config<Integer> QUERY_PER_SECOND_LIMIT =
             Config.intConfig("frontend.query.per.second.limit", 2147483647);
 
+    // admit queries by the cost estimated by the planner, see AdmissionController
+    public static final Config<Boolean> QUERY_ADMISSION_ENABLED =
+            Config.boolConfig("query.admission.enabled", false);
+
+    // queries with more intermediate rows estimated are admitted as long queries
+    public static final Config<Long> QUERY_ADMISSION_LONG_COST_THRESHOLD =
+            Config.longConfig("query.admission.long.cost.threshold", 1000000L);
+
+    public static final Config<Integer> QUERY_ADMISSION_SHORT_MAX_RUNNING =
+            Config.intConfig("query.admission.short.max.running", 64);
+
+    public static final Config<Integer> QUERY_ADMISSION_SHORT_MAX_QUEUED =
+            Config.intConfig("query.admission.short.max.queued", 256);
+
+    public static final Config<Integer> QUERY_ADMISSION_LONG_MAX_RUNNING =
+            Config.intConfig("query.admission.long.max.running", 4);
+
+    public static final Config<Integer> QUERY_ADMISSION_LONG_MAX_QUEUED =
+            Config.intConfig("query.admission.long.max.queued", 16);
+
+    public static final Config<Integer> QUERY_ADMISSION_WRITE_MAX_RUNNING =
+            Config.intConfig("query.admission.write.max.running", 8);
+
+    public static final Config<Integer> QUERY_ADMISSION_WRITE_MAX_QUEUED =
+            Config.intConfig("query.admission.write.max.queued", 32);
+
+    // max running queries of each authenticated user
+    public static final Config<Integer> QUERY_ADMISSION_USER_MAX_RUNNING =
+            Config.intConfig("query.admission.user.max.running", 2147483647);
+
     public static final Config<Boolean> GRAPH_TYPE_INFERENCE_ENABLED =
             Config.boolConfig("graph.type.inference.enabled", true);
 
@@ -61,6 +99,15 @@ public class FrontendConfig {
     public static final Config<Integer> PER_QUERY_STREAM_BUFFER_MAX_CAPACITY =
             Config.intConfig("per.query.stream.buffer.max.capacity", 256);
 
+    // max bytes of records in a partial response, the response is also bounded by the count of
+    // 'resultIterationBatchSize'
+    public static final Config<Long> PER_QUERY_RESULT_BATCH_MAX_BYTES =
+            Config.longConfig("per.query.result.batch.max.bytes", 1024 * 1024L);
+
+    // decode records of primitive columns into bolt values without the intermediate list of values
+    public static final Config<Boolean> CYPHER_RESULT_PRIMITIVE_FAST_PATH_ENABLED =
+            Config.boolConfig("cypher.result.primitive.fast.path.enabled", false);
+
     public static final Config<Long> QUERY_PRINT_THRESHOLD_MS =
             Config.longConfig("query.print.threshold.ms", 200l);
 
@@ -31,6 +31,11 @@ public class GraphConfig {
     public static final Config<Long> GRAPH_META_STATISTICS_FETCH_INTERVAL_MS =
             Config.longConfig("graph.meta.statistics.fetch.interval.ms", 24 * 3600 * 1000l);
 
+    // subscribe the changes of schema and statistics if supported by the meta reader, instead of
+    // fetching them periodically
+    public static final Config<Boolean> GRAPH_META_PUSH_ENABLED =
+            Config.boolConfig("graph.meta.push.enabled", false);
+
     public static final Config<Long> GRAPH_META_FETCH_TIMEOUT_MS =
             Config.longConfig("graph.meta.fetch.timeout.ms", 1000);
 
@@ -38,6 +38,18 @@ public class PlannerConfig {
             Config.intConfig("graph.planner.group.size", 8);
     public static final Config<Integer> GRAPH_PLANNER_GROUP_CLEAR_INTERVAL_MINUTES =
             Config.intConfig("graph.planner.group.clear.interval.minutes", 30);
+    // the time budget in milliseconds of the match optimization of a query, after which the rest of
+    // the patterns are planned greedily, 0 means unbounded
+    public static final Config<Long> GRAPH_PLANNER_CBO_TIME_BUDGET_MS =
+            Config.longConfig("graph.planner.cbo.time.budget.ms", 0L);
+    // the max number of rule calls in the match optimization of a query, after which the rest of
+    // the patterns are planned greedily, 0 means unbounded
+    public static final Config<Long> GRAPH_PLANNER_CBO_MAX_RULE_CALLS =
+            Config.longConfig("graph.planner.cbo.max.rule.calls", 0L);
+    // patterns with more vertices than the size are always planned greedily, by extending the
+    // cheapest vertex each time instead of exploring all the orders, 0 means disabled
+    public static final Config<Integer> GRAPH_PLANNER_CBO_GREEDY_PATTERN_SIZE =
+            Config.intConfig("graph.planner.cbo.greedy.pattern.size", 0);
     public static final Config<String> TRIM_CLASS_NAMES =
             Config.stringConfig(
                     "graph.planner.trim.class.names",
@@ -118,6 +130,18 @@ public class PlannerConfig {
         return GRAPH_PLANNER_GROUP_CLEAR_INTERVAL_MINUTES.get(configs);
     }
 
+    public long getTimeBudgetMs() {
+        return GRAPH_PLANNER_CBO_TIME_BUDGET_MS.get(configs);
+    }
+
+    public long getMaxRuleCalls() {
+        return GRAPH_PLANNER_CBO_MAX_RULE_CALLS.get(configs);
+    }
+
+    public int getGreedyPatternSize() {
+        return GRAPH_PLANNER_CBO_GREEDY_PATTERN_SIZE.get(configs);
+    }
+
     @Override
     public String toString() {
         return "PlannerConfig{"
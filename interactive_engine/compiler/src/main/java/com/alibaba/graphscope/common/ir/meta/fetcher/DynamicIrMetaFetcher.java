@@ -29,6 +29,7 @@ import com.alibaba.graphscope.common.ir.meta.reader.IrMetaReader;
 import com.alibaba.graphscope.common.ir.meta.schema.SchemaSpec;
 import com.alibaba.graphscope.groot.common.schema.api.GraphStatistics;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +42,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * Periodically update IrMeta, with the update frequency controlled by configuration.
  * Specifically, for procedures, a remote update will be actively triggered when they are not found locally.
+ * If push is enabled and supported by the reader, IrMeta is updated once the changes are pushed instead.
  */
 public class DynamicIrMetaFetcher extends IrMetaFetcher implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(DynamicIrMetaFetcher.class);
@@ -54,8 +56,25 @@ public class DynamicIrMetaFetcher extends IrMetaFetcher implements AutoCloseable
             Configs configs, IrMetaReader dataReader, List<IrMetaTracker> tracker) {
         super(dataReader, tracker);
         this.scheduler = new ScheduledThreadPoolExecutor(1);
+        boolean pushed =
+                GraphConfig.GRAPH_META_PUSH_ENABLED.get(configs)
+                        && dataReader.subscribe(
+                                new IrMetaReader.ChangeListener() {
+                                    @Override
+                                    public void onSchemaChanged() {
+                                        scheduler.execute(() -> syncMeta());
+                                    }
+
+                                    @Override
+                                    public void onStatsChanged(GraphStatistics stats) {
+                                        scheduler.execute(() -> syncStats(stats));
+                                    }
+                                });
         long schemaIntervalMS = GraphConfig.GRAPH_META_SCHEMA_FETCH_INTERVAL_MS.get(configs);
-        if (schemaIntervalMS > 0) {
+        if (pushed) {
+            logger.info("subscribe the schema and stats changes, instead of fetching them");
+            this.scheduler.execute(() -> syncMeta());
+        } else if (schemaIntervalMS > 0) {
             logger.info("start to schedule the schema sync task per {} ms", schemaIntervalMS);
             this.scheduler.scheduleAtFixedRate(
                     () -> syncMeta(), schemaIntervalMS, schemaIntervalMS, TimeUnit.MILLISECONDS);
@@ -64,9 +83,9 @@ public class DynamicIrMetaFetcher extends IrMetaFetcher implements AutoCloseable
                 PlannerConfig.GRAPH_PLANNER_IS_ON.get(configs)
                         && PlannerConfig.GRAPH_PLANNER_OPT.get(configs).equalsIgnoreCase("CBO");
         long statsIntervalMS = GraphConfig.GRAPH_META_STATISTICS_FETCH_INTERVAL_MS.get(configs);
-        if (!isCBOMode || statsIntervalMS <= 0) {
+        if (!isCBOMode || (!pushed && statsIntervalMS <= 0)) {
             this.statsEnabled = false;
-        } else {
+        } else if (!pushed) {
             logger.info("start to schedule the stats sync task per {} ms", statsIntervalMS);
             this.scheduler.scheduleAtFixedRate(
                     () -> syncStats(), statsIntervalMS, statsIntervalMS, TimeUnit.MILLISECONDS);
@@ -128,12 +147,22 @@ public class DynamicIrMetaFetcher extends IrMetaFetcher implements AutoCloseable
         }
     }
 
-    private synchronized void syncStats() {
+    private void syncStats() {
+        syncStats(null);
+    }
+
+    /**
+     * @param pushed the stats pushed by the reader, or null if the stats should be read
+     */
+    private synchronized void syncStats(@Nullable GraphStatistics pushed) {
         try {
             if (this.currentState != null) {
                 boolean statsEnabled = getStatsEnabled(this.currentState.getGraphId());
                 if (statsEnabled) {
-                    GraphStatistics stats = this.reader.readStats(this.currentState.getGraphId());
+                    GraphStatistics stats =
+                            (pushed != null)
+                                    ? pushed
+                                    : this.reader.readStats(this.currentState.getGraphId());
                     logger.debug("statistics from remote: {}", stats);
                     if (stats != null && stats.getVertexCount() != 0) {
                         this.currentState =
@@ -33,4 +33,17 @@ public interface IrMetaReader {
 
     // a synchronous invocation to check whether statistics functionality is enabled in the backend
     boolean syncStatsEnabled(GraphId graphId) throws IOException;
+
+    // subscribe the changes pushed by the data source, return false if it is not supported
+    default boolean subscribe(ChangeListener listener) {
+        return false;
+    }
+
+    interface ChangeListener {
+        // the schema is changed, which can be read by {@link #readMeta()}
+        void onSchemaChanged();
+
+        // the statistics are changed to the given ones
+        void onStatsChanged(GraphStatistics stats);
+    }
 }
@@ -58,6 +58,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Optimize graph relational tree which consists of match and other relational operators
@@ -97,6 +98,12 @@ public class GraphRelOptimizer implements Closeable, IrMetaTracker {
         return currentGroup.optimize(before, ioProcessor);
     }
 
+    public RelNode optimize(
+            RelNode before, GraphIOProcessor ioProcessor, ObjLongConsumer<String> phaseRecorder) {
+        PlannerGroup currentGroup = this.plannerGroupManager.getCurrentGroup();
+        return currentGroup.optimize(before, ioProcessor, phaseRecorder);
+    }
+
     public @Nullable RelMetadataQuery createMetaDataQuery(IrMeta irMeta) {
         if (config.isOn() && config.getOpt() == PlannerConfig.Opt.CBO) {
             GlogueQuery gq = this.glogueRef.get();
@@ -124,9 +131,13 @@ public class GraphRelOptimizer implements Closeable, IrMetaTracker {
     @Override
     public void onStatsChanged(IrMetaStats stats) {
         GlogueSchema g = GlogueSchema.fromMeta(stats);
-        Glogue gl = new Glogue(g, config.getGlogueSize());
+        GlogueQuery previous = this.glogueRef.get();
+        // reuse the patterns of the previous glogue, only the changed cardinalities are recomputed
+        Glogue gl =
+                new Glogue(
+                        g, config.getGlogueSize(), previous == null ? null : previous.getGlogue());
         GlogueQuery gq = new GlogueQuery(gl);
-        this.glogueRef.compareAndSet(glogueRef.get(), gq);
+        this.glogueRef.compareAndSet(previous, gq);
     }
 
     public static class MatchOptimizer extends GraphShuttle {
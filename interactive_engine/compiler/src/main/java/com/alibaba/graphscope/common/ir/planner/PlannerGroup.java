@@ -35,10 +35,15 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.rules.CoreRules;
 import org.apache.calcite.rel.rules.FilterJoinRule;
 import org.apache.calcite.tools.RelBuilderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
 
 public class PlannerGroup {
+    private static final Logger logger = LoggerFactory.getLogger(PlannerGroup.class);
     private final RelOptPlanner relPlanner;
     private final RelOptPlanner matchPlanner;
     private final RelOptPlanner physicalPlanner;
@@ -53,31 +58,64 @@ public class PlannerGroup {
         this.physicalPlanner = createPhysicalPlanner();
     }
 
-    public synchronized RelNode optimize(RelNode before, GraphIOProcessor ioProcessor) {
+    public RelNode optimize(RelNode before, GraphIOProcessor ioProcessor) {
+        return optimize(before, ioProcessor, (phase, elapsedNanos) -> {});
+    }
+
+    /**
+     * optimize the relational tree
+     *
+     * @param phaseRecorder record the elapsed time in nanoseconds of each optimization phase
+     */
+    public synchronized RelNode optimize(
+            RelNode before, GraphIOProcessor ioProcessor, ObjLongConsumer<String> phaseRecorder) {
         if (config.isOn()) {
+            long startNanos = System.nanoTime();
             // apply rules of 'FilterPushDown' before the match optimization
             relPlanner.setRoot(before);
             RelNode relOptimized = relPlanner.findBestExp();
             if (config.getRules().contains(FlatJoinToExpandRule.class.getSimpleName())) {
                 relOptimized = relOptimized.accept(new FlatJoinToExpandRule(config));
             }
+            startNanos = record(phaseRecorder, "rbo", startNanos);
             if (config.getOpt() == PlannerConfig.Opt.CBO) {
+                if (matchPlanner instanceof VolcanoPlannerX) {
+                    ((VolcanoPlannerX) matchPlanner)
+                            .startBudget(config.getTimeBudgetMs(), config.getMaxRuleCalls());
+                }
                 relOptimized =
                         relOptimized.accept(
                                 new GraphRelOptimizer.MatchOptimizer(ioProcessor, matchPlanner));
+                if (matchPlanner instanceof VolcanoPlannerX
+                        && ((VolcanoPlannerX) matchPlanner).isBudgetExhausted()) {
+                    logger.warn(
+                            "planning budget is exhausted after {} rule calls in {} ms, the rest of"
+                                    + " the patterns are planned greedily",
+                            ((VolcanoPlannerX) matchPlanner).getRuleCalls(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                }
+                startNanos = record(phaseRecorder, "cbo", startNanos);
             }
             // apply rules of 'FieldTrim' after the match optimization
             if (config.getRules().contains(FieldTrimRule.class.getSimpleName())) {
                 relOptimized = FieldTrimRule.trim(ioProcessor.getBuilder(), relOptimized, config);
+                startNanos = record(phaseRecorder, "trim", startNanos);
             }
             physicalPlanner.setRoot(relOptimized);
             RelNode physicalOptimized = physicalPlanner.findBestExp();
+            record(phaseRecorder, "physical_rbo", startNanos);
             clear();
             return physicalOptimized;
         }
         return before;
     }
 
+    private static long record(ObjLongConsumer<String> recorder, String phase, long startNanos) {
+        long endNanos = System.nanoTime();
+        recorder.accept(phase, endNanos - startNanos);
+        return endNanos;
+    }
+
     private RelOptPlanner createRelPlanner() {
         HepProgramBuilder hepBuilder = HepProgram.builder();
         if (config.isOn()) {
@@ -117,7 +155,9 @@ public class PlannerGroup {
                                                     .withMaxPatternSizeInGlogue(
                                                             config.getGlogueSize())
                                                     .withLabelConstraintsEnabled(
-                                                            config.labelConstraintsEnabled());
+                                                            config.labelConstraintsEnabled())
+                                                    .withGreedyPatternSize(
+                                                            config.getGreedyPatternSize());
                                 } else if (k.equals(JoinDecompositionRule.class.getSimpleName())) {
                                     ruleConfig =
                                             JoinDecompositionRule.Config.DEFAULT
@@ -126,7 +166,9 @@ public class PlannerGroup {
                                                     .withJoinQueueCapacity(
                                                             config.getJoinQueueCapacity())
                                                     .withJoinByEdgeEnabled(
-                                                            config.isJoinByEdgeEnabled());
+                                                            config.isJoinByEdgeEnabled())
+                                                    .withGreedyPatternSize(
+                                                            config.getGreedyPatternSize());
                                     ForeignKeyMeta foreignKeyMeta =
                                             config.getJoinByForeignKeyUri().isEmpty()
                                                     ? null
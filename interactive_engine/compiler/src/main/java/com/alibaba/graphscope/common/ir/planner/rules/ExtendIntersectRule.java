@@ -20,6 +20,7 @@ import com.alibaba.graphscope.common.ir.meta.glogue.CountHandler;
 import com.alibaba.graphscope.common.ir.meta.glogue.ExtendWeightEstimator;
 import com.alibaba.graphscope.common.ir.meta.glogue.Utils;
 import com.alibaba.graphscope.common.ir.meta.glogue.calcite.GraphRelMetadataQuery;
+import com.alibaba.graphscope.common.ir.planner.volcano.VolcanoPlannerX;
 import com.alibaba.graphscope.common.ir.rel.GraphExtendIntersect;
 import com.alibaba.graphscope.common.ir.rel.GraphPattern;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.*;
@@ -47,9 +48,20 @@ public class ExtendIntersectRule<C extends ExtendIntersectRule.Config> extends R
 
     @Override
     public void onMatch(RelOptRuleCall call) {
+        GraphPattern graphPattern = call.rel(0);
         List<GraphExtendIntersect> edges =
                 getExtendIntersectEdges(
-                        call.rel(0), (GraphRelMetadataQuery) call.getMetadataQuery());
+                        graphPattern, (GraphRelMetadataQuery) call.getMetadataQuery());
+        // only extend the cheapest vertex if the planning budget is exhausted or the pattern is
+        // too large to explore all the orders, the budget is checked first to count each call
+        int greedyPatternSize = config.getGreedyPatternSize();
+        boolean greedy =
+                VolcanoPlannerX.budgetExhausted(call.getPlanner())
+                        || (greedyPatternSize > 0
+                                && graphPattern.getPattern().getVertexNumber() > greedyPatternSize);
+        if (greedy && edges.size() > 1) {
+            edges = edges.subList(0, 1);
+        }
         for (GraphExtendIntersect edge : edges) {
             call.transformTo(edge);
         }
@@ -237,6 +249,7 @@ public class ExtendIntersectRule<C extends ExtendIntersectRule.Config> extends R
         private RelBuilderFactory builderFactory;
         private int maxPatternSizeInGlogue;
         private boolean labelConstraintsEnabled;
+        private int greedyPatternSize;
 
         @Override
         public RelRule toRule() {
@@ -274,6 +287,11 @@ public class ExtendIntersectRule<C extends ExtendIntersectRule.Config> extends R
             return this;
         }
 
+        public ExtendIntersectRule.Config withGreedyPatternSize(int greedyPatternSize) {
+            this.greedyPatternSize = greedyPatternSize;
+            return this;
+        }
+
         public boolean labelConstraintsEnabled() {
             return labelConstraintsEnabled;
         }
@@ -296,5 +314,9 @@ public class ExtendIntersectRule<C extends ExtendIntersectRule.Config> extends R
         public int getMaxPatternSizeInGlogue() {
             return maxPatternSizeInGlogue;
         }
+
+        public int getGreedyPatternSize() {
+            return greedyPatternSize;
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.alibaba.graphscope.common.ir.meta.glogue.Utils;
 import com.alibaba.graphscope.common.ir.meta.schema.foreign.ForeignKey;
 import com.alibaba.graphscope.common.ir.meta.schema.foreign.ForeignKeyEntry;
 import com.alibaba.graphscope.common.ir.meta.schema.foreign.ForeignKeyMeta;
+import com.alibaba.graphscope.common.ir.planner.volcano.VolcanoPlannerX;
 import com.alibaba.graphscope.common.ir.rel.GraphJoinDecomposition;
 import com.alibaba.graphscope.common.ir.rel.GraphPattern;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.*;
@@ -36,6 +37,13 @@ public class JoinDecompositionRule<C extends JoinDecompositionRule.Config> exten
         if (getMaxVertexNum(graphPattern.getPattern()) < config.getMinPatternSize()) {
             return;
         }
+        // join decompositions are not explored if the pattern is planned greedily
+        int greedyPatternSize = config.getGreedyPatternSize();
+        if (VolcanoPlannerX.budgetExhausted(relOptRuleCall.getPlanner())
+                || (greedyPatternSize > 0
+                        && graphPattern.getPattern().getVertexNumber() > greedyPatternSize)) {
+            return;
+        }
         graphPattern.setRowCount(mq.getRowCount(graphPattern));
         int queueCapacity = config.getJoinQueueCapacity();
         PriorityQueue<GraphJoinDecomposition> decompositionQueue =
@@ -648,6 +656,7 @@ public class JoinDecompositionRule<C extends JoinDecompositionRule.Config> exten
         private boolean joinByEdgeEnabled;
         private @Nullable ForeignKeyMeta foreignKeyMeta;
         private int joinQueueCapacity;
+        private int greedyPatternSize;
 
         @Override
         public RelRule toRule() {
@@ -694,6 +703,11 @@ public class JoinDecompositionRule<C extends JoinDecompositionRule.Config> exten
             return this;
         }
 
+        public JoinDecompositionRule.Config withGreedyPatternSize(int greedyPatternSize) {
+            this.greedyPatternSize = greedyPatternSize;
+            return this;
+        }
+
         public int getMinPatternSize() {
             return minPatternSize;
         }
@@ -710,6 +724,10 @@ public class JoinDecompositionRule<C extends JoinDecompositionRule.Config> exten
             return joinQueueCapacity;
         }
 
+        public int getGreedyPatternSize() {
+            return greedyPatternSize;
+        }
+
         @Override
         public OperandTransform operandSupplier() {
             return this.operandSupplier;
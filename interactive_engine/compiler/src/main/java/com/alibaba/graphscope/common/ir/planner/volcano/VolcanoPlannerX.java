@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions;
 import org.apache.calcite.plan.Convention;
 import org.apache.calcite.plan.ConventionTraitDef;
 import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelOptSchema;
 import org.apache.calcite.plan.volcano.RelSubset;
 import org.apache.calcite.plan.volcano.VolcanoPlanner;
@@ -29,7 +30,72 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.concurrent.TimeUnit;
+
 public class VolcanoPlannerX extends VolcanoPlanner {
+    // budget of the current planning, which is unbounded if it is 0
+    private long deadlineNanos;
+    private long maxRuleCalls;
+    private long ruleCalls;
+    private boolean budgetExhausted;
+
+    /**
+     * start the budget of the planning, the budget is shared by all the patterns planned before
+     * the planner is cleared.
+     *
+     * @param timeBudgetMs time budget in milliseconds, 0 means unbounded
+     * @param maxRuleCalls max number of rule calls, 0 means unbounded
+     */
+    public void startBudget(long timeBudgetMs, long maxRuleCalls) {
+        this.deadlineNanos =
+                timeBudgetMs > 0
+                        ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs)
+                        : 0;
+        this.maxRuleCalls = maxRuleCalls;
+        this.ruleCalls = 0;
+        this.budgetExhausted = false;
+    }
+
+    /**
+     * count a rule call and check the budget, once the budget is exhausted, rules should stop
+     * exploring alternatives and only complete the plans found so far greedily.
+     */
+    public boolean checkBudget() {
+        ++ruleCalls;
+        if (!budgetExhausted) {
+            budgetExhausted =
+                    (maxRuleCalls > 0 && ruleCalls > maxRuleCalls)
+                            || (deadlineNanos != 0 && System.nanoTime() - deadlineNanos > 0);
+        }
+        return budgetExhausted;
+    }
+
+    /**
+     * count a rule call of the planner and check its budget, always return false if the planner is
+     * not a {@link VolcanoPlannerX}.
+     */
+    public static boolean budgetExhausted(RelOptPlanner planner) {
+        return planner instanceof VolcanoPlannerX && ((VolcanoPlannerX) planner).checkBudget();
+    }
+
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    /** @return the rule calls of the current or the last planning */
+    public long getRuleCalls() {
+        return ruleCalls;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        // the rule calls of the last planning are kept
+        this.deadlineNanos = 0;
+        this.maxRuleCalls = 0;
+        this.budgetExhausted = false;
+    }
+
     @Override
     protected RelOptCost upperBoundForInputs(RelNode mExpr, RelOptCost upperBound) {
         // todo: support pruning optimizations
@@ -17,8 +17,11 @@
 package com.alibaba.graphscope.common.ir.rel.metadata.glogue;
 
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.Pattern;
+import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.PatternDirection;
+import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.PatternEdge;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.PatternVertex;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.SinglePatternVertex;
+import com.alibaba.graphscope.common.ir.rel.metadata.schema.EdgeTypeId;
 import com.alibaba.graphscope.common.ir.rel.metadata.schema.GlogueSchema;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -45,11 +48,27 @@ public class Glogue {
     protected final GlogueSchema schema;
 
     public Glogue(GlogueSchema schema, int maxPatternSize) {
+        this(schema, maxPatternSize, null);
+    }
+
+    /**
+     * Create a Glogue from the previous version, which shares the patterns of the previous version
+     * if the types of the schema and the max pattern size are unchanged, and only recomputes
+     * cardinalities and extend weights which depend on the types whose counts have changed.
+     * Otherwise, the Glogue is created from scratch.
+     */
+    public Glogue(GlogueSchema schema, int maxPatternSize, @Nullable Glogue previous) {
         this.schema = schema;
         glogueGraph = new DirectedPseudograph<Pattern, GlogueEdge>(GlogueEdge.class);
         roots = new ArrayList<>();
         maxPatternId = 0;
-        create(schema, maxPatternSize);
+        if (previous != null
+                && previous.maxPatternSize == maxPatternSize
+                && previous.schema.hasSameTypes(schema)) {
+            update(previous, schema);
+        } else {
+            create(schema, maxPatternSize);
+        }
     }
 
     // Construct Glogue from a glogue schema with given max pattern size
@@ -102,6 +121,110 @@ public class Glogue {
         return this;
     }
 
+    private Glogue update(Glogue previous, GlogueSchema schema) {
+        this.maxPatternSize = previous.maxPatternSize;
+        this.maxPatternId = previous.maxPatternId;
+        this.roots = previous.roots;
+        Set<Integer> changedVertexTypes = schema.getChangedVertexTypes(previous.schema);
+        Set<EdgeTypeId> changedEdgeTypes = schema.getChangedEdgeTypes(previous.schema);
+        for (Pattern pattern : previous.glogueGraph.vertexSet()) {
+            this.glogueGraph.addVertex(pattern);
+        }
+        // edges are added in the same order as the previous version, to estimate each pattern
+        // along the same path, the extend steps whose weights are to be recomputed are copied,
+        // to keep the previous version unchanged for the queries which are still planning on it
+        int copied = 0;
+        for (GlogueEdge edge : previous.glogueGraph.edgeSet()) {
+            GlogueExtendIntersectEdge extendEdge = (GlogueExtendIntersectEdge) edge;
+            ExtendStep step = extendEdge.getExtendStep();
+            if (isAffected(step, changedVertexTypes, changedEdgeTypes)) {
+                extendEdge =
+                        new GlogueExtendIntersectEdge(
+                                extendEdge.getSrcPattern(),
+                                extendEdge.getDstPattern(),
+                                copyExtendStep(step),
+                                extendEdge.getSrcToTargetOrderMapping());
+                ++copied;
+            }
+            this.glogueGraph.addEdge(
+                    extendEdge.getSrcPattern(), extendEdge.getDstPattern(), extendEdge);
+        }
+        this.glogueCardinalityEstimation =
+                new GlogueBasicCardinalityEstimationImpl(
+                        this,
+                        schema,
+                        (GlogueBasicCardinalityEstimationImpl) previous.glogueCardinalityEstimation,
+                        pattern -> isAffected(pattern, changedVertexTypes, changedEdgeTypes),
+                        step -> isAffected(step, changedVertexTypes, changedEdgeTypes));
+        logger.info(
+                "GlogueGraph is updated, with {} vertices and {} edges, {} vertex types and {} edge"
+                        + " types changed, {} extend steps recomputed",
+                this.glogueGraph.vertexSet().size(),
+                this.glogueGraph.edgeSet().size(),
+                changedVertexTypes.size(),
+                changedEdgeTypes.size(),
+                copied);
+        return this;
+    }
+
+    // the weight of an extend step depends on the counts of its target type, its edge types and
+    // the source types of the edges
+    private static boolean isAffected(
+            ExtendStep step, Set<Integer> changedVertexTypes, Set<EdgeTypeId> changedEdgeTypes) {
+        if (changedVertexTypes.contains(step.getTargetVertexType())) {
+            return true;
+        }
+        for (ExtendEdge edge : step.getExtendEdges()) {
+            EdgeTypeId edgeType = edge.getEdgeTypeId();
+            Integer srcType =
+                    edge.getDirection() == PatternDirection.OUT
+                            ? edgeType.getSrcLabelId()
+                            : edgeType.getDstLabelId();
+            if (changedEdgeTypes.contains(edgeType) || changedVertexTypes.contains(srcType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the cardinality of a pattern is estimated from the counts of the types in it
+    private static boolean isAffected(
+            Pattern pattern, Set<Integer> changedVertexTypes, Set<EdgeTypeId> changedEdgeTypes) {
+        for (PatternVertex vertex : pattern.getVertexSet()) {
+            for (Integer type : vertex.getVertexTypeIds()) {
+                if (changedVertexTypes.contains(type)) {
+                    return true;
+                }
+            }
+        }
+        for (PatternEdge edge : pattern.getEdgeSet()) {
+            for (EdgeTypeId type : edge.getEdgeTypeIds()) {
+                if (changedEdgeTypes.contains(type)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ExtendStep copyExtendStep(ExtendStep step) {
+        List<ExtendEdge> edges = new ArrayList<>(step.getExtendEdges().size());
+        for (ExtendEdge edge : step.getExtendEdges()) {
+            edges.add(
+                    new ExtendEdge(
+                            edge.getSrcVertexOrder(),
+                            edge.getEdgeTypeIds(),
+                            edge.getDirection(),
+                            edge.getWeight(),
+                            edge.getElementDetails()));
+        }
+        return new ExtendStep(
+                step.getTargetVertexTypes(),
+                step.getTargetVertexOrder(),
+                edges,
+                step.getWeight());
+    }
+
     public Set<GlogueEdge> getOutEdges(Pattern pattern) {
         Optional<Pattern> vertex = getGlogueVertex(pattern);
         if (vertex.isPresent()) {
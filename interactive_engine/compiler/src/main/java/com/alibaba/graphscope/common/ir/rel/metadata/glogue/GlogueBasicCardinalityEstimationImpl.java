@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 public class GlogueBasicCardinalityEstimationImpl implements GlogueCardinalityEstimation {
     private Map<Pattern, Double> patternCardinality;
@@ -43,6 +44,21 @@ public class GlogueBasicCardinalityEstimationImpl implements GlogueCardinalityEs
         create(glogue, schema);
     }
 
+    /**
+     * Estimate the cardinalities of a Glogue which shares patterns with the previous version, the
+     * cardinalities of unaffected patterns are reused, and the weights of unaffected extend steps
+     * are kept as they are.
+     */
+    public GlogueBasicCardinalityEstimationImpl(
+            Glogue glogue,
+            GlogueSchema schema,
+            GlogueBasicCardinalityEstimationImpl previous,
+            Predicate<Pattern> affectedPattern,
+            Predicate<ExtendStep> affectedStep) {
+        this.patternCardinality = new HashMap<Pattern, Double>();
+        update(glogue, schema, previous, affectedPattern, affectedStep);
+    }
+
     private GlogueBasicCardinalityEstimationImpl create(Glogue glogue, GlogueSchema schema) {
         Deque<Pattern> patternQueue = new ArrayDeque<>();
         List<Pattern> roots = glogue.getRoots();
@@ -89,6 +105,66 @@ public class GlogueBasicCardinalityEstimationImpl implements GlogueCardinalityEs
         return this;
     }
 
+    // walk the patterns in the same order as create(), so that each pattern is estimated along
+    // the same path as the previous version
+    private GlogueBasicCardinalityEstimationImpl update(
+            Glogue glogue,
+            GlogueSchema schema,
+            GlogueBasicCardinalityEstimationImpl previous,
+            Predicate<Pattern> affectedPattern,
+            Predicate<ExtendStep> affectedStep) {
+        Deque<Pattern> patternQueue = new ArrayDeque<>();
+        for (Pattern pattern : glogue.getRoots()) {
+            Double count = previous.patternCardinality.get(pattern);
+            if (count == null || affectedPattern.test(pattern)) {
+                PatternVertex vertex = pattern.getVertexSet().iterator().next();
+                count = schema.getVertexTypeCardinality(vertex.getVertexTypeIds().get(0));
+            }
+            this.patternCardinality.put(pattern, count);
+            patternQueue.add(pattern);
+        }
+
+        while (patternQueue.size() > 0) {
+            Pattern pattern = patternQueue.pop();
+            Double patternCount = this.patternCardinality.get(pattern);
+            for (GlogueEdge edge : glogue.getGlogueOutEdges(pattern)) {
+                GlogueExtendIntersectEdge extendIntersectEdge = (GlogueExtendIntersectEdge) edge;
+                Pattern newPattern = extendIntersectEdge.getDstPattern();
+                ExtendStep extendStep = extendIntersectEdge.getExtendStep();
+                boolean stepAffected = affectedStep.test(extendStep);
+
+                if (this.containsPattern(newPattern)) {
+                    if (stepAffected) {
+                        extendStep.setWeight(estimateExtendWeight(schema, extendStep));
+                    }
+                } else {
+                    Double previousCount = previous.patternCardinality.get(newPattern);
+                    if (stepAffected) {
+                        // the extend step has been copied from the previous version
+                        Pair<Double, Double> patternCountWithWeight =
+                                estimatePatternCountWithExtendWeight(
+                                        schema, patternCount, extendStep);
+                        this.patternCardinality.put(
+                                newPattern, patternCountWithWeight.getValue0());
+                        extendStep.setWeight(patternCountWithWeight.getValue1());
+                    } else if (previousCount == null || affectedPattern.test(newPattern)) {
+                        // the extend step is shared with the previous version, which is read only
+                        Pair<Double, Double> patternCountWithWeight =
+                                estimatePatternCountWithEdgeWeights(
+                                        schema, patternCount, extendStep);
+                        this.patternCardinality.put(
+                                newPattern, patternCountWithWeight.getValue0());
+                    } else {
+                        this.patternCardinality.put(newPattern, previousCount);
+                    }
+                    patternQueue.add(newPattern);
+                }
+            }
+        }
+
+        return this;
+    }
+
     /// Given the src pattern and extend step, estimate the cardinality of the
     /// target pattern by extending the extendStep from srcPattern, together with
     /// pattern extension cost.
@@ -96,6 +172,13 @@ public class GlogueBasicCardinalityEstimationImpl implements GlogueCardinalityEs
     private Pair<Double, Double> estimatePatternCountWithExtendWeight(
             GlogueSchema schema, Double srcPatternCount, ExtendStep extendStep) {
         initEdgeWeightsInExtendStep(schema, extendStep);
+        return estimatePatternCountWithEdgeWeights(schema, srcPatternCount, extendStep);
+    }
+
+    /// Same as estimatePatternCountWithExtendWeight, except that the weights of the edges in the
+    /// extend step have been computed, and the extend step is not modified.
+    private Pair<Double, Double> estimatePatternCountWithEdgeWeights(
+            GlogueSchema schema, Double srcPatternCount, ExtendStep extendStep) {
         // estimate pattern count and the weight of the extend step
         Double commonTargetVertexTypeCount =
                 schema.getVertexTypeCardinality(extendStep.getTargetVertexType());
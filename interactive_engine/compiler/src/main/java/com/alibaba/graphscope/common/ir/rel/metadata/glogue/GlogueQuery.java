@@ -65,6 +65,10 @@ public class GlogueQuery {
         return glogue.getMaxPatternSize();
     }
 
+    public Glogue getGlogue() {
+        return glogue;
+    }
+
     public Double getLabelConstraintsDeltaCost(PatternEdge edge, PatternVertex target) {
         return glogue.schema.getLabelConstraintsDeltaCost(edge, target);
     }
@@ -218,6 +218,41 @@ public class GlogueSchema {
         return List.copyOf(this.schemaGraph.getAllEdges(source, target));
     }
 
+    /**
+     * @return true if the two schemas have the same vertex types and edge types, regardless of
+     * their cardinalities
+     */
+    public boolean hasSameTypes(GlogueSchema other) {
+        return this.schemaGraph.vertexSet().equals(other.schemaGraph.vertexSet())
+                && this.schemaGraph.edgeSet().equals(other.schemaGraph.edgeSet());
+    }
+
+    /**
+     * @return vertex types whose cardinalities are different from those in the other schema
+     */
+    public Set<Integer> getChangedVertexTypes(GlogueSchema other) {
+        Set<Integer> changed = Sets.newHashSet();
+        for (Integer type : this.schemaGraph.vertexSet()) {
+            if (!getVertexTypeCardinality(type).equals(other.getVertexTypeCardinality(type))) {
+                changed.add(type);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return edge types whose cardinalities are different from those in the other schema
+     */
+    public Set<EdgeTypeId> getChangedEdgeTypes(GlogueSchema other) {
+        Set<EdgeTypeId> changed = Sets.newHashSet();
+        for (EdgeTypeId type : this.schemaGraph.edgeSet()) {
+            if (!getEdgeTypeCardinality(type).equals(other.getEdgeTypeCardinality(type))) {
+                changed.add(type);
+            }
+        }
+        return changed;
+    }
+
     public Double getVertexTypeCardinality(Integer vertexType) {
         Double cardinality = this.vertexTypeCardinality.get(vertexType);
         if (cardinality == null) {
@@ -113,8 +113,12 @@ public class GraphPlanner {
         GraphBuilder graphBuilder =
                 GraphBuilder.create(
                         graphConfig, optCluster, new GraphOptSchema(optCluster, schema));
+        long startNanos = System.nanoTime();
         LogicalPlan logicalPlan = logicalPlanFactory.create(graphBuilder, irMeta, query);
         this.validator.validate(logicalPlan, true);
+        if (queryLogger != null) {
+            queryLogger.recordPhase("parse", System.nanoTime() - startNanos);
+        }
         return new PlannerInstance(query, logicalPlan, graphBuilder, irMeta, queryLogger);
     }
 
@@ -148,11 +152,15 @@ public class GraphPlanner {
             if (queryLogger != null) {
                 queryLogger.info("[query][compiled]: logical IR compiled");
             }
+            long startNanos = System.nanoTime();
             PhysicalPlan physicalPlan =
                     ClassUtils.callException(
                             () -> planPhysical(logicalPlan), Code.PHYSICAL_PLAN_BUILD_FAILED);
             if (queryLogger != null) {
-                queryLogger.info("[query][compiled]: physical IR compiled");
+                queryLogger.recordPhase("physical", System.nanoTime() - startNanos);
+                queryLogger.info(
+                        "[query][compiled]: physical IR compiled, phase costs [{}]",
+                        queryLogger.getPhaseCosts());
             }
             return new Summary(logicalPlan, physicalPlan);
         }
@@ -162,8 +170,11 @@ public class GraphPlanner {
             // apply optimizations
             if (logicalPlan.getRegularQuery() != null && !logicalPlan.isReturnEmpty()) {
                 RelNode before = logicalPlan.getRegularQuery();
+                GraphIOProcessor ioProcessor = new GraphIOProcessor(graphBuilder, irMeta);
                 RelNode after =
-                        optimizer.optimize(before, new GraphIOProcessor(graphBuilder, irMeta));
+                        (queryLogger == null)
+                                ? optimizer.optimize(before, ioProcessor)
+                                : optimizer.optimize(before, ioProcessor, queryLogger::recordPhase);
                 if (after != before) {
                     logicalPlan = new LogicalPlan(after, logicalPlan.getDynamicParams());
                 }
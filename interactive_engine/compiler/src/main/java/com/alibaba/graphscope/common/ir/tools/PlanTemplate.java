@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.ir.runtime.PhysicalPlan;
+import com.alibaba.graphscope.common.ir.runtime.proto.Utils;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.GraphAlgebraPhysical;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+
+import org.apache.calcite.rex.RexLiteral;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A compiled plan of a {@link QueryShape}, which can be reused by other queries of the shape by
+ * rebinding the physical values converted from the literals.
+ *
+ * <p>A template is only used after it has been verified, that is the plan bound with the literals
+ * of another query is identical to the plan compiled from scratch for that query. Otherwise, i.e.
+ * the optimizer makes a different decision for different constants, or a literal is compiled into
+ * something other than a physical value, the template is disabled and queries of the shape are
+ * always compiled.
+ */
+public class PlanTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(PlanTemplate.class);
+
+    // the physical plan with the plan id cleared
+    private final GraphAlgebraPhysical.@Nullable PhysicalPlan physicalPlan;
+    private final List<Common.Value> params;
+    private final AtomicReference<State> state;
+
+    private PlanTemplate(
+            GraphAlgebraPhysical.@Nullable PhysicalPlan physicalPlan,
+            List<Common.Value> params,
+            State state) {
+        this.physicalPlan = physicalPlan;
+        this.params = params;
+        this.state = new AtomicReference<>(state);
+    }
+
+    public static PlanTemplate create(GraphPlanner.Summary summary, List<RexLiteral> literals) {
+        try {
+            Object content = summary.getPhysicalPlan().getContent();
+            List<Common.Value> params = toValues(literals);
+            if (!(content instanceof byte[]) || Sets.newHashSet(params).size() != params.size()) {
+                return disabled();
+            }
+            GraphAlgebraPhysical.PhysicalPlan physicalPlan =
+                    GraphAlgebraPhysical.PhysicalPlan.parseFrom((byte[]) content).toBuilder()
+                            .clearPlanId()
+                            .build();
+            // each literal should be compiled into physical values which can be rebound
+            Set<Common.Value> values = Sets.newHashSet();
+            collectValues(physicalPlan, values);
+            if (!values.containsAll(params)) {
+                return disabled();
+            }
+            return new PlanTemplate(physicalPlan, params, State.UNVERIFIED);
+        } catch (Exception e) {
+            logger.debug("fail to create plan template", e);
+            return disabled();
+        }
+    }
+
+    private static PlanTemplate disabled() {
+        return new PlanTemplate(null, Lists.newArrayList(), State.DISABLED);
+    }
+
+    public boolean isVerified() {
+        return state.get() == State.VERIFIED;
+    }
+
+    public boolean isDisabled() {
+        return state.get() == State.DISABLED;
+    }
+
+    /**
+     * verify the template by the plan compiled for another query of the shape, the verification is
+     * deferred if some literal is unchanged, in that the literal can not be told apart from an
+     * identical value produced by the optimizer.
+     */
+    public void verify(GraphPlanner.Summary compiled, List<RexLiteral> literals) {
+        if (state.get() != State.UNVERIFIED) return;
+        try {
+            List<Common.Value> newParams = toValues(literals);
+            for (int i = 0; i < params.size(); ++i) {
+                if (params.get(i).equals(newParams.get(i))) {
+                    return;
+                }
+            }
+            Object content = compiled.getPhysicalPlan().getContent();
+            GraphAlgebraPhysical.PhysicalPlan expected =
+                    GraphAlgebraPhysical.PhysicalPlan.parseFrom((byte[]) content).toBuilder()
+                            .clearPlanId()
+                            .build();
+            boolean verified = expected.equals(bindValues(newParams));
+            state.compareAndSet(State.UNVERIFIED, verified ? State.VERIFIED : State.DISABLED);
+        } catch (Exception e) {
+            logger.debug("fail to verify plan template", e);
+            state.compareAndSet(State.UNVERIFIED, State.DISABLED);
+        }
+    }
+
+    /**
+     * bind the template with the literals of a query of the shape, return null if the template has
+     * not been verified or the literals can not be converted.
+     *
+     * @param logicalPlan logical plan parsed from the query, the logical plan of the template
+     *                    carries the literals of another query
+     * @param literals literals extracted from the query
+     * @param planId plan id of the query, which should be different for different literals in that
+     *               the engine may cache the compiled job by the id
+     */
+    public GraphPlanner.@Nullable Summary bind(
+            LogicalPlan logicalPlan, List<RexLiteral> literals, int planId) {
+        if (!isVerified()) return null;
+        try {
+            GraphAlgebraPhysical.PhysicalPlan bound = bindValues(toValues(literals));
+            String explain = JsonFormat.printer().print(bound);
+            bound = bound.toBuilder().setPlanId(planId).build();
+            return new GraphPlanner.Summary(
+                    logicalPlan, new PhysicalPlan(bound.toByteArray(), explain));
+        } catch (Exception e) {
+            logger.debug("fail to bind plan template", e);
+            return null;
+        }
+    }
+
+    private GraphAlgebraPhysical.PhysicalPlan bindValues(List<Common.Value> newParams) {
+        Map<Common.Value, Common.Value> mappings = Maps.newHashMap();
+        for (int i = 0; i < params.size(); ++i) {
+            mappings.put(params.get(i), newParams.get(i));
+        }
+        return (GraphAlgebraPhysical.PhysicalPlan) replaceValues(physicalPlan, mappings);
+    }
+
+    private static List<Common.Value> toValues(List<RexLiteral> literals) {
+        List<Common.Value> values = Lists.newArrayListWithCapacity(literals.size());
+        for (RexLiteral literal : literals) {
+            values.add(Utils.protoValue(literal));
+        }
+        return values;
+    }
+
+    private static void collectValues(Message message, Set<Common.Value> values) {
+        if (message instanceof Common.Value) {
+            values.add((Common.Value) message);
+            return;
+        }
+        for (Map.Entry<Descriptors.FieldDescriptor, Object> entry :
+                message.getAllFields().entrySet()) {
+            Descriptors.FieldDescriptor field = entry.getKey();
+            if (field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+                continue;
+            }
+            if (field.isRepeated()) {
+                for (Object element : (List<?>) entry.getValue()) {
+                    collectValues((Message) element, values);
+                }
+            } else {
+                collectValues((Message) entry.getValue(), values);
+            }
+        }
+    }
+
+    private static Message replaceValues(
+            Message message, Map<Common.Value, Common.Value> mappings) {
+        if (message instanceof Common.Value) {
+            return mappings.getOrDefault(message, (Common.Value) message);
+        }
+        Message.Builder builder = null;
+        for (Map.Entry<Descriptors.FieldDescriptor, Object> entry :
+                message.getAllFields().entrySet()) {
+            Descriptors.FieldDescriptor field = entry.getKey();
+            if (field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+                continue;
+            }
+            if (field.isRepeated()) {
+                List<?> elements = (List<?>) entry.getValue();
+                for (int i = 0; i < elements.size(); ++i) {
+                    Message element = (Message) elements.get(i);
+                    Message replaced = replaceValues(element, mappings);
+                    if (replaced != element) {
+                        builder = (builder == null) ? message.toBuilder() : builder;
+                        builder.setRepeatedField(field, i, replaced);
+                    }
+                }
+            } else {
+                Message element = (Message) entry.getValue();
+                Message replaced = replaceValues(element, mappings);
+                if (replaced != element) {
+                    builder = (builder == null) ? message.toBuilder() : builder;
+                    builder.setField(field, replaced);
+                }
+            }
+        }
+        return builder == null ? message : builder.build();
+    }
+
+    private enum State {
+        UNVERIFIED,
+        VERIFIED,
+        DISABLED
+    }
+}
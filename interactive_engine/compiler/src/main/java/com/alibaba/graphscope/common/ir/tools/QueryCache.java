@@ -18,11 +18,14 @@ package com.alibaba.graphscope.common.ir.tools;
 
 import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.config.FrontendConfig;
+import com.alibaba.graphscope.common.ir.meta.GraphId;
 import com.alibaba.graphscope.common.ir.meta.IrMeta;
 import com.alibaba.graphscope.common.ir.meta.IrMetaStats;
 import com.alibaba.graphscope.common.ir.meta.IrMetaTracker;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -35,34 +38,87 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class QueryCache implements IrMetaTracker {
     private static final Logger logger = LoggerFactory.getLogger(QueryCache.class);
     private final LoadingCache<Key, Value> cache;
+    // compiled plans keyed by the query shape, to reuse the plan for queries only differ in
+    // literals
+    private final @Nullable Cache<QueryShape, PlanTemplate> templates;
+    private final AtomicLong boundCount;
+    // compiled plans keyed by the normalized query text and the schema version, which are hit
+    // before the query is parsed
+    private final @Nullable Cache<PreparedKey, Value> prepared;
 
     public QueryCache(Configs configs) {
         int cacheSize = FrontendConfig.QUERY_CACHE_SIZE.get(configs);
         this.cache =
                 CacheBuilder.newBuilder()
                         .maximumSize(cacheSize)
-                        .build(
-                                CacheLoader.from(
-                                        key ->
-                                                new Value(
-                                                        key.instance.plan(),
-                                                        null,
-                                                        ImmutableMap.of(
-                                                                "instance", key.instance))));
+                        .recordStats()
+                        .build(CacheLoader.from(key -> load(key)));
+        this.templates =
+                FrontendConfig.QUERY_CACHE_PARAMETERIZED_ENABLED.get(configs)
+                        ? CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build()
+                        : null;
+        this.boundCount = new AtomicLong(0);
+        this.prepared =
+                FrontendConfig.QUERY_CACHE_PREPARED_ENABLED.get(configs)
+                        ? CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build()
+                        : null;
+    }
+
+    private Value load(Key key) {
+        GraphPlanner.PlannerInstance instance = key.instance;
+        QueryShape shape = (templates == null) ? null : QueryShape.create(key.logicalPlan);
+        if (shape == null) {
+            return new Value(instance.plan(), null, ImmutableMap.of("instance", instance));
+        }
+        PlanTemplate template = templates.getIfPresent(shape);
+        if (template != null && template.isVerified()) {
+            GraphPlanner.Summary summary =
+                    template.bind(
+                            key.logicalPlan, shape.getLiterals(), Objects.hash(key.logicalPlan));
+            if (summary != null) {
+                boundCount.incrementAndGet();
+                if (instance.getQueryLogger() != null) {
+                    instance.getQueryLogger().info("[query][compiled]: bound from plan template");
+                }
+                return new Value(summary, null, ImmutableMap.of("instance", instance));
+            }
+        }
+        GraphPlanner.Summary summary = instance.plan();
+        if (template == null) {
+            templates.put(shape, PlanTemplate.create(summary, shape.getLiterals()));
+        } else {
+            template.verify(summary, shape.getLiterals());
+        }
+        return new Value(summary, null, ImmutableMap.of("instance", instance));
     }
 
     @Override
     public void onSchemaChanged(IrMeta meta) {
         cache.invalidateAll();
+        if (templates != null) {
+            templates.invalidateAll();
+        }
+        if (prepared != null) {
+            prepared.invalidateAll();
+        }
     }
 
     @Override
     public void onStatsChanged(IrMetaStats stats) {
-        // do nothing
+        // the optimizer may choose another plan for the shape or the query under the new
+        // statistics
+        if (templates != null) {
+            templates.invalidateAll();
+        }
+        if (prepared != null) {
+            prepared.invalidateAll();
+        }
     }
 
     public class Key {
@@ -123,4 +179,104 @@ public class QueryCache implements IrMetaTracker {
     public Value get(Key key) throws ExecutionException {
         return cache.get(key);
     }
+
+    /**
+     * Get the compiled plan of the query text, which is returned without parsing the query if the
+     * same text has been compiled under the same schema, otherwise the query is parsed by the
+     * instance created and looked up by its logical plan.
+     */
+    public Value get(
+            String query, IrMeta irMeta, Supplier<GraphPlanner.PlannerInstance> instanceFactory)
+            throws ExecutionException {
+        if (prepared == null) {
+            return get(createKey(instanceFactory.get()));
+        }
+        PreparedKey preparedKey =
+                new PreparedKey(
+                        normalize(query), irMeta.getGraphId(), irMeta.getSchema().getVersion());
+        Value value = prepared.getIfPresent(preparedKey);
+        if (value == null) {
+            value = get(createKey(instanceFactory.get()));
+            prepared.put(preparedKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * collapse the whitespaces out of the quoted literals, which do not change the query
+     */
+    static String normalize(String query) {
+        StringBuilder builder = new StringBuilder(query.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); ++i) {
+            char c = query.charAt(i);
+            if (quote != 0) {
+                builder.append(c);
+                if (c == '\\' && i + 1 < query.length()) {
+                    builder.append(query.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    builder.append(' ');
+                    pendingSpace = false;
+                }
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class PreparedKey {
+        private final String query;
+        private final GraphId graphId;
+        private final String schemaVersion;
+
+        private PreparedKey(String query, GraphId graphId, String schemaVersion) {
+            this.query = query;
+            this.graphId = graphId;
+            this.schemaVersion = schemaVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PreparedKey that = (PreparedKey) o;
+            return query.equals(that.query)
+                    && Objects.equals(graphId, that.graphId)
+                    && Objects.equals(schemaVersion, that.schemaVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, graphId, schemaVersion);
+        }
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the cache, the count of plans bound from templates,
+     * which are not compiled but counted as misses, and the count of prepared plans hit, which
+     * are not parsed nor counted by the cache
+     */
+    public Map<String, Long> getStats() {
+        CacheStats stats = cache.stats();
+        return ImmutableMap.<String, Long>builder()
+                .put("hit", stats.hitCount())
+                .put("miss", stats.missCount())
+                .put("eviction", stats.evictionCount())
+                .put("template.bound", boundCount.get())
+                .put(
+                        "template.eviction",
+                        templates == null ? 0L : templates.stats().evictionCount())
+                .put("prepared.hit", prepared == null ? 0L : prepared.stats().hitCount())
+                .build();
+    }
 }
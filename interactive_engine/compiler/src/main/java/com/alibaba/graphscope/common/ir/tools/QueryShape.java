@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalPathExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalMultiMatch;
+import com.alibaba.graphscope.common.ir.rel.graph.match.GraphLogicalSingleMatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.externalize.RelWriterImpl;
+import org.apache.calcite.rex.RexDynamicParam;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.sql.SqlExplainLevel;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.Pair;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The shape of a parsed plan, which is the digest of the plan with its literals pulled out into
+ * dynamic parameters. Queries which only differ in constants, i.e. {@code g.V().has('id', 1)} and
+ * {@code g.V().has('id', 2)}, share the same shape, the extracted literals are kept in visiting
+ * order to bind the plan compiled for another query of the shape.
+ */
+public class QueryShape {
+    // literal types which can be rebound in the physical plan, others are kept in the digest
+    private static final Set<SqlTypeName> PARAMETERIZED_TYPES =
+            ImmutableSet.of(
+                    SqlTypeName.BOOLEAN,
+                    SqlTypeName.INTEGER,
+                    SqlTypeName.BIGINT,
+                    SqlTypeName.CHAR,
+                    SqlTypeName.DECIMAL,
+                    SqlTypeName.FLOAT,
+                    SqlTypeName.DOUBLE);
+
+    private final String digest;
+    private final List<RexLiteral> literals;
+
+    private QueryShape(String digest, List<RexLiteral> literals) {
+        this.digest = digest;
+        this.literals = ImmutableList.copyOf(literals);
+    }
+
+    /**
+     * create the shape of a parsed plan, return null if the plan is not a parameterizable read
+     * query, i.e. a procedure call, a write-only query, a query has no literals or a query has
+     * been parameterized by the user.
+     */
+    public static @Nullable QueryShape create(LogicalPlan parsedPlan) {
+        RelNode regularQuery = parsedPlan.getRegularQuery();
+        if (regularQuery == null
+                || parsedPlan.getMode() != LogicalPlan.Mode.READ_WRITE
+                || !parsedPlan.getDynamicParams().isEmpty()) {
+            return null;
+        }
+        List<RexLiteral> literals = Lists.newArrayList();
+        String explain = explain(regularQuery, literals);
+        if (literals.isEmpty()) {
+            return null;
+        }
+        // the type of each parameter is part of the shape, '1' and '1L' are converted to different
+        // physical values
+        String types =
+                literals.stream()
+                        .map(k -> k.getType().getSqlTypeName().getName())
+                        .collect(Collectors.joining(", ", "params=[", "]"));
+        return new QueryShape(explain + types, literals);
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public List<RexLiteral> getLiterals() {
+        return literals;
+    }
+
+    private static String explain(RelNode rel, List<RexLiteral> literals) {
+        StringWriter sw = new StringWriter();
+        rel.explain(new ShapeWriter(new PrintWriter(sw), literals));
+        return sw.toString();
+    }
+
+    private static boolean parameterizable(RexLiteral literal) {
+        return literal.getTypeName() != SqlTypeName.SARG
+                && literal.getTypeName() != SqlTypeName.SYMBOL
+                && PARAMETERIZED_TYPES.contains(literal.getType().getSqlTypeName());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryShape that = (QueryShape) o;
+        return Objects.equals(digest, that.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(digest);
+    }
+
+    /**
+     * explain the plan in the same way as {@link RelNode#explain()}, except that each literal is
+     * replaced by a dynamic parameter and collected into {@code literals}
+     */
+    private static class ShapeWriter extends RelWriterImpl {
+        private final List<RexLiteral> literals;
+        private final RexShuttle parameterizer;
+
+        public ShapeWriter(PrintWriter pw, List<RexLiteral> literals) {
+            super(pw, SqlExplainLevel.EXPPLAN_ATTRIBUTES, false);
+            this.literals = literals;
+            this.parameterizer =
+                    new RexShuttle() {
+                        @Override
+                        public RexNode visitLiteral(RexLiteral literal) {
+                            if (!parameterizable(literal)) {
+                                return literal;
+                            }
+                            literals.add(literal);
+                            return new RexDynamicParam(literal.getType(), literals.size() - 1);
+                        }
+                    };
+        }
+
+        @Override
+        public RelWriter item(String term, @Nullable Object value) {
+            return super.item(term, parameterize(value));
+        }
+
+        private @Nullable Object parameterize(@Nullable Object value) {
+            if (value instanceof RexNode) {
+                return ((RexNode) value).accept(parameterizer);
+            } else if (value instanceof List) {
+                return ((List<?>) value)
+                        .stream().map(this::parameterize).collect(Collectors.toList());
+            }
+            return value;
+        }
+
+        @Override
+        protected void explain_(RelNode rel, List<Pair<String, @Nullable Object>> values) {
+            // sentences of a match and inner operators of a path expand have been explained to
+            // strings by their owner, explain them again to extract their literals
+            List<Pair<String, @Nullable Object>> newValues = Lists.newArrayList();
+            for (Pair<String, @Nullable Object> value : values) {
+                newValues.add(Pair.of(value.left, explainNested(rel, value.left, value.right)));
+            }
+            super.explain_(rel, newValues);
+        }
+
+        private @Nullable Object explainNested(RelNode rel, String term, @Nullable Object value) {
+            if (rel instanceof GraphLogicalSingleMatch && term.equals("sentence")) {
+                return explain(((GraphLogicalSingleMatch) rel).getSentence(), literals);
+            } else if (rel instanceof GraphLogicalMultiMatch && term.equals("sentences")) {
+                List<RelNode> sentences = ((GraphLogicalMultiMatch) rel).getSentences();
+                Map<String, String> strMap = new LinkedHashMap<>();
+                for (int i = 0; i < sentences.size(); ++i) {
+                    strMap.put(
+                            String.format("s%d", i),
+                            String.format("[%s]", explain(sentences.get(i), literals)));
+                }
+                return strMap;
+            } else if (rel instanceof GraphLogicalPathExpand) {
+                GraphLogicalPathExpand pxd = (GraphLogicalPathExpand) rel;
+                switch (term) {
+                    case "expand":
+                        return explain(pxd.getExpand(), literals);
+                    case "getV":
+                        return explain(pxd.getGetV(), literals);
+                    case "fused":
+                        return explain(pxd.getFused(), literals);
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import com.alibaba.graphscope.common.config.Config;
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.FrontendConfig;
+import com.alibaba.graphscope.common.ir.meta.schema.CommonOptTable;
+import com.alibaba.graphscope.common.ir.rel.CommonTableScan;
+import com.alibaba.graphscope.common.ir.rel.ddl.GraphTableModify;
+import com.alibaba.graphscope.common.ir.rel.graph.AbstractBindableTableScan;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalGetV;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphLogicalPathExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphPhysicalExpand;
+import com.alibaba.graphscope.common.ir.rel.graph.GraphPhysicalGetV;
+import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
+import com.google.common.collect.Lists;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import org.apache.calcite.plan.GraphOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Join;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits queries before they are submitted to the engine. A query is classified as a short, long
+ * or write query by its compiled plan, where the cost of a read query is the intermediate rows
+ * estimated by the CBO. Each class has its own bound of running and queued queries, so that the
+ * heavy queries can only hold a bounded part of the frontend executor and never starve the short
+ * ones. The running queries of each authenticated user are bounded as well.
+ *
+ * <p>Plans without estimations, e.g. compiled by RBO, are admitted as short queries.
+ */
+public class AdmissionController {
+    public static final String ANONYMOUS_USER = "anonymous";
+
+    private static final AttributeKey<String> CLASS_KEY = AttributeKey.stringKey("class");
+
+    public enum QueryClass {
+        SHORT(
+                FrontendConfig.QUERY_ADMISSION_SHORT_MAX_RUNNING,
+                FrontendConfig.QUERY_ADMISSION_SHORT_MAX_QUEUED),
+        LONG(
+                FrontendConfig.QUERY_ADMISSION_LONG_MAX_RUNNING,
+                FrontendConfig.QUERY_ADMISSION_LONG_MAX_QUEUED),
+        WRITE(
+                FrontendConfig.QUERY_ADMISSION_WRITE_MAX_RUNNING,
+                FrontendConfig.QUERY_ADMISSION_WRITE_MAX_QUEUED);
+
+        private final Config<Integer> maxRunning;
+        private final Config<Integer> maxQueued;
+
+        QueryClass(Config<Integer> maxRunning, Config<Integer> maxQueued) {
+            this.maxRunning = maxRunning;
+            this.maxQueued = maxQueued;
+        }
+    }
+
+    private final boolean enabled;
+    private final long longCostThreshold;
+    private final int userMaxRunning;
+    private final Map<QueryClass, Lane> lanes;
+    private final Map<String, Semaphore> userPermits;
+    private LongHistogram queueTimeHistogram;
+
+    public AdmissionController(Configs configs) {
+        this.enabled = FrontendConfig.QUERY_ADMISSION_ENABLED.get(configs);
+        this.longCostThreshold = FrontendConfig.QUERY_ADMISSION_LONG_COST_THRESHOLD.get(configs);
+        this.userMaxRunning = FrontendConfig.QUERY_ADMISSION_USER_MAX_RUNNING.get(configs);
+        this.lanes = new EnumMap<>(QueryClass.class);
+        for (QueryClass queryClass : QueryClass.values()) {
+            this.lanes.put(
+                    queryClass,
+                    new Lane(
+                            queryClass.maxRunning.get(configs),
+                            queryClass.maxQueued.get(configs)));
+        }
+        this.userPermits = new ConcurrentHashMap<>();
+        if (this.enabled) {
+            initMetrics();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The threads which can be held by the long and write queries, running or queued, the
+     * executor should have these threads besides the ones for the short queries.
+     */
+    public int getReservedThreads() {
+        if (!enabled) {
+            return 0;
+        }
+        int threads = 0;
+        for (QueryClass queryClass : List.of(QueryClass.LONG, QueryClass.WRITE)) {
+            Lane lane = lanes.get(queryClass);
+            threads += lane.maxRunning + lane.maxQueued;
+        }
+        return threads;
+    }
+
+    public QueryClass classify(LogicalPlan plan) {
+        switch (plan.getMode()) {
+            case SCHEMA:
+            case WRITE_ONLY:
+                return QueryClass.WRITE;
+            case PROCEDURE:
+                return QueryClass.LONG;
+            case EMPTY:
+                return QueryClass.SHORT;
+            default:
+                RelNode query = plan.getRegularQuery();
+                if (query == null) {
+                    return QueryClass.SHORT;
+                }
+                double cost = 0.0d;
+                List<RelNode> inputs = Lists.newArrayList(query);
+                while (!inputs.isEmpty()) {
+                    RelNode cur = inputs.remove(0);
+                    if (cur instanceof GraphTableModify) {
+                        return QueryClass.WRITE;
+                    }
+                    cost += estimateRows(cur);
+                    if (cur instanceof CommonTableScan) {
+                        inputs.add(
+                                ((CommonOptTable) ((CommonTableScan) cur).getTable()).getCommon());
+                    }
+                    inputs.addAll(cur.getInputs());
+                }
+                return cost >= longCostThreshold ? QueryClass.LONG : QueryClass.SHORT;
+        }
+    }
+
+    /**
+     * Admit the plan, waiting for the class of the plan to have a free slot if all the slots are
+     * taken. The returned permit should be closed once the query is finished.
+     *
+     * @throws RejectedExecutionException if the user or the queue of the class is full, or no
+     *     slot is freed in time
+     */
+    public Permit admit(LogicalPlan plan, @Nullable String user, long timeoutMs)
+            throws InterruptedException {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        QueryClass queryClass = classify(plan);
+        String userName = (user == null) ? ANONYMOUS_USER : user;
+        Semaphore permits =
+                userPermits.computeIfAbsent(userName, k -> new Semaphore(userMaxRunning));
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException(
+                    "concurrency quota exceeded, user ["
+                            + userName
+                            + "] already has "
+                            + userMaxRunning
+                            + " running queries. Please increase the quota by the config"
+                            + " 'query.admission.user.max.running' or wait for the queries to"
+                            + " finish");
+        }
+        Lane lane = lanes.get(queryClass);
+        long startNanos = System.nanoTime();
+        try {
+            lane.acquire(queryClass, timeoutMs);
+        } catch (Throwable t) {
+            permits.release();
+            throw t;
+        }
+        long queueTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        queueTimeHistogram.record(queueTimeMs, Attributes.of(CLASS_KEY, className(queryClass)));
+        return new Permit(queryClass, lane, permits, queueTimeMs);
+    }
+
+    private double estimateRows(RelNode node) {
+        RelOptCost cost = null;
+        if (node instanceof AbstractBindableTableScan) {
+            cost = ((AbstractBindableTableScan) node).getCachedCost();
+        } else if (node instanceof GraphLogicalPathExpand) {
+            cost = ((GraphLogicalPathExpand) node).getCachedCost();
+        } else if (node instanceof GraphPhysicalExpand) {
+            // the fused operators are not inputs of the physical one
+            cost = ((GraphPhysicalExpand) node).getFusedExpand().getCachedCost();
+        } else if (node instanceof GraphPhysicalGetV) {
+            GraphLogicalGetV getV = ((GraphPhysicalGetV) node).getFusedGetV();
+            cost = getV == null ? null : getV.getCachedCost();
+        } else if (node instanceof Join && node.getCluster() instanceof GraphOptCluster) {
+            cost = ((GraphOptCluster) node.getCluster()).getLocalState().getCachedCost();
+        }
+        return cost == null ? 0.0d : cost.getRows();
+    }
+
+    private static String className(QueryClass queryClass) {
+        return queryClass.name().toLowerCase();
+    }
+
+    private void initMetrics() {
+        Meter meter = GlobalOpenTelemetry.getMeter("default");
+        this.queueTimeHistogram =
+                meter.histogramBuilder("groot.frontend.query.queue.time")
+                        .setDescription("Time of queries waiting for admission.")
+                        .setUnit("ms")
+                        .ofLongs()
+                        .build();
+        meter.upDownCounterBuilder("groot.frontend.query.admission.running")
+                .setDescription("Running queries of each class.")
+                .buildWithCallback(
+                        measurement -> {
+                            for (Map.Entry<QueryClass, Lane> entry : lanes.entrySet()) {
+                                measurement.record(
+                                        entry.getValue().getRunning(),
+                                        Attributes.of(CLASS_KEY, className(entry.getKey())));
+                            }
+                        });
+        meter.upDownCounterBuilder("groot.frontend.query.admission.queued")
+                .setDescription("Queued queries of each class.")
+                .buildWithCallback(
+                        measurement -> {
+                            for (Map.Entry<QueryClass, Lane> entry : lanes.entrySet()) {
+                                measurement.record(
+                                        entry.getValue().queued.get(),
+                                        Attributes.of(CLASS_KEY, className(entry.getKey())));
+                            }
+                        });
+    }
+
+    public static class Permit implements AutoCloseable {
+        private static final Permit NONE = new Permit(null, null, null, 0L);
+
+        private final @Nullable QueryClass queryClass;
+        private final @Nullable Lane lane;
+        private final @Nullable Semaphore userPermits;
+        private final long queueTimeMs;
+        private boolean closed;
+
+        private Permit(
+                @Nullable QueryClass queryClass,
+                @Nullable Lane lane,
+                @Nullable Semaphore userPermits,
+                long queueTimeMs) {
+            this.queryClass = queryClass;
+            this.lane = lane;
+            this.userPermits = userPermits;
+            this.queueTimeMs = queueTimeMs;
+        }
+
+        public @Nullable QueryClass getQueryClass() {
+            return queryClass;
+        }
+
+        /**
+         * @return the time waiting for admission, which should be taken from the timeout of the
+         *     query
+         */
+        public long getQueueTimeMs() {
+            return queueTimeMs;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed || lane == null) {
+                return;
+            }
+            closed = true;
+            lane.running.release();
+            userPermits.release();
+        }
+    }
+
+    private static class Lane {
+        private final int maxRunning;
+        private final int maxQueued;
+        private final Semaphore running;
+        private final AtomicInteger queued;
+
+        private Lane(int maxRunning, int maxQueued) {
+            this.maxRunning = maxRunning;
+            this.maxQueued = maxQueued;
+            this.running = new Semaphore(maxRunning, true);
+            this.queued = new AtomicInteger(0);
+        }
+
+        private int getRunning() {
+            return maxRunning - running.availablePermits();
+        }
+
+        private void acquire(QueryClass queryClass, long timeoutMs) throws InterruptedException {
+            if (running.tryAcquire()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw new RejectedExecutionException(
+                        "admission queue of "
+                                + className(queryClass)
+                                + " queries is full, current limit is "
+                                + maxQueued
+                                + ". Please increase the limit by the config 'query.admission."
+                                + className(queryClass)
+                                + ".max.queued' or slow down the query sending speed");
+            }
+            try {
+                if (!running.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new RejectedExecutionException(
+                            "admission of "
+                                    + className(queryClass)
+                                    + " query timed out after "
+                                    + timeoutMs
+                                    + " ms");
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+    }
+}
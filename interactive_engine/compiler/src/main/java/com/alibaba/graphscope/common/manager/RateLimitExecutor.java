@@ -23,12 +23,19 @@ import com.google.common.util.concurrent.RateLimiter;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Executor of the frontend which limits the query rate. With admission control enabled, the pool
+ * also reserves the threads which can be held by the long and write queries admitted or queued by
+ * {@link AdmissionController}, so that the short queries always have the threads of the given
+ * pool size.
+ */
 public class RateLimitExecutor extends ThreadPoolExecutor {
     private final RateLimiter rateLimiter;
     private final AtomicLong queryCounter;
 
     public RateLimitExecutor(
             Configs configs,
+            AdmissionController admissionController,
             int corePoolSize,
             int maximumPoolSize,
             long keepAliveTime,
@@ -37,8 +44,8 @@ public class RateLimitExecutor extends ThreadPoolExecutor {
             ThreadFactory threadFactory,
             RejectedExecutionHandler handler) {
         super(
-                corePoolSize,
-                maximumPoolSize,
+                corePoolSize + admissionController.getReservedThreads(),
+                maximumPoolSize + admissionController.getReservedThreads(),
                 keepAliveTime,
                 unit,
                 workQueue,
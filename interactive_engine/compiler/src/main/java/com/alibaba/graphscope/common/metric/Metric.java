@@ -26,6 +26,7 @@ public interface Metric<Value> {
                 new Key("rpc.channels.executor.queue");
         public static final Key GREMLIN_EXECUTOR_QUEUE = new Key("gremlin.executor.queue");
         public static final Key GREMLIN_QPS = new Key("gremlin.qps");
+        public static final Key QUERY_CACHE = new Key("query.cache");
     }
 
     class ValueFactory {
@@ -0,0 +1,41 @@
+/*
+ *
+ *  * Copyright 2020 Alibaba Group Holding Limited.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  * http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.alibaba.graphscope.common.metric;
+
+import com.alibaba.graphscope.common.ir.tools.QueryCache;
+
+import java.util.Map;
+
+public class QueryCacheMetric implements Metric<Map> {
+    private final QueryCache queryCache;
+
+    public QueryCacheMetric(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Override
+    public Key getKey() {
+        return KeyFactory.QUERY_CACHE;
+    }
+
+    @Override
+    public Map getValue() {
+        return queryCache.getStats();
+    }
+}
@@ -23,8 +23,6 @@ import com.alibaba.graphscope.grammar.CypherGSParser;
 
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.DefaultErrorStrategy;
-import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 /**
@@ -38,12 +36,7 @@ public class CypherAntlr4Parser implements Antlr4Parser {
         lexer.removeErrorListeners();
         lexer.addErrorListener(new SyntaxErrorListener());
         final CypherGSParser parser = new CypherGSParser(new CommonTokenStream(lexer));
-        // setup error handler on parser
-        parser.setErrorHandler(new DefaultErrorStrategy());
-        // reset error listeners on parser
-        parser.removeErrorListeners();
-        parser.addErrorListener(new SyntaxErrorListener());
-        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-        return parser.oC_Cypher();
+        // parse in SLL mode, and fallback to LL mode on failure
+        return Antlr4Parser.parseTwoStage(parser, CypherGSParser::oC_Cypher);
     }
 }
@@ -34,6 +34,7 @@ public class CypherPlanExecution implements StatementResults.SubscribableExecuti
     private final QueryStatusCallback statusCallback;
     private final IrMeta irMeta;
     private final GraphPlanExecutor innerExecutor;
+    private final boolean primitiveFastPath;
 
     public CypherPlanExecution(
             GraphPlanner.Summary planSummary,
@@ -41,11 +42,22 @@ public class CypherPlanExecution implements StatementResults.SubscribableExecuti
             QueryStatusCallback statusCallback,
             IrMeta irMeta,
             GraphPlanExecutor innerExecutor) {
+        this(planSummary, timeoutConfig, statusCallback, irMeta, innerExecutor, false);
+    }
+
+    public CypherPlanExecution(
+            GraphPlanner.Summary planSummary,
+            QueryTimeoutConfig timeoutConfig,
+            QueryStatusCallback statusCallback,
+            IrMeta irMeta,
+            GraphPlanExecutor innerExecutor,
+            boolean primitiveFastPath) {
         this.planSummary = planSummary;
         this.timeoutConfig = timeoutConfig;
         this.statusCallback = statusCallback;
         this.irMeta = irMeta;
         this.innerExecutor = innerExecutor;
+        this.primitiveFastPath = primitiveFastPath;
     }
 
     @Override
@@ -53,7 +65,9 @@ public class CypherPlanExecution implements StatementResults.SubscribableExecuti
         try {
             CypherRecordProcessor recordProcessor =
                     new CypherRecordProcessor(
-                            new CypherRecordParser(planSummary.getLogicalPlan().getOutputType()),
+                            new CypherRecordParser(
+                                    planSummary.getLogicalPlan().getOutputType(),
+                                    primitiveFastPath),
                             querySubscriber,
                             timeoutConfig,
                             statusCallback);
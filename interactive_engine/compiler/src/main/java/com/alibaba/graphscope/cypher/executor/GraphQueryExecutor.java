@@ -22,6 +22,7 @@ import com.alibaba.graphscope.common.client.type.ExecutionRequest;
 import com.alibaba.graphscope.common.client.type.ExecutionResponseListener;
 import com.alibaba.graphscope.common.client.write.HttpWriteClient;
 import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.FrontendConfig;
 import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.exception.FrontendException;
 import com.alibaba.graphscope.common.ir.meta.IrMeta;
@@ -138,12 +139,14 @@ public class GraphQueryExecutor extends FabricExecutor {
                 return super.run(fabricTransaction, statement, parameters);
             }
             irMeta = metaQueryCallback.beforeExec();
-            QueryCache.Key cacheKey =
-                    queryCache.createKey(
-                            graphPlanner.instance(
-                                    statement, irMeta, statusCallback.getQueryLogger()));
-            QueryCache.Value cacheValue = queryCache.get(cacheKey);
-            logCacheHit(cacheKey, cacheValue);
+            IrMeta finalMeta = irMeta;
+            QueryLogger queryLogger = statusCallback.getQueryLogger();
+            QueryCache.Value cacheValue =
+                    queryCache.get(
+                            statement,
+                            irMeta,
+                            () -> graphPlanner.instance(statement, finalMeta, queryLogger));
+            logCacheHit(queryLogger, cacheValue);
             Preconditions.checkArgument(
                     cacheValue != null,
                     "value should have been loaded automatically in query cache");
@@ -242,7 +245,13 @@ public class GraphQueryExecutor extends FabricExecutor {
             }
             return StatementResults.connectVia(
                     new CypherPlanExecution(
-                            planSummary, timeoutConfig, statusCallback, irMeta, executor),
+                            planSummary,
+                            timeoutConfig,
+                            statusCallback,
+                            irMeta,
+                            executor,
+                            FrontendConfig.CYPHER_RESULT_PRIMITIVE_FAST_PATH_ENABLED.get(
+                                    graphConfig)),
                     new QuerySubject.BasicQuerySubject());
         } catch (FrontendException e) {
             e.getDetails().put("QueryId", jobId);
@@ -262,11 +271,10 @@ public class GraphQueryExecutor extends FabricExecutor {
         return new QueryTimeoutConfig(fabricConfig.getTransactionTimeout().toMillis());
     }
 
-    private void logCacheHit(QueryCache.Key key, QueryCache.Value value) {
+    private void logCacheHit(QueryLogger queryLogger, QueryCache.Value value) {
         GraphPlanner.PlannerInstance cacheInstance =
                 (GraphPlanner.PlannerInstance) value.debugInfo.get("instance");
-        if (cacheInstance != null && cacheInstance != key.instance) {
-            QueryLogger queryLogger = key.instance.getQueryLogger();
+        if (cacheInstance != null && cacheInstance.getQueryLogger() != queryLogger) {
             if (queryLogger != null) {
                 queryLogger.info(
                         "query hit the cache, cached query id [ {} ], cached query statement [ {}"
@@ -46,16 +46,103 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CypherRecordParser implements RecordParser<AnyValue> {
     private static final Logger logger = LoggerFactory.getLogger(CypherRecordParser.class);
+    private static final Set<SqlTypeName> PRIMITIVE_TYPES =
+            EnumSet.of(
+                    SqlTypeName.BOOLEAN,
+                    SqlTypeName.INTEGER,
+                    SqlTypeName.BIGINT,
+                    SqlTypeName.FLOAT,
+                    SqlTypeName.DOUBLE,
+                    SqlTypeName.CHAR,
+                    SqlTypeName.VARCHAR);
+
     private final RelDataType outputType;
+    // types of the output columns, null if some column is not primitive or the fast path is off
+    private final RelDataType @Nullable [] primitiveTypes;
 
     public CypherRecordParser(RelDataType outputType) {
+        this(outputType, false);
+    }
+
+    /**
+     * @param primitiveFastPath decode records of primitive columns straight into an array reused
+     *                          across records, see {@link #parseInto(IrResult.Record, AnyValue[])}
+     */
+    public CypherRecordParser(RelDataType outputType, boolean primitiveFastPath) {
         this.outputType = outputType;
+        this.primitiveTypes = primitiveFastPath ? getPrimitiveTypes(outputType) : null;
+    }
+
+    private static RelDataType @Nullable [] getPrimitiveTypes(RelDataType outputType) {
+        List<RelDataTypeField> fields = outputType.getFieldList();
+        RelDataType[] types = new RelDataType[fields.size()];
+        for (int i = 0; i < types.length; ++i) {
+            RelDataType type = fields.get(i).getType();
+            // label values are converted to label names
+            if (type instanceof GraphLabelType
+                    || !PRIMITIVE_TYPES.contains(type.getSqlTypeName())) {
+                return null;
+            }
+            types[i] = type;
+        }
+        return types;
+    }
+
+    /**
+     * @return true if all columns are of primitive types, which can be parsed by {@link
+     * #parseInto(IrResult.Record, AnyValue[])}
+     */
+    public boolean isPrimitive() {
+        return this.primitiveTypes != null;
+    }
+
+    /**
+     * parse the columns of a record into {@code columns}, which is reused across records to avoid
+     * the intermediate list of each record. Strings are kept in utf8 bytes, which are packed by
+     * bolt directly instead of being decoded and encoded again.
+     */
+    public void parseInto(IrResult.Record record, AnyValue[] columns) {
+        Preconditions.checkArgument(
+                primitiveTypes != null && record.getColumnsCount() == primitiveTypes.length,
+                "column size of results "
+                        + record.getColumnsCount()
+                        + " should be consistent with output type "
+                        + outputType.getFieldCount());
+        for (int i = 0; i < primitiveTypes.length; ++i) {
+            columns[i] = parsePrimitive(record.getColumns(i).getEntry(), primitiveTypes[i]);
+        }
+    }
+
+    private AnyValue parsePrimitive(IrResult.Entry entry, RelDataType dataType) {
+        if (entry.getInnerCase() != IrResult.Entry.InnerCase.ELEMENT
+                || entry.getElement().getInnerCase() != IrResult.Element.InnerCase.OBJECT) {
+            return parseEntry(entry, dataType);
+        }
+        Common.Value value = entry.getElement().getObject();
+        switch (value.getItemCase()) {
+            case BOOLEAN:
+                return value.getBoolean() ? BooleanValue.TRUE : BooleanValue.FALSE;
+            case I32:
+                return Values.intValue(value.getI32());
+            case I64:
+                return Values.longValue(value.getI64());
+            case F64:
+                return Values.doubleValue(value.getF64());
+            case STR:
+                return Values.utf8Value(value.getStrBytes().toByteArray());
+            case NONE:
+                return Values.NO_VALUE;
+            default:
+                return parseValue(value, dataType);
+        }
     }
 
     @Override
@@ -36,8 +36,10 @@ import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
 import org.neo4j.values.AnyValue;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * return streaming records in a reactive way
@@ -96,11 +98,29 @@ public class CypherRecordProcessor
 
     @Override
     public void request(long l) throws Exception {
+        if (recordParser instanceof CypherRecordParser
+                && ((CypherRecordParser) recordParser).isPrimitive()) {
+            CypherRecordParser parser = (CypherRecordParser) recordParser;
+            // reused across records, as the subscriber consumes the fields of each record at once
+            AnyValue[] columns = new AnyValue[parser.schema().getFieldCount()];
+            request(
+                    l,
+                    record -> {
+                        parser.parseInto(record, columns);
+                        return Arrays.asList(columns);
+                    });
+        } else {
+            request(l, recordParser::parseFrom);
+        }
+    }
+
+    private void request(long l, Function<IrResult.Record, List<AnyValue>> parser)
+            throws Exception {
         while (l > 0 && recordIterator.hasNext()) {
             IrResult.Record record = recordIterator.next();
             List<AnyValue> columns =
                     ClassUtils.callExceptionWithDetails(
-                            () -> recordParser.parseFrom(record),
+                            () -> parser.apply(record),
                             Code.CYPHER_INVALID_RESULT,
                             Map.of("QueryId", statusCallback.getQueryLogger().getQueryId()));
             for (int i = 0; i < columns.size(); i++) {
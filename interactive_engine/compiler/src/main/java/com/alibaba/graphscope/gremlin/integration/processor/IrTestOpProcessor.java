@@ -26,6 +26,7 @@ import com.alibaba.graphscope.common.ir.meta.IrMeta;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.ir.tools.QueryCache;
 import com.alibaba.graphscope.common.ir.tools.QueryIdGenerator;
+import com.alibaba.graphscope.common.manager.AdmissionController;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
 import com.alibaba.graphscope.common.utils.ClassUtils;
 import com.alibaba.graphscope.gaia.proto.IrResult;
@@ -78,6 +79,7 @@ public class IrTestOpProcessor extends IrStandardOpProcessor {
             ExecutionClient executionClient,
             ChannelFetcher fetcher,
             IrMetaQueryCallback metaQueryCallback,
+            AdmissionController admissionController,
             Graph graph,
             GraphTraversalSource g,
             GraphProperties testGraph) {
@@ -89,6 +91,7 @@ public class IrTestOpProcessor extends IrStandardOpProcessor {
                 executionClient,
                 fetcher,
                 metaQueryCallback,
+                admissionController,
                 graph,
                 g);
         this.context = new SimpleScriptContext();
@@ -57,14 +57,11 @@ public class GremlinTestResultProcessor extends GremlinResultProcessor {
                 reducer.putAll((Map) result);
             }
         } else if (!resultSchema.isGroupBy) {
-            ctx.writeAndFlush(
-                    ResponseMessage.build(ctx.getRequestMessage())
-                            .code(ResponseStatusCode.PARTIAL_CONTENT)
-                            .result(
-                                    results.stream()
-                                            .map(k -> new DefaultRemoteTraverser(k, 1L))
-                                            .collect(Collectors.toList()))
-                            .create());
+            batchResults(
+                    results.stream()
+                            .map(k -> new DefaultRemoteTraverser(k, 1L))
+                            .collect(Collectors.toList()),
+                    record.getSerializedSize());
         }
     }
 
@@ -73,6 +70,9 @@ public class GremlinTestResultProcessor extends GremlinResultProcessor {
         List<Object> results = Lists.newArrayList();
         if (resultSchema.isGroupBy) {
             results.add(new DefaultRemoteTraverser(reducer, 1L));
+        } else {
+            results.addAll(resultBatch);
+            resultBatch.clear();
         }
         ctx.writeAndFlush(
                 ResponseMessage.build(ctx.getRequestMessage())
@@ -26,6 +26,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class QueryLogger {
     private static final Logger defaultLogger = LoggerFactory.getLogger(QueryLogger.class);
@@ -41,11 +44,15 @@ public class QueryLogger {
 
     private String irPlan;
 
+    // elapsed time in nanoseconds of each compiling phase, in the order of the phases
+    private final Map<String, Long> phaseNanos;
+
     public QueryLogger(String query, BigInteger queryId) {
         this.query = query;
         this.queryId = queryId;
         this.irPlan = null;
         this.upstreamId = null;
+        this.phaseNanos = new LinkedHashMap<>();
     }
 
     public QueryLogger(String query, BigInteger queryId, String upstreamId) {
@@ -53,6 +60,7 @@ public class QueryLogger {
         this.queryId = queryId;
         this.upstreamId = upstreamId;
         this.irPlan = null;
+        this.phaseNanos = new LinkedHashMap<>();
     }
 
     public void debug(String format, Object... args) {
@@ -140,6 +148,24 @@ public class QueryLogger {
         this.irPlan = irPlan;
     }
 
+    /**
+     * record the elapsed time of a compiling phase, i.e. parse, rbo, cbo or physical, the time is
+     * accumulated if the phase is recorded more than once.
+     */
+    public synchronized void recordPhase(String phase, long elapsedNanos) {
+        phaseNanos.merge(phase, elapsedNanos, Long::sum);
+    }
+
+    /**
+     * @return the elapsed time of each compiling phase recorded so far, in the format of
+     *     'phase1=1.234ms, phase2=0.567ms'
+     */
+    public synchronized String getPhaseCosts() {
+        return phaseNanos.entrySet().stream()
+                .map(k -> String.format("%s=%.3fms", k.getKey(), k.getValue() / 1_000_000.0d))
+                .collect(Collectors.joining(", "));
+    }
+
     public String getUpstreamId() {
         return upstreamId;
     }
@@ -38,6 +38,7 @@ import com.alibaba.graphscope.common.ir.meta.IrMeta;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.ir.tools.QueryCache;
 import com.alibaba.graphscope.common.ir.tools.QueryIdGenerator;
+import com.alibaba.graphscope.common.manager.AdmissionController;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
 import com.alibaba.graphscope.common.utils.ClassUtils;
 import com.alibaba.graphscope.gremlin.InterOpCollectionBuilder;
@@ -112,6 +113,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
     protected final QueryCache queryCache;
     protected final GraphPlanner graphPlanner;
     protected final ExecutionClient executionClient;
+    protected final AdmissionController admissionController;
     protected Tracer tracer;
     protected LongHistogram queryHistogram;
     /**
@@ -130,6 +132,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
             ExecutionClient executionClient,
             ChannelFetcher fetcher,
             IrMetaQueryCallback metaQueryCallback,
+            AdmissionController admissionController,
             Graph graph,
             GraphTraversalSource g) {
         this.graph = graph;
@@ -148,6 +151,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
         this.queryCache = queryCache;
         this.graphPlanner = graphPlanner;
         this.executionClient = executionClient;
+        this.admissionController = admissionController;
         this.printThreshold = FrontendConfig.QUERY_PRINT_THRESHOLD_MS.get(configs);
         this.opentelemetryIdGenerator = IdGenerator.random();
         initTracer();
@@ -224,6 +228,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                                         queryCache,
                                         graphPlanner,
                                         executionClient,
+                                        admissionController,
                                         jobId,
                                         jobName,
                                         irMeta,
@@ -261,6 +266,13 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                                                         (Throwable)
                                                                 possibleTemporaryException.get())
                                                 .create());
+                            } else if (t instanceof RejectedExecutionException) {
+                                // rejected by admission control
+                                ctx.writeAndFlush(
+                                        ResponseMessage.build(msg)
+                                                .code(ResponseStatusCode.TOO_MANY_REQUESTS)
+                                                .statusMessage(t.getMessage())
+                                                .create());
                             } else if (t instanceof OpProcessorException) {
                                 ctx.writeAndFlush(((OpProcessorException) t).getResponseMessage());
                             } else {
@@ -23,6 +23,7 @@ import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
 import com.alibaba.graphscope.common.ir.meta.IrMeta;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.ir.tools.QueryCache;
+import com.alibaba.graphscope.common.manager.AdmissionController;
 import com.alibaba.graphscope.gaia.proto.IrResult;
 import com.alibaba.graphscope.gremlin.plugin.QueryStatusCallback;
 import com.alibaba.graphscope.gremlin.resultx.GremlinRecordParser;
@@ -32,6 +33,9 @@ import com.google.common.base.Preconditions;
 
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.auth.AuthenticatedUser;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -42,6 +46,7 @@ public class LifeCycleSupplier implements Supplier<GremlinExecutor.LifeCycle> {
     private final QueryCache queryCache;
     private final GraphPlanner graphPlanner;
     private final ExecutionClient client;
+    private final AdmissionController admissionController;
     private final Context ctx;
     private final BigInteger queryId;
     private final String queryName;
@@ -55,6 +60,7 @@ public class LifeCycleSupplier implements Supplier<GremlinExecutor.LifeCycle> {
             QueryCache queryCache,
             GraphPlanner graphPlanner,
             ExecutionClient client,
+            AdmissionController admissionController,
             BigInteger queryId,
             String queryName,
             IrMeta meta,
@@ -65,6 +71,7 @@ public class LifeCycleSupplier implements Supplier<GremlinExecutor.LifeCycle> {
         this.queryCache = queryCache;
         this.graphPlanner = graphPlanner;
         this.client = client;
+        this.admissionController = admissionController;
         this.queryId = queryId;
         this.queryName = queryName;
         this.meta = meta;
@@ -118,7 +125,28 @@ public class LifeCycleSupplier implements Supplier<GremlinExecutor.LifeCycle> {
                                     List<IrResult.Results> records = value.result.records;
                                     records.forEach(k -> listener.onNext(k.getRecord()));
                                     listener.onCompleted();
-                                } else {
+                                    listener.request();
+                                    return;
+                                }
+                                try (AdmissionController.Permit permit =
+                                        admissionController.admit(
+                                                summary.getLogicalPlan(),
+                                                getUser(),
+                                                timeoutConfig.getExecutionTimeoutMS())) {
+                                    if (permit.getQueryClass() != null) {
+                                        statusCallback
+                                                .getQueryLogger()
+                                                .info(
+                                                        "[query][admitted]: admitted as {} query",
+                                                        permit.getQueryClass());
+                                    }
+                                    // the time in queue is taken from the timeout
+                                    QueryTimeoutConfig remainingTimeout =
+                                            new QueryTimeoutConfig(
+                                                    Math.max(
+                                                            timeoutConfig.getExecutionTimeoutMS()
+                                                                    - permit.getQueueTimeMs(),
+                                                            1L));
                                     this.client.submit(
                                             new ExecutionRequest(
                                                     queryId,
@@ -126,18 +154,24 @@ public class LifeCycleSupplier implements Supplier<GremlinExecutor.LifeCycle> {
                                                     summary.getLogicalPlan(),
                                                     summary.getPhysicalPlan()),
                                             listener,
-                                            timeoutConfig,
+                                            remainingTimeout,
                                             statusCallback.getQueryLogger());
                                     statusCallback
                                             .getQueryLogger()
                                             .info("[query][submitted]: physical IR submitted");
+                                    // request results from remote engine in a blocking way
+                                    listener.request();
                                 }
-                                // request results from remote engine in a blocking way
-                                listener.request();
                             } catch (Exception e) {
                                 throw new RuntimeException(e);
                             }
                         })
                 .create();
     }
+
+    private @Nullable String getUser() {
+        AuthenticatedUser user =
+                ctx.getChannelHandlerContext().channel().attr(StateKey.AUTHENTICATED_USER).get();
+        return user == null ? null : user.getName();
+    }
 }
@@ -74,9 +74,8 @@ public class GremlinCalciteScriptEngineFactory extends AbstractGremlinScriptEngi
                 GraphPlanner graphPlanner = (GraphPlanner) globalBindings.get("graph.planner");
                 IrMeta irMeta = (IrMeta) globalBindings.get("graph.meta");
                 QueryLogger queryLogger = (QueryLogger) globalBindings.get("graph.query.logger");
-                QueryCache.Key cacheKey =
-                        queryCache.createKey(graphPlanner.instance(script, irMeta, queryLogger));
-                return queryCache.get(cacheKey);
+                return queryCache.get(
+                        script, irMeta, () -> graphPlanner.instance(script, irMeta, queryLogger));
             } catch (FrontendException e) {
                 throw e;
             } catch (ExecutionException e) {
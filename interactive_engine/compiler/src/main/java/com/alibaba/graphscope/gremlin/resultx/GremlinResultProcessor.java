@@ -30,12 +30,22 @@ import com.alibaba.pegasus.common.StreamIterator;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.server.Context;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class GremlinResultProcessor implements ExecutionResponseListener<IrResult.Record> {
     protected final Context ctx;
@@ -45,6 +55,12 @@ public class GremlinResultProcessor implements ExecutionResponseListener<IrResul
     protected final Map<Object, Object> reducer;
     protected final StreamIterator<IrResult.Record> recordStreamIterator;
     protected final QueryTimeoutConfig timeoutConfig;
+    // results are sent back in batches, each batch is bounded by the count of results and the
+    // bytes of records
+    protected final List<Object> resultBatch;
+    protected final int resultBatchSize;
+    protected final long resultBatchMaxBytes;
+    protected long resultBatchBytes;
 
     public GremlinResultProcessor(
             Configs configs,
@@ -61,6 +77,16 @@ public class GremlinResultProcessor implements ExecutionResponseListener<IrResul
         this.reducer = Maps.newLinkedHashMap();
         int capacity = FrontendConfig.PER_QUERY_STREAM_BUFFER_MAX_CAPACITY.get(configs);
         this.recordStreamIterator = new StreamIterator<>(capacity);
+        RequestMessage msg = ctx.getRequestMessage();
+        // init batch size from resultIterationBatchSize in conf/gremlin-server.yaml,
+        // or args in RequestMessage which is originated from gremlin client
+        this.resultBatchSize =
+                (Integer)
+                        msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
+                                .orElse(ctx.getSettings().resultIterationBatchSize);
+        this.resultBatchMaxBytes = FrontendConfig.PER_QUERY_RESULT_BATCH_MAX_BYTES.get(configs);
+        this.resultBatch = Lists.newArrayListWithCapacity(this.resultBatchSize);
+        this.resultBatchBytes = 0L;
     }
 
     @Override
@@ -113,6 +139,8 @@ public class GremlinResultProcessor implements ExecutionResponseListener<IrResul
                         .put("QueryId", statusCallback.getQueryLogger().getQueryId());
             }
             String errorMsg = executionException.getMessage();
+            // send back the results buffered before the error, as the batches before them
+            flushBatchOnError();
             statusCallback.onErrorEnd(executionException, errorMsg);
             ctx.writeAndFlush(
                     ResponseMessage.build(ctx.getRequestMessage())
@@ -141,11 +169,88 @@ public class GremlinResultProcessor implements ExecutionResponseListener<IrResul
                 reducer.putAll((Map) result);
             }
         } else if (!resultSchema.isGroupBy) {
-            ctx.writeAndFlush(
-                    ResponseMessage.build(ctx.getRequestMessage())
-                            .code(ResponseStatusCode.PARTIAL_CONTENT)
-                            .result(results)
-                            .create());
+            batchResults(results, record.getSerializedSize());
+        }
+    }
+
+    // add results to the current batch, and send back the batch if it is full
+    protected void batchResults(List<Object> results, int recordBytes) {
+        resultBatch.addAll(results);
+        resultBatchBytes += recordBytes;
+        if (resultBatch.size() >= resultBatchSize || resultBatchBytes >= resultBatchMaxBytes) {
+            flushBatch();
+        }
+    }
+
+    protected void flushBatch() {
+        if (resultBatch.isEmpty()) return;
+        awaitWritable();
+        ctx.writeAndFlush(
+                ResponseMessage.build(ctx.getRequestMessage())
+                        .code(ResponseStatusCode.PARTIAL_CONTENT)
+                        .result(Lists.newArrayList(resultBatch))
+                        .create());
+        resultBatch.clear();
+        resultBatchBytes = 0L;
+    }
+
+    private void flushBatchOnError() {
+        int buffered = resultBatch.size();
+        try {
+            flushBatch();
+        } catch (Throwable t) {
+            statusCallback
+                    .getQueryLogger()
+                    .warn(
+                            "[query][response]: fail to send {} buffered results before the error",
+                            buffered,
+                            t);
+            resultBatch.clear();
+            resultBatchBytes = 0L;
+        }
+    }
+
+    // wait until the outbound buffer of the channel is drained below the low water mark, the
+    // records from the engine are piled up in the stream iterator meanwhile, which will block the
+    // engine from sending more if the iterator is full
+    private void awaitWritable() {
+        Channel channel = ctx.getChannelHandlerContext().channel();
+        if (!channel.isActive() || channel.isWritable()) {
+            return;
+        }
+        CompletableFuture<Void> writable = new CompletableFuture<>();
+        ChannelHandler listener =
+                new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelWritabilityChanged(ChannelHandlerContext handlerCtx)
+                            throws Exception {
+                        if (handlerCtx.channel().isWritable()) {
+                            writable.complete(null);
+                        }
+                        super.channelWritabilityChanged(handlerCtx);
+                    }
+
+                    @Override
+                    public void channelInactive(ChannelHandlerContext handlerCtx)
+                            throws Exception {
+                        writable.complete(null);
+                        super.channelInactive(handlerCtx);
+                    }
+                };
+        channel.pipeline().addFirst(listener);
+        try {
+            // the channel may have become writable before the listener is added
+            if (channel.isActive() && !channel.isWritable()) {
+                writable.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            try {
+                channel.pipeline().remove(listener);
+            } catch (NoSuchElementException e) {
+                // the pipeline has been torn down with the closed channel
+            }
         }
     }
 
@@ -154,6 +259,10 @@ public class GremlinResultProcessor implements ExecutionResponseListener<IrResul
         List<Object> results = Lists.newArrayList();
         if (resultSchema.isGroupBy) {
             results.add(reducer);
+        } else {
+            // the last batch is sent back with the success status
+            results.addAll(resultBatch);
+            resultBatch.clear();
         }
         ctx.writeAndFlush(
                 ResponseMessage.build(ctx.getRequestMessage())
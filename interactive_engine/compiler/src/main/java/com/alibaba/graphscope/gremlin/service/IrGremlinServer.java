@@ -23,6 +23,7 @@ import com.alibaba.graphscope.common.config.FrontendConfig;
 import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
 import com.alibaba.graphscope.common.ir.tools.QueryCache;
 import com.alibaba.graphscope.common.ir.tools.QueryIdGenerator;
+import com.alibaba.graphscope.common.manager.AdmissionController;
 import com.alibaba.graphscope.common.manager.IrMetaQueryCallback;
 import com.alibaba.graphscope.common.manager.RateLimitExecutor;
 import com.alibaba.graphscope.common.metric.MetricsTool;
@@ -58,6 +59,7 @@ public class IrGremlinServer implements AutoCloseable {
     private final ChannelFetcher channelFetcher;
     private final IrMetaQueryCallback metaQueryCallback;
     private final GraphProperties testGraph;
+    private final AdmissionController admissionController;
 
     private GremlinServer gremlinServer;
     private final Settings settings;
@@ -85,6 +87,7 @@ public class IrGremlinServer implements AutoCloseable {
         this.channelFetcher = channelFetcher;
         this.metaQueryCallback = metaQueryCallback;
         this.testGraph = testGraph;
+        this.admissionController = new AdmissionController(configs);
         InputStream input =
                 getClass().getClassLoader().getResourceAsStream("conf/gremlin-server.yaml");
         this.settings = Settings.read(input);
@@ -109,6 +112,7 @@ public class IrGremlinServer implements AutoCloseable {
                         executionClient,
                         channelFetcher,
                         metaQueryCallback,
+                        admissionController,
                         graph,
                         g);
         IrOpLoader.addProcessor(standardProcessor.getName(), standardProcessor);
@@ -121,6 +125,7 @@ public class IrGremlinServer implements AutoCloseable {
                         executionClient,
                         channelFetcher,
                         metaQueryCallback,
+                        admissionController,
                         graph,
                         g,
                         testGraph);
@@ -150,6 +155,7 @@ public class IrGremlinServer implements AutoCloseable {
         BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(settings.maxWorkQueueSize);
         return new RateLimitExecutor(
                 configs,
+                admissionController,
                 settings.gremlinPool,
                 settings.gremlinPool,
                 0L,
@@ -18,6 +18,7 @@ package com.alibaba.graphscope.common.ir;
 
 import com.alibaba.graphscope.common.config.Configs;
 import com.alibaba.graphscope.common.ir.meta.IrMeta;
+import com.alibaba.graphscope.common.ir.meta.IrMetaStats;
 import com.alibaba.graphscope.common.ir.meta.fetcher.StaticIrMetaFetcher;
 import com.alibaba.graphscope.common.ir.meta.reader.IrMetaReader;
 import com.alibaba.graphscope.common.ir.planner.GraphRelOptimizer;
@@ -33,6 +34,8 @@ import org.apache.calcite.rel.RelNode;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class QueryCacheTest {
     // test hash code of query cache key
     @Test
@@ -102,6 +105,80 @@ public class QueryCacheTest {
         Assert.assertNotEquals(key1.hashCode(), key2.hashCode());
     }
 
+    // test the compiled plan is reused for queries which only differ in literals
+    @Test
+    public void query_cache_parameterized_test() throws Exception {
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                "query.cache.parameterized.enabled",
+                                "true",
+                                "graph.physical.opt",
+                                "proto"));
+        GraphPlanner graphPlanner =
+                new GraphPlanner(
+                        configs, new LogicalPlanFactory.Cypher(), new GraphRelOptimizer(configs));
+        QueryCache cache = new QueryCache(configs);
+        // the first query creates the plan template and the second one verifies it
+        cache.get(
+                cache.createKey(
+                        graphPlanner.instance(
+                                "Match (n {name: 'ma'}) Return n", Utils.schemaMeta)));
+        cache.get(
+                cache.createKey(
+                        graphPlanner.instance(
+                                "Match (n {name: 'mb'}) Return n", Utils.schemaMeta)));
+        Assert.assertEquals(0L, (long) cache.getStats().get("template.bound"));
+        QueryCache.Value value =
+                cache.get(
+                        cache.createKey(
+                                graphPlanner.instance(
+                                        "Match (n {name: 'mc'}) Return n", Utils.schemaMeta)));
+        Assert.assertEquals(1L, (long) cache.getStats().get("template.bound"));
+        GraphPlanner.Summary compiled =
+                graphPlanner.instance("Match (n {name: 'mc'}) Return n", Utils.schemaMeta).plan();
+        Assert.assertEquals(
+                compiled.getPhysicalPlan().explain(), value.summary.getPhysicalPlan().explain());
+    }
+
+    // test the plans bound from one template carry the literals of their own queries
+    @Test
+    public void query_cache_template_bind_test() throws Exception {
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                "query.cache.parameterized.enabled",
+                                "true",
+                                "graph.physical.opt",
+                                "proto"));
+        GraphPlanner graphPlanner =
+                new GraphPlanner(
+                        configs, new LogicalPlanFactory.Cypher(), new GraphRelOptimizer(configs));
+        QueryCache cache = new QueryCache(configs);
+        for (String name : ImmutableList.of("ma", "mb")) {
+            cache.get(
+                    cache.createKey(
+                            graphPlanner.instance(
+                                    "Match (n {name: '" + name + "'}) Return n",
+                                    Utils.schemaMeta)));
+        }
+        for (String name : ImmutableList.of("mc", "md")) {
+            String query = "Match (n {name: '" + name + "'}) Return n";
+            QueryCache.Value value =
+                    cache.get(cache.createKey(graphPlanner.instance(query, Utils.schemaMeta)));
+            GraphPlanner.PlannerInstance instance = graphPlanner.instance(query, Utils.schemaMeta);
+            GraphPlanner.Summary compiled = instance.plan();
+            Assert.assertEquals(
+                    instance.getParsedPlan().explain(), value.summary.getLogicalPlan().explain());
+            Assert.assertTrue(
+                    value.summary.getLogicalPlan().explain().contains("'" + name + "'"));
+            Assert.assertEquals(
+                    compiled.getPhysicalPlan().explain(),
+                    value.summary.getPhysicalPlan().explain());
+        }
+        Assert.assertEquals(2L, (long) cache.getStats().get("template.bound"));
+    }
+
     // test cache invalidation after schema update
     @Test
     public void query_cache_schema_update_test() throws Exception {
@@ -168,4 +245,55 @@ public class QueryCacheTest {
                 .fetch()
                 .get();
     }
+
+    // test the prepared plan is got by the query text, without parsing the query
+    @Test
+    public void query_cache_prepared_test() throws Exception {
+        Configs configs = new Configs(ImmutableMap.of("query.cache.prepared.enabled", "true"));
+        GraphPlanner graphPlanner =
+                new GraphPlanner(
+                        configs, new LogicalPlanFactory.Cypher(), new GraphRelOptimizer(configs));
+        QueryCache cache = new QueryCache(configs);
+        String query = "Match (n {name: 'ma  '}) Return n";
+        QueryCache.Value value1 =
+                cache.get(
+                        query,
+                        Utils.schemaMeta,
+                        () -> graphPlanner.instance(query, Utils.schemaMeta));
+        // whitespaces out of the literals are ignored
+        QueryCache.Value value2 =
+                cache.get(
+                        "Match  (n {name: 'ma  '})\n Return n ",
+                        Utils.schemaMeta,
+                        () -> {
+                            throw new AssertionError("query should not be parsed again");
+                        });
+        Assert.assertSame(value1, value2);
+        Assert.assertEquals(1L, (long) cache.getStats().get("prepared.hit"));
+        String query2 = "Match (n {name: 'ma'}) Return n";
+        QueryCache.Value value3 =
+                cache.get(
+                        query2,
+                        Utils.schemaMeta,
+                        () -> graphPlanner.instance(query2, Utils.schemaMeta));
+        Assert.assertNotSame(value1, value3);
+
+        // the prepared plans are invalidated once the statistics are changed
+        cache.onStatsChanged(
+                new IrMetaStats(
+                        Utils.schemaMeta.getSnapshotId(),
+                        Utils.schemaMeta.getSchema(),
+                        Utils.schemaMeta.getStoredProcedures(),
+                        null));
+        AtomicInteger parsed = new AtomicInteger();
+        cache.get(
+                query,
+                Utils.schemaMeta,
+                () -> {
+                    parsed.incrementAndGet();
+                    return graphPlanner.instance(query, Utils.schemaMeta);
+                });
+        Assert.assertEquals(1, parsed.get());
+        Assert.assertEquals(1L, (long) cache.getStats().get("prepared.hit"));
+    }
 }
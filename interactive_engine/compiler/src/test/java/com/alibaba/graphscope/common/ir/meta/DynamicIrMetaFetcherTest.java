@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.meta;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.GraphConfig;
+import com.alibaba.graphscope.common.config.PlannerConfig;
+import com.alibaba.graphscope.common.ir.meta.fetcher.DynamicIrMetaFetcher;
+import com.alibaba.graphscope.common.ir.meta.reader.LocalIrMetaReader;
+import com.alibaba.graphscope.groot.common.schema.api.GraphStatistics;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DynamicIrMetaFetcherTest {
+    // the schema is read once on start and once on each change pushed, without polling
+    @Test
+    public void push_schema_changes_test() throws Exception {
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                GraphConfig.GRAPH_META_SCHEMA_URI.getKey(),
+                                resourcePath("schema/modern.json"),
+                                GraphConfig.GRAPH_META_PUSH_ENABLED.getKey(),
+                                "true",
+                                GraphConfig.GRAPH_META_SCHEMA_FETCH_INTERVAL_MS.getKey(),
+                                "10"));
+        Semaphore reads = new Semaphore(0);
+        PushedMetaReader reader = new PushedMetaReader(configs, reads);
+        AtomicInteger schemaChanges = new AtomicInteger();
+        IrMetaTracker tracker =
+                new IrMetaTracker() {
+                    @Override
+                    public void onSchemaChanged(IrMeta meta) {
+                        schemaChanges.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onStatsChanged(IrMetaStats stats) {}
+                };
+        try (DynamicIrMetaFetcher fetcher =
+                new DynamicIrMetaFetcher(configs, reader, ImmutableList.of(tracker))) {
+            Assert.assertNotNull(reader.listener);
+            Assert.assertTrue(reads.tryAcquire(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            Assert.assertEquals(0, reads.availablePermits());
+
+            reader.listener.onSchemaChanged();
+            Assert.assertTrue(reads.tryAcquire(5, TimeUnit.SECONDS));
+            Assert.assertTrue(fetcher.fetch().isPresent());
+            // the schema version is not changed
+            Assert.assertEquals(1, schemaChanges.get());
+        }
+    }
+
+    // the stats are read once on start and the tracker is notified once for each stats pushed
+    @Test
+    public void push_stats_changes_test() throws Exception {
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                GraphConfig.GRAPH_META_SCHEMA_URI.getKey(),
+                                resourcePath("schema/modern.json"),
+                                GraphConfig.GRAPH_META_STATISTICS_URI.getKey(),
+                                resourcePath("statistics/modern_statistics.json"),
+                                GraphConfig.GRAPH_META_PUSH_ENABLED.getKey(),
+                                "true",
+                                PlannerConfig.GRAPH_PLANNER_IS_ON.getKey(),
+                                "true",
+                                PlannerConfig.GRAPH_PLANNER_OPT.getKey(),
+                                "CBO"));
+        PushedMetaReader reader = new PushedMetaReader(configs, new Semaphore(0));
+        Semaphore statsChanges = new Semaphore(0);
+        AtomicReference<GraphStatistics> lastStats = new AtomicReference<>();
+        IrMetaTracker tracker =
+                new IrMetaTracker() {
+                    @Override
+                    public void onSchemaChanged(IrMeta meta) {}
+
+                    @Override
+                    public void onStatsChanged(IrMetaStats stats) {
+                        lastStats.set(stats.getStatistics());
+                        statsChanges.release();
+                    }
+                };
+        try (DynamicIrMetaFetcher fetcher =
+                new DynamicIrMetaFetcher(configs, reader, ImmutableList.of(tracker))) {
+            Assert.assertTrue(statsChanges.tryAcquire(5, TimeUnit.SECONDS));
+
+            GraphStatistics pushed = reader.readStats(null);
+            reader.listener.onStatsChanged(pushed);
+            Assert.assertTrue(statsChanges.tryAcquire(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            Assert.assertEquals(0, statsChanges.availablePermits());
+            Assert.assertSame(pushed, lastStats.get());
+            Assert.assertSame(pushed, ((IrMetaStats) fetcher.fetch().get()).getStatistics());
+        }
+    }
+
+    private static String resourcePath(String resource) throws URISyntaxException {
+        return Thread.currentThread()
+                .getContextClassLoader()
+                .getResource(resource)
+                .toURI()
+                .getPath();
+    }
+
+    private static class PushedMetaReader extends LocalIrMetaReader {
+        private final Semaphore reads;
+        private volatile ChangeListener listener;
+
+        PushedMetaReader(Configs configs, Semaphore reads) {
+            super(configs);
+            this.reads = reads;
+        }
+
+        @Override
+        public IrMeta readMeta() throws IOException {
+            IrMeta meta = super.readMeta();
+            reads.release();
+            return meta;
+        }
+
+        @Override
+        public boolean subscribe(ChangeListener listener) {
+            this.listener = listener;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.planner.cbo;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.ir.Utils;
+import com.alibaba.graphscope.common.ir.meta.IrMeta;
+import com.alibaba.graphscope.common.ir.planner.GraphIOProcessor;
+import com.alibaba.graphscope.common.ir.planner.GraphRelOptimizer;
+import com.alibaba.graphscope.common.ir.planner.volcano.VolcanoPlannerX;
+import com.alibaba.graphscope.common.ir.tools.GraphBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import org.apache.calcite.rel.RelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PlannerBudgetTest {
+    private static final String QUERY =
+            "Match (person1:PERSON)-[:LIKES]->(message:COMMENT|POST), \n"
+                    + "\t   (message:COMMENT|POST)-[:HASCREATOR]->(person2:PERSON), \n"
+                    + "\t   (person1:PERSON)<-[:HASMODERATOR]-(place:FORUM), \n"
+                    + "     (person2:PERSON)<-[:HASMODERATOR]-(place:FORUM)\n"
+                    + "Return count(person1);";
+
+    private static GraphRelOptimizer createOptimizer(String key, String value) {
+        return new GraphRelOptimizer(
+                new Configs(
+                        ImmutableMap.of(
+                                "graph.planner.is.on",
+                                "true",
+                                "graph.planner.opt",
+                                "CBO",
+                                "graph.planner.rules",
+                                "FilterIntoJoinRule, FilterMatchRule, ExtendIntersectRule,"
+                                        + " ExpandGetVFusionRule",
+                                key,
+                                value)));
+    }
+
+    private static String optimize(GraphRelOptimizer optimizer, List<String> phases) {
+        IrMeta irMeta =
+                Utils.mockIrMeta(
+                        "schema/ldbc_schema_exp_hierarchy.json",
+                        "statistics/ldbc30_hierarchy_statistics.json",
+                        optimizer);
+        GraphBuilder builder = Utils.mockGraphBuilder(optimizer, irMeta);
+        RelNode before = com.alibaba.graphscope.cypher.antlr4.Utils.eval(QUERY, builder).build();
+        RelNode after =
+                optimizer.optimize(
+                        before,
+                        new GraphIOProcessor(builder, irMeta),
+                        (phase, elapsedNanos) -> phases.add(phase));
+        return com.alibaba.graphscope.common.ir.tools.Utils.toString(after).trim();
+    }
+
+    private static long getRuleCalls(GraphRelOptimizer optimizer) {
+        return ((VolcanoPlannerX) optimizer.getMatchPlanner()).getRuleCalls();
+    }
+
+    // rule calls of the planning without any budget
+    private static long getUnboundedRuleCalls() {
+        GraphRelOptimizer optimizer = createOptimizer("graph.planner.cbo.max.rule.calls", "0");
+        String plan = optimize(optimizer, Lists.newArrayList());
+        Assert.assertTrue(plan, plan.contains("GraphLogicalSource"));
+        return getRuleCalls(optimizer);
+    }
+
+    // patterns larger than the greedy size are planned by extending the cheapest vertex each time
+    @Test
+    public void greedy_pattern_size_test() {
+        List<String> phases = Lists.newArrayList();
+        GraphRelOptimizer optimizer = createOptimizer("graph.planner.cbo.greedy.pattern.size", "2");
+        String plan = optimize(optimizer, phases);
+        Assert.assertTrue(plan, plan.contains("GraphLogicalSource"));
+        Assert.assertEquals(ImmutableList.of("rbo", "cbo", "physical_rbo"), phases);
+        long unboundedCalls = getUnboundedRuleCalls();
+        long greedyCalls = getRuleCalls(optimizer);
+        Assert.assertTrue(
+                greedyCalls + " should be less than " + unboundedCalls,
+                greedyCalls > 0 && greedyCalls < unboundedCalls);
+    }
+
+    // the plan is completed greedily after the budget is exhausted at the first rule call
+    @Test
+    public void max_rule_calls_test() {
+        List<String> phases = Lists.newArrayList();
+        GraphRelOptimizer optimizer = createOptimizer("graph.planner.cbo.max.rule.calls", "1");
+        String plan = optimize(optimizer, phases);
+        Assert.assertTrue(plan, plan.contains("GraphLogicalSource"));
+        Assert.assertEquals(ImmutableList.of("rbo", "cbo", "physical_rbo"), phases);
+        long unboundedCalls = getUnboundedRuleCalls();
+        long boundedCalls = getRuleCalls(optimizer);
+        Assert.assertTrue(
+                boundedCalls + " should be less than " + unboundedCalls,
+                boundedCalls > 1 && boundedCalls < unboundedCalls);
+    }
+
+    @Test
+    public void time_budget_test() throws Exception {
+        VolcanoPlannerX planner = new VolcanoPlannerX();
+        planner.startBudget(60_000, 0);
+        Assert.assertFalse(planner.checkBudget());
+        planner.startBudget(1, 0);
+        Thread.sleep(10);
+        Assert.assertTrue(planner.checkBudget());
+        // the budget is exhausted until the next planning
+        Assert.assertTrue(planner.checkBudget());
+        Assert.assertEquals(2, planner.getRuleCalls());
+        planner.startBudget(60_000, 0);
+        Assert.assertFalse(planner.isBudgetExhausted());
+
+        // the plan is always completed, whenever the time budget is exhausted
+        List<String> phases = Lists.newArrayList();
+        GraphRelOptimizer optimizer = createOptimizer("graph.planner.cbo.time.budget.ms", "1");
+        String plan = optimize(optimizer, phases);
+        Assert.assertTrue(plan, plan.contains("GraphLogicalSource"));
+        Assert.assertEquals(ImmutableList.of("rbo", "cbo", "physical_rbo"), phases);
+        Assert.assertTrue(getRuleCalls(optimizer) <= getUnboundedRuleCalls());
+    }
+}
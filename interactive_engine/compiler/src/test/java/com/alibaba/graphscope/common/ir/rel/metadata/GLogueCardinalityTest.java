@@ -15,6 +15,7 @@
  */
 package com.alibaba.graphscope.common.ir.rel.metadata;
 
+import com.alibaba.graphscope.common.ir.Utils;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.Glogue;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.GlogueBasicCardinalityEstimationImpl;
 import com.alibaba.graphscope.common.ir.rel.metadata.glogue.pattern.Pattern;
@@ -26,6 +27,9 @@ import com.alibaba.graphscope.common.ir.rel.metadata.schema.GlogueSchema;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.List;
+
 public class GLogueCardinalityTest {
     static GlogueSchema g = GLogueSchemaTest.mockGlogueSchema();
     static Glogue gl = new Glogue(g, 3);
@@ -97,4 +101,53 @@ public class GLogueCardinalityTest {
         Assert.assertEquals(
                 0.125, basicCardinalityEstimation.getCardinality(p7).doubleValue(), delta);
     }
+
+    @Test
+    public void incremental_pattern_cardinality_estimation_test() {
+        // the count of 'knows' is changed from 2 to 8
+        HashMap<Integer, Double> vertexTypeCardinality = new HashMap<>();
+        vertexTypeCardinality.put(person, 4.0);
+        vertexTypeCardinality.put(software, 2.0);
+        HashMap<EdgeTypeId, Double> edgeTypeCardinality = new HashMap<>();
+        edgeTypeCardinality.put(knows, 8.0);
+        edgeTypeCardinality.put(creates, 4.0);
+        GlogueSchema g1 =
+                new GlogueSchema(
+                        Utils.schemaMeta.getSchema(), vertexTypeCardinality, edgeTypeCardinality);
+        Glogue previous = new Glogue(g, 3);
+        Glogue updated = new Glogue(g1, 3, previous);
+        Glogue rebuilt = new Glogue(g1, 3);
+
+        PatternVertex v0 = new SinglePatternVertex(person, 0);
+        PatternVertex v1 = new SinglePatternVertex(software, 1);
+        PatternVertex v2 = new SinglePatternVertex(person, 2);
+        // person0->software
+        Pattern p0 = new Pattern();
+        p0.addVertex(v0);
+        p0.addVertex(v1);
+        p0.addEdge(v0, v1, creates);
+        // person0->person2
+        Pattern p1 = new Pattern();
+        p1.addVertex(v0);
+        p1.addVertex(v2);
+        p1.addEdge(v0, v2, knows);
+        // sofware<-person0->person2
+        Pattern p2 = new Pattern(p0);
+        p2.addVertex(v2);
+        p2.addEdge(v0, v2, knows);
+        p2.reordering();
+        // sofware<-person0->person2 + person2->software
+        Pattern p3 = new Pattern(p2);
+        p3.addEdge(v2, v1, creates);
+        p3.reordering();
+
+        for (Pattern pattern : List.of(p0, p1, p2, p3)) {
+            Assert.assertEquals(
+                    rebuilt.getRowCount(pattern), updated.getRowCount(pattern), delta);
+        }
+        Assert.assertEquals(4.0, updated.getRowCount(p0), delta);
+        Assert.assertEquals(8.0, updated.getRowCount(p1), delta);
+        // the previous version is unchanged
+        Assert.assertEquals(2.0, previous.getRowCount(p1), delta);
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.ir.tools;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.ir.Utils;
+import com.alibaba.graphscope.common.ir.meta.IrMeta;
+import com.alibaba.graphscope.common.ir.planner.GraphRelOptimizer;
+import com.alibaba.graphscope.cypher.antlr4.parser.CypherAntlr4Parser;
+import com.google.common.collect.ImmutableMap;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compile latency of the LDBC interactive queries of the benchmark module: parsing
+ * only, compiling from the query text, and getting the plan prepared for the same text. The
+ * directory of the queries can be changed by the system property 'ldbc.query.dir'.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompileBenchmark {
+    @Param({
+        "ldbc_query_2",
+        "ldbc_query_3",
+        "ldbc_query_4",
+        "ldbc_query_6",
+        "ldbc_query_7",
+        "ldbc_query_8",
+        "ldbc_query_9",
+        "ldbc_query_11",
+        "ldbc_query_12"
+    })
+    private String queryName;
+
+    private String query;
+    private IrMeta irMeta;
+    private GraphPlanner planner;
+    private QueryCache queryCache;
+    private CypherAntlr4Parser parser;
+
+    @Setup
+    public void setup() throws IOException {
+        Path queryDir =
+                Path.of(
+                        System.getProperty(
+                                "ldbc.query.dir", "../benchmark/queries/cypher_queries/ic/gie"));
+        query =
+                new String(
+                        Files.readAllBytes(queryDir.resolve(queryName + ".cypher")),
+                        StandardCharsets.UTF_8);
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                "graph.planner.is.on",
+                                "true",
+                                "graph.planner.opt",
+                                "CBO",
+                                "graph.planner.rules",
+                                "NotMatchToAntiJoinRule, FilterIntoJoinRule, FilterMatchRule,"
+                                        + " ExtendIntersectRule, ExpandGetVFusionRule",
+                                "query.cache.prepared.enabled",
+                                "true"));
+        GraphRelOptimizer optimizer = new GraphRelOptimizer(configs);
+        irMeta =
+                Utils.mockIrMeta(
+                        "schema/ldbc.json", "statistics/ldbc30_statistics.json", optimizer);
+        planner = new GraphPlanner(configs, new LogicalPlanFactory.Cypher(), optimizer);
+        queryCache = new QueryCache(configs);
+        parser = new CypherAntlr4Parser();
+    }
+
+    @Benchmark
+    public Object parse() {
+        return parser.parse(query);
+    }
+
+    @Benchmark
+    public Object compile() {
+        return planner.instance(query, irMeta).plan();
+    }
+
+    @Benchmark
+    public Object compilePrepared() throws ExecutionException {
+        return queryCache.get(query, irMeta, () -> planner.instance(query, irMeta));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder().include(CompileBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.manager;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.ir.Utils;
+import com.alibaba.graphscope.common.ir.meta.IrMeta;
+import com.alibaba.graphscope.common.ir.planner.GraphRelOptimizer;
+import com.alibaba.graphscope.common.ir.tools.GraphPlanner;
+import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
+import com.alibaba.graphscope.common.ir.tools.LogicalPlanFactory;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class AdmissionControllerTest {
+    private static final String SHORT_QUERY = "Match (p:PERSON {id: 1}) Return p";
+    private static final String LONG_QUERY =
+            "Match (p:PERSON)-[:KNOWS]->(f:PERSON)-[:LIKES]->(m:COMMENT|POST) Return count(m)";
+
+    private static Configs configs;
+    private static IrMeta irMeta;
+    private static GraphRelOptimizer optimizer;
+
+    @BeforeClass
+    public static void beforeClass() {
+        configs =
+                new Configs(
+                        ImmutableMap.of(
+                                "graph.planner.is.on",
+                                "true",
+                                "graph.planner.opt",
+                                "CBO",
+                                "graph.planner.rules",
+                                "FilterIntoJoinRule, FilterMatchRule, ExtendIntersectRule,"
+                                        + " ExpandGetVFusionRule"));
+        optimizer = new GraphRelOptimizer(configs);
+        irMeta =
+                Utils.mockIrMeta(
+                        "schema/ldbc.json", "statistics/ldbc30_statistics.json", optimizer);
+    }
+
+    private static LogicalPlan plan(String query) {
+        GraphPlanner graphPlanner =
+                new GraphPlanner(configs, new LogicalPlanFactory.Cypher(), optimizer);
+        return graphPlanner.instance(query, irMeta).plan().getLogicalPlan();
+    }
+
+    private static AdmissionController createController(String... kvs) {
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        builder.put("query.admission.enabled", "true");
+        for (int i = 0; i < kvs.length; i += 2) {
+            builder.put(kvs[i], kvs[i + 1]);
+        }
+        return new AdmissionController(new Configs(builder.build()));
+    }
+
+    // read queries are classified by the intermediate rows estimated by the CBO
+    @Test
+    public void classify_test() {
+        AdmissionController controller = createController();
+        Assert.assertEquals(
+                AdmissionController.QueryClass.SHORT, controller.classify(plan(SHORT_QUERY)));
+        Assert.assertEquals(
+                AdmissionController.QueryClass.LONG, controller.classify(plan(LONG_QUERY)));
+    }
+
+    // the long queries are bounded by the lane, and the running queries of a user by the quota
+    @Test
+    public void admit_test() throws Exception {
+        AdmissionController controller =
+                createController(
+                        "query.admission.long.max.running",
+                        "1",
+                        "query.admission.long.max.queued",
+                        "0",
+                        "query.admission.user.max.running",
+                        "1");
+        // 1 running long query, and the defaults of write queries
+        Assert.assertEquals(1 + 8 + 32, controller.getReservedThreads());
+        LogicalPlan plan = plan(LONG_QUERY);
+        AdmissionController.Permit permit = controller.admit(plan, "user1", 10);
+        Assert.assertEquals(AdmissionController.QueryClass.LONG, permit.getQueryClass());
+        // rejected by the quota of user1
+        Assert.assertThrows(
+                RejectedExecutionException.class, () -> controller.admit(plan, "user1", 10));
+        // rejected by the full queue of long queries
+        Assert.assertThrows(
+                RejectedExecutionException.class, () -> controller.admit(plan, "user2", 10));
+        permit.close();
+        permit.close();
+        try (AdmissionController.Permit permit2 = controller.admit(plan, "user2", 10)) {
+            Assert.assertEquals(AdmissionController.QueryClass.LONG, permit2.getQueryClass());
+        }
+    }
+
+    // the time waiting for a slot is recorded in the permit, to be taken from the query timeout
+    @Test
+    public void queue_time_test() throws Exception {
+        AdmissionController controller =
+                createController(
+                        "query.admission.long.max.running",
+                        "1",
+                        "query.admission.long.max.queued",
+                        "1");
+        LogicalPlan plan = plan(LONG_QUERY);
+        AdmissionController.Permit permit = controller.admit(plan, "user1", 1000);
+        Thread releaser =
+                new Thread(
+                        () -> {
+                            try {
+                                Thread.sleep(100);
+                            } catch (InterruptedException e) {
+                                throw new RuntimeException(e);
+                            }
+                            permit.close();
+                        });
+        releaser.start();
+        try (AdmissionController.Permit permit2 = controller.admit(plan, "user2", 1000)) {
+            // queued until the first permit is closed
+            Assert.assertTrue(permit2.getQueueTimeMs() >= 50);
+        }
+        releaser.join();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.cypher.result;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.ir.type.GraphTypeFactoryImpl;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.google.common.collect.ImmutableMap;
+
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CypherRecordParserTest {
+    private static final RelDataTypeFactory typeFactory =
+            new GraphTypeFactoryImpl(new Configs(ImmutableMap.of()));
+    // multi-byte characters in utf8
+    private static final String MULTI_BYTE_STR = "\u56fe\u6570\u636e";
+
+    private static IrResult.Column column(Common.Value value) {
+        return IrResult.Column.newBuilder()
+                .setEntry(
+                        IrResult.Entry.newBuilder()
+                                .setElement(IrResult.Element.newBuilder().setObject(value)))
+                .build();
+    }
+
+    private static IrResult.Record record(Common.Value... values) {
+        IrResult.Record.Builder builder = IrResult.Record.newBuilder();
+        for (Common.Value value : values) {
+            builder.addColumns(column(value));
+        }
+        return builder.build();
+    }
+
+    private static RelDataType primitiveType() {
+        return typeFactory
+                .builder()
+                .add("b", typeFactory.createSqlType(SqlTypeName.BOOLEAN))
+                .add("i", typeFactory.createSqlType(SqlTypeName.INTEGER))
+                .add("l", typeFactory.createSqlType(SqlTypeName.BIGINT))
+                .add("d", typeFactory.createSqlType(SqlTypeName.DOUBLE))
+                .add("s", typeFactory.createSqlType(SqlTypeName.VARCHAR))
+                .build();
+    }
+
+    // the fast path should give the same values as the existing path
+    @Test
+    public void primitive_fast_path_test() {
+        RelDataType type = primitiveType();
+        CypherRecordParser fastParser = new CypherRecordParser(type, true);
+        CypherRecordParser parser = new CypherRecordParser(type);
+        Assert.assertTrue(fastParser.isPrimitive());
+        Assert.assertFalse(parser.isPrimitive());
+
+        List<IrResult.Record> records =
+                Arrays.asList(
+                        record(
+                                Common.Value.newBuilder().setBoolean(true).build(),
+                                Common.Value.newBuilder().setI32(1).build(),
+                                Common.Value.newBuilder().setI64(2L).build(),
+                                Common.Value.newBuilder().setF64(3.0d).build(),
+                                Common.Value.newBuilder().setStr("marko").build()),
+                        record(
+                                Common.Value.newBuilder().setBoolean(false).build(),
+                                Common.Value.newBuilder().setI32(-1).build(),
+                                Common.Value.newBuilder().setI64(Long.MAX_VALUE).build(),
+                                Common.Value.newBuilder().setF64(-0.5d).build(),
+                                Common.Value.newBuilder().setStr(MULTI_BYTE_STR).build()),
+                        // null values
+                        record(
+                                Common.Value.newBuilder()
+                                        .setNone(Common.None.getDefaultInstance())
+                                        .build(),
+                                Common.Value.newBuilder().setI32(0).build(),
+                                Common.Value.newBuilder()
+                                        .setNone(Common.None.getDefaultInstance())
+                                        .build(),
+                                Common.Value.newBuilder().setF64(0.0d).build(),
+                                Common.Value.newBuilder()
+                                        .setNone(Common.None.getDefaultInstance())
+                                        .build()));
+        // the array is reused across records
+        AnyValue[] columns = new AnyValue[type.getFieldCount()];
+        for (IrResult.Record record : records) {
+            fastParser.parseInto(record, columns);
+            List<AnyValue> expected = parser.parseFrom(record);
+            Assert.assertEquals(expected, Arrays.asList(columns));
+            Assert.assertEquals(expected, fastParser.parseFrom(record));
+        }
+        Assert.assertEquals(Values.NO_VALUE, columns[0]);
+        // strings kept in utf8 bytes are decoded as the same value
+        fastParser.parseInto(records.get(1), columns);
+        Assert.assertEquals(Values.stringValue(MULTI_BYTE_STR), columns[4]);
+    }
+
+    @Test
+    public void non_primitive_test() {
+        RelDataType type =
+                typeFactory
+                        .builder()
+                        .add("l", typeFactory.createSqlType(SqlTypeName.BIGINT))
+                        .add(
+                                "list",
+                                typeFactory.createArrayType(
+                                        typeFactory.createSqlType(SqlTypeName.BIGINT), -1))
+                        .build();
+        CypherRecordParser fastParser = new CypherRecordParser(type, true);
+        Assert.assertFalse(fastParser.isPrimitive());
+
+        IrResult.Collection collection =
+                IrResult.Collection.newBuilder()
+                        .addCollection(
+                                IrResult.Element.newBuilder()
+                                        .setObject(Common.Value.newBuilder().setI64(1L)))
+                        .addCollection(
+                                IrResult.Element.newBuilder()
+                                        .setObject(Common.Value.newBuilder().setI64(2L)))
+                        .build();
+        IrResult.Record record =
+                IrResult.Record.newBuilder()
+                        .addColumns(column(Common.Value.newBuilder().setI64(3L).build()))
+                        .addColumns(
+                                IrResult.Column.newBuilder()
+                                        .setEntry(
+                                                IrResult.Entry.newBuilder()
+                                                        .setCollection(collection)))
+                        .build();
+        // parsed by the existing path
+        Assert.assertEquals(
+                Arrays.asList(Values.longValue(3L), Values.longArray(new long[] {1L, 2L})),
+                fastParser.parseFrom(record));
+        try {
+            fastParser.parseInto(record, new AnyValue[type.getFieldCount()]);
+            Assert.fail("non-primitive columns should not be parsed by the fast path");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
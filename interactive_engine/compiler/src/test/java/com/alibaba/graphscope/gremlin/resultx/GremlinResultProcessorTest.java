@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.gremlin.resultx;
+
+import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.QueryTimeoutConfig;
+import com.alibaba.graphscope.common.ir.Utils;
+import com.alibaba.graphscope.common.ir.tools.LogicalPlan;
+import com.alibaba.graphscope.common.ir.tools.config.GraphOpt;
+import com.alibaba.graphscope.common.ir.tools.config.SourceConfig;
+import com.alibaba.graphscope.common.result.RecordParser;
+import com.alibaba.graphscope.gaia.proto.Common;
+import com.alibaba.graphscope.gaia.proto.IrResult;
+import com.alibaba.graphscope.gremlin.plugin.MetricsCollector;
+import com.alibaba.graphscope.gremlin.plugin.QueryLogger;
+import com.alibaba.graphscope.gremlin.plugin.QueryStatusCallback;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class GremlinResultProcessorTest {
+    private EmbeddedChannel channel;
+    private CountDownLatch parsed;
+
+    // each record is parsed into the name of its only column
+    private GremlinResultProcessor createProcessor(int batchSize, long batchMaxBytes) {
+        channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        parsed = new CountDownLatch(Integer.MAX_VALUE);
+        Configs configs =
+                new Configs(
+                        ImmutableMap.of(
+                                "per.query.result.batch.max.bytes",
+                                String.valueOf(batchMaxBytes)));
+        RequestMessage request =
+                RequestMessage.build(Tokens.OPS_EVAL)
+                        .addArg(Tokens.ARGS_BATCH_SIZE, batchSize)
+                        .create();
+        Context ctx =
+                new Context(
+                        request,
+                        channel.pipeline().firstContext(),
+                        new Settings(),
+                        null,
+                        null,
+                        null);
+        LogicalPlan plan =
+                new LogicalPlan(
+                        Utils.mockGraphBuilder()
+                                .source(new SourceConfig(GraphOpt.Source.VERTEX))
+                                .build());
+        QueryStatusCallback statusCallback =
+                new QueryStatusCallback(
+                        new MetricsCollector.Cypher(System.currentTimeMillis()),
+                        null,
+                        new QueryLogger("g.V()", BigInteger.ONE),
+                        Long.MAX_VALUE);
+        RecordParser<Object> recordParser =
+                new RecordParser<Object>() {
+                    @Override
+                    public List<Object> parseFrom(IrResult.Record record) {
+                        parsed.countDown();
+                        return ImmutableList.of(record.getColumns(0).getNameOrId().getName());
+                    }
+
+                    @Override
+                    public RelDataType schema() {
+                        return null;
+                    }
+                };
+        return new GremlinResultProcessor(
+                configs,
+                ctx,
+                recordParser,
+                new ResultSchema(plan),
+                statusCallback,
+                new QueryTimeoutConfig(60000L));
+    }
+
+    private static IrResult.Record record(String name) {
+        return IrResult.Record.newBuilder()
+                .addColumns(
+                        IrResult.Column.newBuilder()
+                                .setNameOrId(Common.NameOrId.newBuilder().setName(name)))
+                .build();
+    }
+
+    private void sendRecords(GremlinResultProcessor processor, String... names) {
+        for (String name : names) {
+            processor.onNext(record(name));
+        }
+    }
+
+    private List<ResponseMessage> responses() {
+        List<ResponseMessage> responses = new ArrayList<>();
+        ResponseMessage response;
+        while ((response = channel.readOutbound()) != null) {
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private static void assertResponse(
+            ResponseMessage response, ResponseStatusCode code, List<?> results) {
+        Assert.assertEquals(code, response.getStatus().getCode());
+        Assert.assertEquals(results, response.getResult().getData());
+    }
+
+    @Test
+    public void count_bounded_batch_test() {
+        GremlinResultProcessor processor = createProcessor(2, Long.MAX_VALUE);
+        sendRecords(processor, "a", "b", "c", "d", "e");
+        processor.onCompleted();
+        processor.request();
+
+        List<ResponseMessage> responses = responses();
+        Assert.assertEquals(3, responses.size());
+        assertResponse(
+                responses.get(0), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("a", "b"));
+        assertResponse(
+                responses.get(1), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("c", "d"));
+        // the last batch is sent back with the success status
+        assertResponse(responses.get(2), ResponseStatusCode.SUCCESS, ImmutableList.of("e"));
+    }
+
+    @Test
+    public void bytes_bounded_batch_test() {
+        // a batch is full once it holds the bytes of two records
+        GremlinResultProcessor processor =
+                createProcessor(64, 2L * record("a").getSerializedSize());
+        sendRecords(processor, "a", "b", "c");
+        processor.onCompleted();
+        processor.request();
+
+        List<ResponseMessage> responses = responses();
+        Assert.assertEquals(2, responses.size());
+        assertResponse(
+                responses.get(0), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("a", "b"));
+        assertResponse(responses.get(1), ResponseStatusCode.SUCCESS, ImmutableList.of("c"));
+    }
+
+    @Test
+    public void empty_success_batch_test() {
+        GremlinResultProcessor processor = createProcessor(2, Long.MAX_VALUE);
+        sendRecords(processor, "a", "b");
+        processor.onCompleted();
+        processor.request();
+
+        // all results have been sent in full batches, the success response carries none
+        List<ResponseMessage> responses = responses();
+        Assert.assertEquals(2, responses.size());
+        assertResponse(
+                responses.get(0), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("a", "b"));
+        assertResponse(responses.get(1), ResponseStatusCode.SUCCESS, Collections.emptyList());
+    }
+
+    @Test
+    public void unwritable_channel_test() throws Exception {
+        GremlinResultProcessor processor = createProcessor(2, Long.MAX_VALUE);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        Assert.assertFalse(channel.isWritable());
+        sendRecords(processor, "a", "b", "c");
+        processor.onCompleted();
+        Thread requestThread = new Thread(processor::request);
+        requestThread.start();
+
+        // the first full batch is held back until the channel is writable
+        requestThread.join(200L);
+        Assert.assertTrue(requestThread.isAlive());
+        Assert.assertTrue(channel.outboundMessages().isEmpty());
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        requestThread.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(requestThread.isAlive());
+        List<ResponseMessage> responses = responses();
+        Assert.assertEquals(2, responses.size());
+        assertResponse(
+                responses.get(0), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("a", "b"));
+        assertResponse(responses.get(1), ResponseStatusCode.SUCCESS, ImmutableList.of("c"));
+    }
+
+    @Test
+    public void error_after_partial_batch_test() throws Exception {
+        GremlinResultProcessor processor = createProcessor(2, Long.MAX_VALUE);
+        parsed = new CountDownLatch(3);
+        Thread requestThread = new Thread(processor::request);
+        requestThread.start();
+        sendRecords(processor, "a", "b", "c");
+        // the error arrives after all records are processed
+        Assert.assertTrue(parsed.await(10, TimeUnit.SECONDS));
+        processor.onError(new IllegalStateException("engine failure"));
+        requestThread.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(requestThread.isAlive());
+
+        // the buffered result is sent back before the error
+        List<ResponseMessage> responses = responses();
+        Assert.assertEquals(3, responses.size());
+        assertResponse(
+                responses.get(0), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("a", "b"));
+        assertResponse(responses.get(1), ResponseStatusCode.PARTIAL_CONTENT, ImmutableList.of("c"));
+        Assert.assertEquals(
+                ResponseStatusCode.SERVER_ERROR, responses.get(2).getStatus().getCode());
+        Assert.assertTrue(responses.get(2).getStatus().getMessage().contains("engine failure"));
+    }
+}
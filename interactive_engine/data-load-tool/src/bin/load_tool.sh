@@ -25,7 +25,7 @@ usage() {
 cat <<EOF
   A script to launch data loading.
 
-  Usage: load_tool.sh build/ingest/commit <config-file>
+  Usage: load_tool.sh build/build_local/ingest/commit <config-file>
 EOF
 }
 
@@ -55,6 +55,9 @@ check_arguments() {
 if [ "$COMMAND" = "build" ]; then
   check_arguments
   exec hadoop jar "$JAR_FILE" com.alibaba.graphscope.groot.dataload.databuild.OfflineBuild "$CONFIG"
+elif [ "$COMMAND" = "build_local" ]; then
+  check_arguments
+  exec java -cp "$JAR_FILE" com.alibaba.graphscope.groot.dataload.databuild.OfflineBuildLocal "$CONFIG"
 elif [ "$COMMAND" = "ingest" ] || [ "$COMMAND" = "commit" ]; then
   check_arguments
   exec java -cp "$JAR_FILE" com.alibaba.graphscope.groot.dataload.LoadTool -c "$COMMAND" -f "$CONFIG"
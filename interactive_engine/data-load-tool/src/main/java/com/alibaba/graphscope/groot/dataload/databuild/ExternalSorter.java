@@ -0,0 +1,425 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import com.alibaba.graphscope.groot.common.exception.InvalidArgumentException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sort encoded key-value pairs by partition and key with bounded memory.
+ *
+ * <p>Each build thread owns a sorter, which appends records into a byte arena, and spills the
+ * arena as a sorted run file when it is full. A run keeps the offset of each partition in the
+ * file, so all runs of a partition can be merged independently by {@link #merge}. Keys are compared
+ * in unsigned lexicographic order, which is the order of rocksdb's default comparator.
+ *
+ * <p>Run files are deleted when the runs are closed. They are not marked to be deleted on exit, as
+ * each mark is kept in memory until the jvm exits.
+ */
+public class ExternalSorter {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSorter.class);
+
+    // partition(4) + key length(4) + value length(4)
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    // max number of runs merged at once, each of which takes a read buffer
+    static final int MERGE_FAN_IN = 64;
+
+    private final int partitionNum;
+    private final File tmpDir;
+    private final List<Run> runs;
+    private final byte[] arena;
+    private int arenaSize;
+    private int[] offsets;
+    private int recordNum;
+
+    /**
+     * @param partitionNum number of partitions
+     * @param bufferBytes size of the in-memory arena
+     * @param tmpDir directory to put run files
+     * @param runs spilled runs are added to it, which may be shared by sorters of other threads
+     */
+    public ExternalSorter(int partitionNum, int bufferBytes, File tmpDir, List<Run> runs) {
+        this.partitionNum = partitionNum;
+        this.tmpDir = tmpDir;
+        this.runs = runs;
+        this.arena = new byte[bufferBytes];
+        this.offsets = new int[1024];
+    }
+
+    public void add(int partition, BytesRef key, BytesRef value) throws IOException {
+        int recordSize = RECORD_HEADER_SIZE + key.getLength() + value.getLength();
+        if (recordSize > arena.length) {
+            throw new InvalidArgumentException(
+                    "record of " + recordSize + " bytes exceeds sort buffer of " + arena.length);
+        }
+        if (arenaSize + recordSize > arena.length) {
+            spill();
+        }
+        if (recordNum == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[recordNum++] = arenaSize;
+        putInt(arena, arenaSize, partition);
+        putInt(arena, arenaSize + 4, key.getLength());
+        putInt(arena, arenaSize + 8, value.getLength());
+        int pos = arenaSize + RECORD_HEADER_SIZE;
+        System.arraycopy(key.getArray(), key.getOffset(), arena, pos, key.getLength());
+        pos += key.getLength();
+        System.arraycopy(value.getArray(), value.getOffset(), arena, pos, value.getLength());
+        arenaSize = pos + value.getLength();
+    }
+
+    /** Sort records in the arena and write them as a run file. */
+    public void spill() throws IOException {
+        if (recordNum == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        sort(0, recordNum - 1);
+        File file = File.createTempFile("run-", ".tmp", tmpDir);
+        long[] partitionOffsets = new long[partitionNum + 1];
+        long written = 0;
+        int partition = 0;
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(file), READ_BUFFER_SIZE))) {
+            for (int i = 0; i < recordNum; ++i) {
+                int offset = offsets[i];
+                int recordPartition = getInt(arena, offset);
+                while (partition < recordPartition) {
+                    partitionOffsets[++partition] = written;
+                }
+                int length = 8 + getInt(arena, offset + 4) + getInt(arena, offset + 8);
+                // key length, value length, key and value
+                out.write(arena, offset + 4, length);
+                written += length;
+            }
+        }
+        while (partition < partitionNum) {
+            partitionOffsets[++partition] = written;
+        }
+        synchronized (runs) {
+            runs.add(new Run(file, partitionOffsets));
+        }
+        logger.info(
+                "spilled {} records of {} bytes to {} in {} ms",
+                recordNum,
+                written,
+                file,
+                System.currentTimeMillis() - start);
+        arenaSize = 0;
+        recordNum = 0;
+    }
+
+    /** 3-way quick sort of record offsets, equal keys are common for vertex files */
+    private void sort(int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            swap(lo, mid);
+            int lt = lo, gt = hi, i = lo + 1;
+            int pivot = offsets[lo];
+            while (i <= gt) {
+                int cmp = compare(offsets[i], pivot);
+                if (cmp < 0) {
+                    swap(lt++, i++);
+                } else if (cmp > 0) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // recurse into the smaller part to bound the stack depth
+            if (lt - lo < hi - gt) {
+                sort(lo, lt - 1);
+                lo = gt + 1;
+            } else {
+                sort(gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; ++i) {
+            for (int j = i; j > lo && compare(offsets[j - 1], offsets[j]) > 0; --j) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int tmp = offsets[i];
+        offsets[i] = offsets[j];
+        offsets[j] = tmp;
+    }
+
+    private int compare(int a, int b) {
+        int cmp = Integer.compare(getInt(arena, a), getInt(arena, b));
+        if (cmp != 0) {
+            return cmp;
+        }
+        return compareBytes(
+                arena,
+                a + RECORD_HEADER_SIZE,
+                getInt(arena, a + 4),
+                arena,
+                b + RECORD_HEADER_SIZE,
+                getInt(arena, b + 4));
+    }
+
+    static int compareBytes(byte[] a, int aOff, int aLen, byte[] b, int bOff, int bLen) {
+        int len = Math.min(aLen, bLen);
+        for (int i = 0; i < len; ++i) {
+            int cmp = (a[aOff + i] & 0xff) - (b[bOff + i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return aLen - bLen;
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24)
+                | ((bytes[offset + 1] & 0xff) << 16)
+                | ((bytes[offset + 2] & 0xff) << 8)
+                | (bytes[offset + 3] & 0xff);
+    }
+
+    public interface RecordConsumer {
+        void accept(byte[] key, byte[] value) throws IOException;
+    }
+
+    /**
+     * Merge records of a partition from all runs in key order. Records of equal keys are all
+     * passed to the consumer, so that they are rejected by the sst writer as in {@link
+     * OfflineBuild}.
+     *
+     * @return number of merged records
+     */
+    public static long merge(List<Run> runs, int partition, RecordConsumer consumer)
+            throws IOException {
+        return merge(runs, partition, MERGE_FAN_IN, consumer);
+    }
+
+    /**
+     * Merge at most {@code fanIn} runs at once. When there are more runs, groups of them are first
+     * merged into intermediate runs of the partition, which are deleted after the final merge.
+     */
+    static long merge(List<Run> runs, int partition, int fanIn, RecordConsumer consumer)
+            throws IOException {
+        if (fanIn < 2) {
+            throw new InvalidArgumentException("merge fan-in must be at least 2, got " + fanIn);
+        }
+        List<Run> inputs = runs;
+        List<Run> intermediates = new ArrayList<>();
+        try {
+            while (inputs.size() > fanIn) {
+                List<Run> outputs = new ArrayList<>();
+                for (int i = 0; i < inputs.size(); i += fanIn) {
+                    List<Run> group = inputs.subList(i, Math.min(i + fanIn, inputs.size()));
+                    Run output = mergeToRun(group, partition);
+                    intermediates.add(output);
+                    outputs.add(output);
+                }
+                logger.info(
+                        "merged {} runs into {} runs for partition {}",
+                        inputs.size(),
+                        outputs.size(),
+                        partition);
+                // closed early to release the disk space of the previous pass
+                for (Run input : inputs) {
+                    if (intermediates.remove(input)) {
+                        input.close();
+                    }
+                }
+                inputs = outputs;
+            }
+            return mergeRuns(inputs, partition, consumer);
+        } finally {
+            for (Run intermediate : intermediates) {
+                intermediate.close();
+            }
+        }
+    }
+
+    /** Merge a partition of the runs into a new run, which only has records of the partition. */
+    private static Run mergeToRun(List<Run> runs, int partition) throws IOException {
+        File file = File.createTempFile("merge-", ".tmp", runs.get(0).file.getParentFile());
+        long[] written = new long[1];
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(file), READ_BUFFER_SIZE))) {
+            mergeRuns(
+                    runs,
+                    partition,
+                    (key, value) -> {
+                        out.writeInt(key.length);
+                        out.writeInt(value.length);
+                        out.write(key);
+                        out.write(value);
+                        written[0] += 8 + key.length + value.length;
+                    });
+        } catch (IOException | RuntimeException e) {
+            if (!file.delete()) {
+                logger.warn("failed to delete run file {}", file);
+            }
+            throw e;
+        }
+        long[] partitionOffsets = new long[runs.get(0).partitionOffsets.length];
+        Arrays.fill(partitionOffsets, partition + 1, partitionOffsets.length, written[0]);
+        return new Run(file, partitionOffsets);
+    }
+
+    private static long mergeRuns(List<Run> runs, int partition, RecordConsumer consumer)
+            throws IOException {
+        PriorityQueue<Cursor> queue =
+                new PriorityQueue<>(
+                        Math.max(runs.size(), 1),
+                        (a, b) -> compareBytes(a.key, 0, a.key.length, b.key, 0, b.key.length));
+        for (Run run : runs) {
+            Cursor cursor =
+                    new Cursor(
+                            run.channel(),
+                            run.partitionOffsets[partition],
+                            run.partitionOffsets[partition + 1]);
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        long count = 0;
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            consumer.accept(cursor.key, cursor.value);
+            count += 1;
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        return count;
+    }
+
+    /** A sorted run file, records of partition i are in [offsets[i], offsets[i + 1]). */
+    public static class Run implements AutoCloseable {
+        private final File file;
+        private final long[] partitionOffsets;
+        private FileChannel channel;
+
+        Run(File file, long[] partitionOffsets) {
+            this.file = file;
+            this.partitionOffsets = partitionOffsets;
+        }
+
+        // opened once and shared by merges of all partitions, which only use positional reads
+        private synchronized FileChannel channel() throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+            return channel;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+            if (!file.delete()) {
+                logger.warn("failed to delete run file {}", file);
+            }
+        }
+    }
+
+    private static class Cursor {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private ByteBuffer buffer;
+        private byte[] key;
+        private byte[] value;
+
+        Cursor(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, end - start));
+            this.buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (!ensure(8)) {
+                return false;
+            }
+            int keyLen = buffer.getInt();
+            int valLen = buffer.getInt();
+            if (!ensure(keyLen + valLen)) {
+                throw new IOException("truncated run file");
+            }
+            key = new byte[keyLen];
+            buffer.get(key);
+            value = new byte[valLen];
+            buffer.get(value);
+            return true;
+        }
+
+        private boolean ensure(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return true;
+            }
+            if (buffer.remaining() + (end - position) < n) {
+                return false;
+            }
+            if (buffer.capacity() < n) {
+                ByteBuffer larger = ByteBuffer.allocate(n);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < n) {
+                int limit = (int) Math.min(buffer.remaining(), end - position);
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(buffer.position() + limit);
+                int read = channel.read(slice, position);
+                if (read < 0) {
+                    throw new IOException("unexpected end of run file");
+                }
+                position += read;
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
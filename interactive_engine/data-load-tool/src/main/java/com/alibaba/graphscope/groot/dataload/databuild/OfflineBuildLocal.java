@@ -0,0 +1,493 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import com.alibaba.graphscope.groot.common.config.DataLoadConfig;
+import com.alibaba.graphscope.groot.common.exception.InvalidArgumentException;
+import com.alibaba.graphscope.groot.common.schema.api.GraphEdge;
+import com.alibaba.graphscope.groot.common.schema.api.GraphElement;
+import com.alibaba.graphscope.groot.common.schema.api.GraphSchema;
+import com.alibaba.graphscope.groot.common.schema.api.GraphVertex;
+import com.alibaba.graphscope.groot.common.schema.mapper.GraphSchemaMapper;
+import com.alibaba.graphscope.groot.common.schema.wrapper.GraphDef;
+import com.alibaba.graphscope.groot.common.schema.wrapper.PropertyValue;
+import com.alibaba.graphscope.groot.common.util.PartitionUtils;
+import com.alibaba.graphscope.groot.common.util.UuidUtils;
+import com.alibaba.graphscope.groot.dataload.unified.UniConfig;
+import com.alibaba.graphscope.groot.sdk.GrootClient;
+import com.alibaba.graphscope.proto.groot.DataLoadTargetPb;
+import com.alibaba.graphscope.proto.groot.GraphDefPb;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.Path;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build the sst files of a bulk load on a single machine, without a Hadoop cluster.
+ *
+ * <p>The output is identical to {@link OfflineBuild}: files are split into line aligned chunks,
+ * which are encoded by a pool of threads in the same way as {@link DataBuildMapper}, the encoded
+ * records are partitioned and sorted by {@link ExternalSorter}, and then each partition is merged
+ * into a {@code part-r-xxxxx.sst} file along with its checksum. The input path should be a local
+ * file or directory, while the output path can be any path supported by the Hadoop file system.
+ */
+public class OfflineBuildLocal {
+    private static final Logger logger = LoggerFactory.getLogger(OfflineBuildLocal.class);
+
+    private static final long MAX_MAP_SIZE = 1L << 30;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args[0];
+        UniConfig properties = UniConfig.fromFile(configFile);
+
+        String inputPath = properties.getProperty(DataLoadConfig.INPUT_PATH);
+        String outputPath = properties.getProperty(DataLoadConfig.OUTPUT_PATH);
+        String graphEndpoint = properties.getProperty(DataLoadConfig.GRAPH_ENDPOINT);
+        String uniquePath =
+                properties.getProperty(DataLoadConfig.UNIQUE_PATH, UuidUtils.getBase64UUIDString());
+
+        String _tmp = properties.getProperty(DataLoadConfig.SPLIT_SIZE, "256");
+        long splitSize = Long.parseLong(_tmp) * 1024 * 1024;
+        _tmp = properties.getProperty(DataLoadConfig.LOAD_AFTER_BUILD, "false");
+        boolean loadAfterBuild = Utils.parseBoolean(_tmp);
+        _tmp = properties.getProperty(DataLoadConfig.SKIP_HEADER, "true");
+        boolean skipHeader = Utils.parseBoolean(_tmp);
+        String separator = properties.getProperty(DataLoadConfig.SEPARATOR, "\\|");
+        _tmp = properties.getProperty(DataLoadConfig.BUILD_THREADS);
+        int threads =
+                _tmp == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(_tmp);
+        _tmp = properties.getProperty(DataLoadConfig.BUILD_SORT_BUFFER_MB, "256");
+        long sortBufferBytes = Long.parseLong(_tmp) * 1024 * 1024;
+        String tmpDirPath =
+                properties.getProperty(
+                        DataLoadConfig.BUILD_TMP_DIR, System.getProperty("java.io.tmpdir"));
+
+        String username = properties.getProperty(DataLoadConfig.USER_NAME, "");
+        String password = properties.getProperty(DataLoadConfig.PASS_WORD, "");
+
+        GrootClient client = Utils.getClient(graphEndpoint, username, password);
+
+        String configStr = properties.getProperty(DataLoadConfig.COLUMN_MAPPING_CONFIG);
+        Map<String, FileColumnMapping> mappingConfig;
+        if (configStr == null) {
+            mappingConfig = Utils.parseColumnMappingFromUniConfig(properties);
+        } else {
+            mappingConfig = Utils.parseColumnMapping(configStr);
+        }
+        List<DataLoadTargetPb> targets = Utils.getDataLoadTargets(mappingConfig);
+        GraphDefPb pb = client.prepareDataLoad(targets);
+        GraphSchema schema = GraphDef.parseProto(pb);
+        System.out.println("GraphSchema " + pb);
+        int partitionNum = client.getPartitionNum();
+
+        Map<String, ColumnMappingInfo> info = new HashMap<>();
+        mappingConfig.forEach(
+                (fileName, fileColumnMapping) -> {
+                    info.put(fileName, fileColumnMapping.toColumnMappingInfo(schema));
+                });
+        ObjectMapper mapper = new ObjectMapper();
+        String schemaJson = GraphSchemaMapper.parseFromSchema(schema).toJsonString();
+        String mappings = mapper.writeValueAsString(info);
+
+        Path outputDir = new Path(outputPath, uniquePath);
+        FileSystem fs = outputDir.getFileSystem(new Configuration());
+        File tmpDir = Files.createTempDirectory(new File(tmpDirPath).toPath(), "build-").toFile();
+        try {
+            OfflineBuildLocal builder =
+                    new OfflineBuildLocal(
+                            schema, info, separator, skipHeader, partitionNum, threads, tmpDir);
+            List<Chunk> chunks = builder.split(new File(inputPath), splitSize);
+            logger.info("build [{}] chunks with [{}] threads", chunks.size(), threads);
+            try {
+                builder.encode(chunks, sortBufferBytes);
+                builder.merge();
+            } finally {
+                builder.closeRuns();
+            }
+            fs.mkdirs(outputDir);
+            File[] outputs = tmpDir.listFiles((dir, name) -> name.startsWith("part-r-"));
+            for (File file : Objects.requireNonNull(outputs)) {
+                fs.copyFromLocalFile(true, new Path(file.getAbsolutePath()), outputDir);
+            }
+        } finally {
+            if (!FileUtil.fullyDelete(tmpDir)) {
+                logger.warn("failed to delete tmp dir [{}]", tmpDir);
+            }
+        }
+
+        Map<String, String> outputMeta = new HashMap<>();
+        outputMeta.put(DataLoadConfig.GRAPH_ENDPOINT, graphEndpoint);
+        outputMeta.put(DataLoadConfig.SCHEMA_JSON, schemaJson);
+        outputMeta.put(DataLoadConfig.COLUMN_MAPPINGS, mappings);
+        outputMeta.put(DataLoadConfig.UNIQUE_PATH, uniquePath);
+
+        FSDataOutputStream os = fs.create(new Path(outputDir, "META"));
+        os.writeUTF(mapper.writeValueAsString(outputMeta));
+        os.flush();
+        os.close();
+
+        if (loadAfterBuild) {
+            String dataPath = fs.makeQualified(outputDir).toString();
+            logger.info("start ingesting data from " + dataPath);
+            try {
+                client.ingestData(dataPath);
+                logger.info("start committing bulk load");
+                Map<Long, DataLoadTargetPb> tableToTarget = Utils.getTableToTargets(schema, info);
+                client.commitDataLoad(tableToTarget, uniquePath);
+            } finally {
+                try {
+                    client.clearIngest(uniquePath);
+                } catch (Exception e) {
+                    logger.warn("Clear ingest failed, ignored");
+                }
+            }
+        }
+    }
+
+    private final GraphSchema schema;
+    private final Map<String, ColumnMappingInfo> fileToColumnMappingInfo;
+    private final String separator;
+    private final boolean skipHeader;
+    private final int partitionNum;
+    private final int threads;
+    private final File tmpDir;
+    private final List<ExternalSorter.Run> runs;
+
+    public OfflineBuildLocal(
+            GraphSchema schema,
+            Map<String, ColumnMappingInfo> fileToColumnMappingInfo,
+            String separator,
+            boolean skipHeader,
+            int partitionNum,
+            int threads,
+            File tmpDir) {
+        this.schema = schema;
+        this.fileToColumnMappingInfo = fileToColumnMappingInfo;
+        this.separator = separator;
+        this.skipHeader = skipHeader;
+        this.partitionNum = partitionNum;
+        this.threads = threads;
+        this.tmpDir = tmpDir;
+        this.runs = new ArrayList<>();
+    }
+
+    /** A range of a file, which starts at the beginning of a line and ends after a line. */
+    private static class Chunk {
+        private final File file;
+        private final long start;
+        private final long end;
+
+        Chunk(File file, long start, long end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private List<Chunk> split(File input, long splitSize) throws IOException {
+        List<File> files;
+        if (input.isDirectory()) {
+            try (Stream<java.nio.file.Path> paths = Files.walk(input.toPath())) {
+                files =
+                        paths.filter(Files::isRegularFile)
+                                .map(java.nio.file.Path::toFile)
+                                .sorted()
+                                .collect(Collectors.toList());
+            }
+        } else {
+            files = Collections.singletonList(input);
+        }
+        List<Chunk> chunks = new ArrayList<>();
+        for (File file : files) {
+            if (!fileToColumnMappingInfo.containsKey(file.getName())) {
+                logger.warn("ignore [{}], fullPath is [{}]", file.getName(), file);
+                continue;
+            }
+            long length = file.length();
+            long start = 0;
+            try (InputStream is = new FileInputStream(file)) {
+                long pos = 0;
+                while (start < length) {
+                    long end = Math.min(start + splitSize, length);
+                    // extend the chunk to the end of the line
+                    if (end < length) {
+                        while (pos < end - 1) {
+                            pos += is.skip(end - 1 - pos);
+                        }
+                        int b;
+                        while ((b = is.read()) != -1) {
+                            pos += 1;
+                            if (b == '\n') {
+                                break;
+                            }
+                        }
+                        end = pos;
+                    }
+                    chunks.add(new Chunk(file, start, end));
+                    start = end;
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Encode the chunks into sorted runs.
+     *
+     * @param sortBufferBytes total size of the sort buffers, which is split across the threads
+     */
+    private void encode(List<Chunk> chunks, long sortBufferBytes) throws Exception {
+        // leave the other half of the heap to the encoders and the merge
+        long budget = Math.min(sortBufferBytes, Runtime.getRuntime().maxMemory() / 2);
+        if (budget < sortBufferBytes) {
+            logger.warn(
+                    "sort buffer of [{}] bytes is limited to half of the max heap [{}] bytes",
+                    sortBufferBytes,
+                    budget);
+        }
+        int threadBufferBytes = (int) Math.min(budget / threads, Integer.MAX_VALUE - 8);
+        logger.info("each thread sorts records in a buffer of [{}] bytes", threadBufferBytes);
+        ConcurrentLinkedQueue<Chunk> queue = new ConcurrentLinkedQueue<>(chunks);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong lineCount = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; ++i) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    DataEncoder encoder = new DataEncoder(schema);
+                                    ExternalSorter sorter =
+                                            new ExternalSorter(
+                                                    partitionNum, threadBufferBytes, tmpDir, runs);
+                                    Chunk chunk;
+                                    while ((chunk = queue.poll()) != null) {
+                                        lineCount.addAndGet(encodeChunk(chunk, encoder, sorter));
+                                    }
+                                    sorter.spill();
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("encoded [{}] lines into [{}] runs", lineCount.get(), runs.size());
+    }
+
+    private long encodeChunk(Chunk chunk, DataEncoder encoder, ExternalSorter sorter)
+            throws IOException {
+        ColumnMappingInfo info = fileToColumnMappingInfo.get(chunk.file.getName());
+        byte[] line = new byte[1024];
+        int length = 0;
+        long lineCount = 0;
+        boolean skip = skipHeader && chunk.start == 0;
+        try (FileChannel channel = FileChannel.open(chunk.file.toPath(), StandardOpenOption.READ)) {
+            // a mapped buffer is limited to 2GB, a line may span two buffers
+            for (long pos = chunk.start; pos < chunk.end; pos += MAX_MAP_SIZE) {
+                long size = Math.min(MAX_MAP_SIZE, chunk.end - pos);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, size);
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b != '\n') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length * 2);
+                        }
+                        line[length++] = b;
+                    } else if (skip) {
+                        skip = false;
+                        length = 0;
+                    } else {
+                        encodeLine(line, length, info, encoder, sorter);
+                        lineCount += 1;
+                        length = 0;
+                    }
+                }
+            }
+        }
+        // the last line without a line break
+        if (length > 0 && !skip) {
+            encodeLine(line, length, info, encoder, sorter);
+            lineCount += 1;
+        }
+        return lineCount;
+    }
+
+    private void encodeLine(
+            byte[] line,
+            int length,
+            ColumnMappingInfo info,
+            DataEncoder encoder,
+            ExternalSorter sorter)
+            throws IOException {
+        if (length > 0 && line[length - 1] == '\r') {
+            length -= 1;
+        }
+        encodeLine(new String(line, 0, length, StandardCharsets.UTF_8), info, encoder, sorter);
+    }
+
+    private void encodeLine(
+            String line, ColumnMappingInfo info, DataEncoder encoder, ExternalSorter sorter)
+            throws IOException {
+        String[] items = line.split(separator);
+
+        int labelId = info.getLabelId();
+        long tableId = info.getTableId();
+        GraphElement type = this.schema.getElement(labelId);
+        Map<Integer, Integer> colMap = info.getPropertiesColMap();
+        Map<Integer, PropertyValue> properties = Utils.buildProperties(type, items, colMap);
+
+        BytesRef valRef = encoder.encodeProperties(labelId, properties);
+        if (type instanceof GraphVertex) {
+            BytesRef keyRef =
+                    Utils.getVertexKeyRef(encoder, (GraphVertex) type, properties, tableId);
+            sorter.add(getPartition(keyRef), keyRef, valRef);
+        } else if (type instanceof GraphEdge) {
+            BytesRef out =
+                    Utils.getEdgeKeyRef(encoder, schema, info, items, properties, tableId, true);
+            sorter.add(getPartition(out), out, valRef);
+            BytesRef in =
+                    Utils.getEdgeKeyRef(encoder, schema, info, items, properties, tableId, false);
+            sorter.add(getPartition(in), in, valRef);
+        } else {
+            throw new InvalidArgumentException("Invalid label " + labelId);
+        }
+    }
+
+    private int getPartition(BytesRef key) {
+        // same as DataBuildPartitioner
+        long partitionKey = ByteBuffer.wrap(key.getArray()).getLong(key.getOffset() + 8);
+        return PartitionUtils.getPartitionIdFromKey(partitionKey, partitionNum);
+    }
+
+    private void merge() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < partitionNum; ++i) {
+                int partition = i;
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    mergePartition(partition);
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void closeRuns() throws IOException {
+        for (ExternalSorter.Run run : runs) {
+            run.close();
+        }
+        runs.clear();
+    }
+
+    private void mergePartition(int partition) throws IOException {
+        String name = String.format("part-r-%05d", partition);
+        File sstFile = new File(tmpDir, name + ".sst");
+        long[] count = new long[1];
+        try (EnvOptions envOptions = new EnvOptions();
+                Options options = new Options()) {
+            options.setCreateIfMissing(true)
+                    .setWriteBufferSize(512 << 20)
+                    .setMaxWriteBufferNumber(8)
+                    .setTargetFileSizeBase(512 << 20);
+            SstFileWriter writer = new SstFileWriter(envOptions, options);
+            try {
+                ExternalSorter.merge(
+                        runs,
+                        partition,
+                        (key, value) -> {
+                            try {
+                                if (count[0]++ == 0) {
+                                    writer.open(sstFile.getAbsolutePath());
+                                }
+                                writer.put(key, value);
+                            } catch (RocksDBException e) {
+                                ByteBuffer buffer = ByteBuffer.wrap(key);
+                                long tableId = buffer.getLong(0) >> 1;
+                                long hashId = buffer.getLong(8);
+                                throw new InvalidArgumentException(
+                                        "Write SST Error! TableId: ["
+                                                + tableId
+                                                + "], hashId: ["
+                                                + hashId
+                                                + "]",
+                                        e);
+                            }
+                        });
+                if (count[0] > 0) {
+                    writer.finish();
+                }
+            } catch (RocksDBException e) {
+                throw new InvalidArgumentException(e);
+            } finally {
+                writer.close();
+            }
+        }
+        String chkData = count[0] == 0 ? "0" : "1," + getFileMD5(sstFile);
+        Files.write(new File(tmpDir, name + ".chk").toPath(), chkData.getBytes());
+        logger.info("partition [{}] has [{}] records, checksum [{}]", partition, count[0], chkData);
+    }
+
+    private static String getFileMD5(File file) throws IOException {
+        try (InputStream fis = new FileInputStream(file)) {
+            MessageDigest MD5 = MessageDigest.getInstance("MD5");
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = fis.read(buffer)) != -1) {
+                MD5.update(buffer, 0, length);
+            }
+            return new String(Hex.encodeHex(MD5.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new InvalidArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.dataload.databuild;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ExternalSorterTest {
+    private static final int PARTITION_NUM = 3;
+
+    private File tmpDir;
+    private List<ExternalSorter.Run> runs;
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("sorter-test-").toFile();
+        runs = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (ExternalSorter.Run run : runs) {
+            run.close();
+        }
+        Assert.assertTrue(tmpDir.delete());
+    }
+
+    private static BytesRef ref(byte[] bytes) {
+        return new BytesRef(bytes, 0, bytes.length);
+    }
+
+    private static byte[] key(long id) {
+        return ByteBuffer.allocate(8).putLong(id).array();
+    }
+
+    private List<long[]> merge(int partition) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        long count =
+                ExternalSorter.merge(
+                        runs,
+                        partition,
+                        (key, value) ->
+                                records.add(
+                                        new long[] {
+                                            ByteBuffer.wrap(key).getLong(),
+                                            ByteBuffer.wrap(value).getLong()
+                                        }));
+        Assert.assertEquals(records.size(), count);
+        return records;
+    }
+
+    @Test
+    public void testSpillAndMerge() throws IOException {
+        // each record takes 28 bytes, the buffer holds 10 records
+        ExternalSorter sorter = new ExternalSorter(PARTITION_NUM, 280, tmpDir, runs);
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i < 100; ++i) {
+            ids.add(i);
+        }
+        Collections.shuffle(ids, new Random(7));
+        for (long id : ids) {
+            sorter.add((int) (id % PARTITION_NUM), ref(key(id)), ref(key(id * 10)));
+        }
+        sorter.spill();
+        Assert.assertEquals(10, runs.size());
+
+        for (int partition = 0; partition < PARTITION_NUM; ++partition) {
+            List<long[]> records = merge(partition);
+            long expected = partition;
+            for (long[] record : records) {
+                Assert.assertEquals(expected, record[0]);
+                Assert.assertEquals(expected * 10, record[1]);
+                expected += PARTITION_NUM;
+            }
+            Assert.assertTrue(expected >= 100);
+        }
+    }
+
+    @Test
+    public void testMultiPassMerge() throws IOException {
+        ExternalSorter sorter = new ExternalSorter(PARTITION_NUM, 280, tmpDir, runs);
+        for (long id = 0; id < 100; ++id) {
+            sorter.add((int) (id % PARTITION_NUM), ref(key(id)), ref(key(id * 10)));
+        }
+        sorter.spill();
+        Assert.assertEquals(10, runs.size());
+
+        for (int partition = 0; partition < PARTITION_NUM; ++partition) {
+            List<long[]> records = new ArrayList<>();
+            // 10 runs are merged into 4 runs, then 2 runs before the final pass
+            long count =
+                    ExternalSorter.merge(
+                            runs,
+                            partition,
+                            3,
+                            (key, value) ->
+                                    records.add(
+                                            new long[] {
+                                                ByteBuffer.wrap(key).getLong(),
+                                                ByteBuffer.wrap(value).getLong()
+                                            }));
+            Assert.assertEquals(records.size(), count);
+            long expected = partition;
+            for (long[] record : records) {
+                Assert.assertEquals(expected, record[0]);
+                Assert.assertEquals(expected * 10, record[1]);
+                expected += PARTITION_NUM;
+            }
+            Assert.assertTrue(expected >= 100);
+            // intermediate runs are deleted
+            Assert.assertEquals(10, tmpDir.listFiles().length);
+        }
+    }
+
+    @Test
+    public void testUnsignedKeyOrder() throws IOException {
+        ExternalSorter sorter = new ExternalSorter(1, 1024, tmpDir, runs);
+        sorter.add(0, ref(key(-1L)), ref(key(1)));
+        sorter.add(0, ref(key(1L)), ref(key(2)));
+        sorter.spill();
+        sorter.add(0, ref(key(Long.MIN_VALUE)), ref(key(3)));
+        sorter.spill();
+        // keys are compared as unsigned bytes, as rocksdb does
+        long[] keys = merge(0).stream().mapToLong(record -> record[0]).toArray();
+        Assert.assertArrayEquals(new long[] {1L, Long.MIN_VALUE, -1L}, keys);
+    }
+
+    @Test
+    public void testDuplicateKeys() throws IOException {
+        ExternalSorter sorter = new ExternalSorter(1, 1024, tmpDir, runs);
+        sorter.add(0, ref(key(1)), ref(key(10)));
+        sorter.add(0, ref(key(2)), ref(key(20)));
+        sorter.spill();
+        sorter.add(0, ref(key(2)), ref(key(21)));
+        sorter.spill();
+        // duplicated keys are kept, and then rejected by the sst writer
+        List<long[]> records = merge(0);
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(1L, records.get(0)[0]);
+        Assert.assertEquals(2L, records.get(1)[0]);
+        Assert.assertEquals(2L, records.get(2)[0]);
+        long[] values = {records.get(1)[1], records.get(2)[1]};
+        Arrays.sort(values);
+        Assert.assertArrayEquals(new long[] {20L, 21L}, values);
+    }
+
+    @Test
+    public void testEmptyPartition() throws IOException {
+        ExternalSorter sorter = new ExternalSorter(PARTITION_NUM, 1024, tmpDir, runs);
+        sorter.add(1, ref(key(1)), ref(key(1)));
+        sorter.spill();
+        // nothing to spill
+        sorter.spill();
+        Assert.assertEquals(1, runs.size());
+        Assert.assertTrue(merge(0).isEmpty());
+        Assert.assertEquals(1, merge(1).size());
+        Assert.assertTrue(merge(2).isEmpty());
+    }
+}
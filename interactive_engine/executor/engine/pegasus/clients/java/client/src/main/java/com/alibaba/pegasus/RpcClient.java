@@ -30,6 +30,7 @@ import io.opentelemetry.api.trace.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -68,15 +69,28 @@ public class RpcClient {
     }
 
     public void submit(JobRequest jobRequest, ResultProcessor processor, long rpcTimeoutMS) {
+        submit(jobRequest, processor, rpcTimeoutMS, Collections.emptyMap());
+    }
+
+    /**
+     * submit the job with call options of the request, which are visible to the interceptors of
+     * the channels, so that the client can be shared by requests with different contexts
+     */
+    public void submit(
+            JobRequest jobRequest,
+            ResultProcessor processor,
+            long rpcTimeoutMS,
+            Map<CallOptions.Key, Object> callOptions) {
         AtomicInteger counter = new AtomicInteger(this.channels.size());
         AtomicBoolean finished = new AtomicBoolean(false);
         serviceStubs.forEach(
                 asyncStub -> {
-                    asyncStub
-                            .withDeadlineAfter(rpcTimeoutMS, TimeUnit.MILLISECONDS)
-                            .submit(
-                                    jobRequest,
-                                    new JobResponseObserver(processor, finished, counter));
+                    JobServiceStub stub =
+                            asyncStub.withDeadlineAfter(rpcTimeoutMS, TimeUnit.MILLISECONDS);
+                    for (Map.Entry<CallOptions.Key, Object> entry : callOptions.entrySet()) {
+                        stub = stub.withOption(entry.getKey(), entry.getValue());
+                    }
+                    stub.submit(jobRequest, new JobResponseObserver(processor, finished, counter));
                 });
     }
 
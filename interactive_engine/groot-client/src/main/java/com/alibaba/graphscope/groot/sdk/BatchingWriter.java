@@ -0,0 +1,378 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.sdk;
+
+import com.alibaba.graphscope.groot.sdk.schema.Edge;
+import com.alibaba.graphscope.groot.sdk.schema.Vertex;
+import com.alibaba.graphscope.proto.groot.BatchWriteRequest;
+import com.alibaba.graphscope.proto.groot.BatchWriteResponse;
+import com.alibaba.graphscope.proto.groot.WriteRequestPb;
+import com.alibaba.graphscope.proto.groot.WriteTypePb;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A writer which buffers elements written one at a time, and sends them to the frontend in
+ * batches.
+ *
+ * <p>A batch is sent when it has reached the max number of elements or the max serialized bytes,
+ * or its first element has waited for the linger time. At most {@code maxInFlight} batches are
+ * written concurrently, writing an element blocks when a batch is full and the limit is reached.
+ * The future returned for an element completes with the snapshot id of its batch, which could be
+ * passed to {@link GrootClient#remoteFlush(long)}.
+ *
+ * <p>When the frontend rejects a batch because its write queue is full, the batch is retried with
+ * an exponential backoff and keeps its in-flight slot meanwhile, so writers slow down to the rate
+ * the frontend can take. Batches are written in order when {@code maxInFlight} is 1.
+ */
+public class BatchingWriter implements AutoCloseable {
+    private final GrootClient client;
+    private final RequestOptions options;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long lingerMs;
+    private final int maxInFlight;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final int maxRetries;
+
+    private final String clientId;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService scheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<WriteRequestPb> requests;
+    private List<CompletableFuture<Long>> futures;
+    private long batchBytes;
+    private ScheduledFuture<?> lingerTask;
+    private boolean closed;
+
+    private BatchingWriter(Builder builder) {
+        this.client = builder.client;
+        this.options = builder.options;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.lingerMs = builder.lingerMs;
+        this.maxInFlight = builder.maxInFlight;
+        this.retryBackoffMs = builder.retryBackoffMs;
+        this.maxRetryBackoffMs = builder.maxRetryBackoffMs;
+        this.maxRetries = builder.maxRetries;
+        this.clientId = client.getClientId();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        r -> {
+                            Thread t = new Thread(r, "groot-batching-writer");
+                            t.setDaemon(true);
+                            return t;
+                        });
+        this.requests = new ArrayList<>();
+        this.futures = new ArrayList<>();
+    }
+
+    public static Builder newBuilder(GrootClient client) {
+        return new Builder(client);
+    }
+
+    public CompletableFuture<Long> addVertex(Vertex vertex) {
+        return write(vertex.toWriteRequest(WriteTypePb.INSERT));
+    }
+
+    public CompletableFuture<Long> updateVertex(Vertex vertex) {
+        return write(vertex.toWriteRequest(WriteTypePb.UPDATE));
+    }
+
+    public CompletableFuture<Long> deleteVertex(Vertex vertex) {
+        return write(vertex.toWriteRequest(WriteTypePb.DELETE));
+    }
+
+    public CompletableFuture<Long> clearVertexProperty(Vertex vertex) {
+        return write(vertex.toWriteRequest(WriteTypePb.CLEAR_PROPERTY));
+    }
+
+    public CompletableFuture<Long> addEdge(Edge edge) {
+        return write(edge.toWriteRequest(WriteTypePb.INSERT));
+    }
+
+    public CompletableFuture<Long> updateEdge(Edge edge) {
+        return write(edge.toWriteRequest(WriteTypePb.UPDATE));
+    }
+
+    public CompletableFuture<Long> deleteEdge(Edge edge) {
+        return write(edge.toWriteRequest(WriteTypePb.DELETE));
+    }
+
+    public CompletableFuture<Long> clearEdgeProperty(Edge edge) {
+        return write(edge.toWriteRequest(WriteTypePb.CLEAR_PROPERTY));
+    }
+
+    private CompletableFuture<Long> write(WriteRequestPb request) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("writer is closed");
+            }
+            requests.add(request);
+            futures.add(future);
+            batchBytes += request.getSerializedSize();
+            if (requests.size() >= maxBatchSize || batchBytes >= maxBatchBytes) {
+                // the permit is taken under the lock, so that batches are sent in order
+                Batch batch = drain();
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.fail(e);
+                    return future;
+                }
+                send(batch, 0);
+            } else if (lingerTask == null) {
+                lingerTask = schedule(this::linger, lingerMs);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    private void linger() {
+        // never block the scheduler, which also runs the retries of batches holding the permits
+        if (!lock.tryLock()) {
+            schedule(this::linger, lingerMs);
+            return;
+        }
+        try {
+            lingerTask = null;
+            if (requests.isEmpty()) {
+                return;
+            }
+            if (!inFlight.tryAcquire()) {
+                lingerTask = schedule(this::linger, lingerMs);
+                return;
+            }
+            send(drain(), 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Batch drain() {
+        BatchWriteRequest.Builder builder =
+                BatchWriteRequest.newBuilder().setClientId(clientId).addAllWriteRequests(requests);
+        if (options != null) {
+            builder.setRequestOptions(options.toWriteRequest());
+        }
+        Batch batch = new Batch(builder.build(), futures);
+        requests = new ArrayList<>();
+        futures = new ArrayList<>();
+        batchBytes = 0;
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        return batch;
+    }
+
+    private void send(Batch batch, int attempt) {
+        client.batchWrite(
+                batch.request,
+                new StreamObserver<BatchWriteResponse>() {
+                    @Override
+                    public void onNext(BatchWriteResponse response) {
+                        // released after the futures are done, so that a flush returns after them
+                        try {
+                            batch.complete(response.getSnapshotId());
+                        } finally {
+                            inFlight.release();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        if (isRejected(t) && attempt < maxRetries) {
+                            long backoff = retryBackoffMs << Math.min(attempt, 20);
+                            backoff = Math.min(maxRetryBackoffMs, backoff);
+                            if (schedule(() -> send(batch, attempt + 1), backoff) != null) {
+                                return;
+                            }
+                        }
+                        try {
+                            batch.fail(t);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {}
+                });
+    }
+
+    /**
+     * Schedule the task, the scheduler may be shut down by {@link #close()} concurrently.
+     *
+     * @return null if the task is rejected as the scheduler has been shut down
+     */
+    private ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        try {
+            return scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private static boolean isRejected(Throwable t) {
+        return Status.fromThrowable(t).getCode() == Status.Code.RESOURCE_EXHAUSTED;
+    }
+
+    /**
+     * Send the buffered elements, and wait until all batches sent before have been written.
+     */
+    public void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            if (!requests.isEmpty()) {
+                Batch batch = drain();
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    batch.fail(e);
+                    throw e;
+                }
+                send(batch, 0);
+            }
+        } finally {
+            lock.unlock();
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static class Batch {
+        private final BatchWriteRequest request;
+        private final List<CompletableFuture<Long>> futures;
+
+        Batch(BatchWriteRequest request, List<CompletableFuture<Long>> futures) {
+            this.request = request;
+            this.futures = futures;
+        }
+
+        void complete(long snapshotId) {
+            for (CompletableFuture<Long> future : futures) {
+                future.complete(snapshotId);
+            }
+        }
+
+        void fail(Throwable t) {
+            for (CompletableFuture<Long> future : futures) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final GrootClient client;
+        private RequestOptions options;
+        private int maxBatchSize = 1000;
+        // keep a batch below the default 4MB message limit of grpc
+        private long maxBatchBytes = 2 << 20;
+        private long lingerMs = 10;
+        private int maxInFlight = 4;
+        private long retryBackoffMs = 50;
+        private long maxRetryBackoffMs = 5000;
+        private int maxRetries = 30;
+
+        private Builder(GrootClient client) {
+            this.client = client;
+        }
+
+        public Builder setRequestOptions(RequestOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder setMaxBatchBytes(long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        public Builder setLingerMs(long lingerMs) {
+            this.lingerMs = lingerMs;
+            return this;
+        }
+
+        public Builder setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Set the backoff of retrying a batch rejected by the frontend, the backoff doubles on
+         * each retry until the max backoff.
+         */
+        public Builder setRetryBackoff(long retryBackoffMs, long maxRetryBackoffMs) {
+            this.retryBackoffMs = retryBackoffMs;
+            this.maxRetryBackoffMs = maxRetryBackoffMs;
+            return this;
+        }
+
+        public Builder setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public BatchingWriter build() {
+            if (maxBatchSize <= 0 || maxBatchBytes <= 0 || maxInFlight <= 0) {
+                throw new IllegalArgumentException(
+                        "batch size, batch bytes and in-flight batches should be positive");
+            }
+            return new BatchingWriter(this);
+        }
+    }
+}
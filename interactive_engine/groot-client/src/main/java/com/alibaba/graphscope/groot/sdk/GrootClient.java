@@ -78,9 +78,23 @@ public class GrootClient implements Writer {
     }
 
     private BatchWriteRequest.Builder getNewWriteBuilder() {
-        String clientId =
-                writeStub.getClientId(GetClientIdRequest.newBuilder().build()).getClientId();
-        return BatchWriteRequest.newBuilder().setClientId(clientId);
+        return BatchWriteRequest.newBuilder().setClientId(getClientId());
+    }
+
+    String getClientId() {
+        return writeStub.getClientId(GetClientIdRequest.newBuilder().build()).getClientId();
+    }
+
+    void batchWrite(BatchWriteRequest request, StreamObserver<BatchWriteResponse> callback) {
+        asyncWriteStub.batchWrite(request, callback);
+    }
+
+    /**
+     * Create a writer which buffers elements written one at a time, and sends them in batches
+     * @return builder of the writer, the writer should be closed after use
+     */
+    public BatchingWriter.Builder newBatchingWriter() {
+        return BatchingWriter.newBuilder(this);
     }
 
     /**
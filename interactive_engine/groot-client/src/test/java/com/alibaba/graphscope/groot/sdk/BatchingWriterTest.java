@@ -0,0 +1,197 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alibaba.graphscope.groot.sdk.schema.Vertex;
+import com.alibaba.graphscope.proto.groot.BatchWriteRequest;
+import com.alibaba.graphscope.proto.groot.BatchWriteResponse;
+import com.alibaba.graphscope.proto.groot.ClientWriteGrpc;
+import com.alibaba.graphscope.proto.groot.GetClientIdRequest;
+import com.alibaba.graphscope.proto.groot.GetClientIdResponse;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BatchingWriterTest {
+    private static final long TIMEOUT_MS = 10000;
+
+    // sizes of the batches written by the frontend
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    // the number of batches to reject before writing
+    private final AtomicInteger rejects = new AtomicInteger(0);
+    private final AtomicLong snapshotId = new AtomicLong(0);
+    private Server server;
+    private GrootClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server =
+                ServerBuilder.forPort(0)
+                        .addService(
+                                new ClientWriteGrpc.ClientWriteImplBase() {
+                                    @Override
+                                    public void getClientId(
+                                            GetClientIdRequest request,
+                                            StreamObserver<GetClientIdResponse> observer) {
+                                        observer.onNext(
+                                                GetClientIdResponse.newBuilder()
+                                                        .setClientId("test")
+                                                        .build());
+                                        observer.onCompleted();
+                                    }
+
+                                    @Override
+                                    public void batchWrite(
+                                            BatchWriteRequest request,
+                                            StreamObserver<BatchWriteResponse> observer) {
+                                        if (rejects.getAndDecrement() > 0) {
+                                            observer.onError(
+                                                    Status.RESOURCE_EXHAUSTED.asRuntimeException());
+                                            return;
+                                        }
+                                        batchSizes.add(request.getWriteRequestsCount());
+                                        observer.onNext(
+                                                BatchWriteResponse.newBuilder()
+                                                        .setSnapshotId(
+                                                                snapshotId.incrementAndGet())
+                                                        .build());
+                                        observer.onCompleted();
+                                    }
+                                })
+                        .build()
+                        .start();
+        client = GrootClient.newBuilder().addHost("localhost", server.getPort()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownNow();
+    }
+
+    private static Vertex vertex(int id) {
+        return new Vertex("person", Collections.singletonMap("id", String.valueOf(id)));
+    }
+
+    private static List<CompletableFuture<Long>> write(BatchingWriter writer, int count) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            futures.add(writer.addVertex(vertex(i)));
+        }
+        return futures;
+    }
+
+    private static void await(List<CompletableFuture<Long>> futures) throws Exception {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void testSizeTriggeredFlush() throws Exception {
+        // never sent by the linger time
+        BatchingWriter writer =
+                client.newBatchingWriter().setMaxBatchSize(3).setLingerMs(TIMEOUT_MS * 6).build();
+        List<CompletableFuture<Long>> futures = write(writer, 4);
+        await(futures.subList(0, 3));
+        assertEquals(Collections.singletonList(3), batchSizes);
+        for (CompletableFuture<Long> future : futures.subList(0, 3)) {
+            assertEquals(1L, future.get());
+        }
+        assertFalse(futures.get(3).isDone());
+        writer.close();
+    }
+
+    @Test
+    void testTimeTriggeredFlush() throws Exception {
+        BatchingWriter writer =
+                client.newBatchingWriter().setMaxBatchSize(100).setLingerMs(50).build();
+        List<CompletableFuture<Long>> futures = write(writer, 2);
+        // sent without reaching the batch size or flushing
+        await(futures);
+        assertEquals(2, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        writer.close();
+    }
+
+    @Test
+    void testFlushOnClose() throws Exception {
+        BatchingWriter writer =
+                client.newBatchingWriter().setMaxBatchSize(100).setLingerMs(TIMEOUT_MS * 6).build();
+        List<CompletableFuture<Long>> futures = write(writer, 2);
+        assertTrue(batchSizes.isEmpty());
+        writer.close();
+        for (CompletableFuture<Long> future : futures) {
+            assertTrue(future.isDone());
+            assertEquals(1L, future.get());
+        }
+        assertEquals(Collections.singletonList(2), batchSizes);
+        assertThrows(IllegalStateException.class, () -> writer.addVertex(vertex(2)));
+    }
+
+    @Test
+    void testRetryRejected() throws Exception {
+        rejects.set(2);
+        BatchingWriter writer =
+                client.newBatchingWriter()
+                        .setMaxBatchSize(1)
+                        .setMaxInFlight(1)
+                        .setRetryBackoff(10, 100)
+                        .build();
+        List<CompletableFuture<Long>> futures = write(writer, 2);
+        await(futures);
+        // batches are written in order after the retries
+        assertEquals(Arrays.asList(1, 1), batchSizes);
+        assertEquals(1L, futures.get(0).get());
+        writer.close();
+    }
+
+    // a batch still retried when the writer is closed fails instead of being dropped
+    @Test
+    void testRetryAfterClose() throws Exception {
+        rejects.set(Integer.MAX_VALUE);
+        BatchingWriter writer =
+                client.newBatchingWriter().setMaxBatchSize(1).setRetryBackoff(100, 100).build();
+        CompletableFuture<Long> future = writer.addVertex(vertex(0));
+        // the close is interrupted before the batch is written
+        Thread.currentThread().interrupt();
+        writer.close();
+        assertTrue(Thread.interrupted());
+        ExecutionException e =
+                assertThrows(
+                        ExecutionException.class,
+                        () -> future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(e.getCause()).getCode());
+    }
+}
@@ -1,6 +1,8 @@
 package com.alibaba.graphscope.groot.coordinator;
 
 import com.alibaba.graphscope.proto.groot.CoordinatorSnapshotServiceGrpc;
+import com.alibaba.graphscope.proto.groot.RequestSnapshotRequest;
+import com.alibaba.graphscope.proto.groot.RequestSnapshotResponse;
 import com.alibaba.graphscope.proto.groot.UpdateMinQuerySnapshotIdRequest;
 import com.alibaba.graphscope.proto.groot.UpdateMinQuerySnapshotIdResponse;
 
@@ -13,9 +15,12 @@ public class CoordinatorSnapshotService
         extends CoordinatorSnapshotServiceGrpc.CoordinatorSnapshotServiceImplBase {
     private static final Logger logger = LoggerFactory.getLogger(CoordinatorSnapshotService.class);
     private final GarbageCollectManager garbageCollectManager;
+    private final SnapshotManager snapshotManager;
 
-    public CoordinatorSnapshotService(GarbageCollectManager garbageCollectManager) {
+    public CoordinatorSnapshotService(
+            GarbageCollectManager garbageCollectManager, SnapshotManager snapshotManager) {
         this.garbageCollectManager = garbageCollectManager;
+        this.snapshotManager = snapshotManager;
     }
 
     @Override
@@ -30,4 +35,13 @@ public class CoordinatorSnapshotService
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
+
+    @Override
+    public void requestSnapshot(
+            RequestSnapshotRequest request,
+            StreamObserver<RequestSnapshotResponse> responseObserver) {
+        snapshotManager.requestSnapshot(request.getSnapshotId());
+        responseObserver.onNext(RequestSnapshotResponse.newBuilder().setSuccess(true).build());
+        responseObserver.onCompleted();
+    }
 }
@@ -24,6 +24,11 @@ import com.alibaba.graphscope.groot.meta.MetaStore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +45,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -99,6 +105,19 @@ import java.util.concurrent.locks.ReentrantLock;
  * information. The only drawback is that the data replay might process some duplicate data, which
  * is acceptable.
  *
+ * <p>To allow short snapshot intervals without writing the KV store on each increase, write
+ * snapshot ids are allocated by lease: one write reserves a range of ids, which are then handed
+ * out from memory. WRITE_SNAPSHOT_ID_PATH holds the end of the current lease, so that recovery
+ * continues from the end of the lease, and never reuses an id which might have been broadcast.
+ * Likewise, querySnapshotId can be persisted at a min interval, since the stores will commit their
+ * snapshot ids again after recovery.
+ *
+ * <p>In adaptive mode, the writeSnapshotId is checked every min interval instead. It is increased
+ * right away if a Frontend has requested the current one for a flush and all the stores have
+ * caught up, i.e. every snapshot sealed has been committed. Otherwise, it is increased at the
+ * periodical interval, which doubles while the stores fall behind, up to the max interval, so that
+ * stores under heavy load get bigger batches, and is reset once the stores catch up.
+ *
  * <p>After persist snapshot information as described above, the recovery process will be simply
  * load the persisted information from the reliable KV store when initializing the SnapshotManager.
  */
@@ -115,9 +134,23 @@ public class SnapshotManager {
     private final int storeCount;
     private final long snapshotIncreaseIntervalMs;
     private final long offsetsPersistIntervalMs;
+    private final long snapshotIdLeaseSize;
+    private final long querySnapshotPersistIntervalMs;
+    private final boolean adaptiveEnabled;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
 
     private volatile SnapshotInfo querySnapshotInfo;
     private volatile long writeSnapshotId;
+    // last write snapshot id reserved in the meta store, guarded by writeSnapshotLock
+    private long writeSnapshotLeaseEnd;
+    // guarded by querySnapshotLock
+    private long lastQuerySnapshotPersistMs;
+    // max snapshot id requested by the flushes of Frontends
+    private final AtomicLong requestedSnapshotId = new AtomicLong(-1L);
+    private volatile long lastIncreaseMs;
+    // periodical interval of the adaptive mode, only updated by the scheduler thread
+    private volatile long adaptiveIntervalMs;
 
     private final Map<Integer, SnapshotInfo> storeToSnapshotInfo;
     private final Map<Integer, Long> storeToOffsets;
@@ -149,11 +182,24 @@ public class SnapshotManager {
         this.snapshotIncreaseIntervalMs =
                 CoordinatorConfig.SNAPSHOT_INCREASE_INTERVAL_MS.get(configs);
         this.offsetsPersistIntervalMs = CoordinatorConfig.OFFSETS_PERSIST_INTERVAL_MS.get(configs);
+        this.snapshotIdLeaseSize =
+                Math.max(1L, CoordinatorConfig.SNAPSHOT_ID_LEASE_SIZE.get(configs));
+        this.querySnapshotPersistIntervalMs =
+                CoordinatorConfig.QUERY_SNAPSHOT_PERSIST_INTERVAL_MS.get(configs);
+        this.adaptiveEnabled = CoordinatorConfig.SNAPSHOT_INCREASE_ADAPTIVE_ENABLED.get(configs);
+        this.minIntervalMs =
+                Math.max(1L, CoordinatorConfig.SNAPSHOT_INCREASE_MIN_INTERVAL_MS.get(configs));
+        this.maxIntervalMs =
+                Math.max(
+                        snapshotIncreaseIntervalMs,
+                        CoordinatorConfig.SNAPSHOT_INCREASE_MAX_INTERVAL_MS.get(configs));
+        this.adaptiveIntervalMs = snapshotIncreaseIntervalMs;
 
         this.isSecondary = CommonConfig.SECONDARY_INSTANCE_ENABLED.get(configs);
 
         this.storeToSnapshotInfo = new ConcurrentHashMap<>();
         this.storeToOffsets = new ConcurrentHashMap<>();
+        initMetrics();
     }
 
     public void start() {
@@ -170,14 +216,16 @@ public class SnapshotManager {
         this.increaseWriteSnapshotIdScheduler.scheduleWithFixedDelay(
                 () -> {
                     try {
-                        long snapshotId = increaseWriteSnapshotId();
-                        logger.debug("writeSnapshotId updated to [" + snapshotId + "]");
+                        if (!adaptiveEnabled || shouldIncreaseWriteSnapshotId()) {
+                            long snapshotId = increaseWriteSnapshotId();
+                            logger.debug("writeSnapshotId updated to [" + snapshotId + "]");
+                        }
                     } catch (Exception e) {
                         logger.error("error in increaseWriteSnapshotId, ignore", e);
                     }
                 },
                 0L,
-                snapshotIncreaseIntervalMs,
+                adaptiveEnabled ? minIntervalMs : snapshotIncreaseIntervalMs,
                 TimeUnit.MILLISECONDS);
         this.persistOffsetsScheduler =
                 Executors.newSingleThreadScheduledExecutor(
@@ -234,7 +282,7 @@ public class SnapshotManager {
 
         byte[] writeBytes = this.metaStore.read(WRITE_SNAPSHOT_ID_PATH);
         long writeSI = objectMapper.readValue(writeBytes, Long.class);
-        logger.info("Recovered write snapshot id {}", writeSI);
+        logger.info("Recovered write snapshot id {} (end of lease)", writeSI);
         if (querySI.getSnapshotId() > writeSI) {
             String msg = String.format("Recovered querySI %s > writeSI %s", querySI, writeSI);
             throw new IllegalStateException(msg);
@@ -250,6 +298,7 @@ public class SnapshotManager {
 
         this.querySnapshotInfo = querySI;
         this.writeSnapshotId = writeSI;
+        this.writeSnapshotLeaseEnd = writeSI;
         this.queueOffsetsRef = new AtomicReference<>(offsets);
     }
 
@@ -299,6 +348,45 @@ public class SnapshotManager {
         }
     }
 
+    /**
+     * Frontend use this method to request the snapshot to be available for query as soon as
+     * possible, which takes effect in adaptive mode only.
+     */
+    public void requestSnapshot(long snapshotId) {
+        this.requestedSnapshotId.accumulateAndGet(snapshotId, Math::max);
+    }
+
+    /** Number of snapshots sealed but not committed yet by each store. */
+    public Map<Integer, Long> getStoreCommitLags() {
+        long sealedSnapshotId = this.writeSnapshotId - 1;
+        Map<Integer, Long> lags = new TreeMap<>();
+        for (Map.Entry<Integer, SnapshotInfo> entry : this.storeToSnapshotInfo.entrySet()) {
+            long lag = sealedSnapshotId - entry.getValue().getSnapshotId();
+            lags.put(entry.getKey(), Math.max(0L, lag));
+        }
+        return lags;
+    }
+
+    /** Current periodical interval of increasing the writeSnapshotId in adaptive mode. */
+    public long getAdaptiveIntervalMs() {
+        return this.adaptiveIntervalMs;
+    }
+
+    private boolean shouldIncreaseWriteSnapshotId() {
+        long lag = Math.max(0L, this.writeSnapshotId - 1 - this.querySnapshotInfo.getSnapshotId());
+        if (lag == 0 && this.requestedSnapshotId.get() >= this.writeSnapshotId) {
+            return true;
+        }
+        if (System.currentTimeMillis() - this.lastIncreaseMs < this.adaptiveIntervalMs) {
+            return false;
+        }
+        this.adaptiveIntervalMs =
+                lag > 0
+                        ? Math.min(this.adaptiveIntervalMs * 2, this.maxIntervalMs)
+                        : this.snapshotIncreaseIntervalMs;
+        return true;
+    }
+
     public void addListener(QuerySnapshotListener listener) {
         this.listeners.add(listener);
         SnapshotInfo querySI = this.querySnapshotInfo;
@@ -336,7 +424,12 @@ public class SnapshotManager {
                 if (receivedDdlSI < currentDdlSI) { // Use larger one.
                     receivedSIInfo = new SnapshotInfo(receivedSI, currentDdlSI);
                 }
-                persistObject(receivedSIInfo, QUERY_SNAPSHOT_INFO_PATH);
+                long now = System.currentTimeMillis();
+                if (receivedSIInfo.getDdlSnapshotId() != currentDdlSI
+                        || now - lastQuerySnapshotPersistMs >= querySnapshotPersistIntervalMs) {
+                    persistObject(receivedSIInfo, QUERY_SNAPSHOT_INFO_PATH);
+                    lastQuerySnapshotPersistMs = now;
+                }
                 this.querySnapshotInfo = receivedSIInfo;
                 logger.debug("querySnapshotInfo updated to [{}]", querySnapshotInfo);
             } catch (IOException e) {
@@ -376,8 +469,14 @@ public class SnapshotManager {
         this.writeSnapshotLock.lock();
         try {
             long snapshotId = this.writeSnapshotId + 1;
-            persistObject(snapshotId, WRITE_SNAPSHOT_ID_PATH);
+            if (snapshotId > this.writeSnapshotLeaseEnd) {
+                long leaseEnd = snapshotId + snapshotIdLeaseSize - 1;
+                persistObject(leaseEnd, WRITE_SNAPSHOT_ID_PATH);
+                this.writeSnapshotLeaseEnd = leaseEnd;
+                logger.debug("write snapshot id lease renewed to [{}]", leaseEnd);
+            }
             this.writeSnapshotId = snapshotId;
+            this.lastIncreaseMs = System.currentTimeMillis();
             this.writeSnapshotIdNotifier.notifyWriteSnapshotIdChanged(this.writeSnapshotId);
             return this.writeSnapshotId;
         } finally {
@@ -432,4 +531,19 @@ public class SnapshotManager {
     public List<Long> getQueueOffsets() {
         return this.queueOffsetsRef.get();
     }
+
+    public void initMetrics() {
+        Meter meter = GlobalOpenTelemetry.getMeter("default");
+        AttributeKey<String> storeKey = AttributeKey.stringKey("store");
+        meter.upDownCounterBuilder("groot.coordinator.snapshot.commit.lag")
+                .setDescription("Number of snapshots sealed but not committed by each store.")
+                .buildWithCallback(
+                        measurement -> {
+                            for (Map.Entry<Integer, Long> entry : getStoreCommitLags().entrySet()) {
+                                String storeId = String.valueOf(entry.getKey());
+                                measurement.record(
+                                        entry.getValue(), Attributes.of(storeKey, storeId));
+                            }
+                        });
+    }
 }
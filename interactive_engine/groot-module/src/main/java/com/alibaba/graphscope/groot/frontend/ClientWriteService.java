@@ -1,6 +1,7 @@
 package com.alibaba.graphscope.groot.frontend;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.common.exception.QueueRejectException;
 import com.alibaba.graphscope.groot.common.util.Utils;
 import com.alibaba.graphscope.groot.common.util.UuidUtils;
 import com.alibaba.graphscope.groot.frontend.write.GraphWriter;
@@ -16,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
     private static final Logger logger = LoggerFactory.getLogger(ClientWriteService.class);
@@ -99,7 +101,7 @@ public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
                                     writeSession,
                                     t);
                             responseObserver.onError(
-                                    Status.INTERNAL
+                                    toStatus(t)
                                             .withDescription(t.getMessage())
                                             .asRuntimeException());
                         }
@@ -113,33 +115,49 @@ public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
                     writeSession,
                     e);
             responseObserver.onError(
-                    Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+                    toStatus(e).withDescription(e.getMessage()).asRuntimeException());
         }
     }
 
+    /**
+     * The write queue of the frontend is full, clients are expected to back off and retry on
+     * RESOURCE_EXHAUSTED, instead of treating it as a failure of the write.
+     */
+    private static Status toStatus(Throwable t) {
+        return t instanceof QueueRejectException ? Status.RESOURCE_EXHAUSTED : Status.INTERNAL;
+    }
+
+    /**
+     * Wait for the snapshot without holding the rpc thread, the response is sent once the snapshot
+     * is available or the wait times out.
+     */
     @Override
     public void remoteFlush(
             RemoteFlushRequest request, StreamObserver<RemoteFlushResponse> responseObserver) {
         long snapshotId = request.getSnapshotId();
         long timeout = request.getWaitTimeMs();
         logger.info("flush snapshot id [{}] with timeout [{}]ms", snapshotId, timeout);
-        try {
-            boolean suc;
-            if (snapshotId == 0L) {
-                suc = graphWriter.flushLastSnapshot(timeout);
-            } else {
-                suc = graphWriter.flushSnapshot(snapshotId, timeout);
-            }
-            responseObserver.onNext(RemoteFlushResponse.newBuilder().setSuccess(suc).build());
-            responseObserver.onCompleted();
-        } catch (InterruptedException e) {
-            logger.error(
-                    "remoteFlush failed. flushSnapshotId [{}] waitTimeMs [{}]",
-                    snapshotId,
-                    timeout);
-            responseObserver.onError(
-                    Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
-        }
+        CompletableFuture<Boolean> future =
+                (snapshotId == 0L)
+                        ? graphWriter.flushLastSnapshotAsync(timeout)
+                        : graphWriter.flushSnapshotAsync(snapshotId, timeout);
+        future.whenComplete(
+                (suc, t) -> {
+                    if (t != null) {
+                        logger.error(
+                                "remoteFlush failed. flushSnapshotId [{}] waitTimeMs [{}]",
+                                snapshotId,
+                                timeout,
+                                t);
+                        responseObserver.onError(
+                                Status.INTERNAL.withDescription(t.getMessage())
+                                        .asRuntimeException());
+                    } else {
+                        responseObserver.onNext(
+                                RemoteFlushResponse.newBuilder().setSuccess(suc).build());
+                        responseObserver.onCompleted();
+                    }
+                });
     }
 
     @Override
@@ -29,6 +29,9 @@ public class FrontendSnapshotService extends FrontendSnapshotGrpc.FrontendSnapsh
 
     private final SnapshotCache snapshotCache;
 
+    // the statistics synced last time, without snapshot id
+    private volatile Statistics lastStatistics;
+
     public FrontendSnapshotService(SnapshotCache snapshotCache) {
         this.snapshotCache = snapshotCache;
     }
@@ -58,8 +61,13 @@ public class FrontendSnapshotService extends FrontendSnapshotGrpc.FrontendSnapsh
             SyncStatisticsRequest request,
             StreamObserver<SyncStatisticsResponse> responseObserver) {
         Statistics statistics = request.getStatistics();
-        GraphStatistics graphStatistics = DefaultGraphStatistics.parseProto(statistics);
-        snapshotCache.setGraphStatisticsRef(graphStatistics);
+        Statistics counts = statistics.toBuilder().clearSnapshotId().build();
+        // unchanged statistics are not propagated, to avoid rebuilding the glogue of the compiler
+        if (!counts.equals(lastStatistics)) {
+            GraphStatistics graphStatistics = DefaultGraphStatistics.parseProto(statistics);
+            snapshotCache.setGraphStatisticsRef(graphStatistics);
+            lastStatistics = counts;
+        }
         responseObserver.onNext(SyncStatisticsResponse.newBuilder().build());
         responseObserver.onCompleted();
     }
@@ -17,17 +17,20 @@ import com.alibaba.graphscope.groot.SnapshotListener;
 import com.alibaba.graphscope.groot.SnapshotWithSchema;
 import com.alibaba.graphscope.groot.common.exception.IllegalStateException;
 import com.alibaba.graphscope.groot.common.schema.api.GraphStatistics;
+import com.alibaba.graphscope.groot.common.schema.api.SchemaFetcher;
 import com.alibaba.graphscope.groot.common.schema.wrapper.GraphDef;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 
 /** A cache of querySnapshotId on Frontend node. */
 public class SnapshotCache {
@@ -38,29 +41,91 @@ public class SnapshotCache {
 
     private final AtomicReference<GraphStatistics> graphStatisticsRef;
 
-    private final TreeMap<Long, List<SnapshotListener>> snapshotToListeners;
+    // One future per snapshot shared by all the waiters of the snapshot. Waiters register without
+    // locking, and the futures are completed after querySnapshotId is advanced.
+    private final ConcurrentNavigableMap<Long, CompletableFuture<Void>> snapshotToFutures;
+
+    // called once for each snapshot waited, to ask for the snapshot to be made available sooner
+    private volatile LongConsumer snapshotRequester;
+
+    // notified once the schema or the statistics are changed, e.g. by the compiler
+    private final List<SchemaFetcher.Listener> schemaListeners = new CopyOnWriteArrayList<>();
 
     public SnapshotCache() {
         SnapshotWithSchema snapshotWithSchema = SnapshotWithSchema.newBuilder().build();
         snapshotWithSchemaRef = new AtomicReference<>(snapshotWithSchema);
         graphStatisticsRef = new AtomicReference<>();
-        this.snapshotToListeners = new TreeMap<>();
+        this.snapshotToFutures = new ConcurrentSkipListMap<>();
     }
 
-    public void addListener(long snapshotId, SnapshotListener listener) {
-        synchronized (this.snapshotToListeners) {
-            SnapshotWithSchema snapshotWithSchema = snapshotWithSchemaRef.get();
-            long querySnapshotId = snapshotWithSchema.getSnapshotId();
-            if (querySnapshotId >= snapshotId) {
-                listener.onSnapshotAvailable();
-                return;
+    /**
+     * Wait for a snapshot to be available for query.
+     *
+     * @param snapshotId
+     * @return a future completed once querySnapshotId reaches snapshotId. It depends on the future
+     *     shared by all the waiters of the snapshot, so completing or cancelling it by the caller
+     *     doesn't affect the others
+     */
+    public CompletableFuture<Void> waitForSnapshot(long snapshotId) {
+        if (snapshotWithSchemaRef.get().getSnapshotId() >= snapshotId) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = this.snapshotToFutures.get(snapshotId);
+        boolean created = false;
+        if (future == null) {
+            CompletableFuture<Void> newFuture = new CompletableFuture<>();
+            future = this.snapshotToFutures.putIfAbsent(snapshotId, newFuture);
+            if (future == null) {
+                future = newFuture;
+                created = true;
+            }
+        }
+        // querySnapshotId may be advanced before the future is registered, in which case the
+        // future may have been missed by advanceQuerySnapshotId
+        if (snapshotWithSchemaRef.get().getSnapshotId() >= snapshotId) {
+            this.snapshotToFutures.remove(snapshotId, future);
+            future.complete(null);
+        } else if (created) {
+            requestSnapshot(snapshotId);
+        }
+        return future.thenApply(v -> v);
+    }
+
+    public void addSchemaListener(SchemaFetcher.Listener listener) {
+        this.schemaListeners.add(listener);
+    }
+
+    public void setSnapshotRequester(LongConsumer snapshotRequester) {
+        this.snapshotRequester = snapshotRequester;
+    }
+
+    private void requestSnapshot(long snapshotId) {
+        LongConsumer requester = this.snapshotRequester;
+        if (requester != null) {
+            try {
+                requester.accept(snapshotId);
+            } catch (Exception e) {
+                logger.warn("request snapshot [" + snapshotId + "] failed", e);
             }
-            List<SnapshotListener> listeners =
-                    this.snapshotToListeners.computeIfAbsent(snapshotId, k -> new ArrayList<>());
-            listeners.add(listener);
         }
     }
 
+    public void addListener(long snapshotId, SnapshotListener listener) {
+        waitForSnapshot(snapshotId)
+                .thenRun(
+                        () -> {
+                            try {
+                                listener.onSnapshotAvailable();
+                            } catch (Exception e) {
+                                logger.warn(
+                                        "trigger snapshotListener failed. snapshotId ["
+                                                + snapshotId
+                                                + "]",
+                                        e);
+                            }
+                        });
+    }
+
     /**
      * This method will update querySnapshotId and returns the previous value.
      *
@@ -94,34 +159,34 @@ public class SnapshotCache {
                 SnapshotWithSchema.newBuilder(snapshotWithSchema);
         newSnapshotInfoBuilder.setSnapshotId(snapshotId);
         GraphDef oldGraphDef = snapshotWithSchema.getGraphDef();
-        if (graphDef != null
-                && (oldGraphDef == null
-                        || graphDef.getSchemaVersion()
-                                > Long.parseLong(oldGraphDef.getVersion()))) {
+        boolean schemaChanged =
+                graphDef != null
+                        && (oldGraphDef == null
+                                || graphDef.getSchemaVersion()
+                                        > Long.parseLong(oldGraphDef.getVersion()));
+        if (schemaChanged) {
             newSnapshotInfoBuilder.setGraphDef(graphDef);
             logger.info("schema updated. schema version [" + graphDef.getVersion() + "]");
             logger.debug(graphDef.toProto().toString());
         }
         this.snapshotWithSchemaRef.set(newSnapshotInfoBuilder.build());
-        logger.debug("snapshotId update to [" + snapshotId + "]");
-        synchronized (this.snapshotToListeners) {
-            NavigableMap<Long, List<SnapshotListener>> listenersToTrigger =
-                    this.snapshotToListeners.headMap(snapshotId, true);
-            for (Map.Entry<Long, List<SnapshotListener>> listenerEntry :
-                    listenersToTrigger.entrySet()) {
-                List<SnapshotListener> listeners = listenerEntry.getValue();
-                long listenSnapshotId = listenerEntry.getKey();
-                for (SnapshotListener listener : listeners) {
-                    try {
-                        listener.onSnapshotAvailable();
-                        logger.info("notify listener for snapshot id [" + listenSnapshotId + "]");
-                    } catch (Exception e) {
-                        logger.warn(
-                                "trigger snapshotListener failed. snapshotId [" + snapshotId + "]");
-                    }
+        if (schemaChanged) {
+            for (SchemaFetcher.Listener listener : this.schemaListeners) {
+                try {
+                    listener.onSchemaChanged(graphDef);
+                } catch (Exception e) {
+                    logger.warn("notify schema listener failed", e);
                 }
             }
-            listenersToTrigger.clear();
+        }
+        logger.debug("snapshotId update to [" + snapshotId + "]");
+        Map.Entry<Long, CompletableFuture<Void>> entry;
+        while ((entry = this.snapshotToFutures.firstEntry()) != null
+                && entry.getKey() <= snapshotId) {
+            if (this.snapshotToFutures.remove(entry.getKey(), entry.getValue())) {
+                logger.debug("notify listeners for snapshot id [" + entry.getKey() + "]");
+                entry.getValue().complete(null);
+            }
         }
         return currentSnapshotId;
     }
@@ -141,6 +206,13 @@ public class SnapshotCache {
                 statistics.getVertexCount(),
                 statistics.getEdgeCount());
         this.graphStatisticsRef.set(statistics);
+        for (SchemaFetcher.Listener listener : this.schemaListeners) {
+            try {
+                listener.onStatisticsChanged(statistics);
+            } catch (Exception e) {
+                logger.warn("notify statistics listener failed", e);
+            }
+        }
     }
 
     public GraphStatistics getGraphStatistics() {
@@ -20,9 +20,13 @@ import com.alibaba.graphscope.groot.common.exception.InternalException;
 import com.alibaba.graphscope.groot.rpc.RpcChannel;
 import com.alibaba.graphscope.groot.rpc.RpcClient;
 import com.alibaba.graphscope.proto.groot.CoordinatorSnapshotServiceGrpc;
+import com.alibaba.graphscope.proto.groot.RequestSnapshotRequest;
+import com.alibaba.graphscope.proto.groot.RequestSnapshotResponse;
 import com.alibaba.graphscope.proto.groot.UpdateMinQuerySnapshotIdRequest;
 import com.alibaba.graphscope.proto.groot.UpdateMinQuerySnapshotIdResponse;
 
+import io.grpc.stub.StreamObserver;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,4 +53,31 @@ public class SnapshotUpdateClient extends RpcClient {
             throw new InternalException("update snapshot fail {} " + res.getErrMsg());
         }
     }
+
+    /**
+     * Ask the coordinator to make the snapshot available for query as soon as possible, which is
+     * sent asynchronously since the snapshot is also made available periodically.
+     */
+    public void requestSnapshot(int frontendId, long snapshotId) {
+        RequestSnapshotRequest req =
+                RequestSnapshotRequest.newBuilder()
+                        .setFrontendId(frontendId)
+                        .setSnapshotId(snapshotId)
+                        .build();
+        CoordinatorSnapshotServiceGrpc.newStub(rpcChannel.getChannel())
+                .requestSnapshot(
+                        req,
+                        new StreamObserver<RequestSnapshotResponse>() {
+                            @Override
+                            public void onNext(RequestSnapshotResponse response) {}
+
+                            @Override
+                            public void onError(Throwable t) {
+                                logger.warn("request snapshot {} failed", snapshotId, t);
+                            }
+
+                            @Override
+                            public void onCompleted() {}
+                        });
+    }
 }
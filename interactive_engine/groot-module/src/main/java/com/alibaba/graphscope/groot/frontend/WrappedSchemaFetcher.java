@@ -73,4 +73,10 @@ public class WrappedSchemaFetcher implements SchemaFetcher {
     public boolean statisticsEnabled() {
         return collectStatistics;
     }
+
+    @Override
+    public boolean addListener(Listener listener) {
+        this.snapshotCache.addSchemaListener(listener);
+        return true;
+    }
 }
@@ -47,6 +47,10 @@ public class GraphWriter {
 
     private final KafkaAppender kafkaAppender;
     private ScheduledExecutorService scheduler;
+    // times out async flushes, cancelled timeouts are removed at once
+    private final ScheduledThreadPoolExecutor flushTimer;
+    // async flushes waiting for their snapshots, which are answered with false on stop
+    private final Set<CompletableFuture<Boolean>> pendingFlushes = ConcurrentHashMap.newKeySet();
 
     public GraphWriter(
             SnapshotCache snapshotCache,
@@ -57,6 +61,12 @@ public class GraphWriter {
         this.edgeIdGenerator = edgeIdGenerator;
         initMetrics();
         this.kafkaAppender = appender;
+        this.flushTimer =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "graph-writer-flush-timer", logger));
+        this.flushTimer.setRemoveOnCancelPolicy(true);
     }
 
     public void start() {
@@ -79,6 +89,10 @@ public class GraphWriter {
             }
             this.scheduler = null;
         }
+        this.flushTimer.shutdownNow();
+        for (CompletableFuture<Boolean> flush : this.pendingFlushes) {
+            flush.complete(false);
+        }
         kafkaAppender.stop();
     }
 
@@ -164,9 +178,14 @@ public class GraphWriter {
     }
 
     public boolean flushSnapshot(long snapshotId, long waitTimeMs) throws InterruptedException {
-        CountDownLatch latch = new CountDownLatch(1);
-        this.snapshotCache.addListener(snapshotId, latch::countDown);
-        return latch.await(waitTimeMs, TimeUnit.MILLISECONDS);
+        try {
+            this.snapshotCache.waitForSnapshot(snapshotId).get(waitTimeMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public boolean flushLastSnapshot(long waitTimeMs) throws InterruptedException {
@@ -174,6 +193,36 @@ public class GraphWriter {
         return this.flushSnapshot(snapshotId, waitTimeMs);
     }
 
+    /**
+     * Wait for a snapshot to be available for query without blocking the caller.
+     *
+     * @return a future completed with true once the snapshot is available, or with false after
+     *     waitTimeMs or once the writer is stopped
+     */
+    public CompletableFuture<Boolean> flushSnapshotAsync(long snapshotId, long waitTimeMs) {
+        CompletableFuture<Boolean> result =
+                this.snapshotCache.waitForSnapshot(snapshotId).thenApply(v -> true);
+        if (!result.isDone()) {
+            this.pendingFlushes.add(result);
+            result.whenComplete((r, t) -> this.pendingFlushes.remove(result));
+            try {
+                ScheduledFuture<?> timeout =
+                        this.flushTimer.schedule(
+                                () -> result.complete(false), waitTimeMs, TimeUnit.MILLISECONDS);
+                result.whenComplete((r, t) -> timeout.cancel(false));
+            } catch (RejectedExecutionException e) {
+                // the writer has been stopped
+                result.complete(false);
+            }
+        }
+        return result;
+    }
+
+    public CompletableFuture<Boolean> flushLastSnapshotAsync(long waitTimeMs) {
+        long snapshotId = this.lastWrittenSnapshotId.get();
+        return this.flushSnapshotAsync(snapshotId, waitTimeMs);
+    }
+
     private void addDeleteEdgeOperation(
             OperationBatch.Builder batchBuilder, GraphSchema schema, DataRecord dataRecord) {
         EdgeId edgeId = getEdgeId(schema, dataRecord, false);
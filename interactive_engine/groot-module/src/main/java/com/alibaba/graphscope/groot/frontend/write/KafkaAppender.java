@@ -10,6 +10,7 @@ import com.alibaba.graphscope.groot.common.config.FrontendConfig;
 import com.alibaba.graphscope.groot.common.exception.IllegalStateException;
 import com.alibaba.graphscope.groot.common.exception.QueueRejectException;
 import com.alibaba.graphscope.groot.common.util.PartitionUtils;
+import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
 import com.alibaba.graphscope.groot.operation.OperationBlob;
@@ -20,6 +21,7 @@ import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.metrics.Meter;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +29,10 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -49,6 +55,13 @@ public class KafkaAppender {
 
     private final AtomicLong ingestSnapshotId;
 
+    private final boolean groupCommitEnabled;
+    private final int groupCommitMaxOperations;
+    private final long groupCommitLingerNanos;
+    // Waits for the WAL acknowledgement of each group and completes its callbacks in order
+    private ExecutorService ackExecutor;
+    private volatile int lastGroupSize;
+
     public KafkaAppender(Configs configs, MetaService metaService, LogService logService) {
         this.metaService = metaService;
         this.logService = logService;
@@ -58,6 +71,12 @@ public class KafkaAppender {
         int bufferSize = FrontendConfig.WRITE_QUEUE_BUFFER_MAX_COUNT.get(configs);
         this.ingestSnapshotId = new AtomicLong(-1);
         this.ingestBuffer = new ArrayBlockingQueue<>(bufferSize);
+        this.groupCommitEnabled = FrontendConfig.WRITE_GROUP_COMMIT_ENABLED.get(configs);
+        this.groupCommitMaxOperations =
+                FrontendConfig.WRITE_GROUP_COMMIT_MAX_OPERATIONS.get(configs);
+        this.groupCommitLingerNanos =
+                TimeUnit.MICROSECONDS.toNanos(
+                        FrontendConfig.WRITE_GROUP_COMMIT_LINGER_US.get(configs));
         initMetrics();
     }
 
@@ -65,13 +84,28 @@ public class KafkaAppender {
         logger.info("staring KafkaAppender queue#[{}]", queue);
         this.shouldStop = false;
         this.ingestBuffer.clear();
+        if (this.groupCommitEnabled) {
+            this.ackExecutor =
+                    new ThreadPoolExecutor(
+                            1,
+                            1,
+                            0L,
+                            TimeUnit.MILLISECONDS,
+                            new LinkedBlockingQueue<>(),
+                            ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                    "kafka-appender-ack", logger));
+        }
         this.ingestThread =
                 new Thread(
                         () -> {
                             LogWriter logWriter = this.logService.createWriter();
                             while (!shouldStop) {
                                 try {
-                                    process(logWriter);
+                                    if (this.groupCommitEnabled) {
+                                        processGroup(logWriter);
+                                    } else {
+                                        process(logWriter);
+                                    }
                                 } catch (Exception e) {
                                     logger.warn("error occurred in ingest process", e);
                                 }
@@ -104,6 +138,15 @@ public class KafkaAppender {
             }
             this.ingestThread = null;
         }
+        if (this.ackExecutor != null) {
+            this.ackExecutor.shutdown();
+            try {
+                this.ackExecutor.awaitTermination(3000L, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Ignore
+            }
+            this.ackExecutor = null;
+        }
     }
 
     public void ingestBatch(
@@ -139,6 +182,113 @@ public class KafkaAppender {
         logger.debug("batch ingested. requestId [" + task.requestId + "]");
     }
 
+    /**
+     * Group commit: gather pending tasks until the operation limit is reached or the linger time
+     * elapses, append one merged {@link LogEntry} per store, and complete all callbacks of the
+     * group once the WAL has acknowledged every append. The trace ids of the merged requests are
+     * joined in the batch of each store.
+     */
+    private void processGroup(LogWriter logWriter) {
+        List<IngestTask> tasks = new ArrayList<>();
+        try {
+            IngestTask task = this.ingestBuffer.poll(1000L, TimeUnit.MILLISECONDS);
+            if (task == null) {
+                return;
+            }
+            tasks.add(task);
+            int operationCount = task.operationBatch.getOperationCount();
+            long deadline = System.nanoTime() + this.groupCommitLingerNanos;
+            while (operationCount < this.groupCommitMaxOperations) {
+                task = this.ingestBuffer.poll();
+                if (task == null) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0
+                            || (task = this.ingestBuffer.poll(remaining, TimeUnit.NANOSECONDS))
+                                    == null) {
+                        break;
+                    }
+                }
+                tasks.add(task);
+                operationCount += task.operationBatch.getOperationCount();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("polling ingestBuffer interrupted");
+            if (tasks.isEmpty()) {
+                return;
+            }
+        }
+        this.lastGroupSize = tasks.size();
+
+        long batchSnapshotId = this.ingestSnapshotId.get();
+        if (batchSnapshotId == -1L) {
+            failTasks(
+                    tasks,
+                    new IllegalStateException(
+                            "invalid ingestSnapshotId [" + batchSnapshotId + "]"));
+            return;
+        }
+        List<IngestTask> accepted = new ArrayList<>(tasks.size());
+        Map<Integer, OperationBatch.Builder> builderMap = new HashMap<>();
+        // trace ids of the requests merged into the batch of each store
+        Map<Integer, Set<String>> traceIdMap = new HashMap<>();
+        for (IngestTask task : tasks) {
+            long latestSnapshotId = task.operationBatch.getLatestSnapshotId();
+            if (latestSnapshotId > 0 && latestSnapshotId < batchSnapshotId) {
+                task.callback.onFailure(
+                        new IllegalStateException(
+                                "latestSnapshotId ["
+                                        + latestSnapshotId
+                                        + "] must >= batchSnapshotId ["
+                                        + batchSnapshotId
+                                        + "]"));
+                continue;
+            }
+            splitBatch(task.operationBatch, builderMap, traceIdMap);
+            accepted.add(task);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<Future<RecordMetadata>> futures = new ArrayList<>(builderMap.size());
+        try {
+            for (Map.Entry<Integer, OperationBatch.Builder> entry : builderMap.entrySet()) {
+                Set<String> traceIds = traceIdMap.get(entry.getKey());
+                if (traceIds != null) {
+                    entry.getValue().setTraceId(String.join(",", traceIds));
+                }
+                OperationBatch batch = entry.getValue().build();
+                futures.add(
+                        logWriter.appendAsync(
+                                entry.getKey(), new LogEntry(batchSnapshotId, batch)));
+            }
+        } catch (Exception e) {
+            logger.error("write WAL failed. group of [{}] requests", accepted.size(), e);
+            failTasks(accepted, e);
+            return;
+        }
+        this.ackExecutor.execute(
+                () -> {
+                    try {
+                        for (Future<RecordMetadata> future : futures) {
+                            future.get();
+                        }
+                    } catch (Exception e) {
+                        logger.error("WAL append not acknowledged", e);
+                        failTasks(accepted, e);
+                        return;
+                    }
+                    for (IngestTask task : accepted) {
+                        task.callback.onSuccess(batchSnapshotId);
+                    }
+                });
+    }
+
+    private void failTasks(List<IngestTask> tasks, Exception e) {
+        for (IngestTask task : tasks) {
+            task.callback.onFailure(e);
+        }
+    }
+
     private long processTask(LogWriter logWriter, IngestTask task) throws IOException {
         long batchSnapshotId = this.ingestSnapshotId.get();
         if (batchSnapshotId == -1L) {
@@ -196,7 +346,17 @@ public class KafkaAppender {
     }
 
     public Map<Integer, OperationBatch.Builder> splitBatch(OperationBatch operationBatch) {
-        Map<Integer, OperationBatch.Builder> storeToBatchBuilder = new HashMap<>();
+        return splitBatch(operationBatch, new HashMap<>(), null);
+    }
+
+    /**
+     * @param storeToTraceIds collects the trace ids of each store if not null, where the batches
+     *     of many requests are merged, otherwise the trace id is set to the batch builders
+     */
+    private Map<Integer, OperationBatch.Builder> splitBatch(
+            OperationBatch operationBatch,
+            Map<Integer, OperationBatch.Builder> storeToBatchBuilder,
+            Map<Integer, Set<String>> storeToTraceIds) {
         Function<Integer, OperationBatch.Builder> storeDataBatchBuilderFunc =
                 k -> OperationBatch.newBuilder();
         String traceId = operationBatch.getTraceId();
@@ -208,9 +368,7 @@ public class KafkaAppender {
                     OperationBatch.Builder batchBuilder =
                             storeToBatchBuilder.computeIfAbsent(i, storeDataBatchBuilderFunc);
                     batchBuilder.addOperationBlob(operationBlob);
-                    if (traceId != null) {
-                        batchBuilder.setTraceId(traceId);
-                    }
+                    addTraceId(i, batchBuilder, traceId, storeToTraceIds);
                 }
             } else {
                 int partitionId =
@@ -219,14 +377,27 @@ public class KafkaAppender {
                 OperationBatch.Builder batchBuilder =
                         storeToBatchBuilder.computeIfAbsent(storeId, storeDataBatchBuilderFunc);
                 batchBuilder.addOperationBlob(operationBlob);
-                if (traceId != null) {
-                    batchBuilder.setTraceId(traceId);
-                }
+                addTraceId(storeId, batchBuilder, traceId, storeToTraceIds);
             }
         }
         return storeToBatchBuilder;
     }
 
+    private static void addTraceId(
+            int storeId,
+            OperationBatch.Builder batchBuilder,
+            String traceId,
+            Map<Integer, Set<String>> storeToTraceIds) {
+        if (traceId == null) {
+            return;
+        }
+        if (storeToTraceIds == null) {
+            batchBuilder.setTraceId(traceId);
+        } else if (!traceId.isEmpty()) {
+            storeToTraceIds.computeIfAbsent(storeId, k -> new LinkedHashSet<>()).add(traceId);
+        }
+    }
+
     public List<Long> replayDMLRecordsFrom(long offset, long timestamp) throws IOException {
         List<OperationType> types = new ArrayList<>();
         types.add(OperationType.OVERWRITE_VERTEX);
@@ -321,5 +492,8 @@ public class KafkaAppender {
         meter.upDownCounterBuilder("groot.frontend.writer.queue.size")
                 .setDescription("The buffer queue size of writer agent within the frontend node.")
                 .buildWithCallback(measurement -> measurement.record(ingestBuffer.size()));
+        meter.upDownCounterBuilder("groot.frontend.writer.group.size")
+                .setDescription("Number of write requests merged in the last group commit.")
+                .buildWithCallback(measurement -> measurement.record(lastGroupSize));
     }
 }
@@ -24,18 +24,29 @@ public class OperationBlob {
     private final long partitionKey;
     private final OperationType operationType;
     private final ByteString dataBytes;
+    // The proto this blob is parsed from (or lazily built), reused when forwarding to the store
+    private volatile OperationPb proto;
 
     public OperationBlob(long partitionKey, OperationType operationType, ByteString dataBytes) {
+        this(partitionKey, operationType, dataBytes, null);
+    }
+
+    private OperationBlob(
+            long partitionKey,
+            OperationType operationType,
+            ByteString dataBytes,
+            OperationPb proto) {
         this.partitionKey = partitionKey;
         this.operationType = operationType;
         this.dataBytes = dataBytes;
+        this.proto = proto;
     }
 
     public static OperationBlob parseProto(OperationPb proto) {
         long partitionKey = proto.getPartitionKey();
         OperationType operationType = OperationType.parseProto(proto.getOpType());
         ByteString bytes = proto.getDataBytes();
-        return new OperationBlob(partitionKey, operationType, bytes);
+        return new OperationBlob(partitionKey, operationType, bytes, proto);
     }
 
     public long getPartitionKey() {
@@ -47,11 +58,17 @@ public class OperationBlob {
     }
 
     public OperationPb toProto() {
-        return OperationPb.newBuilder()
-                .setPartitionKey(partitionKey)
-                .setOpType(operationType.toProto())
-                .setDataBytes(dataBytes)
-                .build();
+        OperationPb pb = this.proto;
+        if (pb == null) {
+            pb =
+                    OperationPb.newBuilder()
+                            .setPartitionKey(partitionKey)
+                            .setOpType(operationType.toProto())
+                            .setDataBytes(dataBytes)
+                            .build();
+            this.proto = pb;
+        }
+        return pb;
     }
 
     @Override
@@ -92,6 +92,10 @@ public class StoreDataBatch {
         return offset;
     }
 
+    public String getTraceId() {
+        return traceId;
+    }
+
     public List<Map<Integer, OperationBatch>> getDataBatch() {
         return dataBatch;
     }
@@ -17,16 +17,23 @@ import com.alibaba.graphscope.groot.operation.OperationBlob;
 import com.alibaba.graphscope.groot.operation.OperationType;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.wal.*;
+import com.alibaba.graphscope.groot.wal.kafka.LogEntryDeserializer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -62,6 +69,13 @@ public class KafkaProcessor {
     private AtomicBoolean replayInProgress;
     private AtomicLong latestSnapshotId;
 
+    private final int replayParallelism;
+    private final int replayFetchRecords;
+    private final AtomicLong replayedOffset;
+    private final AtomicLong replayEndOffset;
+    private long lastReplayLogCount;
+    private LongCounter replayedRecordCounter;
+
     public KafkaProcessor(
             Configs configs,
             MetaService metaService,
@@ -84,6 +98,29 @@ public class KafkaProcessor {
         replayQueue = new ArrayBlockingQueue<>(queueSize);
         latestSnapshotId = new AtomicLong(-1);
         replayInProgress = new AtomicBoolean(false);
+
+        replayParallelism = StoreConfig.STORE_WAL_REPLAY_PARALLELISM.get(configs);
+        replayFetchRecords = StoreConfig.STORE_WAL_REPLAY_FETCH_RECORDS.get(configs);
+        replayedOffset = new AtomicLong(-1);
+        replayEndOffset = new AtomicLong(-1);
+        initMetrics();
+    }
+
+    public void initMetrics() {
+        Meter meter = GlobalOpenTelemetry.getMeter("default");
+        this.replayedRecordCounter =
+                meter.counterBuilder("groot.store.wal.replay.count")
+                        .setDescription("Total count of WAL records replayed on recovery.")
+                        .build();
+        meter.upDownCounterBuilder("groot.store.wal.replay.remaining")
+                .setDescription("Number of WAL records left to replay on recovery.")
+                .buildWithCallback(
+                        measurement -> {
+                            long end = replayEndOffset.get();
+                            if (end >= 0) {
+                                measurement.record(Math.max(end - 1 - replayedOffset.get(), 0L));
+                            }
+                        });
     }
 
     public void start() {
@@ -227,13 +264,30 @@ public class KafkaProcessor {
     }
 
     private void processRecord(long offset, LogEntry logEntry) {
+        StoreDataBatch batch = buildStoreDataBatch(offset, logEntry);
+        if (batch == null) {
+            return;
+        }
+        try {
+            writerAgent.writeStore(batch);
+        } catch (InterruptedException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    /**
+     * Route the operations of a WAL record to the partitions of this store
+     *
+     * @return null if there is nothing to write
+     */
+    private StoreDataBatch buildStoreDataBatch(long offset, LogEntry logEntry) {
         int partitionCount = metaService.getPartitionCount();
         OperationBatch operationBatch = logEntry.getOperationBatch();
         if (isSecondary) { // only catch up the schema updates
             operationBatch = Utils.extractOperations(operationBatch, typesDDL);
         }
         if (operationBatch.getOperationCount() == 0) {
-            return;
+            return null;
         }
         long snapshotId = logEntry.getSnapshotId();
         StoreDataBatch.Builder builder =
@@ -259,11 +313,7 @@ public class KafkaProcessor {
                 }
             }
         }
-        try {
-            writerAgent.writeStore(builder.build());
-        } catch (InterruptedException e) {
-            throw new InternalException(e);
-        }
+        return builder.build();
     }
 
     public void replayWAL() throws IOException {
@@ -274,6 +324,10 @@ public class KafkaProcessor {
             logger.warn("It may not be expected to replay from the 0 offset, skipped");
             return;
         }
+        if (replayParallelism > 1) {
+            parallelReplayWAL(replayFrom);
+            return;
+        }
 
         int replayCount = 0;
         try (LogReader logReader = this.logService.createReader(storeId, replayFrom)) {
@@ -297,6 +351,111 @@ public class KafkaProcessor {
         logger.info("replayWAL finished. total replayed [{}] records", replayCount);
     }
 
+    /**
+     * Fetch records in bulk, decode and route them on a worker pool, then hand the results to the
+     * writer in offset order, so that the order of every partition is kept.
+     */
+    private void parallelReplayWAL(long replayFrom) throws IOException {
+        ExecutorService decodeExecutor =
+                new ThreadPoolExecutor(
+                        replayParallelism,
+                        replayParallelism,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(),
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "store-wal-replay", logger));
+        LogEntryDeserializer deserializer = new LogEntryDeserializer();
+        // Decoding slices in offset order, bounded to limit the memory held by replay
+        Deque<Future<List<ReplayedRecord>>> pending = new ArrayDeque<>();
+        int maxPending = replayParallelism * 2;
+        long replayCount = 0;
+        long startTime = System.currentTimeMillis();
+        try (RawLogReader reader =
+                this.logService.createRawReader(storeId, replayFrom, replayFetchRecords)) {
+            this.replayEndOffset.set(reader.getEndOffset());
+            List<ConsumerRecord<byte[], byte[]>> records;
+            while (!shouldStop && (records = reader.readNextRecords()) != null) {
+                int sliceSize = (records.size() + replayParallelism - 1) / replayParallelism;
+                for (int start = 0; start < records.size(); start += sliceSize) {
+                    List<ConsumerRecord<byte[], byte[]>> slice =
+                            records.subList(start, Math.min(start + sliceSize, records.size()));
+                    pending.addLast(
+                            decodeExecutor.submit(() -> decodeRecords(deserializer, slice)));
+                }
+                while (pending.size() > maxPending) {
+                    replayCount += emitReplayedRecords(pending.pollFirst().get());
+                    logReplayProgress(replayCount, startTime);
+                }
+            }
+            while (!pending.isEmpty()) {
+                replayCount += emitReplayedRecords(pending.pollFirst().get());
+                logReplayProgress(replayCount, startTime);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new InternalException(e);
+        } finally {
+            decodeExecutor.shutdownNow();
+            this.replayEndOffset.set(-1L);
+        }
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1L);
+        logger.info(
+                "parallel replayWAL finished. total replayed [{}] records in [{}] ms, [{}]"
+                        + " records/s",
+                replayCount,
+                elapsed,
+                replayCount * 1000 / elapsed);
+    }
+
+    private List<ReplayedRecord> decodeRecords(
+            LogEntryDeserializer deserializer, List<ConsumerRecord<byte[], byte[]>> records) {
+        List<ReplayedRecord> decoded = new ArrayList<>(records.size());
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            LogEntry logEntry = deserializer.deserialize(record.topic(), record.value());
+            StoreDataBatch batch = buildStoreDataBatch(record.offset(), logEntry);
+            decoded.add(new ReplayedRecord(record.offset(), logEntry.getSnapshotId(), batch));
+        }
+        return decoded;
+    }
+
+    private int emitReplayedRecords(List<ReplayedRecord> records) throws InterruptedException {
+        for (ReplayedRecord record : records) {
+            latestSnapshotId.set(record.snapshotId);
+            if (record.batch != null) {
+                writerAgent.writeStore(record.batch);
+            }
+            this.replayedOffset.set(record.offset);
+        }
+        this.replayedRecordCounter.add(records.size());
+        return records.size();
+    }
+
+    private void logReplayProgress(long replayCount, long startTime) {
+        if (replayCount - lastReplayLogCount < 100000) {
+            return;
+        }
+        lastReplayLogCount = replayCount;
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1L);
+        logger.info(
+                "replayed {} records, offset [{}] / [{}], {} records/s",
+                replayCount,
+                replayedOffset.get(),
+                replayEndOffset.get(),
+                replayCount * 1000 / elapsed);
+    }
+
+    private static class ReplayedRecord {
+        final long offset;
+        final long snapshotId;
+        final StoreDataBatch batch;
+
+        ReplayedRecord(long offset, long snapshotId, StoreDataBatch batch) {
+            this.offset = offset;
+            this.snapshotId = snapshotId;
+            this.batch = batch;
+        }
+    }
+
     private void processRecords() {
         try {
             while (true) {
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.proto.groot.EdgeKindPb;
+import com.alibaba.graphscope.proto.groot.EdgeLocationPb;
+import com.alibaba.graphscope.proto.groot.LabelIdPb;
+import com.alibaba.graphscope.proto.groot.Statistics;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PartitionStatistics keeps the vertex count of each label and the edge count of each edge kind of
+ * a partition, seeded by a full scan of the store and then updated by the batches written to the
+ * partition, so that the statistics can be read without scanning the store again.
+ *
+ * <p>The counts are estimations: an overwrite is counted as an insertion even if the vertex or the
+ * edge exists, and a deletion is counted even if it does not. The counts are dropped on DDL or
+ * ingestion, and on a periodical refresh, after which the partition is scanned again.
+ *
+ * <p>The deltas of the recent batches are kept, and the ones above the snapshot of a scan are
+ * replayed onto the scanned counts, as the scan can not see them. A scan which lags behind the
+ * kept deltas is not used to seed the counts.
+ */
+public class PartitionStatistics {
+    // field number of 'locationBlob' in DataOperationPb
+    private static final int LOCATION_BLOB_FIELD = 2;
+    private static final int MAX_RECENT_DELTAS = 4096;
+
+    private final int partitionId;
+    private final Map<Integer, LongAdder> vertexCounts;
+    // edge kinds with label ids only
+    private final Map<EdgeKindPb, LongAdder> edgeCounts;
+    private volatile boolean seeded;
+    private volatile long seededTimeMs;
+    // increased on each invalidation, so that a scan started before is not used to seed the counts
+    private long epoch;
+    // deltas of the recent batches in the order of writing
+    private final Deque<Delta> recentDeltas;
+    // the max snapshot id of the deltas dropped from the recent ones
+    private long droppedSnapshotId;
+
+    public PartitionStatistics(int partitionId) {
+        this.partitionId = partitionId;
+        this.vertexCounts = new ConcurrentHashMap<>();
+        this.edgeCounts = new ConcurrentHashMap<>();
+        this.seeded = false;
+        this.recentDeltas = new ArrayDeque<>();
+        this.droppedSnapshotId = -1L;
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getSeededTimeMs() {
+        return seededTimeMs;
+    }
+
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Reset the counts by the statistics scanned from the store, and replay the batches written
+     * above the snapshot of the scan.
+     *
+     * @param snapshotId the snapshot scanned
+     * @param epoch the epoch got before the scan is started
+     * @return false if the counts have been invalidated since the scan is started, or some batch
+     *     written above the snapshot is no longer kept
+     */
+    public synchronized boolean seed(Statistics statistics, long snapshotId, long epoch) {
+        if (epoch != this.epoch || this.droppedSnapshotId > snapshotId) {
+            return false;
+        }
+        this.vertexCounts.clear();
+        this.edgeCounts.clear();
+        for (Statistics.VertexTypeStatistics vs : statistics.getVertexTypeStatisticsList()) {
+            vertexCounter(vs.getLabelId().getId()).add(vs.getNumVertices());
+        }
+        for (Statistics.EdgeTypeStatistics es : statistics.getEdgeTypeStatisticsList()) {
+            edgeCounter(normalize(es.getEdgeKind())).add(es.getNumEdges());
+        }
+        Iterator<Delta> iterator = this.recentDeltas.iterator();
+        while (iterator.hasNext()) {
+            Delta delta = iterator.next();
+            if (delta.snapshotId > snapshotId) {
+                addDelta(delta);
+            } else {
+                // seen by the scan, and not needed by later scans
+                iterator.remove();
+            }
+        }
+        this.seededTimeMs = System.currentTimeMillis();
+        this.seeded = true;
+        return true;
+    }
+
+    /** Drop the counts, the partition should be scanned again before the next read. */
+    public synchronized void invalidate() {
+        this.seeded = false;
+        this.recentDeltas.clear();
+        this.droppedSnapshotId = -1L;
+        this.epoch++;
+    }
+
+    /** Update the counts by a batch which has been written to the partition. */
+    public void apply(long snapshotId, OperationBatch batch) {
+        // parse the batch out of the lock
+        Delta delta = parse(snapshotId, batch);
+        synchronized (this) {
+            if (delta == null) {
+                invalidate();
+                return;
+            }
+            if (seeded) {
+                addDelta(delta);
+            }
+            this.recentDeltas.addLast(delta);
+            if (this.recentDeltas.size() > MAX_RECENT_DELTAS) {
+                Delta dropped = this.recentDeltas.removeFirst();
+                this.droppedSnapshotId = Math.max(this.droppedSnapshotId, dropped.snapshotId);
+            }
+        }
+    }
+
+    /** @return null if the counts are no longer reliable after the batch */
+    private static Delta parse(long snapshotId, OperationBatch batch) {
+        Delta delta = new Delta(snapshotId);
+        try {
+            for (OperationBlob blob : batch) {
+                OperationType type = blob.getOperationType();
+                switch (type) {
+                    case MARKER:
+                    case UPDATE_VERTEX:
+                    case UPDATE_EDGE:
+                    case CLEAR_VERTEX_PROPERTIES:
+                    case CLEAR_EDGE_PROPERTIES:
+                        break;
+                    case OVERWRITE_VERTEX:
+                    case DELETE_VERTEX:
+                        {
+                            ByteString location = getLocationBlob(blob);
+                            int labelId = LabelIdPb.parseFrom(location).getId();
+                            delta.vertexDeltas.merge(
+                                    labelId,
+                                    type == OperationType.OVERWRITE_VERTEX ? 1L : -1L,
+                                    Long::sum);
+                            break;
+                        }
+                    case OVERWRITE_EDGE:
+                    case DELETE_EDGE:
+                        {
+                            // each edge is written to the partitions of both of its endpoints,
+                            // only the forward one is counted
+                            EdgeLocationPb location =
+                                    EdgeLocationPb.parseFrom(getLocationBlob(blob));
+                            if (location.getForward()) {
+                                delta.edgeDeltas.merge(
+                                        normalize(location.getEdgeKind()),
+                                        type == OperationType.OVERWRITE_EDGE ? 1L : -1L,
+                                        Long::sum);
+                            }
+                            break;
+                        }
+                    default:
+                        // schema changed or data loaded, the counts are no longer reliable
+                        return null;
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return delta;
+    }
+
+    private void addDelta(Delta delta) {
+        for (Map.Entry<Integer, Long> entry : delta.vertexDeltas.entrySet()) {
+            vertexCounter(entry.getKey()).add(entry.getValue());
+        }
+        for (Map.Entry<EdgeKindPb, Long> entry : delta.edgeDeltas.entrySet()) {
+            edgeCounter(entry.getKey()).add(entry.getValue());
+        }
+    }
+
+    /** Build the statistics from the counts, negative counts are reported as 0. */
+    public synchronized Statistics toStatistics(long snapshotId) {
+        Statistics.Builder builder = Statistics.newBuilder().setSnapshotId(snapshotId);
+        long numVertices = 0;
+        long numEdges = 0;
+        for (Map.Entry<Integer, LongAdder> entry : vertexCounts.entrySet()) {
+            long count = Math.max(0, entry.getValue().sum());
+            numVertices += count;
+            builder.addVertexTypeStatistics(
+                    Statistics.VertexTypeStatistics.newBuilder()
+                            .setLabelId(LabelIdPb.newBuilder().setId(entry.getKey()))
+                            .setNumVertices(count));
+        }
+        for (Map.Entry<EdgeKindPb, LongAdder> entry : edgeCounts.entrySet()) {
+            long count = Math.max(0, entry.getValue().sum());
+            numEdges += count;
+            builder.addEdgeTypeStatistics(
+                    Statistics.EdgeTypeStatistics.newBuilder()
+                            .setEdgeKind(entry.getKey())
+                            .setNumEdges(count));
+        }
+        return builder.setNumVertices(numVertices).setNumEdges(numEdges).build();
+    }
+
+    private LongAdder vertexCounter(int labelId) {
+        return vertexCounts.computeIfAbsent(labelId, k -> new LongAdder());
+    }
+
+    private LongAdder edgeCounter(EdgeKindPb edgeKind) {
+        return edgeCounts.computeIfAbsent(edgeKind, k -> new LongAdder());
+    }
+
+    private static EdgeKindPb normalize(EdgeKindPb edgeKind) {
+        return EdgeKindPb.newBuilder()
+                .setEdgeLabelId(edgeKind.getEdgeLabelId())
+                .setSrcVertexLabelId(edgeKind.getSrcVertexLabelId())
+                .setDstVertexLabelId(edgeKind.getDstVertexLabelId())
+                .build();
+    }
+
+    // read the location blob only, without parsing the properties of the operation
+    private static ByteString getLocationBlob(OperationBlob blob) throws IOException {
+        CodedInputStream input = blob.toProto().getDataBytes().newCodedInput();
+        while (true) {
+            int tag = input.readTag();
+            if (tag == 0) {
+                return ByteString.EMPTY;
+            }
+            if (WireFormat.getTagFieldNumber(tag) == LOCATION_BLOB_FIELD) {
+                return input.readBytes();
+            }
+            input.skipField(tag);
+        }
+    }
+
+    // count changes of a batch
+    private static class Delta {
+        private final long snapshotId;
+        private final Map<Integer, Long> vertexDeltas = new HashMap<>();
+        private final Map<EdgeKindPb, Long> edgeDeltas = new HashMap<>();
+
+        private Delta(long snapshotId) {
+            this.snapshotId = snapshotId;
+        }
+    }
+}
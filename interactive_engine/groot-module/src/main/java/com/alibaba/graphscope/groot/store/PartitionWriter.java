@@ -0,0 +1,76 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PartitionWriter is the ordered write lane of one partition. Tasks of the same partition run one
+ * after another in submission order, while lanes of different partitions share the write executor
+ * and drain independently, so a slow partition no longer holds back the others.
+ */
+public class PartitionWriter {
+    // Max tasks drained in one run before yielding the thread to other partitions
+    private static final int MAX_TASKS_PER_RUN = 16;
+
+    private final int partitionId;
+    private final Executor executor;
+    private final Queue<Runnable> tasks;
+    private final AtomicBoolean scheduled;
+
+    public PartitionWriter(int partitionId, Executor executor) {
+        this.partitionId = partitionId;
+        this.executor = executor;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    public void submit(Runnable task) {
+        this.tasks.add(task);
+        schedule();
+    }
+
+    public int getPendingCount() {
+        return this.tasks.size();
+    }
+
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int count = 0;
+            while (count < MAX_TASKS_PER_RUN && (task = this.tasks.poll()) != null) {
+                task.run();
+                count++;
+            }
+        } finally {
+            this.scheduled.set(false);
+            if (!this.tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
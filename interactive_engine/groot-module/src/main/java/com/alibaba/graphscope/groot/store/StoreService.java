@@ -46,6 +46,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +72,7 @@ public class StoreService {
     private final int compactThreadCount;
     private final MetaService metaService;
     private Map<Integer, GraphPartition> idToPartition;
+    private Map<Integer, PartitionWriter> idToPartitionWriter;
     private ExecutorService writeExecutor;
     private ExecutorService ingestExecutor;
     private ExecutorService garbageCollectExecutor;
@@ -85,6 +87,9 @@ public class StoreService {
     private LongHistogram writeHistogram;
     private LongHistogram gcHistogram;
     private volatile boolean enableCatchUpPrimary = true;
+    // null if the statistics are not kept incrementally
+    private Map<Integer, PartitionStatistics> idToStatistics;
+    private final long statisticsRefreshIntervalMs;
 
     public StoreService(Configs storeConfigs, MetaService metaService) {
         this.storeConfigs = storeConfigs;
@@ -94,6 +99,9 @@ public class StoreService {
         this.compactThreadCount = StoreConfig.STORE_COMPACT_THREAD_NUM.get(storeConfigs);
         this.metaService = metaService;
         this.isSecondary = CommonConfig.SECONDARY_INSTANCE_ENABLED.get(storeConfigs);
+        this.statisticsRefreshIntervalMs =
+                TimeUnit.MINUTES.toMillis(
+                        StoreConfig.STORE_STATISTICS_REFRESH_INTERVAL_MIN.get(storeConfigs));
     }
 
     public void start() throws IOException {
@@ -108,6 +116,12 @@ public class StoreService {
                 throw new InternalException(e);
             }
         }
+        if (StoreConfig.STORE_STATISTICS_INCREMENTAL_ENABLED.get(this.storeConfigs)) {
+            this.idToStatistics = new ConcurrentHashMap<>(partitionIds.size());
+            for (int partitionId : partitionIds) {
+                this.idToStatistics.put(partitionId, new PartitionStatistics(partitionId));
+            }
+        }
         initMetrics();
         this.shouldStop = false;
         this.writeExecutor =
@@ -119,6 +133,11 @@ public class StoreService {
                         new LinkedBlockingQueue<>(),
                         ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
                                 "store-write", logger));
+        this.idToPartitionWriter = new HashMap<>(partitionIds.size());
+        for (int partitionId : partitionIds) {
+            this.idToPartitionWriter.put(
+                    partitionId, new PartitionWriter(partitionId, this.writeExecutor));
+        }
         this.ingestExecutor =
                 new ThreadPoolExecutor(
                         1,
@@ -208,6 +227,7 @@ public class StoreService {
                 // Ignore
             }
             this.idToPartition = null;
+            this.idToPartitionWriter = null;
         }
         if (this.writeExecutor != null) {
             this.writeExecutor.shutdown();
@@ -238,6 +258,87 @@ public class StoreService {
         return hasDdl.get();
     }
 
+    /**
+     * Write data to partitions without waiting for each other. Every partition applies its batches
+     * in submission order on its own {@link PartitionWriter}, so a partition can move on to the
+     * next snapshot while slower partitions are still busy with the previous one. A failed write
+     * is retried until it succeeds, as skipping it would apply the later batches out of order.
+     *
+     * @param storeDataBatch
+     * @param callback completed with whether the batch contains DDL, once all partitions are done;
+     *     or failed if a partition does not exist or the service is stopped before the write
+     */
+    public void asyncBatchWrite(
+            StoreDataBatch storeDataBatch, CompletionCallback<Boolean> callback) {
+        long snapshotId = storeDataBatch.getSnapshotId();
+        List<Map<Integer, OperationBatch>> dataBatch = storeDataBatch.getDataBatch();
+        List<Map.Entry<Integer, OperationBatch>> tasks = new ArrayList<>();
+        for (Map<Integer, OperationBatch> partitionToBatch : dataBatch) {
+            for (Map.Entry<Integer, OperationBatch> e : partitionToBatch.entrySet()) {
+                if (e.getKey() != -1) {
+                    tasks.add(e);
+                }
+            }
+        }
+        if (tasks.isEmpty()) {
+            callback.onCompleted(false);
+            return;
+        }
+        AtomicBoolean hasDdl = new AtomicBoolean(false);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicInteger counter = new AtomicInteger(tasks.size());
+        for (Map.Entry<Integer, OperationBatch> e : tasks) {
+            int partitionId = e.getKey();
+            OperationBatch batch = e.getValue();
+            PartitionWriter writer = this.idToPartitionWriter.get(partitionId);
+            if (writer == null) {
+                failed.set(true);
+                logger.error("partition [{}] is not initialized / exists", partitionId);
+                if (counter.decrementAndGet() == 0) {
+                    callback.onError(new ExternalStorageErrorException("asyncBatchWrite failed"));
+                }
+                continue;
+            }
+            writer.submit(
+                    () -> {
+                        // Retry in place: the later batches of this partition must not be
+                        // applied before this one, so the writer does not move on until it
+                        // succeeds or the service stops.
+                        boolean success = false;
+                        int attempts = 0;
+                        while (!shouldStop) {
+                            if (writePartition(partitionId, snapshotId, batch, hasDdl)) {
+                                success = true;
+                                break;
+                            }
+                            attempts++;
+                            logger.warn(
+                                    "Write batch failed {} times, will retry. [{}]",
+                                    attempts,
+                                    partitionId);
+                            try {
+                                Thread.sleep(100L);
+                            } catch (InterruptedException ie) {
+                                // Ignore
+                            }
+                        }
+                        if (!success) {
+                            failed.set(true);
+                        }
+                        if (counter.decrementAndGet() == 0) {
+                            if (failed.get()) {
+                                callback.onError(
+                                        new ExternalStorageErrorException(
+                                                "asyncBatchWrite failed, snapshotId "
+                                                        + snapshotId));
+                            } else {
+                                callback.onCompleted(hasDdl.get());
+                            }
+                        }
+                    });
+        }
+    }
+
     private Map<Integer, OperationBatch> writeStore(
             long snapshotId, Map<Integer, OperationBatch> partitionToBatch, AtomicBoolean hasDdl)
             throws ExecutionException, InterruptedException {
@@ -248,60 +349,10 @@ public class StoreService {
             int partitionId = e.getKey();
             OperationBatch batch = e.getValue();
             logger.debug("writeStore partition [" + partitionId + "]");
-            AttributesBuilder attrs = Attributes.builder().put("partition.id", partitionId);
             this.writeExecutor.execute(
                     () -> {
-                        long start = System.currentTimeMillis();
-                        try {
-                            if (partitionId != -1) {
-                                // Ignore Marker
-                                // Only support partition operation for now
-                                GraphPartition partition = this.idToPartition.get(partitionId);
-                                if (partition == null) {
-                                    throw new IllegalStateException(
-                                            "partition ["
-                                                    + partitionId
-                                                    + "] is not initialized / exists");
-                                }
-                                if (partition.writeBatch(snapshotId, batch)) {
-                                    hasDdl.set(true);
-                                }
-                                metricLogger.info(
-                                        buildMetricJsonLog(true, batch, start, partitionId));
-                                attrs.put("success", true).put("message", "");
-                                this.writeHistogram.record(
-                                        System.currentTimeMillis() - start, attrs.build());
-                                this.writeCounter.add(batch.getOperationCount(), attrs.build());
-                            } //  else {
-                            //     logger.debug("marker batch ignored");
-                            // }
-                        } catch (Exception ex) {
-                            metricLogger.info(buildMetricJsonLog(false, batch, start, partitionId));
-                            logger.error(
-                                    "write to partition [{}] failed, snapshotId [{}], traceId"
-                                            + " [{}].",
-                                    partitionId,
-                                    snapshotId,
-                                    batch.getTraceId(),
-                                    ex);
-                            attrs.put("message", ex.getMessage());
-                            String msg = "Not supported operation in secondary mode";
-                            String msg2 = "less than current si_guard";
-                            if (ex.getMessage().contains(msg)) {
-                                logger.warn("Ignored write in secondary instance, {}", msg);
-                                attrs.put("success", true);
-                            } else if (ex.getMessage().contains(msg2)) {
-                                // Non recoverable failure
-                                logger.error("Write batch failed. {}", batch.toProto(), ex);
-                                attrs.put("success", false);
-                                this.writeCounter.add(batch.getOperationCount(), attrs.build());
-                            } else {
-                                attrs.put("success", false);
-                                this.writeCounter.add(batch.getOperationCount(), attrs.build());
-                                batchNeedRetry.put(partitionId, batch);
-                            }
-                            this.writeHistogram.record(
-                                    System.currentTimeMillis() - start, attrs.build());
+                        if (!writePartition(partitionId, snapshotId, batch, hasDdl)) {
+                            batchNeedRetry.put(partitionId, batch);
                         }
                         if (counter.decrementAndGet() == 0) {
                             future.complete(null);
@@ -320,6 +371,67 @@ public class StoreService {
         return batchNeedRetry;
     }
 
+    /**
+     * Write one batch into a partition.
+     *
+     * @return False if the write failed and should be retried, otherwise True
+     */
+    private boolean writePartition(
+            int partitionId, long snapshotId, OperationBatch batch, AtomicBoolean hasDdl) {
+        if (partitionId == -1) {
+            // Ignore Marker
+            // Only support partition operation for now
+            return true;
+        }
+        AttributesBuilder attrs = Attributes.builder().put("partition.id", partitionId);
+        long start = System.currentTimeMillis();
+        try {
+            GraphPartition partition = this.idToPartition.get(partitionId);
+            if (partition == null) {
+                throw new IllegalStateException(
+                        "partition [" + partitionId + "] is not initialized / exists");
+            }
+            if (partition.writeBatch(snapshotId, batch)) {
+                hasDdl.set(true);
+            }
+            if (this.idToStatistics != null) {
+                this.idToStatistics.get(partitionId).apply(snapshotId, batch);
+            }
+            metricLogger.info(buildMetricJsonLog(true, batch, start, partitionId));
+            attrs.put("success", true).put("message", "");
+            this.writeHistogram.record(System.currentTimeMillis() - start, attrs.build());
+            this.writeCounter.add(batch.getOperationCount(), attrs.build());
+            return true;
+        } catch (Exception ex) {
+            metricLogger.info(buildMetricJsonLog(false, batch, start, partitionId));
+            logger.error(
+                    "write to partition [{}] failed, snapshotId [{}], traceId [{}].",
+                    partitionId,
+                    snapshotId,
+                    batch.getTraceId(),
+                    ex);
+            attrs.put("message", ex.getMessage());
+            String msg = "Not supported operation in secondary mode";
+            String msg2 = "less than current si_guard";
+            boolean success = true;
+            if (ex.getMessage().contains(msg)) {
+                logger.warn("Ignored write in secondary instance, {}", msg);
+                attrs.put("success", true);
+            } else if (ex.getMessage().contains(msg2)) {
+                // Non recoverable failure
+                logger.error("Write batch failed. {}", batch.toProto(), ex);
+                attrs.put("success", false);
+                this.writeCounter.add(batch.getOperationCount(), attrs.build());
+            } else {
+                attrs.put("success", false);
+                this.writeCounter.add(batch.getOperationCount(), attrs.build());
+                success = false;
+            }
+            this.writeHistogram.record(System.currentTimeMillis() - start, attrs.build());
+            return success;
+        }
+    }
+
     private String buildMetricJsonLog(
             boolean succeed, OperationBatch operationBatch, long start, int partitionId) {
         String traceId = operationBatch.getTraceId();
@@ -341,18 +453,39 @@ public class StoreService {
         return graphPartition.getGraphDefBlob();
     }
 
+    /**
+     * Collect statistics of all partitions. If the statistics are kept incrementally, partitions
+     * which have been scanned within the refresh interval are served from the kept counts, and the
+     * others are scanned and then kept.
+     */
     public Map<Integer, Statistics> getGraphStatisticsBlob(long snapshotId) throws IOException {
         int partitionCount = this.idToPartition.values().size();
         CountDownLatch countDownLatch = new CountDownLatch(partitionCount);
         logger.info("Collect statistics of store#{} started", storeId);
         Map<Integer, Statistics> statisticsMap = new ConcurrentHashMap<>();
+        long now = System.currentTimeMillis();
+        int scanCount = 0;
         for (Map.Entry<Integer, GraphPartition> entry : idToPartition.entrySet()) {
+            PartitionStatistics kept =
+                    (this.idToStatistics == null) ? null : this.idToStatistics.get(entry.getKey());
+            if (kept != null
+                    && kept.isSeeded()
+                    && now - kept.getSeededTimeMs() < this.statisticsRefreshIntervalMs) {
+                statisticsMap.put(entry.getKey(), kept.toStatistics(snapshotId));
+                countDownLatch.countDown();
+                continue;
+            }
+            long epoch = (kept == null) ? 0 : kept.getEpoch();
+            scanCount++;
             this.statisticsExecutor.execute(
                     () -> {
                         try {
                             Statistics statistics =
                                     entry.getValue().getGraphStatisticsBlob(snapshotId);
                             statisticsMap.put(entry.getKey(), statistics);
+                            if (kept != null) {
+                                kept.seed(statistics, snapshotId, epoch);
+                            }
                             logger.debug("Collected statistics of partition#{}", entry.getKey());
                         } catch (IOException e) {
                             logger.error(
@@ -376,7 +509,11 @@ public class StoreService {
                 // Ignore
             }
         }
-        logger.info("Collect statistics of store#{} done, size: {}", storeId, statisticsMap.size());
+        logger.info(
+                "Collect statistics of store#{} done, size: {}, scanned: {}",
+                storeId,
+                statisticsMap.size(),
+                scanCount);
         return statisticsMap;
     }
 
@@ -435,6 +572,9 @@ public class StoreService {
                     () -> {
                         try {
                             partition.ingestExternalFile(externalStorage, fullPath);
+                            if (this.idToStatistics != null) {
+                                this.idToStatistics.get(pid).invalidate();
+                            }
                         } catch (Exception e) {
                             logger.error("ingest external file failed.", e);
                             if (!finished.getAndSet(true)) {
@@ -616,6 +756,23 @@ public class StoreService {
                             long[] ret = getDiskStatus();
                             result.record(ret[0] * 1.0 / ret[1]);
                         });
+
+        meter.upDownCounterBuilder("groot.store.partition.write.pending")
+                .setDescription("Pending write batches of each partition within the store node.")
+                .buildWithCallback(
+                        result -> {
+                            Map<Integer, PartitionWriter> writers = this.idToPartitionWriter;
+                            if (writers == null) {
+                                return;
+                            }
+                            for (PartitionWriter writer : writers.values()) {
+                                result.record(
+                                        writer.getPendingCount(),
+                                        Attributes.builder()
+                                                .put("partition.id", writer.getPartitionId())
+                                                .build());
+                            }
+                        });
     }
 
     public void updateCatchUpStatus(boolean enableStatus) {
@@ -13,12 +13,15 @@
  */
 package com.alibaba.graphscope.groot.store;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.common.config.StoreConfig;
 import com.alibaba.graphscope.groot.common.util.ThreadFactoryUtils;
 import com.alibaba.graphscope.groot.coordinator.SnapshotInfo;
 import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
 
@@ -30,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -58,6 +62,16 @@ public class WriterAgent {
     private List<Long> consumedQueueOffsets;
     private Thread consumeThread;
 
+    private final boolean pipelineEnabled;
+    private final Semaphore inflightPermits;
+    // Batches handed to the partition writers, in the order of submission
+    private final Deque<InflightBatch> inflightBatches;
+    private long maxSubmittedSI;
+
+    private final int maxDrainSize;
+    private volatile int lastDrainSize;
+    private final AtomicBoolean commitPending;
+
     public WriterAgent(
             Configs configs,
             StoreService storeService,
@@ -73,6 +87,12 @@ public class WriterAgent {
         //        this.bufferQueue = new SnapshotSortQueue(this.configs, this.metaService);
         int queueSize = StoreConfig.STORE_QUEUE_BUFFER_SIZE.get(configs);
         this.bufferQueue = new ArrayBlockingQueue<>(queueSize);
+        this.pipelineEnabled = StoreConfig.STORE_WRITE_PIPELINE_ENABLED.get(configs);
+        this.inflightPermits =
+                new Semaphore(StoreConfig.STORE_WRITE_PIPELINE_MAX_INFLIGHT.get(configs));
+        this.inflightBatches = new ArrayDeque<>();
+        this.maxDrainSize = StoreConfig.STORE_WRITE_MAX_DRAIN_SIZE.get(configs);
+        this.commitPending = new AtomicBoolean(false);
         initMetrics();
     }
 
@@ -80,6 +100,7 @@ public class WriterAgent {
         this.lastCommitSI = -1L;
         this.consumeSI = 0L;
         this.consumeDdlSnapshotId = 0L;
+        this.maxSubmittedSI = 0L;
         this.availSnapshotInfoRef.set(new SnapshotInfo(0, 0));
 
         this.shouldStop = false;
@@ -155,38 +176,175 @@ public class WriterAgent {
     }
 
     private void processBatches() {
+        List<StoreDataBatch> drained = new ArrayList<>(this.maxDrainSize);
         while (!shouldStop) {
             try {
-                StoreDataBatch batch = this.bufferQueue.poll();
-                if (batch == null) {
-                    continue;
-                }
-                long batchSI = batch.getSnapshotId();
-                //                logger.debug("polled one batch [" + batchSI + "]");
-                boolean hasDdl = writeEngineWithRetry(batch);
-                if (this.consumeSI < batchSI) {
-                    SnapshotInfo availSInfo = this.availSnapshotInfoRef.get();
-                    long availSI = Math.max(availSInfo.getSnapshotId(), batchSI - 1);
-                    long availDdlSI = Math.max(availSInfo.getDdlSnapshotId(), consumeDdlSnapshotId);
-                    this.consumeSI = batchSI;
-                    this.availSnapshotInfoRef.set(new SnapshotInfo(availSI, availDdlSI));
-                    this.commitExecutor.execute(this::asyncCommit);
+                // Block while idle, then take everything that has piled up in one go
+                drained.add(this.bufferQueue.take());
+                this.bufferQueue.drainTo(drained, this.maxDrainSize - 1);
+                this.lastDrainSize = drained.size();
+                int start = 0;
+                while (start < drained.size()) {
+                    int end = start + 1;
+                    long batchSI = drained.get(start).getSnapshotId();
+                    while (end < drained.size() && drained.get(end).getSnapshotId() == batchSI) {
+                        end++;
+                    }
+                    StoreDataBatch batch = mergeBatches(drained.subList(start, end));
+                    if (this.pipelineEnabled) {
+                        submitBatch(batch);
+                    } else {
+                        writeBatch(batch);
+                    }
+                    start = end;
                 }
-                // else { // a flurry of batches with same snapshot ID
-                //  logger.debug("consumedSI {} >= batchSI {}, ignored", consumeSI, batchSI);
-                // }
-                if (hasDdl) {
-                    this.consumeDdlSnapshotId = batchSI;
+                scheduleCommit();
+            } catch (InterruptedException e) {
+                if (!shouldStop) {
+                    logger.warn("processBatches interrupted, ignore", e);
                 }
-                // this.consumedQueueOffsets.set(batch.getQueueId(), batch.getOffset());
-                this.consumedQueueOffsets.set(0, batch.getOffset());
             } catch (Exception e) {
                 logger.error("error in processBatches, ignore", e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    /**
+     * Merge consecutive batches of the same snapshot, so that each partition gets one native write
+     * for all of them.
+     */
+    private StoreDataBatch mergeBatches(List<StoreDataBatch> batches) {
+        if (batches.size() == 1) {
+            return batches.get(0);
+        }
+        StoreDataBatch first = batches.get(0);
+        StoreDataBatch last = batches.get(batches.size() - 1);
+        StoreDataBatch.Builder builder =
+                StoreDataBatch.newBuilder()
+                        .requestId(first.getRequestId())
+                        .queueId(first.getQueueId())
+                        .snapshotId(first.getSnapshotId())
+                        .offset(last.getOffset())
+                        .traceId(first.getTraceId());
+        for (StoreDataBatch batch : batches) {
+            for (Map<Integer, OperationBatch> partitionToBatch : batch.getDataBatch()) {
+                partitionToBatch.forEach(
+                        (pid, operationBatch) -> {
+                            for (OperationBlob blob : operationBatch) {
+                                builder.addOperation(pid, blob);
+                            }
+                        });
             }
         }
+        return builder.build();
+    }
+
+    private void writeBatch(StoreDataBatch batch) {
+        long batchSI = batch.getSnapshotId();
+        boolean hasDdl = writeEngineWithRetry(batch);
+        if (this.consumeSI < batchSI) {
+            SnapshotInfo availSInfo = this.availSnapshotInfoRef.get();
+            long availSI = Math.max(availSInfo.getSnapshotId(), batchSI - 1);
+            long availDdlSI = Math.max(availSInfo.getDdlSnapshotId(), consumeDdlSnapshotId);
+            this.consumeSI = batchSI;
+            this.availSnapshotInfoRef.set(new SnapshotInfo(availSI, availDdlSI));
+        }
+        // else { // a flurry of batches with same snapshot ID
+        //  logger.debug("consumedSI {} >= batchSI {}, ignored", consumeSI, batchSI);
+        // }
+        if (hasDdl) {
+            this.consumeDdlSnapshotId = batchSI;
+        }
+        // this.consumedQueueOffsets.set(batch.getQueueId(), batch.getOffset());
+        this.consumedQueueOffsets.set(0, batch.getOffset());
+    }
+
+    /** Commits are coalesced: at most one is queued, and it reports the latest snapshot. */
+    private void scheduleCommit() {
+        if (this.availSnapshotInfoRef.get().getSnapshotId() <= this.lastCommitSI) {
+            return;
+        }
+        ExecutorService executor = this.commitExecutor;
+        if (executor != null && this.commitPending.compareAndSet(false, true)) {
+            executor.execute(this::asyncCommit);
+        }
+    }
+
+    private void submitBatch(StoreDataBatch batch) throws InterruptedException {
+        this.inflightPermits.acquire();
+        InflightBatch inflight = new InflightBatch(batch.getSnapshotId(), batch.getOffset());
+        synchronized (this.inflightBatches) {
+            this.inflightBatches.addLast(inflight);
+            this.maxSubmittedSI = Math.max(this.maxSubmittedSI, inflight.snapshotId);
+        }
+        this.storeService.asyncBatchWrite(
+                batch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        onBatchWritten(inflight, hasDdl);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        logger.error(
+                                "writeEngine failed: snapshotId {}, offset {}. The available"
+                                        + " snapshot and queue offsets stay before it.",
+                                inflight.snapshotId,
+                                inflight.offset,
+                                t);
+                        onBatchFailed();
+                    }
+                });
+        advanceAvailSnapshot();
+    }
+
+    private void onBatchWritten(InflightBatch inflight, boolean hasDdl) {
+        inflight.hasDdl = hasDdl;
+        inflight.done = true;
+        this.inflightPermits.release();
+        advanceAvailSnapshot();
+    }
+
+    /**
+     * The failed batch is never marked as done, so it stays at the head of the inflight batches and
+     * neither the available snapshot nor the consumed offsets move past it. The data is replayed
+     * from the last committed offsets when the store restarts.
+     */
+    private void onBatchFailed() {
+        this.inflightPermits.release();
+    }
+
+    /**
+     * A snapshot is available when all batches of it are written to every partition, that is, when
+     * it is less than the snapshot of the earliest batch still in flight.
+     */
+    private void advanceAvailSnapshot() {
+        synchronized (this.inflightBatches) {
+            InflightBatch head;
+            while ((head = this.inflightBatches.peekFirst()) != null && head.done) {
+                this.inflightBatches.pollFirst();
+                if (head.hasDdl) {
+                    this.consumeDdlSnapshotId = head.snapshotId;
+                }
+                this.consumedQueueOffsets.set(0, head.offset);
+            }
+            long availSI = (head == null ? this.maxSubmittedSI : head.snapshotId) - 1;
+            SnapshotInfo availSInfo = this.availSnapshotInfoRef.get();
+            if (availSI <= availSInfo.getSnapshotId()) {
+                return;
+            }
+            long availDdlSI = Math.max(availSInfo.getDdlSnapshotId(), consumeDdlSnapshotId);
+            this.consumeSI = availSI + 1;
+            this.availSnapshotInfoRef.set(new SnapshotInfo(availSI, availDdlSI));
+        }
+        scheduleCommit();
     }
 
     private void asyncCommit() {
+        this.commitPending.set(false);
         SnapshotInfo snapshotInfo = this.availSnapshotInfoRef.get();
         long curSI = snapshotInfo.getSnapshotId();
         if (curSI > this.lastCommitSI) {
@@ -224,5 +382,20 @@ public class WriterAgent {
         meter.upDownCounterBuilder("groot.store.writer.queue.size")
                 .setDescription("The buffer queue size of writer agent within the store node.")
                 .buildWithCallback(measurement -> measurement.record(bufferQueue.size()));
+        meter.upDownCounterBuilder("groot.store.writer.drain.size")
+                .setDescription("Number of batches taken from the buffer queue in the last drain.")
+                .buildWithCallback(measurement -> measurement.record(lastDrainSize));
+    }
+
+    private static class InflightBatch {
+        final long snapshotId;
+        final long offset;
+        volatile boolean done;
+        volatile boolean hasDdl;
+
+        InflightBatch(long snapshotId, long offset) {
+            this.snapshotId = snapshotId;
+            this.offset = offset;
+        }
     }
 }
@@ -17,6 +17,8 @@ import com.sun.jna.Library;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 
+import java.nio.ByteBuffer;
+
 public interface GraphLibrary extends Library {
     GraphLibrary INSTANCE = Native.load("groot_ffi", GraphLibrary.class);
 
@@ -26,6 +28,9 @@ public interface GraphLibrary extends Library {
 
     JnaResponse writeBatch(Pointer storePointer, long snapshotId, byte[] data, int len);
 
+    // `data` must be a direct buffer, JNA passes its address to native without copying
+    JnaResponse writeBatch(Pointer storePointer, long snapshotId, ByteBuffer data, int len);
+
     JnaResponse getGraphDefBlob(Pointer storePointer);
 
     JnaResponse getGraphStatistics(Pointer storePointer, long snapshotId);
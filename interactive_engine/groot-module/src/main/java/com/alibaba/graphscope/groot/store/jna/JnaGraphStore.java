@@ -22,7 +22,9 @@ import com.alibaba.graphscope.groot.store.GraphPartition;
 import com.alibaba.graphscope.groot.store.backup.GraphPartitionBackup;
 import com.alibaba.graphscope.groot.store.external.ExternalStorage;
 import com.alibaba.graphscope.proto.groot.GraphDefPb;
+import com.alibaba.graphscope.proto.groot.OperationBatchPb;
 import com.alibaba.graphscope.proto.groot.Statistics;
+import com.google.protobuf.CodedOutputStream;
 import com.sun.jna.Pointer;
 
 import org.apache.commons.io.FileUtils;
@@ -30,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -37,6 +40,11 @@ import java.nio.file.Paths;
 public class JnaGraphStore implements GraphPartition {
     private static final Logger logger = LoggerFactory.getLogger(JnaGraphStore.class);
 
+    // Batches larger than this are passed as heap arrays instead of pinning a huge direct buffer
+    private static final int MAX_CACHED_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> WRITE_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(64 * 1024));
+
     private final Pointer pointer;
     private final int partitionId;
     private final Path downloadPath;
@@ -98,17 +106,48 @@ public class JnaGraphStore implements GraphPartition {
 
     @Override
     public boolean writeBatch(long snapshotId, OperationBatch operationBatch) throws IOException {
-        logger.debug("write batch {}", operationBatch.toProto());
-        byte[] dataBytes = operationBatch.toProto().toByteArray();
-        try (JnaResponse response =
-                GraphLibrary.INSTANCE.writeBatch(
-                        this.pointer, snapshotId, dataBytes, dataBytes.length)) {
-            if (!response.success()) {
-                String errMsg = response.getErrMsg();
-                throw new ExternalStorageErrorException(errMsg);
+        OperationBatchPb batchPb = operationBatch.toProto();
+        if (logger.isDebugEnabled()) {
+            logger.debug("write batch {}", batchPb);
+        }
+        int size = batchPb.getSerializedSize();
+        if (size > MAX_CACHED_BUFFER_SIZE) {
+            byte[] dataBytes = batchPb.toByteArray();
+            try (JnaResponse response =
+                    GraphLibrary.INSTANCE.writeBatch(
+                            this.pointer, snapshotId, dataBytes, dataBytes.length)) {
+                return checkWriteResponse(response);
             }
-            return response.hasDdl();
         }
+        ByteBuffer buffer = acquireWriteBuffer(size);
+        CodedOutputStream output = CodedOutputStream.newInstance(buffer);
+        batchPb.writeTo(output);
+        output.flush();
+        // JNA passes the address at the buffer's current position
+        buffer.flip();
+        try (JnaResponse response =
+                GraphLibrary.INSTANCE.writeBatch(this.pointer, snapshotId, buffer, size)) {
+            return checkWriteResponse(response);
+        }
+    }
+
+    private static ByteBuffer acquireWriteBuffer(int size) {
+        ByteBuffer buffer = WRITE_BUFFER.get();
+        if (buffer.capacity() < size) {
+            int capacity = Math.min(Integer.highestOneBit(size - 1) << 1, MAX_CACHED_BUFFER_SIZE);
+            buffer = ByteBuffer.allocateDirect(capacity);
+            WRITE_BUFFER.set(buffer);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private static boolean checkWriteResponse(JnaResponse response) {
+        if (!response.success()) {
+            String errMsg = response.getErrMsg();
+            throw new ExternalStorageErrorException(errMsg);
+        }
+        return response.hasDdl();
     }
 
     @Override
@@ -52,6 +52,15 @@ public interface LogService {
      */
     LogReader createReader(int queueId, long offset, long timestamp) throws IOException;
 
+    /**
+     * Create a reader that reads undecoded records of a specific queue in bulk from certain offset.
+     * @param queueId
+     * @param offset
+     * @param maxPollRecords max records returned by each read
+     * @return
+     */
+    RawLogReader createRawReader(int queueId, long offset, int maxPollRecords) throws IOException;
+
     /**
      * Delete all data before certain offset in the queue.
      *
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A RawLogReader reads undecoded records of a queue in bulk, up to the end offset of the queue at
+ * the time it is created. Decoding is left to the caller, so it can be spread over many threads.
+ */
+public interface RawLogReader extends AutoCloseable {
+
+    /**
+     * Read the next chunk of records
+     * @return records in offset order, or null if the end offset is reached
+     */
+    List<ConsumerRecord<byte[], byte[]>> readNextRecords();
+
+    /**
+     * @return the offset at which this reader stops
+     */
+    long getEndOffset();
+
+    void close() throws IOException;
+}
@@ -20,6 +20,7 @@ import com.alibaba.graphscope.groot.common.exception.InternalException;
 import com.alibaba.graphscope.groot.wal.LogReader;
 import com.alibaba.graphscope.groot.wal.LogService;
 import com.alibaba.graphscope.groot.wal.LogWriter;
+import com.alibaba.graphscope.groot.wal.RawLogReader;
 
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.common.TopicPartition;
@@ -123,6 +124,12 @@ public class KafkaLogService implements LogService {
         return new KafkaLogReader(servers, getAdmin(), topic, queueId, offset, timestamp);
     }
 
+    @Override
+    public RawLogReader createRawReader(int queueId, long offset, int maxPollRecords)
+            throws IOException {
+        return new KafkaRawLogReader(servers, getAdmin(), topic, queueId, offset, maxPollRecords);
+    }
+
     @Override
     public void deleteBeforeOffset(int queueId, long offset) throws IOException {
         AdminClient admin = getAdmin();
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal.kafka;
+
+import com.alibaba.graphscope.groot.common.exception.InternalException;
+import com.alibaba.graphscope.groot.common.exception.InvalidArgumentException;
+import com.alibaba.graphscope.groot.wal.RawLogReader;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.*;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+public class KafkaRawLogReader implements RawLogReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaRawLogReader.class);
+
+    private final Consumer<byte[], byte[]> consumer;
+    private final TopicPartition partition;
+    private final long latest;
+    private long nextReadOffset;
+
+    public KafkaRawLogReader(
+            String servers,
+            AdminClient client,
+            String topicName,
+            int partitionId,
+            long offset,
+            int maxPollRecords) {
+        Map<String, Object> kafkaConfigs = new HashMap<>();
+        kafkaConfigs.put("bootstrap.servers", servers);
+        // Fetch as much as possible in each round trip
+        kafkaConfigs.put("max.poll.records", maxPollRecords);
+        kafkaConfigs.put("fetch.min.bytes", 1024 * 1024);
+        kafkaConfigs.put("fetch.max.wait.ms", 100);
+        kafkaConfigs.put("max.partition.fetch.bytes", 64 * 1024 * 1024);
+        kafkaConfigs.put("fetch.max.bytes", 64 * 1024 * 1024);
+
+        this.partition = new TopicPartition(topicName, partitionId);
+        long earliest = getOffset(client, partition, OffsetSpec.earliest());
+        this.latest = getOffset(client, partition, OffsetSpec.latest());
+        if (earliest > offset || offset > latest) {
+            throw new InvalidArgumentException(
+                    "invalid offset " + offset + ", hint: [" + earliest + ", " + latest + ")");
+        }
+        ByteArrayDeserializer deSer = new ByteArrayDeserializer();
+        this.consumer = new KafkaConsumer<>(kafkaConfigs, deSer, deSer);
+        this.consumer.assign(List.of(partition));
+        this.consumer.seek(partition, offset);
+        this.nextReadOffset = offset;
+        logger.info(
+                "raw reader created with offset [{}], offset range is [{}] ~ [{}]",
+                offset,
+                earliest,
+                latest);
+    }
+
+    private long getOffset(AdminClient client, TopicPartition partition, OffsetSpec spec) {
+        try {
+            return client.listOffsets(Collections.singletonMap(partition, spec))
+                    .partitionResult(partition)
+                    .get()
+                    .offset();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    @Override
+    public List<ConsumerRecord<byte[], byte[]>> readNextRecords() {
+        while (nextReadOffset < latest) {
+            ConsumerRecords<byte[], byte[]> consumerRecords =
+                    consumer.poll(Duration.ofMillis(100L));
+            if (consumerRecords == null || consumerRecords.isEmpty()) {
+                logger.info("polled nothing from Kafka. nextReadOffset is [{}]", nextReadOffset);
+                continue;
+            }
+            List<ConsumerRecord<byte[], byte[]>> records = consumerRecords.records(partition);
+            List<ConsumerRecord<byte[], byte[]>> result = new ArrayList<>(records.size());
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                if (record.offset() >= latest) {
+                    break;
+                }
+                result.add(record);
+            }
+            if (!records.isEmpty()) {
+                nextReadOffset = records.get(records.size() - 1).offset() + 1;
+            }
+            return result;
+        }
+        return null;
+    }
+
+    @Override
+    public long getEndOffset() {
+        return latest;
+    }
+
+    @Override
+    public void close() throws IOException {
+        consumer.close();
+    }
+}
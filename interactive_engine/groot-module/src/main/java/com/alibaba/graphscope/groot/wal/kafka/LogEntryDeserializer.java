@@ -18,10 +18,11 @@ package com.alibaba.graphscope.groot.wal.kafka;
 import com.alibaba.graphscope.groot.common.exception.InternalException;
 import com.alibaba.graphscope.groot.wal.LogEntry;
 import com.alibaba.graphscope.proto.groot.LogEntryPb;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
 
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.io.IOException;
 import java.util.Map;
 
 public class LogEntryDeserializer implements Deserializer<LogEntry> {
@@ -33,9 +34,13 @@ public class LogEntryDeserializer implements Deserializer<LogEntry> {
         if (data == null) {
             return null;
         }
+        // Kafka hands over a fresh array for every record, so the operation payloads can
+        // alias it directly instead of being copied into new ByteStrings.
+        CodedInputStream input = CodedInputStream.newInstance(data);
+        input.enableAliasing(true);
         try {
-            return LogEntry.parseProto(LogEntryPb.parseFrom(data));
-        } catch (InvalidProtocolBufferException e) {
+            return LogEntry.parseProto(LogEntryPb.parseFrom(input));
+        } catch (IOException e) {
             throw new InternalException(e);
         }
     }
@@ -136,7 +136,7 @@ public class Coordinator extends NodeBase {
                         this.channelManager, RoleType.STORE, CoordinatorSnapshotClient::new);
         this.garbageCollectManager = new GarbageCollectManager(configs, coordinatorSnapshotClients);
         CoordinatorSnapshotService coordinatorSnapshotService =
-                new CoordinatorSnapshotService(garbageCollectManager);
+                new CoordinatorSnapshotService(garbageCollectManager, this.snapshotManager);
         this.rpcServer =
                 new RpcServer(
                         configs,
@@ -17,6 +17,7 @@ import com.alibaba.graphscope.groot.CuratorUtils;
 import com.alibaba.graphscope.groot.common.RoleType;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.CoordinatorConfig;
 import com.alibaba.graphscope.groot.common.config.FrontendConfig;
 import com.alibaba.graphscope.groot.common.exception.InternalException;
 import com.alibaba.graphscope.groot.common.util.RpcUtils;
@@ -83,6 +84,17 @@ public class Frontend extends NodeBase {
         this.channelManager = new ChannelManager(configs, nameResolverFactory);
 
         snapshotCache = new SnapshotCache();
+        if (CoordinatorConfig.SNAPSHOT_INCREASE_ADAPTIVE_ENABLED.get(configs)) {
+            RoleClients<SnapshotUpdateClient> snapshotUpdateClients =
+                    new RoleClients<>(
+                            this.channelManager, RoleType.COORDINATOR, SnapshotUpdateClient::new);
+            int frontendId = CommonConfig.NODE_IDX.get(configs);
+            snapshotCache.setSnapshotRequester(
+                    snapshotId ->
+                            snapshotUpdateClients
+                                    .getClient(0)
+                                    .requestSnapshot(frontendId, snapshotId));
+        }
 
         RoleClients<FrontendStoreClient> frontendStoreClients =
                 new RoleClients<>(this.channelManager, RoleType.STORE, FrontendStoreClient::new);
@@ -55,4 +55,20 @@ public class GrootIrMetaReader implements IrMetaReader {
     public boolean syncStatsEnabled(GraphId graphId) {
         return schemaFetcher.statisticsEnabled();
     }
+
+    @Override
+    public boolean subscribe(ChangeListener listener) {
+        return schemaFetcher.addListener(
+                new SchemaFetcher.Listener() {
+                    @Override
+                    public void onSchemaChanged(GraphSchema schema) {
+                        listener.onSchemaChanged();
+                    }
+
+                    @Override
+                    public void onStatisticsChanged(GraphStatistics statistics) {
+                        listener.onStatsChanged(statistics);
+                    }
+                });
+    }
 }
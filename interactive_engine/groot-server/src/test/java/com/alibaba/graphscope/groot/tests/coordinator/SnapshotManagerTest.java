@@ -122,4 +122,90 @@ public class SnapshotManagerTest {
 
         snapshotManager.stop();
     }
+
+    @Test
+    void testWriteSnapshotIdLease() throws IOException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(CoordinatorConfig.SNAPSHOT_INCREASE_INTERVAL_MS.getKey(), "100000")
+                        .put(CoordinatorConfig.SNAPSHOT_ID_LEASE_SIZE.getKey(), "4")
+                        .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        MetaStore mockMetaStore = mock(MetaStore.class);
+        when(mockMetaStore.exists(anyString())).thenReturn(true);
+        when(mockMetaStore.read(QUERY_SNAPSHOT_INFO_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(new SnapshotInfo(10L, 10L)));
+        when(mockMetaStore.read(WRITE_SNAPSHOT_ID_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(12L));
+        when(mockMetaStore.read(QUEUE_OFFSETS_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(Arrays.asList(50L)));
+
+        SnapshotManager snapshotManager =
+                new SnapshotManager(
+                        configs, mockMetaStore, mock(IngestorWriteSnapshotIdNotifier.class));
+        snapshotManager.start();
+        // with the increase scheduled on start, 13 ~ 16 are allocated from one lease
+        for (int i = 0; i < 3; i++) {
+            snapshotManager.increaseWriteSnapshotId();
+        }
+        assertTrue(snapshotManager.getCurrentWriteSnapshotId() <= 16L);
+        verify(mockMetaStore, times(1)).write(eq(WRITE_SNAPSHOT_ID_PATH), any());
+        verify(mockMetaStore).write(WRITE_SNAPSHOT_ID_PATH, objectMapper.writeValueAsBytes(16L));
+        snapshotManager.stop();
+    }
+
+    private static void awaitWriteSnapshotId(SnapshotManager snapshotManager, long snapshotId)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (snapshotManager.getCurrentWriteSnapshotId() < snapshotId) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    void testAdaptiveIncrease() throws IOException, InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(CoordinatorConfig.SNAPSHOT_INCREASE_ADAPTIVE_ENABLED.getKey(), "true")
+                        .put(CoordinatorConfig.SNAPSHOT_INCREASE_INTERVAL_MS.getKey(), "100")
+                        .put(CoordinatorConfig.SNAPSHOT_INCREASE_MIN_INTERVAL_MS.getKey(), "5")
+                        .put(CoordinatorConfig.SNAPSHOT_INCREASE_MAX_INTERVAL_MS.getKey(), "400")
+                        .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        MetaStore mockMetaStore = mock(MetaStore.class);
+        when(mockMetaStore.exists(anyString())).thenReturn(true);
+        when(mockMetaStore.read(QUERY_SNAPSHOT_INFO_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(new SnapshotInfo(10L, 10L)));
+        when(mockMetaStore.read(WRITE_SNAPSHOT_ID_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(12L));
+        when(mockMetaStore.read(QUEUE_OFFSETS_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(Arrays.asList(50L)));
+        List<Long> offsets = Arrays.asList(60L);
+
+        SnapshotManager snapshotManager =
+                new SnapshotManager(
+                        configs, mockMetaStore, mock(IngestorWriteSnapshotIdNotifier.class));
+        snapshotManager.start();
+        // snapshot 11 is sealed but not committed, so the interval backs off while increasing
+        awaitWriteSnapshotId(snapshotManager, 13L);
+        assertEquals(200L, snapshotManager.getAdaptiveIntervalMs());
+        awaitWriteSnapshotId(snapshotManager, 14L);
+        assertEquals(400L, snapshotManager.getAdaptiveIntervalMs());
+
+        // a requested snapshot is sealed right away once the store catches up
+        snapshotManager.commitSnapshotId(0, 13L, 10L, offsets);
+        long requestMs = System.currentTimeMillis();
+        snapshotManager.requestSnapshot(14L);
+        awaitWriteSnapshotId(snapshotManager, 15L);
+        assertTrue(System.currentTimeMillis() - requestMs < 400L);
+
+        // the interval is reset once the store catches up
+        snapshotManager.commitSnapshotId(0, 14L, 10L, offsets);
+        awaitWriteSnapshotId(snapshotManager, 16L);
+        assertEquals(100L, snapshotManager.getAdaptiveIntervalMs());
+        snapshotManager.stop();
+    }
 }
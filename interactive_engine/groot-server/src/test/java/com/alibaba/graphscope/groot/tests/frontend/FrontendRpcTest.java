@@ -15,9 +15,12 @@ package com.alibaba.graphscope.groot.tests.frontend;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.common.ir.meta.reader.IrMetaReader;
 import com.alibaba.graphscope.groot.SnapshotWithSchema;
+import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.common.schema.wrapper.GraphDef;
 import com.alibaba.graphscope.groot.common.util.BackupInfo;
 import com.alibaba.graphscope.groot.frontend.*;
@@ -25,6 +28,7 @@ import com.alibaba.graphscope.groot.frontend.FrontendSnapshotService;
 import com.alibaba.graphscope.groot.frontend.SnapshotCache;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
 import com.alibaba.graphscope.groot.schema.request.DdlRequestBatch;
+import com.alibaba.graphscope.groot.servers.ir.GrootIrMetaReader;
 import com.alibaba.graphscope.proto.groot.*;
 
 import io.grpc.stub.StreamObserver;
@@ -61,6 +65,43 @@ public class FrontendRpcTest {
         verify(streamObserver).onCompleted();
     }
 
+    // statistics differing only in the snapshot id are not pushed to the compiler again
+    @Test
+    void testSyncStatistics() {
+        SnapshotCache snapshotCache = new SnapshotCache();
+        FrontendSnapshotService frontendSnapshotService =
+                new FrontendSnapshotService(snapshotCache);
+        GrootIrMetaReader reader =
+                new GrootIrMetaReader(
+                        new WrappedSchemaFetcher(
+                                snapshotCache, null, Configs.newBuilder().build()));
+        IrMetaReader.ChangeListener listener = mock(IrMetaReader.ChangeListener.class);
+        assertTrue(reader.subscribe(listener));
+
+        Statistics statistics =
+                Statistics.newBuilder().setSnapshotId(1L).setNumVertices(10).setNumEdges(5).build();
+        StreamObserver<SyncStatisticsResponse> streamObserver = mock(StreamObserver.class);
+        frontendSnapshotService.syncStatistics(
+                SyncStatisticsRequest.newBuilder().setStatistics(statistics).build(),
+                streamObserver);
+        verify(listener, times(1)).onStatsChanged(any());
+        assertEquals(10L, snapshotCache.getGraphStatistics().getVertexCount());
+
+        Statistics sameCounts = statistics.toBuilder().setSnapshotId(2L).build();
+        frontendSnapshotService.syncStatistics(
+                SyncStatisticsRequest.newBuilder().setStatistics(sameCounts).build(),
+                streamObserver);
+        verify(listener, times(1)).onStatsChanged(any());
+
+        Statistics newCounts = sameCounts.toBuilder().setNumVertices(11).build();
+        frontendSnapshotService.syncStatistics(
+                SyncStatisticsRequest.newBuilder().setStatistics(newCounts).build(),
+                streamObserver);
+        verify(listener, times(2)).onStatsChanged(any());
+        assertEquals(11L, snapshotCache.getGraphStatistics().getVertexCount());
+        verify(streamObserver, times(3)).onCompleted();
+    }
+
     @Test
     void testSchemaClient() {
         SchemaGrpc.SchemaBlockingStub stub = mock(SchemaGrpc.SchemaBlockingStub.class);
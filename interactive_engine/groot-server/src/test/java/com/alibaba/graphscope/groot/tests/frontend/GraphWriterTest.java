@@ -0,0 +1,68 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.frontend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.frontend.SnapshotCache;
+import com.alibaba.graphscope.groot.frontend.write.EdgeIdGenerator;
+import com.alibaba.graphscope.groot.frontend.write.GraphWriter;
+import com.alibaba.graphscope.groot.frontend.write.KafkaAppender;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class GraphWriterTest {
+
+    private GraphWriter newWriter(SnapshotCache snapshotCache) {
+        return new GraphWriter(
+                snapshotCache,
+                mock(EdgeIdGenerator.class),
+                mock(KafkaAppender.class),
+                Configs.newBuilder().build());
+    }
+
+    @Test
+    void testFlushSnapshotAsync() throws Exception {
+        SnapshotCache snapshotCache = new SnapshotCache();
+        snapshotCache.advanceQuerySnapshotId(5L, null);
+        GraphWriter writer = newWriter(snapshotCache);
+        assertTrue(writer.flushSnapshotAsync(5L, 60000L).get());
+
+        CompletableFuture<Boolean> available = writer.flushSnapshotAsync(6L, 60000L);
+        CompletableFuture<Boolean> timeout = writer.flushSnapshotAsync(7L, 10L);
+        assertFalse(timeout.get(10, TimeUnit.SECONDS));
+        snapshotCache.advanceQuerySnapshotId(6L, null);
+        assertTrue(available.get(10, TimeUnit.SECONDS));
+        writer.stop();
+    }
+
+    @Test
+    void testStopWithPendingFlush() throws Exception {
+        SnapshotCache snapshotCache = new SnapshotCache();
+        GraphWriter writer = newWriter(snapshotCache);
+        CompletableFuture<Boolean> pending = writer.flushSnapshotAsync(6L, 60000L);
+        assertFalse(pending.isDone());
+
+        // pending flushes are answered at once, instead of hanging with the stopped timer
+        writer.stop();
+        assertFalse(pending.get(10, TimeUnit.SECONDS));
+        assertFalse(writer.flushSnapshotAsync(7L, 60000L).get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.frontend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.common.config.CommonConfig;
+import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.FrontendConfig;
+import com.alibaba.graphscope.groot.frontend.write.IngestCallback;
+import com.alibaba.graphscope.groot.frontend.write.KafkaAppender;
+import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.LogService;
+import com.alibaba.graphscope.groot.wal.LogWriter;
+import com.google.protobuf.ByteString;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class KafkaAppenderTest {
+    private static final int STORE_COUNT = 2;
+    // the marker of advancing the snapshot and 3 requests of 1 operation each
+    private static final int GROUP_OPERATIONS = 4;
+
+    // batches appended to each store
+    private final Map<Integer, LogEntry> appends = new ConcurrentHashMap<>();
+    private volatile int failingStore = -1;
+    private KafkaAppender appender;
+
+    private void startAppender() throws IOException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), String.valueOf(STORE_COUNT))
+                        .put(FrontendConfig.WRITE_GROUP_COMMIT_ENABLED.getKey(), "true")
+                        .put(
+                                FrontendConfig.WRITE_GROUP_COMMIT_MAX_OPERATIONS.getKey(),
+                                String.valueOf(GROUP_OPERATIONS))
+                        // groups are closed by the operation limit only
+                        .put(FrontendConfig.WRITE_GROUP_COMMIT_LINGER_US.getKey(), "60000000")
+                        .build();
+        MetaService metaService = mock(MetaService.class);
+        when(metaService.getPartitionCount()).thenReturn(STORE_COUNT);
+        when(metaService.getStoreIdByPartition(anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        LogWriter logWriter = mock(LogWriter.class);
+        when(logWriter.appendAsync(anyInt(), any(LogEntry.class)))
+                .thenAnswer(
+                        invocation -> {
+                            int storeId = invocation.getArgument(0);
+                            appends.put(storeId, invocation.getArgument(1));
+                            CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+                            if (storeId == failingStore) {
+                                future.completeExceptionally(new IOException("append failed"));
+                            } else {
+                                future.complete(null);
+                            }
+                            return future;
+                        });
+        LogService logService = mock(LogService.class);
+        when(logService.createWriter()).thenReturn(logWriter);
+        appender = new KafkaAppender(configs, metaService, logService);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (appender != null) {
+            appender.stop();
+        }
+    }
+
+    private void advanceSnapshot(long snapshotId) {
+        appender.advanceIngestSnapshotId(
+                snapshotId,
+                new CompletionCallback<Long>() {
+                    @Override
+                    public void onCompleted(Long res) {}
+
+                    @Override
+                    public void onError(Throwable t) {}
+                });
+    }
+
+    private static OperationBatch batch(String traceId, long latestSnapshotId, long... keys) {
+        OperationBatch.Builder builder = OperationBatch.newBuilder();
+        for (long key : keys) {
+            builder.addOperationBlob(
+                    new OperationBlob(
+                            key, OperationType.OVERWRITE_VERTEX, ByteString.copyFromUtf8("v")));
+        }
+        return builder.setTraceId(traceId).setLatestSnapshotId(latestSnapshotId).build();
+    }
+
+    private CompletableFuture<Long> ingest(OperationBatch batch) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        appender.ingestBatch(
+                batch.getTraceId(),
+                batch,
+                new IngestCallback() {
+                    @Override
+                    public void onSuccess(long snapshotId) {
+                        future.complete(snapshotId);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+        return future;
+    }
+
+    @Test
+    void testMergeGroup() throws Exception {
+        startAppender();
+        advanceSnapshot(1L);
+        // partition keys are mapped to the stores of the same id
+        CompletableFuture<Long> f1 = ingest(batch("t1", 0L, 0L));
+        CompletableFuture<Long> f2 = ingest(batch("t2", 0L, 1L));
+        CompletableFuture<Long> f3 = ingest(batch("t3", 0L, 2L));
+        assertEquals(1L, f1.get(10, TimeUnit.SECONDS));
+        assertEquals(1L, f2.get(10, TimeUnit.SECONDS));
+        assertEquals(1L, f3.get(10, TimeUnit.SECONDS));
+
+        // one batch per store, with the marker replicated to all stores
+        assertEquals(STORE_COUNT, appends.size());
+        LogEntry entry0 = appends.get(0);
+        assertEquals(1L, entry0.getSnapshotId());
+        assertEquals(3, entry0.getOperationBatch().getOperationCount());
+        assertEquals(
+                OperationType.MARKER,
+                entry0.getOperationBatch().getOperationBlob(0).getOperationType());
+        // the trace ids of all requests merged into the batch are kept
+        assertEquals("t1,t3", entry0.getOperationBatch().getTraceId());
+        LogEntry entry1 = appends.get(1);
+        assertEquals(2, entry1.getOperationBatch().getOperationCount());
+        assertEquals("t2", entry1.getOperationBatch().getTraceId());
+    }
+
+    @Test
+    void testGroupFailure() throws Exception {
+        startAppender();
+        failingStore = 1;
+        advanceSnapshot(5L);
+        CompletableFuture<Long> f1 = ingest(batch("t1", 0L, 0L));
+        CompletableFuture<Long> f2 = ingest(batch("t2", 0L, 1L));
+        // rejected on its own, as it has seen a later snapshot than the one of the group
+        CompletableFuture<Long> stale = ingest(batch("t3", 3L, 0L));
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> stale.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getMessage().contains("latestSnapshotId [3]"));
+        // the group is acknowledged as a whole, so a failed append fails all its requests
+        for (CompletableFuture<Long> future : Arrays.asList(f1, f2)) {
+            e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            Throwable cause = e.getCause();
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals("append failed", cause.getMessage());
+        }
+        // the stale request is not appended
+        assertEquals("t1", appends.get(0).getOperationBatch().getTraceId());
+    }
+}
@@ -14,6 +14,9 @@
 package com.alibaba.graphscope.groot.tests.frontend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 import com.alibaba.graphscope.groot.SnapshotListener;
@@ -22,6 +25,11 @@ import com.alibaba.graphscope.groot.frontend.SnapshotCache;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class SnapshotCacheTest {
 
     @Test
@@ -44,4 +52,39 @@ public class SnapshotCacheTest {
         verify(listener1, times(1)).onSnapshotAvailable();
         verify(listener2, times(1)).onSnapshotAvailable();
     }
+
+    @Test
+    void testWaitForSnapshot() {
+        SnapshotCache snapshotCache = new SnapshotCache();
+        snapshotCache.advanceQuerySnapshotId(5L, null);
+        assertTrue(snapshotCache.waitForSnapshot(5L).isDone());
+
+        // a waiter completing its own future doesn't affect the others of the same snapshot
+        CompletableFuture<Void> future6 = snapshotCache.waitForSnapshot(6L);
+        CompletableFuture<Void> cancelled6 = snapshotCache.waitForSnapshot(6L);
+        assertNotSame(future6, cancelled6);
+        cancelled6.cancel(false);
+        CompletableFuture<Void> future8 = snapshotCache.waitForSnapshot(8L);
+        assertFalse(future6.isDone());
+
+        snapshotCache.advanceQuerySnapshotId(7L, null);
+        assertTrue(future6.isDone());
+        assertFalse(future8.isDone());
+        snapshotCache.advanceQuerySnapshotId(8L, null);
+        assertTrue(future8.isDone());
+    }
+
+    @Test
+    void testSnapshotRequester() {
+        SnapshotCache snapshotCache = new SnapshotCache();
+        List<Long> requested = new ArrayList<>();
+        snapshotCache.setSnapshotRequester(requested::add);
+        snapshotCache.advanceQuerySnapshotId(5L, null);
+        snapshotCache.waitForSnapshot(5L);
+        snapshotCache.waitForSnapshot(6L);
+        snapshotCache.waitForSnapshot(6L);
+        snapshotCache.waitForSnapshot(7L);
+        // available snapshots are not requested, and each snapshot is requested once
+        assertEquals(Arrays.asList(6L, 7L), requested);
+    }
 }
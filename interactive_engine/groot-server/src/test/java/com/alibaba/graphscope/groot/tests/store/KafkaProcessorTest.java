@@ -0,0 +1,200 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.common.config.CommonConfig;
+import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.StoreConfig;
+import com.alibaba.graphscope.groot.meta.FileMetaStore;
+import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.groot.store.KafkaProcessor;
+import com.alibaba.graphscope.groot.store.WriterAgent;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.LogReader;
+import com.alibaba.graphscope.groot.wal.LogService;
+import com.alibaba.graphscope.groot.wal.RawLogReader;
+import com.alibaba.graphscope.groot.wal.kafka.LogEntrySerializer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class KafkaProcessorTest {
+    private static final int PARTITION_COUNT = 4;
+    private static final long REPLAY_FROM = 10L;
+    private static final int RECORD_COUNT = 100;
+    private static final int FETCH_RECORDS = 7;
+
+    /** Serves the records of a queue in chunks, as a bulk fetch does. */
+    private static class ChunkedRawLogReader implements RawLogReader {
+        private final List<ConsumerRecord<byte[], byte[]>> records;
+        private int pos = 0;
+
+        ChunkedRawLogReader(List<ConsumerRecord<byte[], byte[]>> records) {
+            this.records = records;
+        }
+
+        @Override
+        public List<ConsumerRecord<byte[], byte[]>> readNextRecords() {
+            if (pos >= records.size()) {
+                return null;
+            }
+            int end = Math.min(pos + FETCH_RECORDS, records.size());
+            List<ConsumerRecord<byte[], byte[]>> chunk = records.subList(pos, end);
+            pos = end;
+            return chunk;
+        }
+
+        @Override
+        public long getEndOffset() {
+            return REPLAY_FROM + records.size();
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static OperationBlob operation(long partitionKey, long offset) {
+        return new OperationBlob(
+                partitionKey,
+                OperationType.OVERWRITE_VERTEX,
+                ByteString.copyFromUtf8(String.valueOf(offset)));
+    }
+
+    /** Every record writes to two partitions, so each partition gets the records of many chunks. */
+    private static List<ConsumerRecord<byte[], byte[]>> prepareRecords() {
+        LogEntrySerializer serializer = new LogEntrySerializer();
+        List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+        for (long offset = REPLAY_FROM; offset < REPLAY_FROM + RECORD_COUNT; ++offset) {
+            OperationBatch batch =
+                    OperationBatch.newBuilder()
+                            .addOperationBlob(operation(offset, offset))
+                            .addOperationBlob(operation(offset + 1, offset))
+                            .build();
+            byte[] value = serializer.serialize("wal", new LogEntry(offset / 10, batch));
+            records.add(new ConsumerRecord<>("wal", 0, offset, null, value));
+        }
+        return records;
+    }
+
+    @Test
+    void testParallelReplay() throws Exception {
+        String dataPath = Files.createTempDirectory("kafka_processor_test").toString();
+        ObjectMapper objectMapper = new ObjectMapper();
+        FileMetaStore metaStore = new FileMetaStore(dataPath + "/meta");
+        metaStore.write(
+                KafkaProcessor.QUEUE_OFFSETS_PATH,
+                objectMapper.writeValueAsBytes(Collections.singletonList(REPLAY_FROM - 1)));
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_DATA_PATH.getKey(), dataPath)
+                        .put(StoreConfig.STORE_WAL_REPLAY_PARALLELISM.getKey(), "4")
+                        .put(
+                                StoreConfig.STORE_WAL_REPLAY_FETCH_RECORDS.getKey(),
+                                String.valueOf(FETCH_RECORDS))
+                        .build();
+
+        MetaService metaService = mock(MetaService.class);
+        when(metaService.getPartitionCount()).thenReturn(PARTITION_COUNT);
+        when(metaService.getStoreIdByPartition(anyInt())).thenReturn(0);
+
+        LogReader logReader = mock(LogReader.class);
+        when(logReader.getLatestUpdates())
+                .thenAnswer(
+                        invocation -> {
+                            Thread.sleep(10L);
+                            return ConsumerRecords.empty();
+                        });
+        LogService logService = mock(LogService.class);
+        when(logService.createReader(anyInt(), anyLong())).thenReturn(logReader);
+        when(logService.createRawReader(eq(0), eq(REPLAY_FROM), eq(FETCH_RECORDS)))
+                .thenReturn(new ChunkedRawLogReader(prepareRecords()));
+
+        List<StoreDataBatch> written = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong consumedOffset = new AtomicLong(-1L);
+        WriterAgent writerAgent = mock(WriterAgent.class);
+        when(writerAgent.writeStore(any()))
+                .thenAnswer(
+                        invocation -> {
+                            StoreDataBatch batch = invocation.getArgument(0);
+                            written.add(batch);
+                            consumedOffset.set(batch.getOffset());
+                            return true;
+                        });
+        when(writerAgent.getConsumedQueueOffsets())
+                .thenAnswer(invocation -> Collections.singletonList(consumedOffset.get()));
+
+        KafkaProcessor processor =
+                new KafkaProcessor(configs, metaService, writerAgent, logService);
+        processor.start();
+        verify(writerAgent, timeout(10000L).times(RECORD_COUNT)).writeStore(any());
+        processor.stop();
+
+        // records are written in offset order, and so are the operations of every partition
+        Map<Integer, List<Long>> partitionToOffsets = new HashMap<>();
+        for (int i = 0; i < RECORD_COUNT; ++i) {
+            StoreDataBatch batch = written.get(i);
+            assertEquals(REPLAY_FROM + i, batch.getOffset());
+            assertEquals((REPLAY_FROM + i) / 10, batch.getSnapshotId());
+            for (Map<Integer, OperationBatch> partitionBatches : batch.getDataBatch()) {
+                partitionBatches.forEach(
+                        (partitionId, operationBatch) -> {
+                            for (OperationBlob blob : operationBatch) {
+                                String offset = blob.toProto().getDataBytes().toStringUtf8();
+                                partitionToOffsets
+                                        .computeIfAbsent(partitionId, k -> new ArrayList<>())
+                                        .add(Long.valueOf(offset));
+                            }
+                        });
+            }
+        }
+        assertEquals(PARTITION_COUNT, partitionToOffsets.size());
+        for (int partitionId = 0; partitionId < PARTITION_COUNT; ++partitionId) {
+            List<Long> expected = new ArrayList<>();
+            for (long offset = REPLAY_FROM; offset < REPLAY_FROM + RECORD_COUNT; ++offset) {
+                if (offset % PARTITION_COUNT == partitionId
+                        || (offset + 1) % PARTITION_COUNT == partitionId) {
+                    expected.add(offset);
+                }
+            }
+            assertEquals(expected, partitionToOffsets.get(partitionId));
+        }
+
+        // the offset of the last replayed record is persisted on stop
+        List<Long> offsets =
+                objectMapper.readValue(
+                        metaStore.read(KafkaProcessor.QUEUE_OFFSETS_PATH),
+                        new TypeReference<List<Long>>() {});
+        assertEquals(Collections.singletonList(REPLAY_FROM + RECORD_COUNT - 1), offsets);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.common.schema.wrapper.EdgeKind;
+import com.alibaba.graphscope.groot.common.schema.wrapper.LabelId;
+import com.alibaba.graphscope.groot.operation.EdgeId;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.VertexId;
+import com.alibaba.graphscope.groot.operation.ddl.DropVertexTypeOperation;
+import com.alibaba.graphscope.groot.operation.dml.DeleteVertexOperation;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteEdgeOperation;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
+import com.alibaba.graphscope.groot.store.PartitionStatistics;
+import com.alibaba.graphscope.proto.groot.Statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class PartitionStatisticsTest {
+
+    @Test
+    void testApplyBatch() {
+        LabelId person = new LabelId(1);
+        EdgeKind knows =
+                EdgeKind.newBuilder()
+                        .setEdgeLabelId(new LabelId(2))
+                        .setSrcVertexLabelId(person)
+                        .setDstVertexLabelId(person)
+                        .build();
+        PartitionStatistics statistics = new PartitionStatistics(0);
+        Statistics scanned =
+                Statistics.newBuilder()
+                        .setNumVertices(10)
+                        .setNumEdges(5)
+                        .addVertexTypeStatistics(
+                                Statistics.VertexTypeStatistics.newBuilder()
+                                        .setLabelId(person.toProto())
+                                        .setNumVertices(10))
+                        .addEdgeTypeStatistics(
+                                Statistics.EdgeTypeStatistics.newBuilder()
+                                        .setEdgeKind(knows.toOperationProto())
+                                        .setNumEdges(5))
+                        .build();
+        assertTrue(statistics.seed(scanned, 0L, statistics.getEpoch()));
+
+        EdgeId edgeId = new EdgeId(new VertexId(1L), new VertexId(2L), 3L);
+        OperationBatch batch =
+                OperationBatch.newBuilder()
+                        .addOperation(
+                                new OverwriteVertexOperation(
+                                        new VertexId(11L), person, Collections.emptyMap()))
+                        .addOperation(
+                                new OverwriteVertexOperation(
+                                        new VertexId(12L), person, Collections.emptyMap()))
+                        .addOperation(new DeleteVertexOperation(new VertexId(1L), person))
+                        .addOperation(
+                                new OverwriteEdgeOperation(
+                                        edgeId, knows, Collections.emptyMap(), true))
+                        .addOperation(
+                                new OverwriteEdgeOperation(
+                                        edgeId, knows, Collections.emptyMap(), false))
+                        .build();
+        statistics.apply(1L, batch);
+        Statistics result = statistics.toStatistics(1L);
+        assertEquals(11, result.getNumVertices());
+        assertEquals(11, result.getVertexTypeStatistics(0).getNumVertices());
+        assertEquals(6, result.getNumEdges());
+        assertEquals(knows.toOperationProto(), result.getEdgeTypeStatistics(0).getEdgeKind());
+
+        // ddl drops the counts, and a scan started before that can not seed them
+        long epoch = statistics.getEpoch();
+        statistics.apply(
+                2L,
+                OperationBatch.newBuilder()
+                        .addOperation(new DropVertexTypeOperation(0, 2L, person))
+                        .build());
+        assertFalse(statistics.isSeeded());
+        assertFalse(statistics.seed(scanned, 2L, epoch));
+        assertTrue(statistics.seed(scanned, 2L, statistics.getEpoch()));
+        assertEquals(10, statistics.toStatistics(2L).getNumVertices());
+    }
+
+    private static OperationBatch addVertices(LabelId label, long firstId, int count) {
+        OperationBatch.Builder builder = OperationBatch.newBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.addOperation(
+                    new OverwriteVertexOperation(
+                            new VertexId(firstId + i), label, Collections.emptyMap()));
+        }
+        return builder.build();
+    }
+
+    private static Statistics scanned(LabelId label, long numVertices) {
+        return Statistics.newBuilder()
+                .setNumVertices(numVertices)
+                .addVertexTypeStatistics(
+                        Statistics.VertexTypeStatistics.newBuilder()
+                                .setLabelId(label.toProto())
+                                .setNumVertices(numVertices))
+                .build();
+    }
+
+    @Test
+    void testWriteDuringScan() {
+        LabelId person = new LabelId(1);
+        PartitionStatistics statistics = new PartitionStatistics(0);
+        long epoch = statistics.getEpoch();
+        // written before the scan of snapshot 5 is done, the first one is seen by the scan
+        statistics.apply(5L, addVertices(person, 0L, 2));
+        statistics.apply(6L, addVertices(person, 2L, 3));
+        assertTrue(statistics.seed(scanned(person, 2), 5L, epoch));
+        assertEquals(5, statistics.toStatistics(6L).getNumVertices());
+        statistics.apply(7L, addVertices(person, 5L, 1));
+        assertEquals(6, statistics.toStatistics(7L).getNumVertices());
+
+        // a refresh scan of snapshot 6 does not count the batches of snapshot 6 again
+        assertTrue(statistics.seed(scanned(person, 5), 6L, statistics.getEpoch()));
+        assertEquals(6, statistics.toStatistics(7L).getNumVertices());
+    }
+
+    @Test
+    void testConcurrentWriteAndSeed() throws InterruptedException {
+        LabelId person = new LabelId(1);
+        PartitionStatistics statistics = new PartitionStatistics(0);
+        int batchCount = 1000;
+        Thread writer =
+                new Thread(
+                        () -> {
+                            for (int i = 1; i <= batchCount; i++) {
+                                statistics.apply(i, addVertices(person, i, 1));
+                            }
+                        });
+        writer.start();
+        // the scan of snapshot 0 sees none of the batches, wherever it is seeded
+        assertTrue(statistics.seed(scanned(person, 0), 0L, statistics.getEpoch()));
+        writer.join();
+        assertEquals(batchCount, statistics.toStatistics(batchCount).getNumVertices());
+    }
+}
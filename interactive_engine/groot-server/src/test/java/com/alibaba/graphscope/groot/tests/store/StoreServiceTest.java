@@ -13,8 +13,10 @@
  */
 package com.alibaba.graphscope.groot.tests.store;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
 import com.alibaba.graphscope.groot.meta.MetaService;
@@ -25,10 +27,13 @@ import com.alibaba.graphscope.groot.store.GraphPartition;
 import com.alibaba.graphscope.groot.store.StoreService;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class StoreServiceTest {
 
@@ -61,4 +66,63 @@ public class StoreServiceTest {
         spyStoreService.stop();
         verify(mockGraphPartition).close();
     }
+
+    @Test
+    void testAsyncBatchWriteRetry() throws Exception {
+        Configs configs = Configs.newBuilder().put(CommonConfig.NODE_IDX.getKey(), "0").build();
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionsByStoreId(0)).thenReturn(Arrays.asList(0));
+
+        StoreService spyStoreService = spy(new StoreService(configs, mockMetaService));
+
+        GraphPartition mockGraphPartition = mock(GraphPartition.class);
+        doReturn(mockGraphPartition).when(spyStoreService).makeGraphPartition(any(), eq(0));
+        // more failures than the retries of the sync write
+        when(mockGraphPartition.writeBatch(eq(20L), any()))
+                .thenThrow(new IOException("write failed"))
+                .thenThrow(new IOException("write failed"))
+                .thenThrow(new IOException("write failed"))
+                .thenThrow(new IOException("write failed"))
+                .thenThrow(new IOException("write failed"))
+                .thenThrow(new IOException("write failed"))
+                .thenReturn(false);
+
+        spyStoreService.start();
+
+        CompletableFuture<Boolean> first = asyncBatchWrite(spyStoreService, 20L);
+        CompletableFuture<Boolean> second = asyncBatchWrite(spyStoreService, 21L);
+        assertFalse(first.get(10, TimeUnit.SECONDS));
+        assertFalse(second.get(10, TimeUnit.SECONDS));
+
+        // the failed batch is retried before the next batch of the partition is applied
+        InOrder inOrder = inOrder(mockGraphPartition);
+        inOrder.verify(mockGraphPartition, times(7)).writeBatch(eq(20L), any());
+        inOrder.verify(mockGraphPartition).writeBatch(eq(21L), any());
+        spyStoreService.stop();
+    }
+
+    private static CompletableFuture<Boolean> asyncBatchWrite(
+            StoreService storeService, long snapshotId) {
+        StoreDataBatch storeDataBatch =
+                StoreDataBatch.newBuilder()
+                        .snapshotId(snapshotId)
+                        .addOperation(0, OperationBlob.MARKER_OPERATION_BLOB)
+                        .build();
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        storeService.asyncBatchWrite(
+                storeDataBatch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        future.complete(hasDdl);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        return future;
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.tests.store;
+
+import com.alibaba.graphscope.groot.common.util.PartitionUtils;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.kafka.LogEntryDeserializer;
+import com.alibaba.graphscope.proto.groot.LogEntryPb;
+import com.alibaba.graphscope.proto.groot.OperationBatchPb;
+import com.alibaba.graphscope.proto.groot.OperationPb;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the store write path of a WAL record: the previous path, which rebuilds every
+ * operation proto and copies the batch into a heap array, against the current one, which
+ * aliases the record bytes and encodes straight into a direct buffer handed to JNA.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBatchBenchmark {
+    private static final int PARTITION_COUNT = 8;
+
+    @Param({"100", "1000"})
+    private int operationCount;
+
+    @Param({"64", "512"})
+    private int propertyBytes;
+
+    private byte[] walBytes;
+    private LogEntryDeserializer deserializer;
+    private ByteBuffer directBuffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        OperationBatch.Builder batchBuilder = OperationBatch.newBuilder();
+        for (int i = 0; i < operationCount; i++) {
+            byte[] data = new byte[propertyBytes];
+            random.nextBytes(data);
+            batchBuilder.addOperationBlob(
+                    new OperationBlob(
+                            random.nextLong(),
+                            OperationType.OVERWRITE_VERTEX,
+                            ByteString.copyFrom(data)));
+        }
+        walBytes = new LogEntry(1L, batchBuilder.build()).toProto().toByteArray();
+        deserializer = new LogEntryDeserializer();
+        directBuffer = ByteBuffer.allocateDirect(walBytes.length * 2);
+    }
+
+    @Benchmark
+    public void copyPath(Blackhole bh) throws IOException {
+        LogEntryPb logEntryPb = LogEntryPb.parseFrom(walBytes);
+        OperationBatchPb.Builder[] builders = new OperationBatchPb.Builder[PARTITION_COUNT];
+        for (OperationPb operationPb : logEntryPb.getOperations().getOperationsList()) {
+            int pid =
+                    PartitionUtils.getPartitionIdFromKey(
+                            operationPb.getPartitionKey(), PARTITION_COUNT);
+            if (builders[pid] == null) {
+                builders[pid] = OperationBatchPb.newBuilder();
+            }
+            builders[pid].addOperations(
+                    OperationPb.newBuilder()
+                            .setPartitionKey(operationPb.getPartitionKey())
+                            .setOpType(operationPb.getOpType())
+                            .setDataBytes(operationPb.getDataBytes())
+                            .build());
+        }
+        for (OperationBatchPb.Builder builder : builders) {
+            if (builder != null) {
+                bh.consume(builder.build().toByteArray());
+            }
+        }
+    }
+
+    @Benchmark
+    public void zeroCopyPath(Blackhole bh) throws IOException {
+        LogEntry logEntry = deserializer.deserialize("", walBytes);
+        StoreDataBatch.Builder builder = StoreDataBatch.newBuilder().snapshotId(1L);
+        for (OperationBlob blob : logEntry.getOperationBatch()) {
+            builder.addOperation(
+                    PartitionUtils.getPartitionIdFromKey(blob.getPartitionKey(), PARTITION_COUNT),
+                    blob);
+        }
+        for (Map<Integer, OperationBatch> partitionToBatch : builder.build().getDataBatch()) {
+            for (OperationBatch batch : partitionToBatch.values()) {
+                OperationBatchPb batchPb = batch.toProto();
+                directBuffer.clear();
+                CodedOutputStream output = CodedOutputStream.newInstance(directBuffer);
+                batchPb.writeTo(output);
+                output.flush();
+                bh.consume(directBuffer.flip());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder().include(WriteBatchBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
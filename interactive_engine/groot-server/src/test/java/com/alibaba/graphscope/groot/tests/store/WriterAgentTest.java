@@ -13,10 +13,13 @@
  */
 package com.alibaba.graphscope.groot.tests.store;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.common.config.CommonConfig;
 import com.alibaba.graphscope.groot.common.config.Configs;
+import com.alibaba.graphscope.groot.common.config.StoreConfig;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
@@ -57,4 +60,99 @@ public class WriterAgentTest {
 
         writerAgent.stop();
     }
+
+    @Test
+    void testPipelinedWriterAgent() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_WRITE_PIPELINE_ENABLED.getKey(), "true")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+        doAnswer(
+                        invocation -> {
+                            CompletionCallback<Boolean> callback = invocation.getArgument(1);
+                            callback.onCompleted(false);
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        SnapshotCommitClient mockCommitClient = mock(SnapshotCommitClient.class);
+        RoleClients<SnapshotCommitClient> mockSnapshotCommitter = mock(RoleClients.class);
+        when(mockSnapshotCommitter.getClient(0)).thenReturn(mockCommitClient);
+
+        WriterAgent writerAgent =
+                new WriterAgent(configs, mockStoreService, mockMetaService, mockSnapshotCommitter);
+
+        writerAgent.start();
+
+        StoreDataBatch storeDataBatch =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
+        writerAgent.writeStore(storeDataBatch);
+
+        verify(mockStoreService, timeout(5000L).times(1))
+                .asyncBatchWrite(eq(storeDataBatch), any());
+        verify(mockCommitClient, timeout(5000L).times(1))
+                .commitSnapshotId(0, 1L, 0L, Collections.singletonList(10L));
+
+        writerAgent.stop();
+    }
+
+    @Test
+    void testPipelinedWriterAgentFailedBatch() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_WRITE_PIPELINE_ENABLED.getKey(), "true")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+        doAnswer(
+                        invocation -> {
+                            StoreDataBatch batch = invocation.getArgument(0);
+                            CompletionCallback<Boolean> callback = invocation.getArgument(1);
+                            if (batch.getSnapshotId() == 3L) {
+                                callback.onError(new IllegalStateException("write failed"));
+                            } else {
+                                callback.onCompleted(false);
+                            }
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        SnapshotCommitClient mockCommitClient = mock(SnapshotCommitClient.class);
+        RoleClients<SnapshotCommitClient> mockSnapshotCommitter = mock(RoleClients.class);
+        when(mockSnapshotCommitter.getClient(0)).thenReturn(mockCommitClient);
+
+        WriterAgent writerAgent =
+                new WriterAgent(configs, mockStoreService, mockMetaService, mockSnapshotCommitter);
+
+        writerAgent.start();
+
+        for (long snapshotId = 2L; snapshotId <= 4L; ++snapshotId) {
+            writerAgent.writeStore(
+                    StoreDataBatch.newBuilder()
+                            .snapshotId(snapshotId)
+                            .queueId(0)
+                            .offset(snapshotId + 8L)
+                            .build());
+        }
+
+        verify(mockStoreService, timeout(5000L).times(3)).asyncBatchWrite(any(), any());
+        // snapshot 2 is committed, the failed snapshot 3 and everything after it are not
+        verify(mockCommitClient, timeout(5000L).times(1))
+                .commitSnapshotId(0, 2L, 0L, Collections.singletonList(10L));
+        verify(mockCommitClient, after(500L).never())
+                .commitSnapshotId(eq(0), longThat(si -> si >= 3L), anyLong(), any());
+        assertEquals(Collections.singletonList(10L), writerAgent.getConsumedQueueOffsets());
+
+        writerAgent.stop();
+    }
 }